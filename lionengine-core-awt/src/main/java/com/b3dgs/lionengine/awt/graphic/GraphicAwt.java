@@ -17,13 +17,17 @@
  */
 package com.b3dgs.lionengine.awt.graphic;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.GradientPaint;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.Viewer;
@@ -38,6 +42,24 @@ import com.b3dgs.lionengine.graphic.Transform;
  */
 final class GraphicAwt implements Graphic
 {
+    /** Composites by render alpha, shared to avoid allocation on alpha change. */
+    private static final AlphaComposite[] COMPOSITES = createComposites();
+
+    /**
+     * Create composites for each alpha value.
+     * 
+     * @return The composites, indexed by alpha.
+     */
+    private static AlphaComposite[] createComposites()
+    {
+        final AlphaComposite[] composites = new AlphaComposite[Constant.UNSIGNED_BYTE];
+        for (int alpha = 0; alpha < composites.length; alpha++)
+        {
+            composites[alpha] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255.0F);
+        }
+        return composites;
+    }
+
     /** The graphic output. */
     private Graphics2D g;
     /** Gradient paint. */
@@ -234,4 +256,24 @@ final class GraphicAwt implements Graphic
     {
         return new ColorRgba(g.getColor().getRGB());
     }
+
+    @Override
+    public void setAlpha(int alpha)
+    {
+        Check.superiorOrEqual(alpha, 0);
+        Check.inferiorOrEqual(alpha, 255);
+
+        g.setComposite(COMPOSITES[alpha]);
+    }
+
+    @Override
+    public int getAlpha()
+    {
+        final Composite composite = g.getComposite();
+        if (composite instanceof AlphaComposite)
+        {
+            return Math.round(((AlphaComposite) composite).getAlpha() * 255);
+        }
+        return 255;
+    }
 }
@@ -18,11 +18,15 @@
 package com.b3dgs.lionengine.awt.graphic;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.awt.image.BufferedImage;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicTest;
 import com.b3dgs.lionengine.graphic.Graphics;
 
@@ -51,4 +55,27 @@ public final class GraphicAwtTest extends GraphicTest
 
         assertEquals(UtilReflection.getField(g, "g"), g.getGraphic());
     }
+
+    /**
+     * Test render alpha.
+     */
+    @Test
+    public void testAlphaComposite()
+    {
+        final Graphic g = new GraphicAwt(new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB).createGraphics());
+
+        assertEquals(255, g.getAlpha());
+
+        for (int alpha = 0; alpha < 256; alpha++)
+        {
+            g.setAlpha(alpha);
+
+            assertEquals(alpha, g.getAlpha());
+        }
+
+        assertThrows(() -> g.setAlpha(-1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> g.setAlpha(256), "Invalid argument: 256 is not inferior or equal to 255");
+
+        g.dispose();
+    }
 }
@@ -17,6 +17,9 @@
  */
 package com.b3dgs.lionengine.headless.graphic;
 
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.graphic.ColorGradient;
@@ -24,18 +27,188 @@ import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Main interface with the graphic output, representing the screen buffer.
+ * <p>
+ * Software rasterizer working directly on {@link ImageBufferHeadless} pixels, clipped to its bounds. Images are
+ * composited depending of their {@link Transparency}: copied by rows if {@link Transparency#OPAQUE}, copied when not
+ * fully transparent if {@link Transparency#BITMASK}, and blended (source over) if {@link Transparency#TRANSLUCENT}.
+ * Primitives are blended when current color is not opaque.
+ * </p>
  */
 final class GraphicHeadless implements Graphic
 {
+    /** Alpha shift. */
+    private static final int SHIFT_ALPHA = 24;
+    /** Red shift. */
+    private static final int SHIFT_RED = 16;
+    /** Green shift. */
+    private static final int SHIFT_GREEN = 8;
+    /** Channel mask. */
+    private static final int MASK = 0xFF;
+    /** Opaque alpha. */
+    private static final int OPAQUE = 0xFF000000;
+    /** Fixed point precision. */
+    private static final int FIXED = 16;
+    /** Fixed point one. */
+    private static final long FIXED_ONE = 1L << FIXED;
+    /** Fixed point half. */
+    private static final long FIXED_HALF = FIXED_ONE >> 1;
+    /** Interpolation weight of second color only. */
+    private static final int WEIGHT_ONE = 256;
+
+    /**
+     * Divide by 255 with rounding, for value in [0 - 255 * 255].
+     * 
+     * @param value The value to divide.
+     * @return The divided value.
+     */
+    private static int div255(int value)
+    {
+        final int rounded = value + 0x80;
+        return rounded + (rounded >> SHIFT_GREEN) >> SHIFT_GREEN;
+    }
+
+    /**
+     * Blend source over destination.
+     * 
+     * @param src The source color.
+     * @param dst The destination color.
+     * @return The blended color.
+     */
+    private static int blend(int src, int dst)
+    {
+        final int alpha = src >>> SHIFT_ALPHA;
+        if (alpha == MASK || dst >>> SHIFT_ALPHA == 0)
+        {
+            return src;
+        }
+        if (alpha == 0)
+        {
+            return dst;
+        }
+        final int inv = MASK - alpha;
+        final int a = alpha + div255((dst >>> SHIFT_ALPHA) * inv);
+        final int r = div255((src >> SHIFT_RED & MASK) * alpha + (dst >> SHIFT_RED & MASK) * inv);
+        final int g = div255((src >> SHIFT_GREEN & MASK) * alpha + (dst >> SHIFT_GREEN & MASK) * inv);
+        final int b = div255((src & MASK) * alpha + (dst & MASK) * inv);
+        return a << SHIFT_ALPHA | r << SHIFT_RED | g << SHIFT_GREEN | b;
+    }
+
+    /**
+     * Apply render alpha to color alpha.
+     * 
+     * @param rgba The color.
+     * @param alpha The render alpha.
+     * @return The faded color.
+     */
+    private static int fade(int rgba, int alpha)
+    {
+        if (alpha == MASK)
+        {
+            return rgba;
+        }
+        return div255((rgba >>> SHIFT_ALPHA) * alpha) << SHIFT_ALPHA | rgba & ~OPAQUE;
+    }
+
+    /**
+     * Interpolate channel by channel between two colors.
+     * 
+     * @param c1 The first color.
+     * @param c2 The second color.
+     * @param weight The second color weight [0 - {@link #WEIGHT_ONE}].
+     * @return The interpolated color.
+     */
+    private static int lerp(int c1, int c2, int weight)
+    {
+        final int inv = WEIGHT_ONE - weight;
+        int color = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE)
+        {
+            final int channel = (c1 >>> shift & MASK) * inv + (c2 >>> shift & MASK) * weight + WEIGHT_ONE / 2;
+            color |= channel >> SHIFT_GREEN << shift;
+        }
+        return color;
+    }
+
+    /**
+     * Sample source with bilinear interpolation.
+     * 
+     * @param pixels The source pixels.
+     * @param width The source width.
+     * @param height The source height.
+     * @param u The horizontal fixed point location, on pixel center.
+     * @param v The vertical fixed point location, on pixel center.
+     * @return The sampled color.
+     */
+    private static int sample(int[] pixels, int width, int height, long u, long v)
+    {
+        final long fu = Math.max(0L, u - FIXED_HALF);
+        final long fv = Math.max(0L, v - FIXED_HALF);
+        final int x0 = (int) Math.min(width - 1L, fu >> FIXED);
+        final int y0 = (int) Math.min(height - 1L, fv >> FIXED);
+        final int x1 = Math.min(width - 1, x0 + 1);
+        final int y1 = Math.min(height - 1, y0 + 1);
+        final int wx = (int) (fu >> FIXED - SHIFT_GREEN & MASK);
+        final int wy = (int) (fv >> FIXED - SHIFT_GREEN & MASK);
+        final int top = lerp(pixels[y0 * width + x0], pixels[y0 * width + x1], wx);
+        final int bottom = lerp(pixels[y1 * width + x0], pixels[y1 * width + x1], wx);
+        return lerp(top, bottom, wy);
+    }
+
+    /**
+     * Composite a source row on destination row.
+     * 
+     * @param src The source pixels.
+     * @param srcOffset The source offset.
+     * @param dst The destination pixels.
+     * @param dstOffset The destination offset.
+     * @param length The pixels number.
+     * @param transparency The source transparency.
+     * @param alpha The render alpha (only applied on translucent transparency).
+     */
+    private static void compositeRow(int[] src,
+                                     int srcOffset,
+                                     int[] dst,
+                                     int dstOffset,
+                                     int length,
+                                     Transparency transparency,
+                                     int alpha)
+    {
+        if (transparency == Transparency.OPAQUE)
+        {
+            System.arraycopy(src, srcOffset, dst, dstOffset, length);
+        }
+        else if (transparency == Transparency.BITMASK)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                final int pixel = src[srcOffset + i];
+                if (pixel >>> SHIFT_ALPHA != 0)
+                {
+                    dst[dstOffset + i] = pixel;
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < length; i++)
+            {
+                dst[dstOffset + i] = blend(fade(src[srcOffset + i], alpha), dst[dstOffset + i]);
+            }
+        }
+    }
+
     /** Graphic representation. */
     private ImageBufferHeadless g;
     /** Current color. */
     private ColorRgba color = ColorRgba.WHITE;
     /** Color gradient. */
     private ColorGradient gradient;
+    /** Render alpha. */
+    private int alpha = MASK;
 
     /**
      * Internal constructor.
@@ -57,6 +230,214 @@ final class GraphicHeadless implements Graphic
         this.g = g;
     }
 
+    /**
+     * Fill an horizontal span with color, blended if not opaque.
+     * 
+     * @param y The vertical location.
+     * @param x1 The first horizontal location (included).
+     * @param x2 The last horizontal location (excluded).
+     * @param rgba The color.
+     */
+    private void fillSpan(int y, int x1, int x2, int rgba)
+    {
+        final int width = g.getWidth();
+        if (y < 0 || y >= g.getHeight())
+        {
+            return;
+        }
+        final int start = Math.max(0, x1);
+        final int end = Math.min(width, x2);
+        if (start >= end)
+        {
+            return;
+        }
+        final int[] pixels = g.getPixels();
+        final int offset = y * width;
+        final int faded = fade(rgba, alpha);
+        if (faded >>> SHIFT_ALPHA == MASK)
+        {
+            Arrays.fill(pixels, offset + start, offset + end, faded);
+        }
+        else
+        {
+            for (int i = offset + start; i < offset + end; i++)
+            {
+                pixels[i] = blend(faded, pixels[i]);
+            }
+        }
+    }
+
+    /**
+     * Set pixel color, blended if not opaque.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param rgba The color.
+     */
+    private void plot(int x, int y, int rgba)
+    {
+        if (x >= 0 && y >= 0 && x < g.getWidth() && y < g.getHeight())
+        {
+            final int[] pixels = g.getPixels();
+            final int index = y * g.getWidth() + x;
+            pixels[index] = blend(fade(rgba, alpha), pixels[index]);
+        }
+    }
+
+    /**
+     * Get the transparency used to composite a source, translucent when render alpha is applied.
+     * 
+     * @param transparency The source transparency.
+     * @return The composite transparency.
+     */
+    private Transparency getTransparency(Transparency transparency)
+    {
+        if (alpha == MASK)
+        {
+            return transparency;
+        }
+        return Transparency.TRANSLUCENT;
+    }
+
+    /**
+     * Draw a source area without scaling, clipped to source and destination.
+     * 
+     * @param image The source image.
+     * @param sx The source horizontal location.
+     * @param sy The source vertical location.
+     * @param dx The destination horizontal location.
+     * @param dy The destination vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     */
+    private void blit(ImageBufferHeadless image, int sx, int sy, int dx, int dy, int width, int height)
+    {
+        final int clipLeft = Math.max(Math.max(0, -dx), -sx);
+        final int clipTop = Math.max(Math.max(0, -dy), -sy);
+        final int w = Math.min(Math.min(width, g.getWidth() - dx), image.getWidth() - sx) - clipLeft;
+        final int h = Math.min(Math.min(height, g.getHeight() - dy), image.getHeight() - sy) - clipTop;
+        if (w <= 0 || h <= 0)
+        {
+            return;
+        }
+        final int[] src = image.getPixels();
+        final int[] dst = g.getPixels();
+        final int srcWidth = image.getWidth();
+        final int dstWidth = g.getWidth();
+        final Transparency transparency = getTransparency(image.getTransparency());
+        int srcOffset = (sy + clipTop) * srcWidth + sx + clipLeft;
+        int dstOffset = (dy + clipTop) * dstWidth + dx + clipLeft;
+        for (int j = 0; j < h; j++)
+        {
+            compositeRow(src, srcOffset, dst, dstOffset, w, transparency, alpha);
+            srcOffset += srcWidth;
+            dstOffset += dstWidth;
+        }
+    }
+
+    /**
+     * Draw a source area to a destination area, scaled and mirrored if corners are inverted, clipped to source and
+     * destination. Pixels are sampled on their center.
+     * 
+     * @param image The source image.
+     * @param dx1 The first destination horizontal corner.
+     * @param dy1 The first destination vertical corner.
+     * @param dx2 The second destination horizontal corner.
+     * @param dy2 The second destination vertical corner.
+     * @param sx1 The first source horizontal corner.
+     * @param sy1 The first source vertical corner.
+     * @param sx2 The second source horizontal corner.
+     * @param sy2 The second source vertical corner.
+     * @param bilinear <code>true</code> for bilinear sampling, <code>false</code> for nearest neighbor.
+     */
+    // CHECKSTYLE IGNORE LINE: ExecutableStatementCount|NPathComplexity|CyclomaticComplexity
+    private void blitScaled(ImageBufferHeadless image,
+                            int dx1,
+                            int dy1,
+                            int dx2,
+                            int dy2,
+                            int sx1,
+                            int sy1,
+                            int sx2,
+                            int sy2,
+                            boolean bilinear)
+    {
+        final int left = Math.min(dx1, dx2);
+        final int top = Math.min(dy1, dy2);
+        final int dw = Math.abs(dx2 - dx1);
+        final int dh = Math.abs(dy2 - dy1);
+        if (dw == 0 || dh == 0)
+        {
+            return;
+        }
+        // Source corner matching destination top left corner
+        final int su = dx1 <= dx2 ? sx1 : sx2;
+        final int sv = dy1 <= dy2 ? sy1 : sy2;
+        final long stepU = ((long) (dx1 <= dx2 ? sx2 - sx1 : sx1 - sx2) << FIXED) / dw;
+        final long stepV = ((long) (dy1 <= dy2 ? sy2 - sy1 : sy1 - sy2) << FIXED) / dh;
+
+        final int startX = Math.max(0, left);
+        final int endX = Math.min(g.getWidth(), left + dw);
+        final int startY = Math.max(0, top);
+        final int endY = Math.min(g.getHeight(), top + dh);
+        final long startU = ((long) su << FIXED) + stepU / 2L + (startX - left) * stepU;
+        final long startV = ((long) sv << FIXED) + stepV / 2L + (startY - top) * stepV;
+
+        final int[] src = image.getPixels();
+        final int[] dst = g.getPixels();
+        final int srcWidth = image.getWidth();
+        final int srcHeight = image.getHeight();
+        final Transparency transparency;
+        if (bilinear)
+        {
+            transparency = Transparency.TRANSLUCENT;
+        }
+        else
+        {
+            transparency = getTransparency(image.getTransparency());
+        }
+        final boolean opaque = image.getTransparency() == Transparency.OPAQUE;
+        long v = startV;
+        for (int y = startY; y < endY; y++, v += stepV)
+        {
+            final int row = (int) (v >> FIXED);
+            if (row < 0 || row >= srcHeight)
+            {
+                continue;
+            }
+            final int dstOffset = y * g.getWidth();
+            long u = startU;
+            for (int x = startX; x < endX; x++, u += stepU)
+            {
+                final int column = (int) (u >> FIXED);
+                if (column < 0 || column >= srcWidth)
+                {
+                    continue;
+                }
+                int pixel = bilinear ? sample(src, srcWidth, srcHeight, u, v) : src[row * srcWidth + column];
+                if (opaque && bilinear)
+                {
+                    pixel |= OPAQUE;
+                }
+                if (transparency == Transparency.OPAQUE)
+                {
+                    dst[dstOffset + x] = pixel;
+                }
+                else if (transparency == Transparency.BITMASK)
+                {
+                    if (pixel >>> SHIFT_ALPHA != 0)
+                    {
+                        dst[dstOffset + x] = pixel;
+                    }
+                }
+                else
+                {
+                    dst[dstOffset + x] = blend(fade(pixel, alpha), dst[dstOffset + x]);
+                }
+            }
+        }
+    }
+
     /*
      * Graphic
      */
@@ -64,12 +445,10 @@ final class GraphicHeadless implements Graphic
     @Override
     public void clear(int x, int y, int width, int height)
     {
-        for (int i = x; i < width; i++)
+        final int rgba = ColorRgba.BLACK.getRgba();
+        for (int j = Math.max(0, y); j < Math.min(g.getHeight(), y + height); j++)
         {
-            for (int j = y; j < height; j++)
-            {
-                g.setRgb(x, y, ColorRgba.BLACK.getRgba());
-            }
+            fillSpan(j, x, x + width, rgba);
         }
     }
 
@@ -82,65 +461,110 @@ final class GraphicHeadless implements Graphic
     @Override
     public void copyArea(int x, int y, int width, int height, int dx, int dy)
     {
-        // Nothing to do
+        final int bufferWidth = g.getWidth();
+        final int bufferHeight = g.getHeight();
+        final int clipLeft = Math.max(Math.max(0, -x), -x - dx);
+        final int clipTop = Math.max(Math.max(0, -y), -y - dy);
+        final int w = Math.min(Math.min(width, bufferWidth - x), bufferWidth - x - dx) - clipLeft;
+        final int h = Math.min(Math.min(height, bufferHeight - y), bufferHeight - y - dy) - clipTop;
+        if (w <= 0 || h <= 0 || dx == 0 && dy == 0)
+        {
+            return;
+        }
+        final int[] pixels = g.getPixels();
+        final int sx = x + clipLeft;
+        final int sy = y + clipTop;
+        // Copy from the opposite side of the move, as areas may overlap
+        final boolean upward = dy <= 0;
+        for (int j = 0; j < h; j++)
+        {
+            final int row = upward ? j : h - 1 - j;
+            final int src = (sy + row) * bufferWidth + sx;
+            System.arraycopy(pixels, src, pixels, src + dy * bufferWidth + dx, w);
+        }
     }
 
     @Override
     public void drawImage(ImageSurface image, int x, int y)
     {
         final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
-        {
-            for (int j = y; j < image.getHeight(); j++)
-            {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
-            }
-        }
+        blit(surface, 0, 0, x, y, surface.getWidth(), surface.getHeight());
     }
 
     @Override
     public void drawImage(ImageSurface image, Transform transform, int x, int y)
     {
         final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
+        final double sx = transform.getScaleX();
+        final double sy = transform.getScaleY();
+        final int width = surface.getWidth();
+        final int height = surface.getHeight();
+        if (Double.compare(sx, 1.0) == 0 && Double.compare(sy, 1.0) == 0)
         {
-            for (int j = y; j < image.getHeight(); j++)
-            {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
-            }
+            blit(surface, 0, 0, x, y, width, height);
+        }
+        else
+        {
+            final int dw = (int) Math.round(width * Math.abs(sx));
+            final int dh = (int) Math.round(height * Math.abs(sy));
+            blitScaled(surface,
+                       x,
+                       y,
+                       x + dw,
+                       y + dh,
+                       sx < 0.0 ? width : 0,
+                       sy < 0.0 ? height : 0,
+                       sx < 0.0 ? 0 : width,
+                       sy < 0.0 ? 0 : height,
+                       transform.getInterpolation() > 0);
         }
     }
 
     @Override
     public void drawImage(ImageSurface image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2)
     {
-        // Nothing to do
+        final ImageBufferHeadless surface = image.getSurface();
+        final int width = dx2 - dx1;
+        final int height = dy2 - dy1;
+        if (width > 0 && height > 0 && width == sx2 - sx1 && height == sy2 - sy1)
+        {
+            blit(surface, sx1, sy1, dx1, dy1, width, height);
+        }
+        else
+        {
+            blitScaled(surface, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, false);
+        }
     }
 
     @Override
     public void drawRect(int x, int y, int width, int height, boolean fill)
     {
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+        final int rgba = color.getRgba();
         if (fill)
         {
-            for (int i = x; i < width; i++)
+            for (int j = Math.max(0, y); j < Math.min(g.getHeight(), y + height); j++)
             {
-                for (int j = y; j < height; j++)
-                {
-                    g.setRgb(x, y, color.getRgba());
-                }
+                fillSpan(j, x, x + width, rgba);
             }
         }
         else
         {
-            for (int i = x; i < width; i++)
+            fillSpan(y, x, x + width, rgba);
+            if (height > 1)
             {
-                g.setRgb(i, y, color.getRgba());
-                g.setRgb(i, y + height - 1, color.getRgba());
+                fillSpan(y + height - 1, x, x + width, rgba);
             }
-            for (int j = y; j < height; j++)
+            for (int j = y + 1; j < y + height - 1; j++)
             {
-                g.setRgb(x, j, color.getRgba());
-                g.setRgb(x + width - 1, j, color.getRgba());
+                plot(x, j, rgba);
+                if (width > 1)
+                {
+                    plot(x + width - 1, j, rgba);
+                }
             }
         }
     }
@@ -156,11 +580,34 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawGradient(int x, int y, int width, int height)
     {
-        for (int i = x; i < width; i++)
+        if (gradient == null || width <= 0 || height <= 0)
+        {
+            return;
+        }
+        final int c1 = gradient.getColor1().getRgba() | OPAQUE;
+        final int c2 = gradient.getColor2().getRgba() | OPAQUE;
+        final long gx = gradient.getX2() - (long) gradient.getX1();
+        final long gy = gradient.getY2() - (long) gradient.getY1();
+        final long length = gx * gx + gy * gy;
+        final int startX = Math.max(0, x);
+        final int endX = Math.min(g.getWidth(), x + width);
+        final int[] pixels = g.getPixels();
+        for (int j = Math.max(0, y); j < Math.min(g.getHeight(), y + height); j++)
         {
-            for (int j = y; j < height; j++)
+            final int offset = j * g.getWidth();
+            for (int i = startX; i < endX; i++)
             {
-                g.setRgb(x, y, gradient.getColor1().getRgba());
+                final int weight;
+                if (length == 0L)
+                {
+                    weight = 0;
+                }
+                else
+                {
+                    final long projection = (i - gradient.getX1()) * gx + (j - gradient.getY1()) * gy;
+                    weight = (int) Math.max(0L, Math.min(WEIGHT_ONE, projection * WEIGHT_ONE / length));
+                }
+                pixels[offset + i] = blend(fade(lerp(c1, c2, weight), alpha), pixels[offset + i]);
             }
         }
     }
@@ -176,30 +623,38 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawLine(int x1, int y1, int x2, int y2)
     {
-        final double dx = x1 - (double) x2;
-        final double dy = y1 - (double) y2;
-        final double norm = Math.sqrt(dx * dx + dy * dy);
-        final double sx;
-        final double sy;
-        if (Double.compare(norm, 0.0) == 0)
-        {
-            sx = 0;
-            sy = 0;
-        }
-        else
+        final int rgba = color.getRgba();
+        if (y1 == y2)
         {
-            sx = dx / norm;
-            sy = dy / norm;
+            fillSpan(y1, Math.min(x1, x2), Math.max(x1, x2) + 1, rgba);
+            return;
         }
-
-        double x = x1;
-        double y = y1;
-
-        for (int count = 0; count < norm; count++)
+        // Bresenham
+        final int dx = Math.abs(x2 - x1);
+        final int dy = -Math.abs(y2 - y1);
+        final int stepX = x1 < x2 ? 1 : -1;
+        final int stepY = y1 < y2 ? 1 : -1;
+        int error = dx + dy;
+        int x = x1;
+        int y = y1;
+        while (true)
         {
-            g.setRgb((int) Math.floor(x), (int) Math.floor(y), color.getRgba());
-            x += sx;
-            y += sy;
+            plot(x, y, rgba);
+            if (x == x2 && y == y2)
+            {
+                break;
+            }
+            final int error2 = 2 * error;
+            if (error2 >= dy)
+            {
+                error += dy;
+                x += stepX;
+            }
+            if (error2 <= dx)
+            {
+                error += dx;
+                y += stepY;
+            }
         }
     }
 
@@ -215,13 +670,55 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawOval(int x, int y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+        final int rgba = color.getRgba();
+        final double a = width / 2.0;
+        final double b = height / 2.0;
+        final double cx = x + a;
+        final double cy = y + b;
+        for (int j = 0; j < height; j++)
+        {
+            final double dy = (j + 0.5 - b) / b;
+            final double half = a * Math.sqrt(Math.max(0.0, 1.0 - dy * dy));
+            final int start = (int) Math.round(cx - half);
+            final int end = (int) Math.round(cx + half);
+            if (fill)
+            {
+                fillSpan(y + j, start, end, rgba);
+            }
+            else if (start < end)
+            {
+                plot(start, y + j, rgba);
+                plot(end - 1, y + j, rgba);
+            }
+        }
+        if (!fill)
+        {
+            // Columns pass, to close the flat parts of the outline
+            for (int i = 0; i < width; i++)
+            {
+                final double dx = (i + 0.5 - a) / a;
+                final double half = b * Math.sqrt(Math.max(0.0, 1.0 - dx * dx));
+                final int start = (int) Math.round(cy - half);
+                final int end = (int) Math.round(cy + half);
+                if (start < end)
+                {
+                    plot(x + i, start, rgba);
+                    plot(x + i, end - 1, rgba);
+                }
+            }
+        }
     }
 
     @Override
     public void drawOval(Viewer viewer, Origin origin, double x, double y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        final int px = (int) origin.getX(viewer.getViewpointX(x), width);
+        final int py = (int) origin.getY(viewer.getViewpointY(y), height);
+        drawOval(px, py, width, height, fill);
     }
 
     @Override
@@ -260,4 +757,19 @@ final class GraphicHeadless implements Graphic
     {
         return color;
     }
+
+    @Override
+    public void setAlpha(int alpha)
+    {
+        Check.superiorOrEqual(alpha, 0);
+        Check.inferiorOrEqual(alpha, MASK);
+
+        this.alpha = alpha;
+    }
+
+    @Override
+    public int getAlpha()
+    {
+        return alpha;
+    }
 }
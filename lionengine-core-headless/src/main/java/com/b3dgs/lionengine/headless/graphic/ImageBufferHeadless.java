@@ -100,6 +100,16 @@ final class ImageBufferHeadless implements ImageBuffer
         transparency = image.getTransparency();
     }
 
+    /**
+     * Get the pixels raw data, stored by row. Changes are directly applied to image.
+     * 
+     * @return The pixels raw data.
+     */
+    int[] getPixels()
+    {
+        return buffer;
+    }
+
     /*
      * ImageBuffer
      */
@@ -18,20 +18,82 @@
 package com.b3dgs.lionengine.headless.graphic;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.util.Arrays;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.graphic.ColorGradient;
 import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicTest;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Test {@link GraphicHeadless}.
  */
 public final class GraphicHeadlessTest extends GraphicTest
 {
+    /** Red. */
+    private static final int R = ColorRgba.RED.getRgba();
+    /** Green. */
+    private static final int G = ColorRgba.GREEN.getRgba();
+    /** Blue. */
+    private static final int B = ColorRgba.BLUE.getRgba();
+    /** White. */
+    private static final int W = ColorRgba.WHITE.getRgba();
+    /** Black. */
+    private static final int K = ColorRgba.BLACK.getRgba();
+
+    /**
+     * Create image with pixels.
+     * 
+     * @param width The image width.
+     * @param transparency The image transparency.
+     * @param pixels The pixels by row.
+     * @return The created image.
+     */
+    private static ImageBufferHeadless create(int width, Transparency transparency, int... pixels)
+    {
+        final int height = pixels.length / width;
+        final ImageBufferHeadless image = new ImageBufferHeadless(width, height, transparency);
+        image.setRgb(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * Create image filled with color.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @param rgba The fill color.
+     * @return The created image.
+     */
+    private static ImageBufferHeadless fill(int width, int height, int rgba)
+    {
+        final ImageBufferHeadless image = new ImageBufferHeadless(width, height, Transparency.OPAQUE);
+        Arrays.fill(image.getPixels(), rgba);
+        return image;
+    }
+
+    /**
+     * Check image pixels.
+     * 
+     * @param image The image to check.
+     * @param expected The expected pixels by row.
+     */
+    private static void assertPixels(ImageBufferHeadless image, int... expected)
+    {
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(Integer.toHexString(expected[i]), Integer.toHexString(image.getPixels()[i]));
+        }
+    }
     /**
      * Prepare tests.
      */
@@ -51,4 +113,166 @@ public final class GraphicHeadlessTest extends GraphicTest
 
         assertEquals(ColorRgba.BLACK.getRgba(), Graphics.applyMask(image, ColorRgba.TRANSPARENT).getRgb(0, 0));
     }
+
+    /**
+     * Test clear, clipped to buffer.
+     */
+    @Test
+    public void testClear()
+    {
+        final ImageBufferHeadless image = fill(3, 2, W);
+        image.createGraphic().clear(1, -1, 5, 2);
+
+        assertPixels(image, W, K, K, W, W, W);
+    }
+
+    /**
+     * Test opaque image drawing, clipped to buffer.
+     */
+    @Test
+    public void testDrawImageOpaque()
+    {
+        final ImageBufferHeadless image = fill(3, 2, W);
+        final Graphic g = image.createGraphic();
+        g.drawImage(create(2, Transparency.OPAQUE, R, G, B, K), -1, 1);
+
+        assertPixels(image, W, W, W, G, W, W);
+
+        g.drawImage(create(2, Transparency.OPAQUE, R, G, B, K), 2, -1);
+
+        assertPixels(image, W, W, B, G, W, W);
+
+        g.drawImage(create(2, Transparency.OPAQUE, R, G, B, K), 0, 0, 2, 1, 1, 0, 3, 1);
+
+        assertPixels(image, G, W, B, G, W, W);
+    }
+
+    /**
+     * Test bitmask and translucent image drawing.
+     */
+    @Test
+    public void testDrawImageAlpha()
+    {
+        final ImageBufferHeadless image = fill(2, 1, K);
+        final Graphic g = image.createGraphic();
+        g.drawImage(create(2, Transparency.BITMASK, 0, R), 0, 0);
+
+        assertPixels(image, K, R);
+
+        g.drawImage(create(2, Transparency.TRANSLUCENT, 0x80FFFFFF, 0x00FFFFFF), 0, 0);
+
+        assertPixels(image, 0xFF808080, R);
+    }
+
+    /**
+     * Test mirrored and scaled image drawing.
+     */
+    @Test
+    public void testDrawImageScaled()
+    {
+        final ImageBufferHeadless source = create(2, Transparency.OPAQUE, R, G);
+        final ImageBufferHeadless image = fill(4, 1, K);
+        final Graphic g = image.createGraphic();
+        g.drawImage(source, 0, 0, 2, 1, 2, 0, 0, 1);
+
+        assertPixels(image, G, R, K, K);
+
+        g.drawImage(source, 0, 0, 4, 1, 0, 0, 2, 1);
+
+        assertPixels(image, R, R, G, G);
+
+        final Transform transform = new TransformHeadless();
+        transform.scale(-1.5, 1.0);
+        g.drawImage(source, transform, 1, 0);
+
+        assertPixels(image, R, G, G, R);
+
+        transform.scale(4.0, 1.0);
+        transform.setInterpolation(true);
+        g.drawImage(create(2, Transparency.OPAQUE, K, W), transform, -2, 0);
+
+        assertPixels(image, 0xFF202020, 0xFF606060, 0xFF9F9F9F, 0xFFDFDFDF);
+    }
+
+    /**
+     * Test overlapping area copy.
+     */
+    @Test
+    public void testCopyArea()
+    {
+        final ImageBufferHeadless image = create(3, Transparency.OPAQUE, R, G, B, K, W, R, G, B, K);
+        final Graphic g = image.createGraphic();
+        g.copyArea(0, 0, 2, 2, 1, 1);
+
+        assertPixels(image, R, G, B, K, R, G, G, K, W);
+
+        g.copyArea(1, 1, 5, 5, -1, -1);
+
+        assertPixels(image, R, G, B, K, W, G, G, K, W);
+    }
+
+    /**
+     * Test primitives.
+     */
+    @Test
+    public void testPrimitives()
+    {
+        final ImageBufferHeadless image = fill(4, 4, K);
+        final Graphic g = image.createGraphic();
+        g.setColor(ColorRgba.RED);
+        g.drawRect(0, 0, 4, 4, false);
+
+        assertPixels(image, R, R, R, R, R, K, K, R, R, K, K, R, R, R, R, R);
+
+        g.setColor(ColorRgba.GREEN);
+        g.drawLine(0, 0, 3, 3);
+        g.drawLine(3, 1, 1, 1);
+
+        assertPixels(image, G, R, R, R, R, G, G, G, R, K, G, R, R, R, R, G);
+
+        g.setColor(ColorRgba.BLUE);
+        g.drawRect(1, 1, 2, 2, true);
+        g.setColor(new ColorRgba(0x80FFFFFF));
+        g.drawRect(2, 2, 1, 1, true);
+
+        assertPixels(image, G, R, R, R, R, B, B, G, R, B, 0xFF8080FF, R, R, R, R, G);
+
+        g.setColor(ColorRgba.WHITE);
+        g.drawOval(0, 0, 4, 4, true);
+
+        assertPixels(image, G, W, W, R, W, W, W, W, W, W, W, W, R, W, W, G);
+
+        g.setColorGradient(new ColorGradient(0, 0, ColorRgba.BLACK, 4, 0, ColorRgba.WHITE));
+        g.drawGradient(0, 0, 4, 4);
+
+        assertPixels(image, K, 0xFF404040, 0xFF808080, 0xFFBFBFBF);
+        assertEquals(image.getPixels()[3], image.getPixels()[15]);
+    }
+
+    /**
+     * Test render alpha blending.
+     */
+    @Test
+    public void testRenderAlpha()
+    {
+        final ImageBufferHeadless image = fill(2, 1, K);
+        final Graphic g = image.createGraphic();
+        g.setAlpha(128);
+        g.drawImage(create(2, Transparency.OPAQUE, W, W), 0, 0);
+
+        assertPixels(image, 0xFF808080, 0xFF808080);
+
+        g.setColor(ColorRgba.RED);
+        g.drawRect(0, 0, 1, 1, true);
+
+        assertPixels(image, 0xFFC04040, 0xFF808080);
+
+        g.setAlpha(0);
+        g.drawImage(create(2, Transparency.OPAQUE, W, W), 0, 0, 2, 1, 0, 0, 2, 1);
+
+        assertPixels(image, 0xFFC04040, 0xFF808080);
+
+        assertThrows(() -> g.setAlpha(-1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> g.setAlpha(256), "Invalid argument: 256 is not inferior or equal to 255");
+    }
 }
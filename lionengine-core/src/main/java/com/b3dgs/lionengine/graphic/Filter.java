@@ -17,10 +17,16 @@
  */
 package com.b3dgs.lionengine.graphic;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 
 /**
  * List of supported filters.
+ * <p>
+ * Filters can be applied either on an {@link ImageBuffer}, allocating a new result each time, or on raw pixels with
+ * {@link #filter(int[], int[], int, int)}, writing into a caller owned destination so that a per frame filtering does
+ * not produce any garbage.
+ * </p>
  */
 public interface Filter
 {
@@ -33,6 +39,51 @@ public interface Filter
      */
     ImageBuffer filter(ImageBuffer source);
 
+    /**
+     * Apply a filter to the raw source pixels, writing the result into the destination pixels.
+     * <p>
+     * Destination must be able to contain <code>width * getScale() * height * getScale()</code> pixels. Source content
+     * may be used as scratch and is undefined after the call. Default implementation goes through
+     * {@link #filter(ImageBuffer)} and allocates, implementations should override it.
+     * </p>
+     * 
+     * @param source The source pixels, with a scanline of <code>width</code> (must not be <code>null</code>).
+     * @param destination The destination pixels, with a scanline of <code>width * getScale()</code> (must not be
+     *            <code>null</code>).
+     * @param width The source width (must be strictly positive).
+     * @param height The source height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    default void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        final int scale = getScale();
+        final ImageBuffer image = Graphics.createImageBuffer(width, height);
+        image.setRgb(0, 0, width, height, source, 0, width);
+
+        final ImageBuffer filtered = filter(image);
+        filtered.getRgb(0, 0, width * scale, height * scale, destination, 0, width * scale);
+        if (filtered != image)
+        {
+            filtered.dispose();
+        }
+        image.dispose();
+    }
+
+    /**
+     * Get the size factor between source and filtered result.
+     * 
+     * @return The filter scale factor (1 if filtered result has the source size).
+     */
+    default int getScale()
+    {
+        return 1;
+    }
+
     /**
      * Get the associated transform.
      * 
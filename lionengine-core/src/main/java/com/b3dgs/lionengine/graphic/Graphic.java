@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.graphic;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.Viewer;
 
@@ -235,4 +236,20 @@ public interface Graphic
      */
     ColorRgba getColor();
 
+    /**
+     * Set the render alpha, applied by the graphic output on next drawings over their own transparency. Drawn surfaces
+     * are not modified.
+     * 
+     * @param alpha The alpha value <code>[0 - 255]</code>, <code>255</code> for opaque rendering.
+     * @throws LionEngineException If invalid argument.
+     */
+    void setAlpha(int alpha);
+
+    /**
+     * Get the render alpha.
+     * 
+     * @return The render alpha value <code>[0 - 255]</code>.
+     */
+    int getAlpha();
+
 }
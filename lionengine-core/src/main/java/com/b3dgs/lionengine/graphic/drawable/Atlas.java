@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.drawable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Set of shared pages containing packed surfaces, each one referenced by an {@link AtlasRegion}.
+ * <p>
+ * Sprites loaded from an atlas share the page surface, so they can be rendered one after another without switching
+ * source image. Pages are owned by the atlas, and released by {@link #dispose()}.
+ * </p>
+ * 
+ * @see AtlasPacker
+ * @see AtlasConfig
+ * @see Drawable#loadSprite(Atlas, String)
+ */
+public final class Atlas
+{
+    /** Unknown region error. */
+    static final String ERROR_REGION = "Unknown atlas region: ";
+
+    /** Atlas pages. */
+    private final List<ImageBuffer> pages;
+    /** Atlas regions by name. */
+    private final Map<String, AtlasRegion> regions = new LinkedHashMap<>();
+
+    /**
+     * Create an atlas.
+     * 
+     * @param pages The atlas pages (must not be <code>null</code>).
+     * @param regions The atlas regions (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments or region outside its page.
+     */
+    public Atlas(List<ImageBuffer> pages, Collection<AtlasRegion> regions)
+    {
+        super();
+
+        Check.notNull(pages);
+        Check.notNull(regions);
+
+        this.pages = new ArrayList<>(pages);
+        for (final AtlasRegion region : regions)
+        {
+            Check.inferiorStrict(region.getPage(), this.pages.size());
+            final ImageBuffer page = this.pages.get(region.getPage());
+            Check.inferiorOrEqual(region.getX() + region.getWidth(), page.getWidth());
+            Check.inferiorOrEqual(region.getY() + region.getHeight(), page.getHeight());
+
+            this.regions.put(region.getName(), region);
+        }
+    }
+
+    /**
+     * Get the region by name.
+     * 
+     * @param name The region name (must not be <code>null</code>).
+     * @return The region found.
+     * @throws LionEngineException If invalid argument or region not found.
+     */
+    public AtlasRegion getRegion(String name)
+    {
+        Check.notNull(name);
+
+        final AtlasRegion region = regions.get(name);
+        if (region == null)
+        {
+            throw new LionEngineException(ERROR_REGION + name);
+        }
+        return region;
+    }
+
+    /**
+     * Check if region exists.
+     * 
+     * @param name The region name.
+     * @return <code>true</code> if region exists, <code>false</code> else.
+     */
+    public boolean hasRegion(String name)
+    {
+        return regions.containsKey(name);
+    }
+
+    /**
+     * Get all regions.
+     * 
+     * @return The regions.
+     */
+    public Collection<AtlasRegion> getRegions()
+    {
+        return Collections.unmodifiableCollection(regions.values());
+    }
+
+    /**
+     * Get the page containing the region.
+     * 
+     * @param region The region reference (must not be <code>null</code>).
+     * @return The region page.
+     * @throws LionEngineException If invalid argument.
+     */
+    public ImageBuffer getPage(AtlasRegion region)
+    {
+        Check.notNull(region);
+
+        return pages.get(region.getPage());
+    }
+
+    /**
+     * Get all pages.
+     * 
+     * @return The pages.
+     */
+    public List<ImageBuffer> getPages()
+    {
+        return Collections.unmodifiableList(pages);
+    }
+
+    /**
+     * Dispose all pages. Sprites loaded from this atlas must not be rendered anymore.
+     */
+    public void dispose()
+    {
+        for (final ImageBuffer page : pages)
+        {
+            page.dispose();
+        }
+    }
+}
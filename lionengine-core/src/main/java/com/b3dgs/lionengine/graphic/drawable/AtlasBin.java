@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.drawable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Max rectangles bin, placing areas with the best short side fit heuristic.
+ * <p>
+ * Free space is tracked as a list of maximal free rectangles (possibly overlapping). Each placement splits the free
+ * rectangles it intersects, then drops the ones contained inside another.
+ * </p>
+ */
+final class AtlasBin
+{
+    /**
+     * Check if first area is contained inside second one.
+     * 
+     * @param a The first area.
+     * @param b The second area.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    private static boolean isContained(Area a, Area b)
+    {
+        return a.x >= b.x && a.y >= b.y && a.x + a.width <= b.x + b.width && a.y + a.height <= b.y + b.height;
+    }
+
+    /** Free rectangles. */
+    private final List<Area> free = new ArrayList<>();
+    /** Split rectangles cache. */
+    private final List<Area> splits = new ArrayList<>();
+    /** Used width. */
+    private int usedWidth;
+    /** Used height. */
+    private int usedHeight;
+
+    /**
+     * Create bin.
+     * 
+     * @param width The bin width.
+     * @param height The bin height.
+     */
+    AtlasBin(int width, int height)
+    {
+        super();
+
+        free.add(new Area(0, 0, width, height));
+    }
+
+    /**
+     * Place an area.
+     * 
+     * @param width The area width.
+     * @param height The area height.
+     * @return The placed area, <code>null</code> if not enough space.
+     */
+    Area insert(int width, int height)
+    {
+        Area best = null;
+        int bestShort = Integer.MAX_VALUE;
+        int bestLong = Integer.MAX_VALUE;
+        for (final Area area : free)
+        {
+            if (area.width >= width && area.height >= height)
+            {
+                final int leftX = area.width - width;
+                final int leftY = area.height - height;
+                final int shortSide = Math.min(leftX, leftY);
+                final int longSide = Math.max(leftX, leftY);
+                if (shortSide < bestShort || shortSide == bestShort && longSide < bestLong)
+                {
+                    best = area;
+                    bestShort = shortSide;
+                    bestLong = longSide;
+                }
+            }
+        }
+        if (best == null)
+        {
+            return null;
+        }
+        final Area placed = new Area(best.x, best.y, width, height);
+        split(placed);
+        prune();
+        usedWidth = Math.max(usedWidth, placed.x + width);
+        usedHeight = Math.max(usedHeight, placed.y + height);
+        return placed;
+    }
+
+    /**
+     * Get the used width.
+     * 
+     * @return The used width.
+     */
+    int getUsedWidth()
+    {
+        return usedWidth;
+    }
+
+    /**
+     * Get the used height.
+     * 
+     * @return The used height.
+     */
+    int getUsedHeight()
+    {
+        return usedHeight;
+    }
+
+    /**
+     * Split free rectangles intersecting the placed area.
+     * 
+     * @param placed The placed area.
+     */
+    private void split(Area placed)
+    {
+        splits.clear();
+        for (int i = free.size() - 1; i >= 0; i--)
+        {
+            final Area area = free.get(i);
+            if (placed.x < area.x + area.width
+                && placed.x + placed.width > area.x
+                && placed.y < area.y + area.height
+                && placed.y + placed.height > area.y)
+            {
+                free.remove(i);
+                if (placed.x > area.x)
+                {
+                    splits.add(new Area(area.x, area.y, placed.x - area.x, area.height));
+                }
+                if (placed.x + placed.width < area.x + area.width)
+                {
+                    final int x = placed.x + placed.width;
+                    splits.add(new Area(x, area.y, area.x + area.width - x, area.height));
+                }
+                if (placed.y > area.y)
+                {
+                    splits.add(new Area(area.x, area.y, area.width, placed.y - area.y));
+                }
+                if (placed.y + placed.height < area.y + area.height)
+                {
+                    final int y = placed.y + placed.height;
+                    splits.add(new Area(area.x, y, area.width, area.y + area.height - y));
+                }
+            }
+        }
+        free.addAll(splits);
+    }
+
+    /**
+     * Remove free rectangles contained inside another one.
+     */
+    private void prune()
+    {
+        for (int i = free.size() - 1; i >= 0; i--)
+        {
+            final Area area = free.get(i);
+            for (int j = 0; j < free.size(); j++)
+            {
+                if (i != j && isContained(area, free.get(j)))
+                {
+                    free.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rectangle area.
+     */
+    static final class Area
+    {
+        /** Horizontal location. */
+        final int x;
+        /** Vertical location. */
+        final int y;
+        /** Width. */
+        final int width;
+        /** Height. */
+        final int height;
+
+        /**
+         * Create area.
+         * 
+         * @param x The horizontal location.
+         * @param y The vertical location.
+         * @param width The width.
+         * @param height The height.
+         */
+        Area(int x, int y, int width, int height)
+        {
+            super();
+
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
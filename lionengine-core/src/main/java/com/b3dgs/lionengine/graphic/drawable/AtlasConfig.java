@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.drawable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilFile;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Represents the atlas data, listing pages files and regions locations.
+ * <p>
+ * Page files are relative to the configuration file. Example:
+ * </p>
+ * 
+ * <pre>
+ * &lt;lionengine:atlas&gt;
+ *    &lt;lionengine:page file="atlas_0.png"&gt;
+ *       &lt;lionengine:region name="hero.png" x="0" y="0" width="32" height="48"/&gt;
+ *    &lt;/lionengine:page&gt;
+ * &lt;/lionengine:atlas&gt;
+ * </pre>
+ * <p>
+ * This class is Thread-Safe.
+ * </p>
+ * 
+ * @see AtlasPacker
+ */
+public final class AtlasConfig
+{
+    /** Atlas node name. */
+    public static final String NODE_ATLAS = Constant.XML_PREFIX + "atlas";
+    /** Page node name. */
+    public static final String NODE_PAGE = Constant.XML_PREFIX + "page";
+    /** Region node name. */
+    public static final String NODE_REGION = Constant.XML_PREFIX + "region";
+    /** Page file attribute name. */
+    public static final String ATT_FILE = "file";
+    /** Region name attribute name. */
+    public static final String ATT_NAME = "name";
+    /** Region horizontal location attribute name. */
+    public static final String ATT_X = "x";
+    /** Region vertical location attribute name. */
+    public static final String ATT_Y = "y";
+    /** Region width attribute name. */
+    public static final String ATT_WIDTH = "width";
+    /** Region height attribute name. */
+    public static final String ATT_HEIGHT = "height";
+    /** Page file extension. */
+    private static final String EXTENSION = ".png";
+
+    /**
+     * Imports the atlas from its configuration, loading pages.
+     * 
+     * @param config The atlas configuration (must not be <code>null</code>).
+     * @return The loaded atlas.
+     * @throws LionEngineException If invalid argument, unable to read configuration or page.
+     */
+    public static Atlas imports(Media config)
+    {
+        Check.notNull(config);
+
+        final Xml root = new Xml(config);
+        final Collection<Xml> nodes = root.getChildren(NODE_PAGE);
+        final List<ImageBuffer> pages = new ArrayList<>(nodes.size());
+        final List<AtlasRegion> regions = new ArrayList<>();
+        for (final Xml node : nodes)
+        {
+            final int page = pages.size();
+            final ImageBuffer buffer = Graphics.getImageBuffer(Medias.create(config.getParentPath(),
+                                                                             node.readString(ATT_FILE)));
+            buffer.prepare();
+            pages.add(buffer);
+
+            for (final Xml region : node.getChildren(NODE_REGION))
+            {
+                regions.add(new AtlasRegion(region.readString(ATT_NAME),
+                                            page,
+                                            region.readInteger(ATT_X),
+                                            region.readInteger(ATT_Y),
+                                            region.readInteger(ATT_WIDTH),
+                                            region.readInteger(ATT_HEIGHT)));
+            }
+        }
+        return new Atlas(pages, regions);
+    }
+
+    /**
+     * Exports the atlas, saving each page next to the configuration as <code>[config]_[page].png</code>.
+     * 
+     * @param config The atlas configuration output (must not be <code>null</code>).
+     * @param atlas The atlas to export (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments or unable to save.
+     */
+    public static void exports(Media config, Atlas atlas)
+    {
+        Check.notNull(config);
+        Check.notNull(atlas);
+
+        final String base = UtilFile.removeExtension(config.getName()) + Constant.UNDERSCORE;
+        final List<ImageBuffer> pages = atlas.getPages();
+        final List<Xml> nodes = new ArrayList<>(pages.size());
+
+        final Xml root = new Xml(NODE_ATLAS);
+        for (int i = 0; i < pages.size(); i++)
+        {
+            final String file = base + i + EXTENSION;
+            Graphics.saveImage(pages.get(i), Medias.create(config.getParentPath(), file));
+
+            final Xml node = root.createChild(NODE_PAGE);
+            node.writeString(ATT_FILE, file);
+            nodes.add(node);
+        }
+        for (final AtlasRegion region : atlas.getRegions())
+        {
+            final Xml node = nodes.get(region.getPage()).createChild(NODE_REGION);
+            node.writeString(ATT_NAME, region.getName());
+            node.writeInteger(ATT_X, region.getX());
+            node.writeInteger(ATT_Y, region.getY());
+            node.writeInteger(ATT_WIDTH, region.getWidth());
+            node.writeInteger(ATT_HEIGHT, region.getHeight());
+        }
+        root.save(config);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private AtlasConfig()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.drawable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Pack many small surfaces into large shared pages, using a max rectangles algorithm.
+ * <p>
+ * Surfaces are placed from the largest to the smallest, on the first page with enough space. A new page is created
+ * when none can receive the surface. Pages are cropped to their used area.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ * 
+ * <pre>
+ * final AtlasPacker packer = new AtlasPacker(1024, 1024, 1);
+ * packer.add(Medias.create(&quot;hero.png&quot;));
+ * packer.add(Medias.create(&quot;tiles.png&quot;));
+ * final Atlas atlas = packer.pack();
+ * AtlasConfig.exports(Medias.create(&quot;atlas.xml&quot;), atlas);
+ * </pre>
+ * <p>
+ * This class is NOT Thread-Safe.
+ * </p>
+ * 
+ * @see Atlas
+ * @see AtlasConfig
+ */
+public final class AtlasPacker
+{
+    /** Duplicate name error. */
+    static final String ERROR_NAME = "Atlas region already added: ";
+    /** Surface too large error. */
+    static final String ERROR_SIZE = "Surface too large for atlas page: ";
+
+    /**
+     * Copy surface pixels to its page area.
+     * 
+     * @param surface The source surface.
+     * @param page The destination page.
+     * @param area The destination area.
+     */
+    private static void copy(ImageBuffer surface, ImageBuffer page, AtlasBin.Area area)
+    {
+        final int width = surface.getWidth();
+        final int height = surface.getHeight();
+        final int[] pixels = surface.getRgb(0, 0, width, height, new int[width * height], 0, width);
+        page.setRgb(area.x, area.y, width, height, pixels, 0, width);
+    }
+
+    /** Surfaces to pack. */
+    private final List<Entry> entries = new ArrayList<>();
+    /** Added names. */
+    private final Set<String> names = new HashSet<>();
+    /** Page width. */
+    private final int pageWidth;
+    /** Page height. */
+    private final int pageHeight;
+    /** Padding between surfaces. */
+    private final int padding;
+
+    /**
+     * Create packer.
+     * 
+     * @param pageWidth The maximum page width (must be strictly positive).
+     * @param pageHeight The maximum page height (must be strictly positive).
+     * @param padding The padding between surfaces (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public AtlasPacker(int pageWidth, int pageHeight, int padding)
+    {
+        super();
+
+        Check.superiorStrict(pageWidth, 0);
+        Check.superiorStrict(pageHeight, 0);
+        Check.superiorOrEqual(padding, 0);
+
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.padding = padding;
+    }
+
+    /**
+     * Add an image file to pack. Region is named with the media name.
+     * 
+     * @param media The image media (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument, already added, too large or unable to read image.
+     */
+    public void add(Media media)
+    {
+        Check.notNull(media);
+
+        final ImageBuffer surface = Graphics.getImageBuffer(media);
+        try
+        {
+            add(media.getName(), surface, true);
+        }
+        catch (final LionEngineException exception)
+        {
+            surface.dispose();
+            throw exception;
+        }
+    }
+
+    /**
+     * Add a surface to pack. Surface is only read, and remains owned by the caller.
+     * 
+     * @param name The region name (must not be <code>null</code>).
+     * @param surface The surface to pack (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments, already added or too large.
+     */
+    public void add(String name, ImageBuffer surface)
+    {
+        add(name, surface, false);
+    }
+
+    /**
+     * Pack added surfaces into pages. Added surfaces are cleared.
+     * 
+     * @return The packed atlas.
+     */
+    public Atlas pack()
+    {
+        final List<Entry> sorted = new ArrayList<>(entries);
+        Collections.sort(sorted);
+
+        final List<AtlasBin> bins = new ArrayList<>();
+        final List<AtlasRegion> regions = new ArrayList<>(sorted.size());
+        final List<AtlasBin.Area> areas = new ArrayList<>(sorted.size());
+        for (final Entry entry : sorted)
+        {
+            final int width = entry.surface.getWidth();
+            final int height = entry.surface.getHeight();
+
+            AtlasBin.Area area = null;
+            int page = 0;
+            while (area == null)
+            {
+                if (page == bins.size())
+                {
+                    bins.add(new AtlasBin(pageWidth, pageHeight));
+                }
+                area = bins.get(page).insert(Math.min(width + padding, pageWidth),
+                                             Math.min(height + padding, pageHeight));
+                if (area == null)
+                {
+                    page++;
+                }
+            }
+            areas.add(area);
+            regions.add(new AtlasRegion(entry.name, page, area.x, area.y, width, height));
+        }
+
+        final List<ImageBuffer> pages = new ArrayList<>(bins.size());
+        for (final AtlasBin bin : bins)
+        {
+            final int width = Math.min(pageWidth, Math.max(1, bin.getUsedWidth()));
+            final int height = Math.min(pageHeight, Math.max(1, bin.getUsedHeight()));
+            pages.add(Graphics.createImageBuffer(width, height, ColorRgba.TRANSPARENT));
+        }
+        for (int i = 0; i < sorted.size(); i++)
+        {
+            copy(sorted.get(i).surface, pages.get(regions.get(i).getPage()), areas.get(i));
+        }
+        for (final ImageBuffer page : pages)
+        {
+            page.prepare();
+        }
+        clear();
+
+        return new Atlas(pages, regions);
+    }
+
+    /**
+     * Clear added surfaces, releasing the ones loaded from media.
+     */
+    public void clear()
+    {
+        for (final Entry entry : entries)
+        {
+            if (entry.owned)
+            {
+                entry.surface.dispose();
+            }
+        }
+        entries.clear();
+        names.clear();
+    }
+
+    /**
+     * Add a surface to pack.
+     * 
+     * @param name The region name (must not be <code>null</code>).
+     * @param surface The surface to pack (must not be <code>null</code>).
+     * @param owned <code>true</code> if surface must be disposed once packed, <code>false</code> else.
+     * @throws LionEngineException If invalid arguments, already added or too large.
+     */
+    private void add(String name, ImageBuffer surface, boolean owned)
+    {
+        Check.notNull(name);
+        Check.notNull(surface);
+
+        if (surface.getWidth() > pageWidth || surface.getHeight() > pageHeight)
+        {
+            throw new LionEngineException(ERROR_SIZE + name);
+        }
+        if (!names.add(name))
+        {
+            throw new LionEngineException(ERROR_NAME + name);
+        }
+        entries.add(new Entry(name, surface, owned));
+    }
+
+    /**
+     * Surface to pack.
+     */
+    private static final class Entry implements Comparable<Entry>
+    {
+        /** Region name. */
+        private final String name;
+        /** Surface reference. */
+        private final ImageBuffer surface;
+        /** Owned by packer flag. */
+        private final boolean owned;
+
+        /**
+         * Create entry.
+         * 
+         * @param name The region name.
+         * @param surface The surface reference.
+         * @param owned The owned flag.
+         */
+        Entry(String name, ImageBuffer surface, boolean owned)
+        {
+            super();
+
+            this.name = name;
+            this.surface = surface;
+            this.owned = owned;
+        }
+
+        /*
+         * Comparable
+         */
+
+        @Override
+        public int compareTo(Entry other)
+        {
+            final int side = Math.max(other.surface.getWidth(), other.surface.getHeight())
+                             - Math.max(surface.getWidth(), surface.getHeight());
+            if (side != 0)
+            {
+                return side;
+            }
+            final int area = other.surface.getWidth() * other.surface.getHeight()
+                             - surface.getWidth() * surface.getHeight();
+            if (area != 0)
+            {
+                return area;
+            }
+            return name.compareTo(other.name);
+        }
+    }
+}
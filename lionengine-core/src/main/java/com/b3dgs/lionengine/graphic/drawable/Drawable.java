@@ -37,6 +37,7 @@ import com.b3dgs.lionengine.graphic.ImageBuffer;
  * <li>{@link SpriteTiled}</li>
  * <li>{@link SpriteParallaxed}</li>
  * <li>{@link SpriteFont}</li>
+ * <li>{@link Atlas}</li>
  * </ul>
  * <p>
  * This class is Thread-Safe.
@@ -164,6 +165,27 @@ public final class Drawable
         return new SpriteImpl(surface);
     }
 
+    /**
+     * Load a sprite from an atlas region (sharing the atlas page). Sprites of the same atlas page can be rendered one
+     * after another without switching source surface.
+     * <p>
+     * {@link Sprite#load()} must not be called as surface has already been loaded. {@link Sprite#getSurface()} returns
+     * the shared page until a surface modification (stretch, rotate, filter, transparency, fade) detaches the region.
+     * </p>
+     * 
+     * @param atlas The atlas reference (must not be <code>null</code>).
+     * @param region The region name (must not be <code>null</code>).
+     * @return The loaded sprite.
+     * @throws LionEngineException If invalid arguments or region not found.
+     */
+    public static Sprite loadSprite(Atlas atlas, String region)
+    {
+        Check.notNull(atlas);
+
+        final AtlasRegion found = atlas.getRegion(region);
+        return new SpriteImpl(atlas.getPage(found), found);
+    }
+
     /**
      * Load an animated sprite from a file, giving horizontal and vertical frames.
      * <p>
@@ -199,6 +221,30 @@ public final class Drawable
         return new SpriteAnimatedImpl(surface, horizontalFrames, verticalFrames);
     }
 
+    /**
+     * Load an animated sprite from an atlas region, giving horizontal and vertical frames (sharing the atlas page).
+     * <p>
+     * {@link SpriteAnimated#load()} must not be called as surface has already been loaded.
+     * </p>
+     * 
+     * @param atlas The atlas reference (must not be <code>null</code>).
+     * @param region The region name (must not be <code>null</code>).
+     * @param horizontalFrames The number of horizontal frames (must be strictly positive).
+     * @param verticalFrames The number of vertical frames (must be strictly positive).
+     * @return The loaded animated sprite.
+     * @throws LionEngineException If arguments are invalid or region not found.
+     */
+    public static SpriteAnimated loadSpriteAnimated(Atlas atlas,
+                                                    String region,
+                                                    int horizontalFrames,
+                                                    int verticalFrames)
+    {
+        Check.notNull(atlas);
+
+        final AtlasRegion found = atlas.getRegion(region);
+        return new SpriteAnimatedImpl(atlas.getPage(found), found, horizontalFrames, verticalFrames);
+    }
+
     /**
      * Load a tiled sprite from a file, giving tile dimension.
      * <p>
@@ -234,6 +280,27 @@ public final class Drawable
         return new SpriteTiledImpl(surface, tileWidth, tileHeight);
     }
 
+    /**
+     * Load a tiled sprite from an atlas region, giving tile dimension (sharing the atlas page).
+     * <p>
+     * {@link SpriteTiled#load()} must not be called as surface has already been loaded.
+     * </p>
+     * 
+     * @param atlas The atlas reference (must not be <code>null</code>).
+     * @param region The region name (must not be <code>null</code>).
+     * @param tileWidth The tile width (must be strictly positive).
+     * @param tileHeight The tile height (must be strictly positive).
+     * @return The loaded tiled sprite.
+     * @throws LionEngineException If arguments are invalid or region not found.
+     */
+    public static SpriteTiled loadSpriteTiled(Atlas atlas, String region, int tileWidth, int tileHeight)
+    {
+        Check.notNull(atlas);
+
+        final AtlasRegion found = atlas.getRegion(region);
+        return new SpriteTiledImpl(atlas.getPage(found), found, tileWidth, tileHeight);
+    }
+
     /**
      * Load a parallaxed sprite, for parallax effect.
      * <p>
@@ -270,6 +337,18 @@ public final class Drawable
         return new SpriteFontImpl(getMediaDpi(media), data, letterWidth, letterHeight);
     }
 
+    /**
+     * Load an atlas from its configuration, as exported by {@link AtlasConfig#exports(Media, Atlas)}.
+     * 
+     * @param config The atlas configuration media (must not be <code>null</code>).
+     * @return The loaded atlas.
+     * @throws LionEngineException If invalid argument or unable to read configuration or pages.
+     */
+    public static Atlas loadAtlas(Media config)
+    {
+        return AtlasConfig.imports(getMediaDpi(config));
+    }
+
     /**
      * Get the associated DPI media.
      * 
@@ -79,6 +79,10 @@ public interface Sprite extends Image
 
     /**
      * Set alpha value. The lower is the value, the higher will be the ghost effect.
+     * <p>
+     * Alpha is applied at render time with {@link com.b3dgs.lionengine.graphic.Graphic#setAlpha(int)}, surface is not
+     * modified. Use {@link #setFade(int, int)} with a fade of <code>-255</code> for the surface rewriting fallback.
+     * </p>
      * 
      * @param alpha The alpha value <code>[0 - 255]</code>.
      * @throws LionEngineException If argument is invalid.
@@ -88,6 +92,9 @@ public interface Sprite extends Image
     /**
      * Set fade value. The lower is the value, the blacker will be the fade effect. The higher is the value, the whiter
      * will be the fade effect.
+     * <p>
+     * Surface pixels are rewritten on each call, prefer {@link #setAlpha(int)} when only transparency changes.
+     * </p>
      * 
      * @param alpha The alpha value <code>[0 - 255]</code>.
      * @param fade The fade value <code>[0 - 255]</code>.
@@ -90,6 +90,28 @@ final class SpriteAnimatedImpl extends SpriteImpl implements SpriteAnimated
         framesNumber = framesHorizontal * framesVertical;
     }
 
+    /**
+     * Internal constructor.
+     * 
+     * @param page The atlas page containing the region (must not be <code>null</code>).
+     * @param region The region to render (must not be <code>null</code>).
+     * @param framesHorizontal The number of horizontal frames (must be strictly positive).
+     * @param framesVertical The number of vertical frames (must be strictly positive).
+     * @throws LionEngineException If arguments are invalid.
+     */
+    SpriteAnimatedImpl(ImageBuffer page, AtlasRegion region, int framesHorizontal, int framesVertical)
+    {
+        super(page, region);
+
+        Check.superiorStrict(framesHorizontal, 0);
+        Check.superiorStrict(framesVertical, 0);
+
+        media = null;
+        this.framesHorizontal = framesHorizontal;
+        this.framesVertical = framesVertical;
+        framesNumber = framesHorizontal * framesVertical;
+    }
+
     /*
      * SpriteAnimated
      */
@@ -225,6 +247,10 @@ final class SpriteAnimatedImpl extends SpriteImpl implements SpriteAnimated
         if (getSurface() != null)
         {
             result = prime * result + getSurface().hashCode();
+            if (getRegion() != null)
+            {
+                result = prime * result + getRegion().hashCode();
+            }
         }
         else
         {
@@ -248,6 +274,7 @@ final class SpriteAnimatedImpl extends SpriteImpl implements SpriteAnimated
         }
         final SpriteAnimatedImpl other = (SpriteAnimatedImpl) object;
         return getSurface() == other.getSurface()
+               && getRegion() == other.getRegion()
                && framesHorizontal == other.framesHorizontal
                && framesVertical == other.framesVertical;
     }
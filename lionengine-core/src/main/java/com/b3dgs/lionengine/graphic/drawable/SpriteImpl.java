@@ -39,11 +39,32 @@ class SpriteImpl implements Sprite
 {
     /** Error already loaded. */
     static final String ERROR_ALREADY_LOADED = "Surface has already been loaded: ";
+    /** Opaque alpha. */
+    private static final int ALPHA_OPAQUE = 255;
+
+    /**
+     * Extract region pixels from its page into a dedicated surface.
+     * 
+     * @param page The page surface.
+     * @param region The region to extract.
+     * @return The extracted surface.
+     */
+    private static ImageBuffer extract(ImageBuffer page, AtlasRegion region)
+    {
+        final int w = region.getWidth();
+        final int h = region.getHeight();
+        final int[] pixels = page.getRgb(region.getX(), region.getY(), w, h, new int[w * h], 0, w);
+        final ImageBuffer extracted = Graphics.createImageBuffer(w, h, ColorRgba.TRANSPARENT);
+        extracted.setRgb(0, 0, w, h, pixels, 0, w);
+        return extracted;
+    }
 
     /** Sprite file name (can be <code>null</code> created with existing surface). */
     private final Media media;
     /** Sprite current surface (<code>null</code> if not loaded from existing media). */
     private volatile ImageBuffer surface;
+    /** Atlas region in surface (<code>null</code> if surface is not an atlas page). */
+    private AtlasRegion region;
     /** Sprite original surface (<code>null</code> if surface unmodified). */
     private ImageBuffer surfaceOriginal;
     /** Origin point. */
@@ -62,7 +83,9 @@ class SpriteImpl implements Sprite
     private int rx;
     /** Render vertical position. */
     private int ry;
-    /** Sprite raw data (used for alpha, can be <code>null</code>). */
+    /** Render alpha. */
+    private int alpha = ALPHA_OPAQUE;
+    /** Sprite raw data (used for fade, can be <code>null</code>). */
     private int[][] rgb;
     /** First alpha. */
     private boolean firstAlpha;
@@ -105,7 +128,28 @@ class SpriteImpl implements Sprite
     }
 
     /**
-     * Render an extract of a surface to a specified destination.
+     * Internal constructor. Surface is the shared atlas page, until a modification detaches the region.
+     * 
+     * @param page The atlas page containing the region (must not be <code>null</code>).
+     * @param region The region to render (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    SpriteImpl(ImageBuffer page, AtlasRegion region)
+    {
+        super();
+
+        Check.notNull(page);
+        Check.notNull(region);
+
+        surface = page;
+        this.region = region;
+        width = region.getWidth();
+        height = region.getHeight();
+        media = null;
+    }
+
+    /**
+     * Render an extract of a surface to a specified destination, with render alpha combined to graphic one.
      * 
      * @param g The graphic output.
      * @param x The horizontal destination.
@@ -118,17 +162,50 @@ class SpriteImpl implements Sprite
      */
     protected final void render(Graphic g, int x, int y, int w, int h, int ox, int oy)
     {
+        if (alpha == ALPHA_OPAQUE)
+        {
+            draw(g, x, y, w, h, ox, oy);
+        }
+        else if (alpha > 0)
+        {
+            final int previous = g.getAlpha();
+            g.setAlpha(previous * alpha / ALPHA_OPAQUE);
+            draw(g, x, y, w, h, ox, oy);
+            g.setAlpha(previous);
+        }
+    }
+
+    /**
+     * Draw an extract of a surface to a specified destination.
+     * 
+     * @param g The graphic output.
+     * @param x The horizontal destination.
+     * @param y The vertical destination.
+     * @param w The width extract.
+     * @param h The height extract.
+     * @param ox The horizontal offset (width count).
+     * @param oy The vertical offset (height count).
+     */
+    private void draw(Graphic g, int x, int y, int w, int h, int ox, int oy)
+    {
+        int sx = ox * w;
+        int sy = oy * h;
+        if (region != null)
+        {
+            sx += region.getX();
+            sy += region.getY();
+        }
         if (Mirror.HORIZONTAL == mirror)
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w + w, oy * h, ox * w, oy * h + h);
+            g.drawImage(surface, x, y, x + w, y + h, sx + w, sy, sx, sy + h);
         }
         else if (Mirror.VERTICAL == mirror)
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w, oy * h + h, ox * w + w, oy * h);
+            g.drawImage(surface, x, y, x + w, y + h, sx, sy + h, sx + w, sy);
         }
         else
         {
-            g.drawImage(surface, x, y, x + w, y + h, ox * w, oy * h, ox * w + w, oy * h + h);
+            g.drawImage(surface, x, y, x + w, y + h, sx, sy, sx + w, sy + h);
         }
     }
 
@@ -178,10 +255,25 @@ class SpriteImpl implements Sprite
     }
 
     /**
-     * Backup the original surface before modification only if needed.
+     * Get the atlas region.
+     * 
+     * @return The atlas region (<code>null</code> if surface is not an atlas page).
+     */
+    final AtlasRegion getRegion()
+    {
+        return region;
+    }
+
+    /**
+     * Backup the original surface before modification only if needed. Atlas region is detached from its shared page.
      */
     private void lazySurfaceBackup()
     {
+        if (region != null)
+        {
+            surface = extract(surface, region);
+            region = null;
+        }
         if (surfaceOriginal == null)
         {
             surfaceOriginal = Graphics.getImageBuffer(surface);
@@ -215,7 +307,7 @@ class SpriteImpl implements Sprite
     @Override
     public void dispose()
     {
-        if (surface != null)
+        if (surface != null && region == null)
         {
             surface.dispose();
         }
@@ -296,9 +388,9 @@ class SpriteImpl implements Sprite
     public final void setAlpha(int alpha)
     {
         Check.superiorOrEqual(alpha, 0);
-        Check.inferiorOrEqual(alpha, 255);
+        Check.inferiorOrEqual(alpha, ALPHA_OPAQUE);
 
-        setFade(alpha, -255);
+        this.alpha = alpha;
     }
 
     @Override
@@ -389,6 +481,10 @@ class SpriteImpl implements Sprite
         if (surface != null)
         {
             result = prime * result + surface.hashCode();
+            if (region != null)
+            {
+                result = prime * result + region.hashCode();
+            }
         }
         else
         {
@@ -409,6 +505,6 @@ class SpriteImpl implements Sprite
             return false;
         }
         final SpriteImpl other = (SpriteImpl) object;
-        return surface == other.surface;
+        return surface == other.surface && region == other.region;
     }
 }
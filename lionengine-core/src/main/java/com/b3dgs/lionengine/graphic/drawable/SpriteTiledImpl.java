@@ -77,6 +77,27 @@ final class SpriteTiledImpl extends SpriteImpl implements SpriteTiled
         tilesVertical = getHeight() / tileHeight;
     }
 
+    /**
+     * Internal constructor.
+     * 
+     * @param page The atlas page containing the region (must not be <code>null</code>).
+     * @param region The region to render (must not be <code>null</code>).
+     * @param tileWidth The tile width (must be strictly positive).
+     * @param tileHeight The tile height (must be strictly positive).
+     * @throws LionEngineException If arguments are invalid.
+     */
+    SpriteTiledImpl(ImageBuffer page, AtlasRegion region, int tileWidth, int tileHeight)
+    {
+        super(page, region);
+
+        Check.superiorStrict(tileWidth, 0);
+        Check.superiorStrict(tileHeight, 0);
+
+        media = null;
+        tilesHorizontal = getWidth() / tileWidth;
+        tilesVertical = getHeight() / tileHeight;
+    }
+
     /*
      * SpriteTiled
      */
@@ -147,6 +168,10 @@ final class SpriteTiledImpl extends SpriteImpl implements SpriteTiled
         if (getSurface() != null)
         {
             result = prime * result + getSurface().hashCode();
+            if (getRegion() != null)
+            {
+                result = prime * result + getRegion().hashCode();
+            }
         }
         else
         {
@@ -170,6 +195,7 @@ final class SpriteTiledImpl extends SpriteImpl implements SpriteTiled
         }
         final SpriteTiledImpl other = (SpriteTiledImpl) object;
         return getSurface() == other.getSurface()
+               && getRegion() == other.getRegion()
                && tilesHorizontal == other.tilesHorizontal
                && tilesVertical == other.tilesVertical;
     }
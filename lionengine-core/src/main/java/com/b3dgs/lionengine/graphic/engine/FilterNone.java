@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.graphic.engine;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
@@ -50,6 +51,17 @@ public final class FilterNone implements Filter
         return source;
     }
 
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        System.arraycopy(source, 0, destination, 0, width * height);
+    }
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -36,6 +36,8 @@ import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Screen;
 import com.b3dgs.lionengine.graphic.ScreenListener;
 import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.filter.FilterChain;
+import com.b3dgs.lionengine.graphic.filter.FilterParallel;
 
 /**
  * Sequence class is used for each derived sequence, such as Introduction, Menu, Scene... It contains a reference to the
@@ -66,6 +68,10 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     private Resolution source;
     /** Filter reference. */
     private volatile Filter filter = FilterNone.INSTANCE;
+    /** Filter renderer, reusing its buffers between frames (<code>null</code> for {@link FilterNone}). */
+    private volatile FilterChain renderer;
+    /** Parallel filtering flag. */
+    private volatile boolean filterParallel;
     /** Next sequence pointer. */
     private Optional<Sequencable> nextSequence = Optional.empty();
     /** Current frame rate. */
@@ -139,9 +145,33 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
     public final void setFilter(Filter filter)
     {
         this.filter = Optional.ofNullable(filter).orElse(FilterNone.INSTANCE);
+        if (FilterNone.INSTANCE.equals(this.filter))
+        {
+            renderer = null;
+        }
+        else if (filterParallel)
+        {
+            renderer = new FilterChain(new FilterParallel(this.filter));
+        }
+        else
+        {
+            renderer = new FilterChain(this.filter);
+        }
         transform = getTransform();
     }
 
+    /**
+     * Set the parallel filtering flag. If enabled, the filter is computed by strips on the shared
+     * {@link FilterParallel} workers, with the same result.
+     * 
+     * @param parallel <code>true</code> to filter on several threads, <code>false</code> on the rendering thread.
+     */
+    public final void setFilterParallel(boolean parallel)
+    {
+        filterParallel = parallel;
+        setFilter(filter);
+    }
+
     /**
      * Get main frame location x.
      * 
@@ -257,7 +287,15 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
             else
             {
                 render(graphic);
-                g.drawImage(filter.filter(buf), transform, 0, 0);
+                final FilterChain current = renderer;
+                if (current == null)
+                {
+                    g.drawImage(buf, transform, 0, 0);
+                }
+                else
+                {
+                    g.drawImage(current.filter(buf), transform, 0, 0);
+                }
             }
         }
     }
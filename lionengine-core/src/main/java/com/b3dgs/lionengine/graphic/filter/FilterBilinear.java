@@ -17,9 +17,9 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
@@ -30,20 +30,21 @@ import com.b3dgs.lionengine.graphic.Transform;
  * This class is Thread-Safe.
  * </p>
  */
-public class FilterBilinear implements Filter
+public class FilterBilinear implements FilterStrip
 {
+    /** Filter radius. */
+    private static final int RADIUS = 1;
+    /** Divide table, shared between calls. */
+    private static final int[] DIVIDE = createDivide(RADIUS);
+
     /**
-     * Compute bilinear filtering.
+     * Create the divide table.
      * 
-     * @param in The source pixels.
-     * @param out The destination pixels.
-     * @param width The image width.
-     * @param height The image height.
      * @param radius The radius used.
+     * @return The divide table.
      */
-    private static void compute(int[] in, int[] out, int width, int height, int radius)
+    private static int[] createDivide(int radius)
     {
-        final int widthMinus1 = width - 1;
         final int tableSize = 2 * radius + 1;
         final int[] divide = new int[Constant.UNSIGNED_BYTE * tableSize];
 
@@ -51,11 +52,27 @@ public class FilterBilinear implements Filter
         {
             divide[i] = i / tableSize;
         }
+        return divide;
+    }
 
-        int inIndex = 0;
-        for (int y = 0; y < height; y++)
+    /**
+     * Compute bilinear filtering.
+     * 
+     * @param in The source pixels.
+     * @param out The destination pixels.
+     * @param width The image width.
+     * @param height The image height.
+     * @param start The first line (inclusive).
+     * @param end The last line (exclusive).
+     */
+    private static void compute(int[] in, int[] out, int width, int height, int start, int end)
+    {
+        final int widthMinus1 = width - 1;
+
+        int inIndex = start * width;
+        for (int y = start; y < end; y++)
         {
-            compute(in, out, y, inIndex, divide, width, widthMinus1, height, radius);
+            compute(in, out, y, inIndex, DIVIDE, width, widthMinus1, height, RADIUS);
             inIndex += width;
         }
     }
@@ -138,7 +155,7 @@ public class FilterBilinear implements Filter
     }
 
     /*
-     * Filter
+     * FilterStrip
      */
 
     @Override
@@ -151,14 +168,56 @@ public class FilterBilinear implements Filter
         final int[] outPixels = new int[width * height];
         source.getRgb(0, 0, width, height, inPixels, 0, width);
 
-        compute(inPixels, outPixels, width, height, 1);
-        compute(outPixels, inPixels, height, width, 1);
+        compute(inPixels, outPixels, width, height, 0, height);
+        compute(outPixels, inPixels, height, width, 0, width);
 
         final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
         dest.setRgb(0, 0, width, height, inPixels, 0, width);
         return dest;
     }
 
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        compute(source, destination, width, height, 0, height);
+        compute(destination, source, height, width, 0, width);
+        System.arraycopy(source, 0, destination, 0, width * height);
+    }
+
+    @Override
+    public int getPasses(int width, int height)
+    {
+        return 2;
+    }
+
+    @Override
+    public int getLines(int pass, int width, int height)
+    {
+        if (pass == 0)
+        {
+            return height;
+        }
+        return width;
+    }
+
+    @Override
+    public void filter(int pass, int[] in, int[] out, int width, int height, int start, int end)
+    {
+        if (pass == 0)
+        {
+            compute(in, out, width, height, start, end);
+        }
+        else
+        {
+            compute(in, out, height, width, start, end);
+        }
+    }
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -17,9 +17,9 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
@@ -27,7 +27,7 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * Blur filter implementation.
  */
-public class FilterBlur implements Filter
+public class FilterBlur implements FilterStrip
 {
     /** Clamp edges. */
     public static final int CLAMP_EDGES = 0;
@@ -48,14 +48,24 @@ public class FilterBlur implements Filter
      * @param height The image height.
      * @param alpha The alpha flag.
      * @param edge The edge flag.
+     * @param start The first line (inclusive).
+     * @param end The last line (exclusive).
      */
-    private static void compute(Kernel kernel, int[] in, int[] out, int width, int height, boolean alpha, int edge)
+    private static void compute(Kernel kernel,
+                                int[] in,
+                                int[] out,
+                                int width,
+                                int height,
+                                boolean alpha,
+                                int edge,
+                                int start,
+                                int end)
     {
         final float[] matrix = kernel.getMatrix();
         final int cols = kernel.getWidth();
         final int cols2 = cols / 2;
 
-        for (int y = 0; y < height; y++)
+        for (int y = start; y < end; y++)
         {
             int index = y;
             final int ioffset = y * width;
@@ -167,11 +177,9 @@ public class FilterBlur implements Filter
      * Create a blur kernel.
      * 
      * @param radius The blur radius.
-     * @param width The image width.
-     * @param height The image height.
      * @return The blur kernel.
      */
-    private static Kernel createKernel(float radius, int width, int height)
+    private static Kernel createKernel(float radius)
     {
         final int r = (int) Math.ceil(radius);
         final int rows = r * 2 + 1;
@@ -203,10 +211,7 @@ public class FilterBlur implements Filter
             matrix[i] /= total;
         }
 
-        final float[] data = new float[width * height];
-        System.arraycopy(matrix, 0, data, 0, rows);
-
-        return new Kernel(rows, data);
+        return new Kernel(rows, matrix);
     }
 
     /**
@@ -220,8 +225,8 @@ public class FilterBlur implements Filter
         return UtilMath.clamp(value, 0, 255);
     }
 
-    /** Current radius. */
-    private volatile float radius = RADIUS_DEFAULT;
+    /** Current kernel, computed on radius change. */
+    private volatile Kernel kernel = createKernel(RADIUS_DEFAULT);
     /** Alpha flag. */
     private volatile boolean alpha = true;
     /** Edge mode. */
@@ -242,7 +247,7 @@ public class FilterBlur implements Filter
      */
     public void setRadius(float radius)
     {
-        this.radius = radius;
+        kernel = createKernel(radius);
     }
 
     /**
@@ -268,7 +273,7 @@ public class FilterBlur implements Filter
     }
 
     /*
-     * Filter
+     * FilterStrip
      */
 
     @Override
@@ -285,15 +290,65 @@ public class FilterBlur implements Filter
         final int[] outPixels = new int[width * height];
         source.getRgb(0, 0, width, height, inPixels, 0, width);
 
-        final Kernel kernel = createKernel(radius, width, height);
-        compute(kernel, inPixels, outPixels, width, height, alpha, edge);
-        compute(kernel, outPixels, inPixels, height, width, alpha, edge);
+        final Kernel current = kernel;
+        compute(current, inPixels, outPixels, width, height, alpha, edge, 0, height);
+        compute(current, outPixels, inPixels, height, width, alpha, edge, 0, width);
 
         final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
         dest.setRgb(0, 0, width, height, inPixels, 0, width);
         return dest;
     }
 
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        if (width >= MIN_SIZE && height >= MIN_SIZE)
+        {
+            final Kernel current = kernel;
+            compute(current, source, destination, width, height, alpha, edge, 0, height);
+            compute(current, destination, source, height, width, alpha, edge, 0, width);
+        }
+        System.arraycopy(source, 0, destination, 0, width * height);
+    }
+
+    @Override
+    public int getPasses(int width, int height)
+    {
+        if (width < MIN_SIZE || height < MIN_SIZE)
+        {
+            return 0;
+        }
+        return 2;
+    }
+
+    @Override
+    public int getLines(int pass, int width, int height)
+    {
+        if (pass == 0)
+        {
+            return height;
+        }
+        return width;
+    }
+
+    @Override
+    public void filter(int pass, int[] in, int[] out, int width, int height, int start, int end)
+    {
+        if (pass == 0)
+        {
+            compute(kernel, in, out, width, height, alpha, edge, start, end);
+        }
+        else
+        {
+            compute(kernel, in, out, height, width, alpha, edge, start, end);
+        }
+    }
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transform;
+
+/**
+ * Filter applying a list of filters in order, without intermediate {@link ImageBuffer}.
+ * <p>
+ * Pixels are exchanged between filters through scratch arrays kept across calls, and {@link #filter(ImageBuffer)}
+ * always returns the same output buffer while source size does not change, so a per frame filtering does not allocate.
+ * Returned buffer is owned by the chain and overwritten on next call.
+ * </p>
+ * <p>
+ * This class is NOT Thread-Safe.
+ * </p>
+ */
+public final class FilterChain implements Filter
+{
+    /** Filters applied in order. */
+    private final Filter[] filters;
+    /** Total scale factor. */
+    private final int scale;
+    /** First scratch pixels. */
+    private int[] front = new int[0];
+    /** Second scratch pixels. */
+    private int[] back = new int[0];
+    /** Output buffer (<code>null</code> until first image filtering). */
+    private ImageBuffer output;
+
+    /**
+     * Create the filter chain.
+     * 
+     * @param filters The filters to apply in order (must not be <code>null</code>, not empty, without
+     *            <code>null</code> element).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public FilterChain(Filter... filters)
+    {
+        super();
+
+        Check.notNull(filters);
+        Check.superiorStrict(filters.length, 0);
+
+        int total = 1;
+        for (final Filter filter : filters)
+        {
+            Check.notNull(filter);
+            total *= filter.getScale();
+        }
+        this.filters = filters.clone();
+        scale = total;
+    }
+
+    /**
+     * Ensure scratch arrays can contain the pixels count.
+     * 
+     * @param count The pixels count.
+     */
+    private void ensureCapacity(int count)
+    {
+        if (front.length < count)
+        {
+            front = new int[count];
+            back = new int[count];
+        }
+    }
+
+    /**
+     * Apply filters in order, swapping between scratch arrays.
+     * 
+     * @param source The source pixels.
+     * @param destination The last filter destination (<code>null</code> to use a scratch array).
+     * @param width The source width.
+     * @param height The source height.
+     * @return The pixels array containing the result.
+     */
+    private int[] apply(int[] source, int[] destination, int width, int height)
+    {
+        int[] in = source;
+        int currentWidth = width;
+        int currentHeight = height;
+
+        for (int i = 0; i < filters.length; i++)
+        {
+            final int[] out;
+            if (destination != null && i == filters.length - 1)
+            {
+                out = destination;
+            }
+            else if (in == front)
+            {
+                out = back;
+            }
+            else
+            {
+                out = front;
+            }
+            filters[i].filter(in, out, currentWidth, currentHeight);
+
+            currentWidth *= filters[i].getScale();
+            currentHeight *= filters[i].getScale();
+            in = out;
+        }
+        return in;
+    }
+
+    /*
+     * Filter
+     */
+
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        Check.notNull(source);
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final int outWidth = width * scale;
+        final int outHeight = height * scale;
+
+        ensureCapacity(outWidth * outHeight);
+        source.getRgb(0, 0, width, height, front, 0, width);
+        final int[] result = apply(front, null, width, height);
+
+        if (output == null || output.getWidth() != outWidth || output.getHeight() != outHeight)
+        {
+            if (output != null)
+            {
+                output.dispose();
+            }
+            output = Graphics.createImageBuffer(outWidth, outHeight, source.getTransparentColor());
+        }
+        output.setRgb(0, 0, outWidth, outHeight, result, 0, outWidth);
+
+        return output;
+    }
+
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        ensureCapacity(width * scale * height * scale);
+        apply(source, destination, width, height);
+    }
+
+    @Override
+    public int getScale()
+    {
+        return scale;
+    }
+
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
+    {
+        final Transform transform = Graphics.createTransform();
+        transform.scale(scaleX / scale, scaleY / scale);
+        return transform;
+    }
+}
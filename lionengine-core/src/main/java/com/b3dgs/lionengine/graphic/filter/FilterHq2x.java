@@ -17,7 +17,7 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
-import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
@@ -28,8 +28,11 @@ import com.b3dgs.lionengine.graphic.Transform;
  * This class is Thread-Safe.
  * </p>
  */
-public final class FilterHq2x implements Filter
+public final class FilterHq2x implements FilterStrip
 {
+    /** Last scaler used, kept while source size does not change. */
+    private volatile RawScale2x scaler;
+
     /**
      * Create an Hq2x filter.
      */
@@ -38,8 +41,26 @@ public final class FilterHq2x implements Filter
         super();
     }
 
+    /**
+     * Get the scaler for the data size, reusing the last one if size is unchanged.
+     * 
+     * @param width The data width.
+     * @param height The data height.
+     * @return The scaler instance.
+     */
+    private RawScale2x getScaler(int width, int height)
+    {
+        RawScale2x current = scaler;
+        if (current == null || !current.hasSize(width, height))
+        {
+            current = new RawScale2x(width, height);
+            scaler = current;
+        }
+        return current;
+    }
+
     /*
-     * Filter
+     * FilterStrip
      */
 
     @Override
@@ -50,7 +71,6 @@ public final class FilterHq2x implements Filter
         final int[] srcData = new int[width * height];
         source.getRgb(0, 0, width, height, srcData, 0, width);
 
-        final RawScale2x scaler = new RawScale2x(width, height);
         final ImageBuffer image = Graphics.createImageBuffer(width * RawScale2x.SCALE,
                                                              height * RawScale2x.SCALE,
                                                              source.getTransparentColor());
@@ -58,13 +78,48 @@ public final class FilterHq2x implements Filter
                      0,
                      width * RawScale2x.SCALE,
                      height * RawScale2x.SCALE,
-                     scaler.getScaledData(srcData),
+                     getScaler(width, height).getScaledData(srcData),
                      0,
                      width * RawScale2x.SCALE);
 
         return image;
     }
 
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        getScaler(width, height).getScaledData(source, destination);
+    }
+
+    @Override
+    public int getScale()
+    {
+        return RawScale2x.SCALE;
+    }
+
+    @Override
+    public int getPasses(int width, int height)
+    {
+        return 1;
+    }
+
+    @Override
+    public int getLines(int pass, int width, int height)
+    {
+        return height;
+    }
+
+    @Override
+    public void filter(int pass, int[] in, int[] out, int width, int height, int start, int end)
+    {
+        getScaler(width, height).getScaledData(in, out, start, end);
+    }
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
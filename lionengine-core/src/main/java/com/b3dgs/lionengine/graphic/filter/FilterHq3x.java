@@ -17,7 +17,7 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
-import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transform;
@@ -28,8 +28,11 @@ import com.b3dgs.lionengine.graphic.Transform;
  * This class is Thread-Safe.
  * </p>
  */
-public final class FilterHq3x implements Filter
+public final class FilterHq3x implements FilterStrip
 {
+    /** Last scaler used, kept while source size does not change. */
+    private volatile RawScale3x scaler;
+
     /**
      * Create an Hq3x filter.
      */
@@ -38,8 +41,26 @@ public final class FilterHq3x implements Filter
         super();
     }
 
+    /**
+     * Get the scaler for the data size, reusing the last one if size is unchanged.
+     * 
+     * @param width The data width.
+     * @param height The data height.
+     * @return The scaler instance.
+     */
+    private RawScale3x getScaler(int width, int height)
+    {
+        RawScale3x current = scaler;
+        if (current == null || !current.hasSize(width, height))
+        {
+            current = new RawScale3x(width, height);
+            scaler = current;
+        }
+        return current;
+    }
+
     /*
-     * Filter
+     * FilterStrip
      */
 
     @Override
@@ -50,7 +71,6 @@ public final class FilterHq3x implements Filter
         final int[] srcData = new int[width * height];
         source.getRgb(0, 0, width, height, srcData, 0, width);
 
-        final RawScale3x scaler = new RawScale3x(width, height);
         final ImageBuffer image = Graphics.createImageBuffer(width * RawScale3x.SCALE,
                                                              height * RawScale3x.SCALE,
                                                              source.getTransparentColor());
@@ -58,12 +78,47 @@ public final class FilterHq3x implements Filter
                      0,
                      width * RawScale3x.SCALE,
                      height * RawScale3x.SCALE,
-                     scaler.getScaledData(srcData),
+                     getScaler(width, height).getScaledData(srcData),
                      0,
                      width * RawScale3x.SCALE);
         return image;
     }
 
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        getScaler(width, height).getScaledData(source, destination);
+    }
+
+    @Override
+    public int getScale()
+    {
+        return RawScale3x.SCALE;
+    }
+
+    @Override
+    public int getPasses(int width, int height)
+    {
+        return 1;
+    }
+
+    @Override
+    public int getLines(int pass, int width, int height)
+    {
+        return height;
+    }
+
+    @Override
+    public void filter(int pass, int[] in, int[] out, int width, int height, int start, int end)
+    {
+        getScaler(width, height).getScaledData(in, out, start, end);
+    }
+
     @Override
     public Transform getTransform(double scaleX, double scaleY)
     {
@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transform;
+
+/**
+ * Filter executing another filter on several threads, by horizontal strips.
+ * <p>
+ * Each pass of the filter is split in as many strips as threads, computed by workers and the calling thread. Strips
+ * read the whole pass input and only write their own lines, so neighbour lines needed at strip edges are always
+ * available and the result is identical to the single threaded one. Supported filters are {@link FilterHq2x},
+ * {@link FilterHq3x}, {@link FilterBlur} and {@link FilterBilinear}, others are executed on the calling thread.
+ * </p>
+ * <p>
+ * Strips are computed over the caller buffers with {@link #filter(int[], int[], int, int)} without allocation, so it
+ * can be used as a {@link FilterChain} element to filter each frame in parallel.
+ * </p>
+ * <p>
+ * Workers are not owned by the filter. By default the shared daemon workers are used: they live with the application
+ * and are never closed. An injected executor stays owned by the caller, who shuts it down once the filters using it
+ * are not used anymore.
+ * </p>
+ * <p>
+ * This class is NOT Thread-Safe.
+ * </p>
+ */
+public final class FilterParallel implements Filter
+{
+    /** Interrupted error. */
+    static final String ERROR_INTERRUPTED = "Filtering interrupted !";
+    /** Strip error. */
+    static final String ERROR_STRIP = "Unable to filter strip !";
+    /** Available processors. */
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    /** Shared workers, one less than processors as the calling thread computes a strip. */
+    private static final ExecutorService SHARED = createShared();
+
+    /**
+     * Create the shared daemon workers.
+     * 
+     * @return The shared workers.
+     */
+    private static ExecutorService createShared()
+    {
+        return Executors.newFixedThreadPool(Math.max(1, PROCESSORS - 1), runnable ->
+        {
+            final Thread thread = new Thread(runnable, FilterParallel.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Filter reference. */
+    private final Filter filter;
+    /** Filter by strips (<code>null</code> if filter does not support strips). */
+    private final FilterStrip strip;
+    /** Workers reference. */
+    private final ExecutorService executor;
+    /** Threads number, including calling thread. */
+    private final int threads;
+    /** Strips computed by workers, reused between passes. */
+    private final Strip[] tasks;
+    /** Pending strips lock. */
+    private final Object lock = new Object();
+    /** Pending strips number. */
+    private int pending;
+    /** First strip failure (<code>null</code> if none). */
+    private Throwable failure;
+    /** Source pixels cache for image filtering. */
+    private int[] inPixels = new int[0];
+    /** Destination pixels cache for image filtering. */
+    private int[] outPixels = new int[0];
+
+    /**
+     * Create a parallel filter on shared workers, with a thread by available processor.
+     * 
+     * @param filter The filter to execute (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FilterParallel(Filter filter)
+    {
+        this(filter, PROCESSORS);
+    }
+
+    /**
+     * Create a parallel filter on shared workers.
+     * 
+     * @param filter The filter to execute (must not be <code>null</code>).
+     * @param threads The threads number, including calling thread (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public FilterParallel(Filter filter, int threads)
+    {
+        this(filter, SHARED, threads);
+    }
+
+    /**
+     * Create a parallel filter on injected workers.
+     * 
+     * @param filter The filter to execute (must not be <code>null</code>).
+     * @param executor The workers, shut down by the caller (must not be <code>null</code>).
+     * @param threads The threads number, including calling thread (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public FilterParallel(Filter filter, ExecutorService executor, int threads)
+    {
+        super();
+
+        Check.notNull(filter);
+        Check.notNull(executor);
+        Check.superiorStrict(threads, 0);
+
+        this.filter = filter;
+        this.executor = executor;
+        this.threads = threads;
+        if (filter instanceof FilterStrip)
+        {
+            strip = (FilterStrip) filter;
+        }
+        else
+        {
+            strip = null;
+        }
+        tasks = new Strip[threads - 1];
+        for (int i = 0; i < tasks.length; i++)
+        {
+            tasks[i] = new Strip();
+        }
+    }
+
+    /**
+     * Compute a pass, splitting its lines in strips.
+     * 
+     * @param pass The pass index.
+     * @param in The pass input pixels.
+     * @param out The pass output pixels.
+     * @param width The source width.
+     * @param height The source height.
+     * @throws LionEngineException If a strip failed.
+     */
+    private void compute(int pass, int[] in, int[] out, int width, int height)
+    {
+        final int lines = strip.getLines(pass, width, height);
+        final int strips = Math.min(threads, lines);
+
+        synchronized (lock)
+        {
+            pending = strips - 1;
+            failure = null;
+        }
+        for (int i = 0; i < strips - 1; i++)
+        {
+            tasks[i].set(pass, in, out, width, height, lines * i / strips, lines * (i + 1) / strips);
+            try
+            {
+                executor.execute(tasks[i]);
+            }
+            catch (final RejectedExecutionException exception)
+            {
+                done(exception);
+            }
+        }
+        try
+        {
+            strip.filter(pass, in, out, width, height, lines * (strips - 1) / strips, lines);
+        }
+        finally
+        {
+            await();
+        }
+    }
+
+    /**
+     * Wait for workers strips completion.
+     * 
+     * @throws LionEngineException If a strip failed.
+     */
+    private void await()
+    {
+        synchronized (lock)
+        {
+            while (pending > 0)
+            {
+                try
+                {
+                    lock.wait();
+                }
+                catch (final InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new LionEngineException(exception, ERROR_INTERRUPTED);
+                }
+            }
+            if (failure != null)
+            {
+                throw new LionEngineException(failure, ERROR_STRIP);
+            }
+        }
+    }
+
+    /**
+     * Notify a worker strip completion.
+     * 
+     * @param error The strip failure (<code>null</code> if none).
+     */
+    private void done(Throwable error)
+    {
+        synchronized (lock)
+        {
+            if (failure == null)
+            {
+                failure = error;
+            }
+            pending--;
+            lock.notifyAll();
+        }
+    }
+
+    /*
+     * Filter
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pixels buffers are kept between calls, only the returned image is created.
+     * </p>
+     */
+    @Override
+    public ImageBuffer filter(ImageBuffer source)
+    {
+        Check.notNull(source);
+
+        if (strip == null)
+        {
+            return filter.filter(source);
+        }
+
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final int scale = getScale();
+        final int inSize = width * height;
+        final int outSize = inSize * scale * scale;
+
+        if (inPixels.length != inSize)
+        {
+            inPixels = new int[inSize];
+        }
+        if (outPixels.length != outSize)
+        {
+            outPixels = new int[outSize];
+        }
+        source.getRgb(0, 0, width, height, inPixels, 0, width);
+
+        filter(inPixels, outPixels, width, height);
+
+        final ImageBuffer image = Graphics.createImageBuffer(width * scale,
+                                                             height * scale,
+                                                             source.getTransparentColor());
+        image.setRgb(0, 0, width * scale, height * scale, outPixels, 0, width * scale);
+        return image;
+    }
+
+    @Override
+    public void filter(int[] source, int[] destination, int width, int height)
+    {
+        Check.notNull(source);
+        Check.notNull(destination);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        if (strip == null)
+        {
+            filter.filter(source, destination, width, height);
+        }
+        else
+        {
+            final int passes = strip.getPasses(width, height);
+            int[] in = source;
+            int[] out = destination;
+            for (int pass = 0; pass < passes; pass++)
+            {
+                compute(pass, in, out, width, height);
+                final int[] swap = in;
+                in = out;
+                out = swap;
+            }
+            if (passes % 2 == 0)
+            {
+                System.arraycopy(source, 0, destination, 0, width * height);
+            }
+        }
+    }
+
+    @Override
+    public int getScale()
+    {
+        return filter.getScale();
+    }
+
+    @Override
+    public Transform getTransform(double scaleX, double scaleY)
+    {
+        return filter.getTransform(scaleX, scaleY);
+    }
+
+    /**
+     * Strip computed by a worker.
+     */
+    private final class Strip implements Runnable
+    {
+        /** Pass index. */
+        private int pass;
+        /** Pass input pixels. */
+        private int[] in;
+        /** Pass output pixels. */
+        private int[] out;
+        /** Source width. */
+        private int width;
+        /** Source height. */
+        private int height;
+        /** First line (inclusive). */
+        private int start;
+        /** Last line (exclusive). */
+        private int end;
+
+        /**
+         * Create strip.
+         */
+        Strip()
+        {
+            super();
+        }
+
+        /**
+         * Set the strip to compute.
+         * 
+         * @param pass The pass index.
+         * @param in The pass input pixels.
+         * @param out The pass output pixels.
+         * @param width The source width.
+         * @param height The source height.
+         * @param start The first line (inclusive).
+         * @param end The last line (exclusive).
+         */
+        void set(int pass, int[] in, int[] out, int width, int height, int start, int end)
+        {
+            this.pass = pass;
+            this.in = in;
+            this.out = out;
+            this.width = width;
+            this.height = height;
+            this.start = start;
+            this.end = end;
+        }
+
+        /*
+         * Runnable
+         */
+
+        @Override
+        public void run()
+        {
+            Throwable error = null;
+            try
+            {
+                strip.filter(pass, in, out, width, height, start, end);
+            }
+            catch (final RuntimeException | Error exception)
+            {
+                error = exception;
+            }
+            finally
+            {
+                in = null;
+                out = null;
+            }
+            done(error);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import com.b3dgs.lionengine.graphic.Filter;
+
+/**
+ * Filter computed by passes, each pass being split in independent line strips.
+ * <p>
+ * A pass reads its whole input but only writes output lines of its strip, so strips of a same pass can be computed
+ * concurrently. First pass reads source and writes destination, next passes alternate between them. If passes number
+ * is even, result is in source and has to be copied to destination, so only filters keeping source size can have an
+ * even passes number.
+ * </p>
+ */
+interface FilterStrip extends Filter
+{
+    /**
+     * Get the passes number.
+     * 
+     * @param width The source width.
+     * @param height The source height.
+     * @return The passes number (0 if source is only copied).
+     */
+    int getPasses(int width, int height);
+
+    /**
+     * Get the lines number of a pass, which can be split in strips.
+     * 
+     * @param pass The pass index.
+     * @param width The source width.
+     * @param height The source height.
+     * @return The pass lines number.
+     */
+    int getLines(int pass, int width, int height);
+
+    /**
+     * Compute a pass strip.
+     * 
+     * @param pass The pass index.
+     * @param in The pass input pixels.
+     * @param out The pass output pixels.
+     * @param width The source width.
+     * @param height The source height.
+     * @param start The first line (inclusive).
+     * @param end The last line (exclusive).
+     */
+    void filter(int pass, int[] in, int[] out, int width, int height, int start, int end);
+}
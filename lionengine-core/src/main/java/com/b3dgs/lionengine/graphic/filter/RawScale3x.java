@@ -201,16 +201,52 @@ final class RawScale3x
     int[] getScaledData(int[] srcImage)
     {
         final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
+        getScaledData(srcImage, dstImage);
 
-        for (int y = 0; y < height; y++)
+        return dstImage;
+    }
+
+    /**
+     * Scale data into an existing destination.
+     * 
+     * @param srcImage The image source.
+     * @param dstImage The image destination, of at least <code>width * height * SCALE * SCALE</code> pixels.
+     */
+    void getScaledData(int[] srcImage, int[] dstImage)
+    {
+        getScaledData(srcImage, dstImage, 0, height);
+    }
+
+    /**
+     * Scale source lines into an existing destination. Only destination lines of the source range are written, so
+     * distinct ranges can be computed concurrently.
+     * 
+     * @param srcImage The image source.
+     * @param dstImage The image destination, of at least <code>width * height * SCALE * SCALE</code> pixels.
+     * @param startY The first source line (inclusive).
+     * @param endY The last source line (exclusive).
+     */
+    void getScaledData(int[] srcImage, int[] dstImage, int startY, int endY)
+    {
+        for (int y = startY; y < endY; y++)
         {
             for (int x = 0; x < width; x++)
             {
                 process(srcImage, dstImage, x, y);
             }
         }
+    }
 
-        return dstImage;
+    /**
+     * Check if scaler handles the data size.
+     * 
+     * @param dataWidth The data width.
+     * @param dataHeight The data height.
+     * @return <code>true</code> if same size, <code>false</code> else.
+     */
+    boolean hasSize(int dataWidth, int dataHeight)
+    {
+        return width == dataWidth && height == dataHeight;
     }
 
     /**
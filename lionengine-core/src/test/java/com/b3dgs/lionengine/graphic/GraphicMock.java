@@ -29,6 +29,8 @@ public class GraphicMock implements Graphic
     private ColorRgba color = ColorRgba.WHITE;
     /** Graphic used. */
     private Object g;
+    /** Render alpha. */
+    private int alpha = 255;
 
     /**
      * Create mock.
@@ -155,4 +157,16 @@ public class GraphicMock implements Graphic
     {
         return color;
     }
+
+    @Override
+    public void setAlpha(int alpha)
+    {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public int getAlpha()
+    {
+        return alpha;
+    }
 }
@@ -121,4 +121,33 @@ public class GraphicTest
 
         image.dispose();
     }
+
+    /**
+     * Test render alpha.
+     */
+    @Test
+    public void testAlpha()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(4, 4);
+        final Graphic g = image.createGraphic();
+
+        assertEquals(255, g.getAlpha());
+
+        g.setAlpha(128);
+        g.drawImage(image, 0, 0);
+        g.drawRect(0, 0, 2, 2, true);
+
+        assertEquals(128, g.getAlpha());
+
+        g.setAlpha(0);
+
+        assertEquals(0, g.getAlpha());
+
+        g.setAlpha(255);
+
+        assertEquals(255, g.getAlpha());
+
+        g.dispose();
+        image.dispose();
+    }
 }
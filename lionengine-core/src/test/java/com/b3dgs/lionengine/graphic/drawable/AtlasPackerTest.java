@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.drawable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilFile;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Test {@link AtlasPacker}, {@link Atlas} and {@link AtlasConfig}.
+ */
+public final class AtlasPackerTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setLoadFromJar(AtlasPackerTest.class);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+        Medias.setLoadFromJar(null);
+    }
+
+    /**
+     * Create a surface filled with color.
+     * 
+     * @param width The surface width.
+     * @param height The surface height.
+     * @param color The fill color.
+     * @return The created surface.
+     */
+    private static ImageBuffer createSurface(int width, int height, int color)
+    {
+        final ImageBuffer surface = Graphics.createImageBuffer(width, height);
+        final int[] pixels = new int[width * height];
+        Arrays.fill(pixels, color);
+        surface.setRgb(0, 0, width, height, pixels, 0, width);
+        return surface;
+    }
+
+    /**
+     * Check if regions overlap, including padding.
+     * 
+     * @param a The first region.
+     * @param b The second region.
+     * @param padding The padding.
+     * @return <code>true</code> if overlapping, <code>false</code> else.
+     */
+    private static boolean overlap(AtlasRegion a, AtlasRegion b, int padding)
+    {
+        return a.getPage() == b.getPage()
+               && a.getX() < b.getX() + b.getWidth() + padding
+               && b.getX() < a.getX() + a.getWidth() + padding
+               && a.getY() < b.getY() + b.getHeight() + padding
+               && b.getY() < a.getY() + a.getHeight() + padding;
+    }
+
+    /**
+     * Test pack layout and pixels.
+     */
+    @Test
+    public void testPack()
+    {
+        final int[] sizes =
+        {
+            16, 16, 32, 16, 8, 8, 8, 8, 24, 8, 4, 12
+        };
+        final AtlasPacker packer = new AtlasPacker(64, 32, 1);
+        for (int i = 0; i < sizes.length / 2; i++)
+        {
+            packer.add(String.valueOf(i), createSurface(sizes[i * 2], sizes[i * 2 + 1], i + 1));
+        }
+        final Atlas atlas = packer.pack();
+
+        assertEquals(1, atlas.getPages().size());
+        final ImageBuffer page = atlas.getPages().get(0);
+        assertTrue(page.getWidth() <= 64);
+        assertTrue(page.getHeight() <= 32);
+
+        final List<AtlasRegion> regions = new ArrayList<>(atlas.getRegions());
+        assertEquals(sizes.length / 2, regions.size());
+        for (int i = 0; i < sizes.length / 2; i++)
+        {
+            final AtlasRegion region = atlas.getRegion(String.valueOf(i));
+
+            assertEquals(sizes[i * 2], region.getWidth());
+            assertEquals(sizes[i * 2 + 1], region.getHeight());
+            assertTrue(region.getX() + region.getWidth() <= page.getWidth());
+            assertTrue(region.getY() + region.getHeight() <= page.getHeight());
+            assertEquals(i + 1, page.getRgb(region.getX(), region.getY()));
+            assertEquals(i + 1,
+                         page.getRgb(region.getX() + region.getWidth() - 1, region.getY() + region.getHeight() - 1));
+
+            for (final AtlasRegion other : regions)
+            {
+                assertTrue(other == region || !overlap(region, other, 1));
+            }
+        }
+    }
+
+    /**
+     * Test pack on multiple pages.
+     */
+    @Test
+    public void testPages()
+    {
+        final AtlasPacker packer = new AtlasPacker(16, 16, 0);
+        packer.add("a", createSurface(16, 16, 1));
+        packer.add("b", createSurface(16, 16, 2));
+        packer.add("c", createSurface(8, 8, 3));
+        final Atlas atlas = packer.pack();
+
+        assertEquals(3, atlas.getPages().size());
+        assertEquals(8, atlas.getPage(atlas.getRegion("c")).getWidth());
+        assertEquals(3, atlas.getPage(atlas.getRegion("c")).getRgb(0, 0));
+        assertTrue(atlas.hasRegion("a"));
+        assertFalse(atlas.hasRegion("d"));
+
+        assertEquals(0, packer.pack().getRegions().size());
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new AtlasPacker(0, 1, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new AtlasPacker(1, 0, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new AtlasPacker(1, 1, -1), "Invalid argument: -1 is not superior or equal to 0");
+
+        final AtlasPacker packer = new AtlasPacker(16, 16, 0);
+        assertThrows(() -> packer.add("a", createSurface(17, 1, 0)), AtlasPacker.ERROR_SIZE + "a");
+        packer.add("a", createSurface(16, 16, 0));
+        assertThrows(() -> packer.add("a", createSurface(1, 1, 0)), AtlasPacker.ERROR_NAME + "a");
+
+        final Atlas atlas = packer.pack();
+        assertThrows(() -> atlas.getRegion("b"), Atlas.ERROR_REGION + "b");
+        assertThrows(() -> new Atlas(atlas.getPages(), Arrays.asList(new AtlasRegion("b", 0, 8, 0, 9, 1))),
+                     "Invalid argument: 17 is not inferior or equal to 16");
+    }
+
+    /**
+     * Test config export and import.
+     */
+    @Test
+    public void testConfig()
+    {
+        final AtlasPacker packer = new AtlasPacker(64, 32, 0);
+        packer.add(Medias.create("image.png"));
+        packer.add("tile", createSurface(16, 16, 1));
+        final Atlas atlas = packer.pack();
+        assertEquals(2, atlas.getPages().size());
+
+        final Media config = Medias.create("atlas.xml");
+        AtlasConfig.exports(config, atlas);
+        final Atlas loaded = Drawable.loadAtlas(config);
+
+        assertEquals(2, loaded.getPages().size());
+        for (final AtlasRegion region : atlas.getRegions())
+        {
+            final AtlasRegion other = loaded.getRegion(region.getName());
+
+            assertEquals(region.getPage(), other.getPage());
+            assertEquals(region.getX(), other.getX());
+            assertEquals(region.getY(), other.getY());
+            assertEquals(region.getWidth(), other.getWidth());
+            assertEquals(region.getHeight(), other.getHeight());
+        }
+
+        loaded.dispose();
+        atlas.dispose();
+        UtilFile.deleteFile(Medias.create("atlas_0.png").getFile());
+        UtilFile.deleteFile(Medias.create("atlas_1.png").getFile());
+        UtilFile.deleteFile(config.getFile());
+    }
+
+    /**
+     * Test sprites loaded from atlas.
+     */
+    @Test
+    public void testDrawable()
+    {
+        final AtlasPacker packer = new AtlasPacker(64, 64, 1);
+        packer.add("sprite", createSurface(16, 8, 1));
+        packer.add("tiled", createSurface(32, 16, 2));
+        packer.add("animated", createSurface(24, 8, 3));
+        final Atlas atlas = packer.pack();
+        final ImageBuffer page = atlas.getPages().get(0);
+
+        final Sprite sprite = Drawable.loadSprite(atlas, "sprite");
+        assertEquals(16, sprite.getWidth());
+        assertEquals(8, sprite.getHeight());
+        assertEquals(page, sprite.getSurface());
+
+        final SpriteTiled tiled = Drawable.loadSpriteTiled(atlas, "tiled", 8, 8);
+        assertEquals(4, tiled.getTilesHorizontal());
+        assertEquals(2, tiled.getTilesVertical());
+        assertEquals(page, tiled.getSurface());
+
+        final SpriteAnimated animated = Drawable.loadSpriteAnimated(atlas, "animated", 3, 1);
+        assertEquals(8, animated.getTileWidth());
+        assertEquals(page, animated.getSurface());
+
+        assertThrows(() -> Drawable.loadSprite(atlas, "none"), Atlas.ERROR_REGION + "none");
+    }
+}
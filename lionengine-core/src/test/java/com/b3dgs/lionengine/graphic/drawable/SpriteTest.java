@@ -17,6 +17,7 @@
  */
 package com.b3dgs.lionengine.graphic.drawable;
 
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertHashEquals;
@@ -27,6 +28,8 @@ import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -41,8 +44,10 @@ import com.b3dgs.lionengine.geom.Geom;
 import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.GraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.filter.FilterBilinear;
 
 /**
@@ -431,6 +436,117 @@ public final class SpriteTest
         g.dispose();
     }
 
+    /**
+     * Test render with alpha, applied on graphic while drawing.
+     */
+    @Test
+    public void testRenderAlpha()
+    {
+        final AtomicInteger drawn = new AtomicInteger(-1);
+        final Graphic g = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image,
+                                  int dx1,
+                                  int dy1,
+                                  int dx2,
+                                  int dy2,
+                                  int sx1,
+                                  int sy1,
+                                  int sx2,
+                                  int sy2)
+            {
+                drawn.set(getAlpha());
+            }
+        };
+        final Sprite sprite = new SpriteImpl(Graphics.createImageBuffer(64, 32));
+        sprite.render(g);
+
+        assertEquals(255, drawn.get());
+
+        sprite.setAlpha(128);
+        sprite.render(g);
+
+        assertEquals(128, drawn.get());
+        assertEquals(255, g.getAlpha());
+
+        g.setAlpha(128);
+        sprite.render(g);
+
+        assertEquals(64, drawn.get());
+        assertEquals(128, g.getAlpha());
+
+        drawn.set(-1);
+        sprite.setAlpha(0);
+        sprite.render(g);
+
+        assertEquals(-1, drawn.get());
+    }
+
+    /**
+     * Test rendering from atlas region.
+     */
+    @Test
+    public void testRenderAtlas()
+    {
+        final int[] source = new int[4];
+        final Graphic g = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image,
+                                  int dx1,
+                                  int dy1,
+                                  int dx2,
+                                  int dy2,
+                                  int sx1,
+                                  int sy1,
+                                  int sx2,
+                                  int sy2)
+            {
+                source[0] = sx1;
+                source[1] = sy1;
+                source[2] = sx2;
+                source[3] = sy2;
+            }
+        };
+        final ImageBuffer page = Graphics.createImageBuffer(64, 32);
+        final AtlasRegion region = new AtlasRegion("region", 0, 16, 8, 8, 4);
+        final Sprite sprite = new SpriteImpl(page, region);
+
+        assertEquals(8, sprite.getWidth());
+        assertEquals(4, sprite.getHeight());
+        assertEquals(page, sprite.getSurface());
+        assertEquals(sprite, new SpriteImpl(page, region));
+        assertNotEquals(sprite, new SpriteImpl(page));
+        assertHashEquals(sprite, new SpriteImpl(page, region));
+
+        sprite.render(g);
+
+        assertArrayEquals(new int[]
+        {
+            16, 8, 24, 12
+        }, source);
+
+        sprite.setMirror(Mirror.HORIZONTAL);
+        sprite.render(g);
+
+        assertArrayEquals(new int[]
+        {
+            24, 8, 16, 12
+        }, source);
+
+        sprite.setMirror(Mirror.NONE);
+        sprite.setTransparency(ColorRgba.BLACK);
+        sprite.render(g);
+
+        assertNotEquals(page, sprite.getSurface());
+        assertEquals(8, sprite.getSurface().getWidth());
+        assertArrayEquals(new int[]
+        {
+            0, 0, 8, 4
+        }, source);
+    }
+
     /**
      * Test equals.
      */
@@ -41,6 +41,7 @@ final class SequenceFilterMock extends Sequence
         super(context, UtilTests.RESOLUTION_320_240);
 
         setFilter(filter);
+        setFilterParallel(true);
     }
 
     @Override
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.engine.FilterNone;
+
+/**
+ * Test {@link FilterChain}.
+ */
+public final class FilterChainTest
+{
+    /** Image size. */
+    private static final int SIZE = 32;
+    /** Frames filtered. */
+    private static final int FRAMES = 10;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a patterned image.
+     * 
+     * @return The created image.
+     */
+    private static ImageBuffer createImage()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(SIZE, SIZE);
+        int i = 0;
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                i++;
+                image.setRgb(x, y, 0xFF00_0000 | i % (y / 8 + 2) * 0x40_4040);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Get image pixels.
+     * 
+     * @param image The image source.
+     * @return The image pixels.
+     */
+    private static int[] getPixels(ImageBuffer image)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        return image.getRgb(0, 0, width, height, new int[width * height], 0, width);
+    }
+
+    /**
+     * Test raw filtering gives same result as image filtering.
+     */
+    @Test
+    public void testRawFilter()
+    {
+        final ImageBuffer image = createImage();
+        final Filter[] filters =
+        {
+            FilterNone.INSTANCE, new FilterBilinear(), new FilterBlur(), new FilterHq2x(), new FilterHq3x()
+        };
+        for (final Filter filter : filters)
+        {
+            final ImageBuffer filtered = filter.filter(image);
+            final int scale = filter.getScale();
+            final int[] destination = new int[SIZE * scale * SIZE * scale];
+            filter.filter(getPixels(image), destination, SIZE, SIZE);
+
+            assertEquals(SIZE * scale, filtered.getWidth());
+            assertArrayEquals(getPixels(filtered), destination);
+        }
+        image.dispose();
+    }
+
+    /**
+     * Test chain result is the same as successive filtering.
+     */
+    @Test
+    public void testChain()
+    {
+        final ImageBuffer image = createImage();
+        final ImageBuffer hq2x = new FilterHq2x().filter(image);
+        final ImageBuffer expected = new FilterBilinear().filter(hq2x);
+
+        final FilterChain chain = new FilterChain(new FilterHq2x(), new FilterBilinear());
+        final ImageBuffer filtered = chain.filter(image);
+
+        assertEquals(2, chain.getScale());
+        assertNotNull(chain.getTransform(1.0, 1.0));
+        assertEquals(SIZE * 2, filtered.getWidth());
+        assertEquals(SIZE * 2, filtered.getHeight());
+        assertArrayEquals(getPixels(expected), getPixels(filtered));
+        assertTrue(filtered == chain.filter(image));
+
+        final int[] destination = new int[SIZE * 2 * SIZE * 2];
+        chain.filter(getPixels(image), destination, SIZE, SIZE);
+        assertArrayEquals(getPixels(expected), destination);
+
+        assertEquals(6, new FilterChain(new FilterHq2x(), new FilterHq3x()).getScale());
+
+        image.dispose();
+        hq2x.dispose();
+        expected.dispose();
+    }
+
+    /**
+     * Test chain with invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new FilterChain((Filter[]) null), "Unexpected null argument !");
+        assertThrows(() -> new FilterChain(), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new FilterChain((Filter) null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test chain output and buffers are reused between frames, with an up to date result.
+     */
+    @Test
+    public void testReuse()
+    {
+        final ImageBuffer image = createImage();
+        final FilterChain chain = new FilterChain(new FilterHq2x(), new FilterBlur());
+        final ImageBuffer output = chain.filter(image);
+
+        for (int i = 0; i < FRAMES; i++)
+        {
+            image.setRgb(i, i, 0xFFFF_FFFF);
+            final ImageBuffer hq2x = new FilterHq2x().filter(image);
+            final ImageBuffer expected = new FilterBlur().filter(hq2x);
+
+            assertTrue(output == chain.filter(image));
+            assertArrayEquals(getPixels(expected), getPixels(output));
+
+            hq2x.dispose();
+            expected.dispose();
+        }
+        image.dispose();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.engine.FilterNone;
+
+/**
+ * Test {@link FilterParallel}.
+ */
+public final class FilterParallelTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create random pixels, with few colors in order to trigger Hq patterns.
+     * 
+     * @param width The width.
+     * @param height The height.
+     * @return The created pixels.
+     */
+    private static int[] createPixels(int width, int height)
+    {
+        final Random random = new Random(width * 31L + height);
+        final int[] colors =
+        {
+            0xFF00_0000, 0xFFFF_FFFF, 0x80FF_0000, 0xFF00_80FF
+        };
+        final int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++)
+        {
+            pixels[i] = colors[random.nextInt(colors.length)];
+        }
+        return pixels;
+    }
+
+    /**
+     * Check parallel result is the same as serial one.
+     * 
+     * @param filter The filter to test.
+     * @param width The source width.
+     * @param height The source height.
+     */
+    private static void assertParallel(Filter filter, int width, int height)
+    {
+        final int scale = filter.getScale();
+        final int[] expected = new int[width * scale * height * scale];
+        filter.filter(createPixels(width, height), expected, width, height);
+
+        for (final int threads : new int[]
+        {
+            1, 2, 3, 8
+        })
+        {
+            final FilterParallel parallel = new FilterParallel(filter, threads);
+            final int[] destination = new int[expected.length];
+            parallel.filter(createPixels(width, height), destination, width, height);
+
+            assertArrayEquals(expected, destination);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final FilterParallel injected = new FilterParallel(filter, executor, 3);
+        final int[] destination = new int[expected.length];
+        injected.filter(createPixels(width, height), destination, width, height);
+        executor.shutdown();
+
+        assertArrayEquals(expected, destination);
+    }
+
+    /**
+     * Test parallel filtering is pixel exact with single threaded filtering.
+     */
+    @Test
+    public void testPixelExact()
+    {
+        final FilterBlur blur = new FilterBlur();
+        final FilterBlur blurWrap = new FilterBlur();
+        blurWrap.setAlpha(false);
+        blurWrap.setEdgeMode(FilterBlur.WRAP_EDGES);
+        blurWrap.setRadius(3.0F);
+
+        final Filter[] filters =
+        {
+            new FilterHq2x(), new FilterHq3x(), blur, blurWrap, new FilterBilinear(), FilterNone.INSTANCE
+        };
+        for (final Filter filter : filters)
+        {
+            assertParallel(filter, 37, 23);
+            assertParallel(filter, 5, 2);
+            assertParallel(filter, 1, 1);
+        }
+    }
+
+    /**
+     * Test image filtering.
+     */
+    @Test
+    public void testImage()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(40, 30);
+        image.setRgb(0, 0, 40, 30, createPixels(40, 30), 0, 40);
+
+        final FilterHq3x hq3x = new FilterHq3x();
+        final FilterParallel parallel = new FilterParallel(hq3x);
+        final ImageBuffer expected = hq3x.filter(image);
+        final ImageBuffer filtered = parallel.filter(image);
+
+        assertEquals(hq3x.getScale(), parallel.getScale());
+        assertEquals(expected.getWidth(), filtered.getWidth());
+        assertEquals(expected.getHeight(), filtered.getHeight());
+        assertArrayEquals(expected.getRgb(0, 0, 120, 90, new int[120 * 90], 0, 120),
+                          filtered.getRgb(0, 0, 120, 90, new int[120 * 90], 0, 120));
+        assertEquals(hq3x.getTransform(2.0, 2.0).getScaleX(), parallel.getTransform(2.0, 2.0).getScaleX());
+
+        final FilterParallel none = new FilterParallel(FilterNone.INSTANCE, 2);
+        assertEquals(image, none.filter(image));
+
+        final ImageBuffer again = parallel.filter(image);
+        assertArrayEquals(expected.getRgb(0, 0, 120, 90, new int[120 * 90], 0, 120),
+                          again.getRgb(0, 0, 120, 90, new int[120 * 90], 0, 120));
+
+        image.dispose();
+        again.dispose();
+        expected.dispose();
+        filtered.dispose();
+    }
+
+    /**
+     * Test parallel filter as chain element, reusing chain buffers.
+     */
+    @Test
+    public void testChain()
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(40, 30);
+        image.setRgb(0, 0, 40, 30, createPixels(40, 30), 0, 40);
+
+        final FilterChain serial = new FilterChain(new FilterHq2x(), new FilterBlur());
+        final FilterChain parallel = new FilterChain(new FilterParallel(new FilterHq2x(), 3),
+                                                     new FilterParallel(new FilterBlur(), 3));
+        final ImageBuffer expected = serial.filter(image);
+        final ImageBuffer filtered = parallel.filter(image);
+
+        assertEquals(filtered, parallel.filter(image));
+        assertArrayEquals(expected.getRgb(0, 0, 80, 60, new int[80 * 60], 0, 80),
+                          filtered.getRgb(0, 0, 80, 60, new int[80 * 60], 0, 80));
+
+        image.dispose();
+    }
+
+    /**
+     * Test with stopped injected workers.
+     */
+    @Test
+    public void testExecutorStopped()
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        executor.shutdown();
+        final FilterParallel parallel = new FilterParallel(new FilterHq2x(), executor, 2);
+
+        assertThrows(() -> parallel.filter(createPixels(4, 4), new int[8 * 8], 4, 4), FilterParallel.ERROR_STRIP);
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new FilterParallel(null), "Unexpected null argument !");
+        assertThrows(() -> new FilterParallel(new FilterHq2x(), 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new FilterParallel(new FilterHq2x(), null, 1), "Unexpected null argument !");
+    }
+}
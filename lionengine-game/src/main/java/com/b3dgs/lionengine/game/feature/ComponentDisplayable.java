@@ -17,9 +17,12 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -30,11 +33,29 @@ import com.b3dgs.lionengine.graphic.Graphic;
 /**
  * Renderer component implementation which render {@link Displayable} elements with {@link Layerable} support to order
  * rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer value.
+ * <p>
+ * In batch mode, elements of the same layer are rendered grouped by {@link Displayable#getSurface()}, so consecutive
+ * draws share their source surface (such as an atlas page). Rendering order inside a layer is not defined in any mode.
+ * </p>
  */
 public class ComponentDisplayable implements ComponentRenderer, HandlerListener, LayerableListener
 {
     /** Default layer value. */
     private static final Integer LAYER_DEFAULT = Integer.valueOf(0);
+    /** Surface grouping order. */
+    private static final Comparator<Displayable> SURFACE = (a, b) -> Integer.compare(getSurfaceKey(a),
+                                                                                     getSurfaceKey(b));
+
+    /**
+     * Get the surface grouping key.
+     * 
+     * @param displayable The displayable reference.
+     * @return The surface identity key.
+     */
+    private static int getSurfaceKey(Displayable displayable)
+    {
+        return System.identityHashCode(displayable.getSurface());
+    }
 
     /**
      * Get the featurable layer.
@@ -56,13 +77,29 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     private final Set<Integer> indexs = new TreeSet<>();
     /** Layers to render. */
     private final Map<Integer, Collection<Displayable>> layers = new HashMap<>();
+    /** Batched layer cache. */
+    private final List<Displayable> batched = new ArrayList<>();
+    /** Batch mode flag. */
+    private final boolean batch;
 
     /**
      * Create a renderer component.
      */
     public ComponentDisplayable()
+    {
+        this(false);
+    }
+
+    /**
+     * Create a renderer component.
+     * 
+     * @param batch <code>true</code> to group rendering by surface inside each layer, <code>false</code> else.
+     */
+    public ComponentDisplayable(boolean batch)
     {
         super();
+
+        this.batch = batch;
     }
 
     /**
@@ -102,6 +139,29 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         }
     }
 
+    /**
+     * Render layer elements, grouped by surface.
+     * 
+     * @param g The graphic output.
+     * @param displayables The layer elements.
+     */
+    private void renderBatch(Graphic g, Collection<Displayable> displayables)
+    {
+        batched.clear();
+        for (final Displayable displayable : displayables)
+        {
+            batched.add(displayable);
+        }
+        batched.sort(SURFACE);
+
+        final int n = batched.size();
+        for (int i = 0; i < n; i++)
+        {
+            batched.get(i).render(g);
+        }
+        batched.clear();
+    }
+
     /*
      * ComponentRenderer
      */
@@ -111,9 +171,16 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     {
         for (final Integer layer : indexs)
         {
-            for (final Displayable displayable : layers.get(layer))
+            if (batch)
+            {
+                renderBatch(g, layers.get(layer));
+            }
+            else
             {
-                displayable.render(g);
+                for (final Displayable displayable : layers.get(layer))
+                {
+                    displayable.render(g);
+                }
             }
         }
     }
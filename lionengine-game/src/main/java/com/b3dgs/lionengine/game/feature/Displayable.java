@@ -18,6 +18,7 @@
 package com.b3dgs.lionengine.game.feature;
 
 import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.Renderable;
 
 /**
@@ -25,5 +26,13 @@ import com.b3dgs.lionengine.graphic.Renderable;
  */
 public interface Displayable extends Feature, Renderable
 {
-    // Wrapper
+    /**
+     * Get the surface drawn by this displayable, used by renderers to group draws sharing the same source surface.
+     * 
+     * @return The drawn surface, <code>null</code> if unknown.
+     */
+    default ImageSurface getSurface()
+    {
+        return null;
+    }
 }
@@ -18,7 +18,9 @@
 package com.b3dgs.lionengine.game.feature;
 
 import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.Renderable;
+import com.b3dgs.lionengine.graphic.drawable.Image;
 
 /**
  * Displayable feature implementation.
@@ -27,6 +29,8 @@ public class DisplayableModel extends FeatureModel implements Displayable
 {
     /** Renderable reference. */
     private final Renderable renderable;
+    /** Image reference (<code>null</code> if created with renderable). */
+    private final Image image;
 
     /**
      * Create feature.
@@ -38,6 +42,20 @@ public class DisplayableModel extends FeatureModel implements Displayable
         super();
 
         this.renderable = renderable;
+        image = null;
+    }
+
+    /**
+     * Create feature, exposing the image surface for batched rendering.
+     * 
+     * @param image The image reference.
+     */
+    public DisplayableModel(Image image)
+    {
+        super();
+
+        renderable = image;
+        this.image = image;
     }
 
     /*
@@ -49,4 +67,14 @@ public class DisplayableModel extends FeatureModel implements Displayable
     {
         renderable.render(g);
     }
+
+    @Override
+    public ImageSurface getSurface()
+    {
+        if (image != null)
+        {
+            return image.getSurface();
+        }
+        return null;
+    }
 }
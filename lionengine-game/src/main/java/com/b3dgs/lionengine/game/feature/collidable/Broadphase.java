@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+/**
+ * Collision broadphase strategy used by {@link ComponentCollision}. It keeps track of {@link Collidable} locations, and
+ * only checks pairs that may collide, leaving the exact test to {@link Collidable#collide(Collidable)}.
+ * <p>
+ * The area covered by a collidable is approximated by its location, extended on each side by its max collision size
+ * ({@link Collidable#getMaxWidth()}, {@link Collidable#getMaxHeight()}), in order to support any origin.
+ * </p>
+ * 
+ * @see BroadphaseSpatialHash
+ * @see BroadphaseSweep
+ */
+public interface Broadphase
+{
+    /**
+     * Update collidable location. Collidable is added if not already known.
+     * 
+     * @param collidable The collidable reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    void update(Collidable collidable, double x, double y);
+
+    /**
+     * Remove collidable. Does nothing if not known.
+     * 
+     * @param collidable The collidable reference.
+     */
+    void remove(Collidable collidable);
+
+    /**
+     * Check collisions between all potential pairs, and notify each collidable colliding an accepted one with
+     * {@link Collidable#notifyCollided(Collidable)}. Each pair is checked once per call.
+     */
+    void detect();
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+/**
+ * Collidable bounds tracked by a {@link Broadphase}.
+ */
+final class BroadphaseEntry
+{
+    /** Collidable reference. */
+    private final Collidable collidable;
+    /** Min horizontal bound. */
+    private double minX;
+    /** Min vertical bound. */
+    private double minY;
+    /** Max horizontal bound. */
+    private double maxX;
+    /** Max vertical bound. */
+    private double maxY;
+    /** Min horizontal cell. */
+    private int minCellX;
+    /** Min vertical cell. */
+    private int minCellY;
+    /** Max horizontal cell. */
+    private int maxCellX;
+    /** Max vertical cell. */
+    private int maxCellY;
+
+    /**
+     * Create entry.
+     * 
+     * @param collidable The collidable reference.
+     */
+    BroadphaseEntry(Collidable collidable)
+    {
+        super();
+
+        this.collidable = collidable;
+    }
+
+    /**
+     * Update bounds from location, extended by the collidable max collision size.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    void setBounds(double x, double y)
+    {
+        final int width = collidable.getMaxWidth();
+        final int height = collidable.getMaxHeight();
+        minX = x - width;
+        minY = y - height;
+        maxX = x + width;
+        maxY = y + height;
+    }
+
+    /**
+     * Set the covered cells range.
+     * 
+     * @param minCellX The min horizontal cell.
+     * @param minCellY The min vertical cell.
+     * @param maxCellX The max horizontal cell.
+     * @param maxCellY The max vertical cell.
+     */
+    void setCells(int minCellX, int minCellY, int maxCellX, int maxCellY)
+    {
+        this.minCellX = minCellX;
+        this.minCellY = minCellY;
+        this.maxCellX = maxCellX;
+        this.maxCellY = maxCellY;
+    }
+
+    /**
+     * Check if bounds overlap vertically with other entry.
+     * 
+     * @param other The other entry.
+     * @return <code>true</code> if overlap, <code>false</code> else.
+     */
+    boolean overlapY(BroadphaseEntry other)
+    {
+        return minY <= other.maxY && other.minY <= maxY;
+    }
+
+    /**
+     * Check both collision ways with other entry, and notify if collide.
+     * 
+     * @param other The other entry.
+     */
+    void check(BroadphaseEntry other)
+    {
+        final Collidable objectB = other.collidable;
+        if (collidable.collide(objectB) != null)
+        {
+            collidable.notifyCollided(objectB);
+        }
+        if (objectB.collide(collidable) != null)
+        {
+            objectB.notifyCollided(collidable);
+        }
+    }
+
+    /**
+     * Get the collidable.
+     * 
+     * @return The collidable reference.
+     */
+    Collidable getCollidable()
+    {
+        return collidable;
+    }
+
+    /**
+     * Get the min horizontal bound.
+     * 
+     * @return The min horizontal bound.
+     */
+    double getMinX()
+    {
+        return minX;
+    }
+
+    /**
+     * Get the min vertical bound.
+     * 
+     * @return The min vertical bound.
+     */
+    double getMinY()
+    {
+        return minY;
+    }
+
+    /**
+     * Get the max horizontal bound.
+     * 
+     * @return The max horizontal bound.
+     */
+    double getMaxX()
+    {
+        return maxX;
+    }
+
+    /**
+     * Get the max vertical bound.
+     * 
+     * @return The max vertical bound.
+     */
+    double getMaxY()
+    {
+        return maxY;
+    }
+
+    /**
+     * Get the min horizontal cell.
+     * 
+     * @return The min horizontal cell.
+     */
+    int getMinCellX()
+    {
+        return minCellX;
+    }
+
+    /**
+     * Get the min vertical cell.
+     * 
+     * @return The min vertical cell.
+     */
+    int getMinCellY()
+    {
+        return minCellY;
+    }
+
+    /**
+     * Get the max horizontal cell.
+     * 
+     * @return The max horizontal cell.
+     */
+    int getMaxCellX()
+    {
+        return maxCellX;
+    }
+
+    /**
+     * Get the max vertical cell.
+     * 
+     * @return The max vertical cell.
+     */
+    int getMaxCellY()
+    {
+        return maxCellY;
+    }
+}
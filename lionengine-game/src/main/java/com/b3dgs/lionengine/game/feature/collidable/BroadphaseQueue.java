@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+/**
+ * Updates and removals received by a {@link Broadphase} during its detection, applied once detection is done.
+ * <p>
+ * Collision listeners may move or remove collidables while pairs are iterated. Queued operations are stored in
+ * primitive arrays reused between detections, and applied in reception order.
+ * </p>
+ */
+final class BroadphaseQueue
+{
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Queued collidables. */
+    private Collidable[] collidables = new Collidable[INITIAL_CAPACITY];
+    /** Queued horizontal locations. */
+    private double[] xs = new double[INITIAL_CAPACITY];
+    /** Queued vertical locations. */
+    private double[] ys = new double[INITIAL_CAPACITY];
+    /** Queued removal flags. */
+    private boolean[] removals = new boolean[INITIAL_CAPACITY];
+    /** Number of queued operations. */
+    private int size;
+    /** Detection in progress flag. */
+    private boolean detecting;
+
+    /**
+     * Create queue.
+     */
+    BroadphaseQueue()
+    {
+        super();
+    }
+
+    /**
+     * Start detection, operations are queued until {@link #end(Broadphase)}.
+     */
+    void start()
+    {
+        detecting = true;
+    }
+
+    /**
+     * End detection, and apply queued operations.
+     * 
+     * @param broadphase The broadphase to apply to.
+     */
+    void end(Broadphase broadphase)
+    {
+        detecting = false;
+        for (int i = 0; i < size; i++)
+        {
+            if (removals[i])
+            {
+                broadphase.remove(collidables[i]);
+            }
+            else
+            {
+                broadphase.update(collidables[i], xs[i], ys[i]);
+            }
+            collidables[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Queue update if detecting.
+     * 
+     * @param collidable The collidable reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @return <code>true</code> if queued, <code>false</code> if must be applied now.
+     */
+    boolean update(Collidable collidable, double x, double y)
+    {
+        return queue(collidable, x, y, false);
+    }
+
+    /**
+     * Queue removal if detecting.
+     * 
+     * @param collidable The collidable reference.
+     * @return <code>true</code> if queued, <code>false</code> if must be applied now.
+     */
+    boolean remove(Collidable collidable)
+    {
+        return queue(collidable, 0.0, 0.0, true);
+    }
+
+    /**
+     * Queue operation if detecting.
+     * 
+     * @param collidable The collidable reference.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param removal <code>true</code> for removal, <code>false</code> for update.
+     * @return <code>true</code> if queued, <code>false</code> if must be applied now.
+     */
+    private boolean queue(Collidable collidable, double x, double y, boolean removal)
+    {
+        if (!detecting)
+        {
+            return false;
+        }
+        if (size == collidables.length)
+        {
+            final int capacity = size * 2;
+            collidables = Arrays.copyOf(collidables, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            removals = Arrays.copyOf(removals, capacity);
+        }
+        collidables[size] = collidable;
+        xs[size] = x;
+        ys[size] = y;
+        removals[size] = removal;
+        size++;
+        return true;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Uniform grid broadphase, where cells are stored in a primitive keyed hash table.
+ * <p>
+ * Cells and their lists are reused, so moving a {@link Collidable} does not allocate, and a collidable staying in the
+ * same cells does not update the grid at all. A pair sharing several cells is checked only in the first one. Updates
+ * received during {@link #detect()} are applied once detection is done.
+ * </p>
+ */
+public class BroadphaseSpatialHash implements Broadphase
+{
+    /** Initial table capacity (must be a power of two). */
+    private static final int INITIAL_CAPACITY = 64;
+    /** Initial cell capacity. */
+    private static final int CELL_CAPACITY = 4;
+
+    /**
+     * Get the cell key.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static long key(int cx, int cy)
+    {
+        return (long) cx << Integer.SIZE | cy & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * Get the key hash.
+     * 
+     * @param key The cell key.
+     * @return The key hash.
+     */
+    private static int hash(long key)
+    {
+        final long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash ^ hash >>> Integer.SIZE);
+    }
+
+    /** Tracked collidables. */
+    private final Map<Collidable, BroadphaseEntry> entries = new HashMap<>();
+    /** Unused cells. */
+    private final Deque<Cell> pool = new ArrayDeque<>();
+    /** Updates received during detection. */
+    private final BroadphaseQueue queue = new BroadphaseQueue();
+    /** Cell size. */
+    private final double cellSize;
+    /** Table keys. */
+    private long[] keys = new long[INITIAL_CAPACITY];
+    /** Table cells (<code>null</code> for empty slot). */
+    private Cell[] cells = new Cell[INITIAL_CAPACITY];
+    /** Table mask. */
+    private int mask = INITIAL_CAPACITY - 1;
+    /** Number of used cells. */
+    private int count;
+
+    /**
+     * Create broadphase.
+     * 
+     * @param cellSize The cell size (must be strictly positive).
+     * @throws LionEngineException If invalid cell size.
+     */
+    public BroadphaseSpatialHash(double cellSize)
+    {
+        super();
+
+        Check.superiorStrict(cellSize, 0.0);
+
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Get the number of used cells.
+     * 
+     * @return The number of used cells.
+     */
+    public int getCellsNumber()
+    {
+        return count;
+    }
+
+    /**
+     * Get cell index.
+     * 
+     * @param value The location value.
+     * @return The cell index.
+     */
+    private int getCell(double value)
+    {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Add entry to its cells.
+     * 
+     * @param entry The entry to add.
+     */
+    private void addCells(BroadphaseEntry entry)
+    {
+        for (int cy = entry.getMinCellY(); cy <= entry.getMaxCellY(); cy++)
+        {
+            for (int cx = entry.getMinCellX(); cx <= entry.getMaxCellX(); cx++)
+            {
+                getOrCreate(cx, cy).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove entry from its cells.
+     * 
+     * @param entry The entry to remove.
+     */
+    private void removeCells(BroadphaseEntry entry)
+    {
+        for (int cy = entry.getMinCellY(); cy <= entry.getMaxCellY(); cy++)
+        {
+            for (int cx = entry.getMinCellX(); cx <= entry.getMaxCellX(); cx++)
+            {
+                final long key = key(cx, cy);
+                final int index = indexOf(key);
+                if (index > -1 && cells[index].remove(entry))
+                {
+                    removeAt(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get table index of key.
+     * 
+     * @param key The cell key.
+     * @return The table index, <code>-1</code> if none.
+     */
+    private int indexOf(long key)
+    {
+        int index = hash(key) & mask;
+        while (cells[index] != null)
+        {
+            if (keys[index] == key)
+            {
+                return index;
+            }
+            index = index + 1 & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the cell, create it if not existing.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell.
+     */
+    private Cell getOrCreate(int cx, int cy)
+    {
+        final long key = key(cx, cy);
+        int index = hash(key) & mask;
+        while (cells[index] != null)
+        {
+            if (keys[index] == key)
+            {
+                return cells[index];
+            }
+            index = index + 1 & mask;
+        }
+
+        final Cell cell;
+        if (pool.isEmpty())
+        {
+            cell = new Cell();
+        }
+        else
+        {
+            cell = pool.pop();
+        }
+        cell.set(cx, cy);
+        keys[index] = key;
+        cells[index] = cell;
+        count++;
+        if (count * 2 > cells.length)
+        {
+            grow();
+        }
+        return cell;
+    }
+
+    /**
+     * Remove empty cell at index, and shift following cells of the same probe sequence.
+     * 
+     * @param index The table index.
+     */
+    private void removeAt(int index)
+    {
+        pool.push(cells[index]);
+        cells[index] = null;
+        count--;
+
+        int free = index;
+        int current = index + 1 & mask;
+        while (cells[current] != null)
+        {
+            final int ideal = hash(keys[current]) & mask;
+            final boolean keep;
+            if (free <= current)
+            {
+                keep = free < ideal && ideal <= current;
+            }
+            else
+            {
+                keep = free < ideal || ideal <= current;
+            }
+            if (!keep)
+            {
+                keys[free] = keys[current];
+                cells[free] = cells[current];
+                cells[current] = null;
+                free = current;
+            }
+            current = current + 1 & mask;
+        }
+    }
+
+    /**
+     * Double the table capacity.
+     */
+    private void grow()
+    {
+        final long[] oldKeys = keys;
+        final Cell[] oldCells = cells;
+        keys = new long[oldKeys.length * 2];
+        cells = new Cell[oldCells.length * 2];
+        mask = cells.length - 1;
+
+        for (int i = 0; i < oldCells.length; i++)
+        {
+            if (oldCells[i] != null)
+            {
+                int index = hash(oldKeys[i]) & mask;
+                while (cells[index] != null)
+                {
+                    index = index + 1 & mask;
+                }
+                keys[index] = oldKeys[i];
+                cells[index] = oldCells[i];
+            }
+        }
+    }
+
+    /*
+     * Broadphase
+     */
+
+    @Override
+    public void update(Collidable collidable, double x, double y)
+    {
+        if (queue.update(collidable, x, y))
+        {
+            return;
+        }
+        BroadphaseEntry entry = entries.get(collidable);
+        final boolean known = entry != null;
+        if (!known)
+        {
+            entry = new BroadphaseEntry(collidable);
+            entries.put(collidable, entry);
+        }
+        entry.setBounds(x, y);
+
+        final int minCellX = getCell(entry.getMinX());
+        final int minCellY = getCell(entry.getMinY());
+        final int maxCellX = getCell(entry.getMaxX());
+        final int maxCellY = getCell(entry.getMaxY());
+
+        if (known
+            && minCellX == entry.getMinCellX()
+            && minCellY == entry.getMinCellY()
+            && maxCellX == entry.getMaxCellX()
+            && maxCellY == entry.getMaxCellY())
+        {
+            return;
+        }
+        if (known)
+        {
+            removeCells(entry);
+        }
+        entry.setCells(minCellX, minCellY, maxCellX, maxCellY);
+        addCells(entry);
+    }
+
+    @Override
+    public void remove(Collidable collidable)
+    {
+        if (queue.remove(collidable))
+        {
+            return;
+        }
+        final BroadphaseEntry entry = entries.remove(collidable);
+        if (entry != null)
+        {
+            removeCells(entry);
+        }
+    }
+
+    @Override
+    public void detect()
+    {
+        queue.start();
+        try
+        {
+            for (final Cell cell : cells)
+            {
+                if (cell != null)
+                {
+                    cell.detect();
+                }
+            }
+        }
+        finally
+        {
+            queue.end(this);
+        }
+    }
+
+    /**
+     * Grid cell, referencing the entries covering it.
+     */
+    private static final class Cell
+    {
+        /** Entries in cell. */
+        private BroadphaseEntry[] entries = new BroadphaseEntry[CELL_CAPACITY];
+        /** Number of entries. */
+        private int size;
+        /** Horizontal cell index. */
+        private int cx;
+        /** Vertical cell index. */
+        private int cy;
+
+        /**
+         * Create cell.
+         */
+        Cell()
+        {
+            super();
+        }
+
+        /**
+         * Set the cell location.
+         * 
+         * @param cx The horizontal cell index.
+         * @param cy The vertical cell index.
+         */
+        void set(int cx, int cy)
+        {
+            this.cx = cx;
+            this.cy = cy;
+        }
+
+        /**
+         * Add entry.
+         * 
+         * @param entry The entry to add.
+         */
+        void add(BroadphaseEntry entry)
+        {
+            if (size == entries.length)
+            {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size] = entry;
+            size++;
+        }
+
+        /**
+         * Remove entry.
+         * 
+         * @param entry The entry to remove.
+         * @return <code>true</code> if cell is now empty, <code>false</code> else.
+         */
+        boolean remove(BroadphaseEntry entry)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (entries[i] == entry)
+                {
+                    size--;
+                    entries[i] = entries[size];
+                    entries[size] = null;
+                    break;
+                }
+            }
+            return size == 0;
+        }
+
+        /**
+         * Check all pairs of the cell, ignoring pairs already checked in a previous shared cell.
+         */
+        void detect()
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final BroadphaseEntry a = entries[i];
+                for (int j = i + 1; j < size; j++)
+                {
+                    final BroadphaseEntry b = entries[j];
+                    if (cx == Math.max(a.getMinCellX(), b.getMinCellX())
+                        && cy == Math.max(a.getMinCellY(), b.getMinCellY()))
+                    {
+                        a.check(b);
+                    }
+                }
+            }
+        }
+    }
+}
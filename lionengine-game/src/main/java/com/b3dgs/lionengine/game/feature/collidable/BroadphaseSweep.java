@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sort and sweep broadphase. Entries are kept sorted on their horizontal bound with an insertion sort, which is close
+ * to linear as order barely changes between two updates. Only entries overlapping horizontally and vertically are
+ * checked.
+ * <p>
+ * Moving a {@link Collidable} only updates its bounds and does not allocate. Updates received during {@link #detect()}
+ * are applied once detection is done.
+ * </p>
+ */
+public class BroadphaseSweep implements Broadphase
+{
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Tracked collidables. */
+    private final Map<Collidable, BroadphaseEntry> entries = new HashMap<>();
+    /** Updates received during detection. */
+    private final BroadphaseQueue queue = new BroadphaseQueue();
+    /** Entries sorted on their min horizontal bound. */
+    private BroadphaseEntry[] sorted = new BroadphaseEntry[INITIAL_CAPACITY];
+    /** Number of entries. */
+    private int size;
+
+    /**
+     * Create broadphase.
+     */
+    public BroadphaseSweep()
+    {
+        super();
+    }
+
+    /**
+     * Sort entries on their min horizontal bound.
+     */
+    private void sort()
+    {
+        for (int i = 1; i < size; i++)
+        {
+            final BroadphaseEntry entry = sorted[i];
+            final double minX = entry.getMinX();
+            int j = i - 1;
+            while (j >= 0 && sorted[j].getMinX() > minX)
+            {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = entry;
+        }
+    }
+
+    /*
+     * Broadphase
+     */
+
+    @Override
+    public void update(Collidable collidable, double x, double y)
+    {
+        if (queue.update(collidable, x, y))
+        {
+            return;
+        }
+        BroadphaseEntry entry = entries.get(collidable);
+        if (entry == null)
+        {
+            entry = new BroadphaseEntry(collidable);
+            entries.put(collidable, entry);
+            if (size == sorted.length)
+            {
+                sorted = Arrays.copyOf(sorted, size * 2);
+            }
+            sorted[size] = entry;
+            size++;
+        }
+        entry.setBounds(x, y);
+    }
+
+    @Override
+    public void remove(Collidable collidable)
+    {
+        if (queue.remove(collidable))
+        {
+            return;
+        }
+        final BroadphaseEntry entry = entries.remove(collidable);
+        if (entry != null)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (sorted[i] == entry)
+                {
+                    System.arraycopy(sorted, i + 1, sorted, i, size - i - 1);
+                    size--;
+                    sorted[size] = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void detect()
+    {
+        sort();
+
+        queue.start();
+        try
+        {
+            for (int i = 0; i < size; i++)
+            {
+                final BroadphaseEntry a = sorted[i];
+                final double maxX = a.getMaxX();
+                for (int j = i + 1; j < size && sorted[j].getMinX() <= maxX; j++)
+                {
+                    final BroadphaseEntry b = sorted[j];
+                    if (a.overlapY(b))
+                    {
+                        a.check(b);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            queue.end(this);
+        }
+    }
+}
@@ -17,125 +17,58 @@
  */
 package com.b3dgs.lionengine.game.feature.collidable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handlables;
+import com.b3dgs.lionengine.game.feature.Handler;
 import com.b3dgs.lionengine.game.feature.HandlerListener;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableListener;
-import com.b3dgs.lionengine.geom.Point;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
  * Collision events are notified to {@link CollidableListener}.
+ * <p>
+ * Potential pairs are found by a {@link Broadphase}, which can be chosen per {@link Handler} by adding the component
+ * created with the wanted strategy. Default is a {@link BroadphaseSpatialHash} using {@link #REDUCE_FACTOR} as cell
+ * size.
+ * </p>
  * 
  * @see Collidable
  * @see CollidableListener
+ * @see Broadphase
  */
 public class ComponentCollision implements ComponentUpdater, HandlerListener, TransformableListener
 {
-    /** Location reduce factor (the higher it is, the lower is the map division per location). */
+    /** Default cell size (the higher it is, the lower is the map division per location). */
     static final double REDUCE_FACTOR = 128.0;
 
-    /**
-     * Check others element at specified point.
-     * 
-     * @param objectA The collidable reference.
-     * @param acceptedElements The current elements to check.
-     * @param point The point to check.
-     */
-    private static void checkPoint(Collidable objectA, Map<Point, List<Collidable>> acceptedElements, Point point)
-    {
-        final List<Collidable> others = acceptedElements.get(point);
-        final int othersLength = others.size();
-
-        for (int k = 0; k < othersLength; k++)
-        {
-            final Collidable objectB = others.get(k);
-            if (objectA.collide(objectB) != null)
-            {
-                objectA.notifyCollided(objectB);
-            }
-        }
-    }
-
-    /** Mapping reduced. */
-    private final Map<Integer, Map<Point, List<Collidable>>> collidables = new HashMap<>();
+    /** Broadphase reference. */
+    private final Broadphase broadphase;
 
     /**
-     * Create component.
+     * Create component with default broadphase.
      */
     public ComponentCollision()
     {
-        super();
+        this(new BroadphaseSpatialHash(REDUCE_FACTOR));
     }
 
     /**
-     * Remove point. Remove list of no more collidable.
+     * Create component.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param broadphase The broadphase used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
      */
-    private void removePoint(Point point, Collidable collidable)
+    public ComponentCollision(Broadphase broadphase)
     {
-        final Integer group = collidable.getGroup();
-        if (collidables.containsKey(group))
-        {
-            final Map<Point, List<Collidable>> elements = collidables.get(group);
-            if (elements.containsKey(point))
-            {
-                removePoint(point, collidable, elements, group);
-            }
-        }
-    }
+        super();
 
-    /**
-     * Remove point. Remove list of no more collidable.
-     * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     * @param elements The current group elements.
-     * @param group The current group.
-     */
-    private void removePoint(Point point, Collidable collidable, Map<Point, List<Collidable>> elements, Integer group)
-    {
-        final List<Collidable> points = elements.get(point);
-        points.remove(collidable);
-        if (points.isEmpty())
-        {
-            elements.remove(point);
-        }
-        if (elements.isEmpty())
-        {
-            collidables.remove(group);
-        }
-    }
+        Check.notNull(broadphase);
 
-    /**
-     * Add point. Create empty list of not existing.
-     * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     */
-    private void addPoint(Point point, Collidable collidable)
-    {
-        final Integer group = collidable.getGroup();
-        if (!collidables.containsKey(group))
-        {
-            collidables.put(group, new HashMap<Point, List<Collidable>>());
-        }
-        final Map<Point, List<Collidable>> elements = collidables.get(group);
-        if (!elements.containsKey(point))
-        {
-            elements.put(point, new ArrayList<Collidable>());
-        }
-        elements.get(point).add(collidable);
+        this.broadphase = broadphase;
     }
 
     /*
@@ -145,64 +78,7 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     @Override
     public void update(double extrp, Handlables objects)
     {
-        for (final Map<Point, List<Collidable>> groups : collidables.values())
-        {
-            for (final Entry<Point, List<Collidable>> current : groups.entrySet())
-            {
-                checkGroup(current);
-            }
-        }
-    }
-
-    /**
-     * Check elements in group.
-     * 
-     * @param current The elements in group.
-     */
-    private void checkGroup(Entry<Point, List<Collidable>> current)
-    {
-        final List<Collidable> elements = current.getValue();
-        final int length = elements.size();
-        for (int i = 0; i < length; i++)
-        {
-            final Collidable objectA = elements.get(i);
-            checkOthers(objectA, current);
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current)
-    {
-        for (final Integer acceptedGroup : objectA.getAccepted())
-        {
-            // Others to compare only in accepted group
-            if (collidables.containsKey(acceptedGroup))
-            {
-                checkOthers(objectA, current, acceptedGroup);
-            }
-        }
-    }
-
-    /**
-     * Check others element.
-     * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     * @param acceptedGroup The accepted group.
-     */
-    private void checkOthers(Collidable objectA, Entry<Point, List<Collidable>> current, Integer acceptedGroup)
-    {
-        final Map<Point, List<Collidable>> acceptedElements = collidables.get(acceptedGroup);
-        final Point point = current.getKey();
-        if (acceptedElements.containsKey(point))
-        {
-            checkPoint(objectA, acceptedElements, point);
-        }
+        broadphase.detect();
     }
 
     /*
@@ -227,8 +103,7 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
             final Transformable transformable = featurable.getFeature(Transformable.class);
             final Collidable collidable = transformable.getFeature(Collidable.class);
 
-            removePoints(transformable.getOldX(), transformable.getOldY(), collidable);
-            removePoints(transformable.getX(), transformable.getY(), collidable);
+            broadphase.remove(collidable);
 
             transformable.removeListener(this);
         }
@@ -243,71 +118,6 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     {
         final Collidable collidable = transformable.getFeature(Collidable.class);
 
-        removePoints(transformable.getOldX(), transformable.getOldY(), collidable);
-        addPoints(transformable.getX(), transformable.getY(), collidable);
-    }
-
-    /**
-     * Remove point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void removePoints(double x, double y, Collidable collidable)
-    {
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
-
-        removePoint(new Point(minX, minY), collidable);
-
-        if (minX != maxX && minY == maxY)
-        {
-            removePoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            removePoint(new Point(minX, maxY), collidable);
-            removePoint(new Point(maxX, minY), collidable);
-            removePoint(new Point(maxX, maxY), collidable);
-        }
-    }
-
-    /**
-     * Add point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param x The horizontal location.
-     * @param y The vertical location.
-     * @param collidable The collidable reference.
-     */
-    private void addPoints(double x, double y, Collidable collidable)
-    {
-        final int minX = (int) Math.floor(x / REDUCE_FACTOR);
-        final int minY = (int) Math.floor(y / REDUCE_FACTOR);
-        final int maxX = (int) Math.floor((x + collidable.getMaxWidth()) / REDUCE_FACTOR);
-        final int maxY = (int) Math.floor((y + collidable.getMaxHeight()) / REDUCE_FACTOR);
-
-        addPoint(new Point(minX, minY), collidable);
-
-        if (minX != maxX && minY == maxY)
-        {
-            addPoint(new Point(maxX, minY), collidable);
-        }
-        else if (minX == maxX && minY != maxY)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-        }
-        else if (minX != maxX)
-        {
-            addPoint(new Point(minX, maxY), collidable);
-            addPoint(new Point(maxX, minY), collidable);
-            addPoint(new Point(maxX, maxY), collidable);
-        }
+        broadphase.update(collidable, transformable.getX(), transformable.getY());
     }
 }
@@ -23,8 +23,10 @@ import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Localizable;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.SurfaceTile;
+import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
 import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
 import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
@@ -150,6 +152,16 @@ public interface MapTile extends SurfaceTile, Featurable
      */
     void removeListener(TileSetListener listener);
 
+    /**
+     * Add a tile feature shared by all tiles with the same reference. Only available in compact mode, where tiles
+     * features are not owned by the tiles themselves ({@link #isCompact()}).
+     * 
+     * @param ref The tile reference.
+     * @param feature The feature to share.
+     * @throws LionEngineException If map is not in compact mode.
+     */
+    void addTileFeature(TileRef ref, Feature feature);
+
     /**
      * Set a tile at specified map location.
      * <p>
@@ -174,6 +186,39 @@ public interface MapTile extends SurfaceTile, Featurable
      */
     Tile getTile(int tx, int ty);
 
+    /**
+     * Check if there is a tile at specified map location (in tile index), without creating a tile view in compact
+     * mode.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return <code>true</code> if tile found at this location, <code>false</code> else.
+     */
+    boolean hasTile(int tx, int ty);
+
+    /**
+     * Get tile feature from specified map location (in tile index), without creating a tile view in compact mode.
+     * 
+     * @param <C> The feature type.
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param feature The feature type.
+     * @return The feature found, <code>null</code> if no tile at this location.
+     * @throws LionEngineException If tile has no such feature.
+     */
+    <C extends Feature> C getTileFeature(int tx, int ty, Class<C> feature);
+
+    /**
+     * Get tile view from specified map location (in tile index). In compact mode the same view is returned by each
+     * call, moved to the requested location, so it must only be read before next call (rendering), and never kept:
+     * {@link #getTile(int, int)} must be used to keep a tile reference.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The tile view at this location, <code>null</code> if none.
+     */
+    Tile getTileView(int tx, int ty);
+
     /**
      * Get the tile at the localizable.
      * 
@@ -285,4 +330,13 @@ public interface MapTile extends SurfaceTile, Featurable
      * @return <code>true</code> if created, <code>false</code> else.
      */
     boolean isCreated();
+
+    /**
+     * Check if map stores tiles in compact mode. In this case, tiles are lightweight views created on demand over
+     * primitive arrays, and can share features between tiles with the same reference (
+     * {@link #addTileFeature(TileRef, Feature)}).
+     * 
+     * @return <code>true</code> if compact, <code>false</code> else.
+     */
+    boolean isCompact();
 }
@@ -22,7 +22,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.Check;
@@ -32,10 +31,12 @@ import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Force;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.TileGame;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
 import com.b3dgs.lionengine.game.feature.tile.TilesExtractor;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
@@ -45,6 +46,11 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * Abstract representation of a standard tile based map. This class uses a List of List to store tiles, a TreeMap to
  * store sheets references ({@link SpriteTiled}), and collisions.
  * <p>
+ * In compact mode ({@link #MapTileGame(boolean)}), tiles are stored as sheet and number primitive arrays, and
+ * {@link Tile} are lightweight views created on demand. This is intended for large maps, where having one
+ * {@link TileGame} per cell would be too expensive.
+ * </p>
+ * <p>
  * The way to prepare a map is the following:
  * </p>
  * 
@@ -65,6 +71,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
     static final String ERROR_SHEET_MISSING = "Sheet missing: ";
     /** Inconsistent tile size. */
     private static final String ERROR_TILE_SIZE = "Tile size is inconsistent between sheets !";
+    /** Shared feature without compact mode. */
+    static final String ERROR_NOT_COMPACT = "Shared tile features require compact mode !";
 
     /** Tile set listeners. */
     private final Collection<TileSetListener> tileSetListeners = new ArrayList<>();
@@ -82,56 +90,70 @@ public class MapTileGame extends FeaturableModel implements MapTile
     private int heightInTile;
     /** Map radius. */
     private int radius;
-    /** Tiles map. */
-    private List<List<Tile>> tiles;
+    /** Tiles storage. */
+    private final MapTileStorage tiles;
+    /** Compact mode flag. */
+    private final boolean compact;
+    /** Created flag. */
+    private boolean created;
 
     /**
      * Create a map tile.
      */
     public MapTileGame()
     {
-        super();
+        this(false);
     }
 
     /**
-     * Resize map with new size.
+     * Create a map tile.
      * 
-     * @param newWidth The new width in tile.
-     * @param newHeight The new height in tile.
+     * @param compact <code>true</code> to store tiles as primitive arrays with lightweight views, <code>false</code>
+     *            to store one {@link TileGame} per cell. In compact mode, objects ID over a tile are only available
+     *            from the map pathfinding feature, as tile path is shared and its objects ID always empty.
      */
-    final void resize(int newWidth, int newHeight)
+    public MapTileGame(boolean compact)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
+        super();
 
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
+        this.compact = compact;
+        if (compact)
         {
-            tiles.add(new ArrayList<Tile>(newWidth));
+            tiles = new MapTileStorageCompact(this);
         }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
+        else
         {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
+            tiles = new MapTileStorageList();
         }
+    }
+
+    /**
+     * Resize map with new size.
+     * 
+     * @param newWidth The new width in tile.
+     * @param newHeight The new height in tile.
+     */
+    final void resize(int newWidth, int newHeight)
+    {
+        tiles.resize(widthInTile, heightInTile, newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
         radius = (int) Math.ceil(StrictMath.sqrt(newWidth * (double) newWidth + newHeight * (double) newHeight));
     }
 
+    /**
+     * Check if location is inside map.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return <code>true</code> if inside map, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return UtilMath.isBetween(tx, 0, getInTileWidth() - 1) && UtilMath.isBetween(ty, 0, getInTileHeight() - 1);
+    }
+
     /*
      * MapTile
      */
@@ -152,21 +174,17 @@ public class MapTileGame extends FeaturableModel implements MapTile
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        tiles = new ArrayList<>(heightInTile);
-
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<Tile>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        tiles.create(widthInTile, heightInTile);
+        created = true;
     }
 
     @Override
     public Tile createTile(Integer sheet, int number, double x, double y)
     {
+        if (compact)
+        {
+            return new TileCompact((MapTileStorageCompact) tiles, sheet, number, x, y, tileWidth, tileHeight);
+        }
         return new TileGame(sheet, number, x, y, tileWidth, tileHeight);
     }
 
@@ -254,12 +272,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public void clear()
     {
-        if (tiles != null)
+        if (created)
         {
-            for (final List<Tile> list : tiles)
-            {
-                list.clear();
-            }
             tiles.clear();
             widthInTile = 0;
             heightInTile = 0;
@@ -286,7 +300,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        tiles.get(ty).set(tx, tile);
+        tiles.set(tile);
 
         for (final TileSetListener listener : tileSetListeners)
         {
@@ -297,11 +311,47 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public Tile getTile(int tx, int ty)
     {
-        if (!UtilMath.isBetween(tx, 0, getInTileWidth() - 1) || !UtilMath.isBetween(ty, 0, getInTileHeight() - 1))
+        if (!isInside(tx, ty))
+        {
+            return null;
+        }
+        return tiles.get(tx, ty);
+    }
+
+    @Override
+    public boolean hasTile(int tx, int ty)
+    {
+        return isInside(tx, ty) && tiles.has(tx, ty);
+    }
+
+    @Override
+    public <C extends Feature> C getTileFeature(int tx, int ty, Class<C> feature)
+    {
+        if (!isInside(tx, ty))
         {
             return null;
         }
-        return tiles.get(ty).get(tx);
+        return tiles.getFeature(tx, ty, feature);
+    }
+
+    @Override
+    public Tile getTileView(int tx, int ty)
+    {
+        if (!isInside(tx, ty))
+        {
+            return null;
+        }
+        return tiles.getView(tx, ty);
+    }
+
+    @Override
+    public void addTileFeature(TileRef ref, Feature feature)
+    {
+        if (!compact)
+        {
+            throw new LionEngineException(ERROR_NOT_COMPACT);
+        }
+        ((MapTileStorageCompact) tiles).addShared(ref.getSheet().intValue(), ref.getNumber(), feature);
     }
 
     @Override
@@ -416,8 +466,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         {
             for (int tx = 0; tx < widthInTile; tx++)
             {
-                final Tile tile = getTile(tx, ty);
-                if (tile != null)
+                if (tiles.has(tx, ty))
                 {
                     tilesNumber++;
                 }
@@ -459,7 +508,13 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public boolean isCreated()
     {
-        return tiles != null;
+        return created;
+    }
+
+    @Override
+    public boolean isCompact()
+    {
+        return compact;
     }
 
     /*
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Describe how tiles are stored by {@link MapTileGame}.
+ */
+interface MapTileStorage
+{
+    /**
+     * Allocate storage for the specified map size. Previous data are lost.
+     * 
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     */
+    void create(int widthInTile, int heightInTile);
+
+    /**
+     * Resize storage, keeping existing tiles at their location.
+     * 
+     * @param oldWidth The current width in tile.
+     * @param oldHeight The current height in tile.
+     * @param newWidth The new width in tile.
+     * @param newHeight The new height in tile.
+     */
+    void resize(int oldWidth, int oldHeight, int newWidth, int newHeight);
+
+    /**
+     * Store tile at its location. Location is assumed valid.
+     * 
+     * @param tile The tile reference.
+     */
+    void set(Tile tile);
+
+    /**
+     * Get tile at location. Location is assumed valid.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The tile found, <code>null</code> if none.
+     */
+    Tile get(int tx, int ty);
+
+    /**
+     * Get tile feature at location without creating tile. Location is assumed valid.
+     * 
+     * @param <C> The feature type.
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param feature The feature type.
+     * @return The feature found, <code>null</code> if no tile.
+     * @throws LionEngineException If tile has no such feature.
+     */
+    <C extends Feature> C getFeature(int tx, int ty, Class<C> feature);
+
+    /**
+     * Get tile view at location, which can be reused by next call. Location is assumed valid.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The tile view found, <code>null</code> if none.
+     */
+    Tile getView(int tx, int ty);
+
+    /**
+     * Check if a tile is stored at location without creating it. Location is assumed valid.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return <code>true</code> if tile defined, <code>false</code> else.
+     */
+    boolean has(int tx, int ty);
+
+    /**
+     * Remove all tiles.
+     */
+    void clear();
+}
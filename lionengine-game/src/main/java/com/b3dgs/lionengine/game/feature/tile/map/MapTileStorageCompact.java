@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Features;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Compact tile storage, using primitive arrays for sheet and number indexed by tile location.
+ * <p>
+ * {@link Tile} instances are lightweight views created on demand. Features added to a view are stored per cell, only
+ * if needed, and kept when a tile is set again on the cell. Features added with
+ * {@link #addShared(int, int, Feature)} are shared by all tiles with the same sheet and number.
+ * </p>
+ * <p>
+ * Features and reusable view accessors read the arrays directly, so hot paths do not create a view by cell.
+ * </p>
+ */
+final class MapTileStorageCompact implements MapTileStorage
+{
+    /** No tile value. */
+    private static final int NONE = -1;
+    /** Used when no feature is available, in order to keep the same error as the default tile. */
+    private static final Features EMPTY = new Features();
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Sheet per cell. */
+    private int[] sheets = new int[0];
+    /** Number per cell. */
+    private int[] numbers = new int[0];
+    /** Cell features, <code>null</code> until first cell feature added. */
+    private Features[] local;
+    /** Shared features by sheet and number. */
+    private FeaturableModel[][] shared = new FeaturableModel[0][];
+    /** Width in tile. */
+    private int width;
+    /** Height in tile. */
+    private int height;
+    /** Reusable view (<code>null</code> until first use). */
+    private TileCompact view;
+
+    /**
+     * Create storage.
+     * 
+     * @param map The map reference.
+     */
+    MapTileStorageCompact(MapTile map)
+    {
+        super();
+
+        this.map = map;
+    }
+
+    /**
+     * Get the features of the cell.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The cell features, <code>null</code> if none.
+     */
+    Features getLocal(int tx, int ty)
+    {
+        if (local == null || tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return null;
+        }
+        return local[tx + ty * width];
+    }
+
+    /**
+     * Get the features of the cell, create them if not existing.
+     * 
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @return The cell features.
+     */
+    Features getLocalOrCreate(int tx, int ty)
+    {
+        if (local == null)
+        {
+            local = new Features[sheets.length];
+        }
+        final int index = tx + ty * width;
+        if (local[index] == null)
+        {
+            local[index] = new Features();
+        }
+        return local[index];
+    }
+
+    /**
+     * Get the shared features.
+     * 
+     * @param sheet The sheet number.
+     * @param number The tile number.
+     * @return The shared features, <code>null</code> if none.
+     */
+    FeaturableModel getShared(int sheet, int number)
+    {
+        if (sheet < shared.length && shared[sheet] != null && number < shared[sheet].length)
+        {
+            return shared[sheet][number];
+        }
+        return null;
+    }
+
+    /**
+     * Get the feature of a tile, from cell features first, then shared features.
+     * 
+     * @param <C> The feature type.
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     * @param sheet The sheet number.
+     * @param number The tile number.
+     * @param feature The feature type.
+     * @return The feature found.
+     * @throws LionEngineException If feature not found.
+     */
+    <C extends Feature> C getFeature(int tx, int ty, int sheet, int number, Class<C> feature)
+    {
+        final Features cell = getLocal(tx, ty);
+        if (cell != null && cell.contains(feature))
+        {
+            return cell.get(feature);
+        }
+        final FeaturableModel common = getShared(sheet, number);
+        if (common != null)
+        {
+            return common.getFeature(feature);
+        }
+        return EMPTY.get(feature);
+    }
+
+    /**
+     * Add a feature shared by all tiles with the same sheet and number.
+     * 
+     * @param sheet The sheet number.
+     * @param number The tile number.
+     * @param feature The feature to share.
+     */
+    void addShared(int sheet, int number, Feature feature)
+    {
+        if (sheet >= shared.length)
+        {
+            shared = Arrays.copyOf(shared, sheet + 1);
+        }
+        if (shared[sheet] == null)
+        {
+            shared[sheet] = new FeaturableModel[number + 1];
+        }
+        else if (number >= shared[sheet].length)
+        {
+            shared[sheet] = Arrays.copyOf(shared[sheet], number + 1);
+        }
+        if (shared[sheet][number] == null)
+        {
+            shared[sheet][number] = new FeaturableModel();
+        }
+        shared[sheet][number].addFeature(feature);
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        width = widthInTile;
+        height = heightInTile;
+        sheets = new int[widthInTile * heightInTile];
+        numbers = new int[widthInTile * heightInTile];
+        Arrays.fill(sheets, NONE);
+        local = null;
+        view = null;
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        final int[] newSheets = new int[newWidth * newHeight];
+        final int[] newNumbers = new int[newWidth * newHeight];
+        final Features[] newLocal;
+        if (local != null)
+        {
+            newLocal = new Features[newWidth * newHeight];
+        }
+        else
+        {
+            newLocal = null;
+        }
+        Arrays.fill(newSheets, NONE);
+
+        for (int v = 0; v < oldHeight; v++)
+        {
+            System.arraycopy(sheets, v * oldWidth, newSheets, v * newWidth, oldWidth);
+            System.arraycopy(numbers, v * oldWidth, newNumbers, v * newWidth, oldWidth);
+            if (newLocal != null)
+            {
+                System.arraycopy(local, v * oldWidth, newLocal, v * newWidth, oldWidth);
+            }
+        }
+
+        sheets = newSheets;
+        numbers = newNumbers;
+        local = newLocal;
+        width = newWidth;
+        height = newHeight;
+    }
+
+    @Override
+    public void set(Tile tile)
+    {
+        final int index = tile.getInTileX() + tile.getInTileY() * width;
+        sheets[index] = tile.getSheet().intValue();
+        numbers[index] = tile.getNumber();
+    }
+
+    @Override
+    public Tile get(int tx, int ty)
+    {
+        final int index = tx + ty * width;
+        final int sheet = sheets[index];
+        if (sheet == NONE)
+        {
+            return null;
+        }
+        final int tw = map.getTileWidth();
+        final int th = map.getTileHeight();
+        return new TileCompact(this,
+                               Integer.valueOf(sheet),
+                               numbers[index],
+                               tx * (double) tw,
+                               ty * (double) th,
+                               tw,
+                               th);
+    }
+
+    @Override
+    public <C extends Feature> C getFeature(int tx, int ty, Class<C> feature)
+    {
+        final int index = tx + ty * width;
+        final int sheet = sheets[index];
+        if (sheet == NONE)
+        {
+            return null;
+        }
+        return getFeature(tx, ty, sheet, numbers[index], feature);
+    }
+
+    @Override
+    public Tile getView(int tx, int ty)
+    {
+        final int index = tx + ty * width;
+        final int sheet = sheets[index];
+        if (sheet == NONE)
+        {
+            return null;
+        }
+        if (view == null)
+        {
+            view = (TileCompact) get(tx, ty);
+        }
+        else
+        {
+            view.set(Integer.valueOf(sheet), numbers[index], tx, ty);
+        }
+        return view;
+    }
+
+    @Override
+    public boolean has(int tx, int ty)
+    {
+        return sheets[tx + ty * width] != NONE;
+    }
+
+    @Override
+    public void clear()
+    {
+        sheets = new int[0];
+        numbers = new int[0];
+        local = null;
+        shared = new FeaturableModel[0][];
+        view = null;
+        width = 0;
+        height = 0;
+    }
+}
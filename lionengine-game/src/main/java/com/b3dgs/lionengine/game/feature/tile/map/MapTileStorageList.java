@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Default tile storage, using a List of List where each cell references its own {@link Tile} instance.
+ */
+final class MapTileStorageList implements MapTileStorage
+{
+    /** Tiles map. */
+    private final List<List<Tile>> tiles = new ArrayList<>();
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageList()
+    {
+        super();
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        tiles.clear();
+        for (int v = 0; v < heightInTile; v++)
+        {
+            tiles.add(v, new ArrayList<Tile>(widthInTile));
+            for (int h = 0; h < widthInTile; h++)
+            {
+                tiles.get(v).add(h, null);
+            }
+        }
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        // Adjust height
+        for (int v = 0; v < newHeight - oldHeight; v++)
+        {
+            tiles.add(new ArrayList<Tile>(newWidth));
+        }
+        // Adjust width
+        for (int v = 0; v < newHeight; v++)
+        {
+            final int width;
+            if (v < oldHeight)
+            {
+                width = newWidth - oldWidth;
+            }
+            else
+            {
+                width = newWidth;
+            }
+            for (int h = 0; h < width; h++)
+            {
+                tiles.get(v).add(null);
+            }
+        }
+    }
+
+    @Override
+    public void set(Tile tile)
+    {
+        tiles.get(tile.getInTileY()).set(tile.getInTileX(), tile);
+    }
+
+    @Override
+    public Tile get(int tx, int ty)
+    {
+        return tiles.get(ty).get(tx);
+    }
+
+    @Override
+    public <C extends Feature> C getFeature(int tx, int ty, Class<C> feature)
+    {
+        final Tile tile = tiles.get(ty).get(tx);
+        if (tile == null)
+        {
+            return null;
+        }
+        return tile.getFeature(feature);
+    }
+
+    @Override
+    public Tile getView(int tx, int ty)
+    {
+        return tiles.get(ty).get(tx);
+    }
+
+    @Override
+    public boolean has(int tx, int ty)
+    {
+        return tiles.get(ty).get(tx) != null;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (final List<Tile> list : tiles)
+        {
+            list.clear();
+        }
+        tiles.clear();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Features;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Lightweight tile view used by {@link MapTileStorageCompact}. Features are not owned by the view, but resolved from
+ * the storage: cell features first, then features shared by tiles with the same sheet and number.
+ * <p>
+ * The storage reusable view is moved between cells with {@link #set(Integer, int, int, int)}.
+ * </p>
+ */
+final class TileCompact implements Tile
+{
+    /** Storage reference. */
+    private final MapTileStorageCompact storage;
+    /** Tile sheet number where tile is contained. */
+    private Integer sheet;
+    /** Position number in the tilesheet. */
+    private int number;
+    /** Horizontal location on map. */
+    private double x;
+    /** Vertical location on map. */
+    private double y;
+    /** Tile width. */
+    private final int width;
+    /** Tile height. */
+    private final int height;
+    /** In tile x. */
+    private int inTileX;
+    /** In tile y. */
+    private int inTileY;
+
+    /**
+     * Create a tile view.
+     * 
+     * @param storage The storage reference.
+     * @param sheet The sheet number (must be positive or equal to 0).
+     * @param number The tile number on sheet (must be positive or equal to 0).
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The tile width (must be strictly positive).
+     * @param height The tile height (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    TileCompact(MapTileStorageCompact storage, Integer sheet, int number, double x, double y, int width, int height)
+    {
+        super();
+
+        Check.notNull(sheet);
+        Check.superiorOrEqual(sheet.intValue(), 0);
+        Check.superiorOrEqual(number, 0);
+        Check.superiorStrict(width, 0);
+        Check.superiorStrict(height, 0);
+
+        this.storage = storage;
+        this.sheet = sheet;
+        this.number = number;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+
+        inTileX = (int) Math.floor(x / width);
+        inTileY = (int) Math.floor(y / height);
+    }
+
+    /**
+     * Move the view to another cell. Only used by the storage reusable view.
+     * 
+     * @param sheet The sheet number.
+     * @param number The tile number on sheet.
+     * @param tx The horizontal tile index location.
+     * @param ty The vertical tile index location.
+     */
+    void set(Integer sheet, int number, int tx, int ty)
+    {
+        this.sheet = sheet;
+        this.number = number;
+        inTileX = tx;
+        inTileY = ty;
+        x = tx * (double) width;
+        y = ty * (double) height;
+    }
+
+    /*
+     * Tile
+     */
+
+    @Override
+    public Integer getSheet()
+    {
+        return sheet;
+    }
+
+    @Override
+    public int getNumber()
+    {
+        return number;
+    }
+
+    @Override
+    public double getX()
+    {
+        return x;
+    }
+
+    @Override
+    public double getY()
+    {
+        return y;
+    }
+
+    @Override
+    public int getWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public int getInTileX()
+    {
+        return inTileX;
+    }
+
+    @Override
+    public int getInTileY()
+    {
+        return inTileY;
+    }
+
+    @Override
+    public int getInTileWidth()
+    {
+        return 1;
+    }
+
+    @Override
+    public int getInTileHeight()
+    {
+        return 1;
+    }
+
+    /*
+     * Featurable
+     */
+
+    @Override
+    public void addFeature(Feature feature)
+    {
+        feature.prepare(this);
+        storage.getLocalOrCreate(inTileX, inTileY).add(feature);
+    }
+
+    @Override
+    public <T extends Feature> T addFeatureAndGet(T feature)
+    {
+        addFeature(feature);
+        return feature;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Does nothing by default.
+     * </p>
+     */
+    @Override
+    public void checkListener(Object listener)
+    {
+        // Nothing by default
+    }
+
+    @Override
+    public Media getMedia()
+    {
+        return null;
+    }
+
+    @Override
+    public <C extends Feature> C getFeature(Class<C> feature)
+    {
+        return storage.getFeature(inTileX, inTileY, sheet.intValue(), number, feature);
+    }
+
+    @Override
+    public Iterable<Feature> getFeatures()
+    {
+        final Collection<Feature> features = new ArrayList<>();
+        final Features local = storage.getLocal(inTileX, inTileY);
+        if (local != null)
+        {
+            for (final Feature feature : local.getFeatures())
+            {
+                features.add(feature);
+            }
+        }
+        final FeaturableModel shared = storage.getShared(sheet.intValue(), number);
+        if (shared != null)
+        {
+            for (final Feature feature : shared.getFeatures())
+            {
+                features.add(feature);
+            }
+        }
+        return features;
+    }
+
+    @Override
+    public Iterable<Class<? extends Feature>> getFeaturesType()
+    {
+        final Collection<Class<? extends Feature>> types = new ArrayList<>();
+        final Features local = storage.getLocal(inTileX, inTileY);
+        if (local != null)
+        {
+            for (final Class<? extends Feature> type : local.getFeaturesType())
+            {
+                types.add(type);
+            }
+        }
+        final FeaturableModel shared = storage.getShared(sheet.intValue(), number);
+        if (shared != null)
+        {
+            for (final Class<? extends Feature> type : shared.getFeaturesType())
+            {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public boolean hasFeature(Class<? extends Feature> feature)
+    {
+        final Features local = storage.getLocal(inTileX, inTileY);
+        if (local != null && local.contains(feature))
+        {
+            return true;
+        }
+        final FeaturableModel shared = storage.getShared(sheet.intValue(), number);
+        return shared != null && shared.hasFeature(feature);
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + width;
+        result = prime * result + height;
+        result = prime * result + inTileX;
+        result = prime * result + inTileY;
+        result = prime * result + sheet.hashCode();
+        result = prime * result + number;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final TileCompact other = (TileCompact) object;
+        return number == other.number
+               && width == other.width
+               && height == other.height
+               && inTileX == other.inTileX
+               && inTileY == other.inTileY
+               && sheet.equals(other.sheet);
+    }
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("sheet = ")
+                                  .append(sheet)
+                                  .append(" | number = ")
+                                  .append(number)
+                                  .append(" | tx = ")
+                                  .append(inTileX)
+                                  .append(" | ty = ")
+                                  .append(inTileY)
+                                  .toString();
+    }
+}
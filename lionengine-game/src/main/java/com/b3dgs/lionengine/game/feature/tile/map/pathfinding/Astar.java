@@ -39,6 +39,27 @@ public final class Astar
         return new PathFinderImpl(map, maxSearchDistance, heuristic);
     }
 
+    /**
+     * Create a hierarchical path finder (HPA*), searching over map clusters entrances, and refining path lazily. Each
+     * found path only leads to the next clusters, searching again from its end continues to destination.
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up, when refining path.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param clusterSize The cluster size in tile (must be superior or equal to 2).
+     * @return The path finder instance.
+     * @throws LionEngineException If invalid cluster size.
+     */
+    public static PathFinder createPathFinderHierarchical(MapTile map,
+                                                          int maxSearchDistance,
+                                                          Heuristic heuristic,
+                                                          int clusterSize)
+    {
+        final PathClusters clusters = map.getFeature(MapTilePath.class).getClusters(clusterSize);
+        return new PathFinderHierarchical(map, clusters, maxSearchDistance, heuristic);
+    }
+
     /**
      * Create the closest heuristic.
      * 
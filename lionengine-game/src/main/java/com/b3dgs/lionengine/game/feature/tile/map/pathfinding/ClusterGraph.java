@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Abstract graph of cluster entrances for a mover profile. Each cluster owns its right and bottom borders, where an
+ * entrance pair is placed in the middle of each walkable segment. Entrances of a same cluster are linked with their
+ * cost inside the cluster.
+ * <p>
+ * Only clusters with a changed version since last update are rebuilt, with their right and bottom neighbors entrances.
+ * </p>
+ */
+final class ClusterGraph
+{
+    /** No tile. */
+    private static final int[] NO_TILES = new int[0];
+
+    /** Entrances by tile index. */
+    private final Map<Integer, ClusterNode> nodes = new HashMap<>();
+    /** Released nodes id. */
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    /** Clusters reference. */
+    private final PathClusters clusters;
+    /** Search used to compute entrances costs. */
+    private final ClusterSearch search;
+    /** Clusters version built. */
+    private final int[] built;
+    /** Right border entrances by cluster, as pairs of inside and outside tile index. */
+    private final int[][] bordersRight;
+    /** Bottom border entrances by cluster, as pairs of inside and outside tile index. */
+    private final int[][] bordersBottom;
+    /** Entrances by cluster. */
+    private final ClusterNode[][] entrances;
+    /** Clusters modifications count built. */
+    private int modifications = -1;
+    /** Nodes id capacity. */
+    private int capacity;
+
+    /**
+     * Create graph.
+     * 
+     * @param clusters The clusters reference.
+     */
+    ClusterGraph(PathClusters clusters)
+    {
+        super();
+
+        this.clusters = clusters;
+        search = new ClusterSearch(clusters.getMap(), clusters.getMapPath(), clusters.getSize());
+
+        final int count = clusters.getCount();
+        built = new int[count];
+        Arrays.fill(built, -1);
+        bordersRight = new int[count][];
+        bordersBottom = new int[count][];
+        entrances = new ClusterNode[count][];
+        Arrays.fill(bordersRight, NO_TILES);
+        Arrays.fill(bordersBottom, NO_TILES);
+        Arrays.fill(entrances, new ClusterNode[0]);
+    }
+
+    /**
+     * Rebuild changed clusters.
+     * 
+     * @param mover The mover reference, representing the graph profile.
+     */
+    void update(Pathfindable mover)
+    {
+        if (modifications == clusters.getModifications())
+        {
+            return;
+        }
+        final int count = clusters.getCount();
+        final int horizontal = clusters.getHorizontal();
+        final boolean[] affected = new boolean[count];
+
+        for (int cluster = 0; cluster < count; cluster++)
+        {
+            final int version = clusters.getVersion(cluster);
+            if (built[cluster] != version)
+            {
+                bordersRight[cluster] = computeBorder(mover, cluster, 1, 0);
+                bordersBottom[cluster] = computeBorder(mover, cluster, 0, 1);
+                built[cluster] = version;
+                affected[cluster] = true;
+                if (cluster % horizontal + 1 < horizontal)
+                {
+                    affected[cluster + 1] = true;
+                }
+                if (cluster + horizontal < count)
+                {
+                    affected[cluster + horizontal] = true;
+                }
+            }
+        }
+        for (int cluster = 0; cluster < count; cluster++)
+        {
+            if (affected[cluster])
+            {
+                updateEntrances(cluster);
+            }
+        }
+        for (int cluster = 0; cluster < count; cluster++)
+        {
+            if (affected[cluster])
+            {
+                updateLinks(mover, cluster);
+            }
+        }
+        modifications = clusters.getModifications();
+    }
+
+    /**
+     * Get the entrances of a cluster.
+     * 
+     * @param cluster The cluster index.
+     * @return The cluster entrances.
+     */
+    ClusterNode[] getEntrances(int cluster)
+    {
+        return entrances[cluster];
+    }
+
+    /**
+     * Get the nodes id capacity. All nodes id are lower.
+     * 
+     * @return The nodes id capacity.
+     */
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Compute the entrances of a cluster border.
+     * 
+     * @param mover The mover reference.
+     * @param cluster The cluster index.
+     * @param dx The horizontal border side (1 for right border, 0 else).
+     * @param dy The vertical border side (1 for bottom border, 0 else).
+     * @return The entrances pairs of inside and outside tile index.
+     */
+    private int[] computeBorder(Pathfindable mover, int cluster, int dx, int dy)
+    {
+        final int size = clusters.getSize();
+        final int cx = cluster % clusters.getHorizontal();
+        final int cy = cluster / clusters.getHorizontal();
+        if (cx + dx >= clusters.getHorizontal() || cy + dy >= clusters.getVertical())
+        {
+            return NO_TILES;
+        }
+        final int mapWidth = clusters.getMap().getInTileWidth();
+        final int length;
+        if (dx == 1)
+        {
+            length = Math.min(size, clusters.getMap().getInTileHeight() - cy * size);
+        }
+        else
+        {
+            length = Math.min(size, mapWidth - cx * size);
+        }
+
+        final int[] pairs = new int[length * 2];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++)
+        {
+            final int tx = (cx + dx) * size - dx + i * dy;
+            final int ty = (cy + dy) * size - dy + i * dx;
+            final boolean passable = i < length
+                                     && search.isWalkable(mover, tx, ty)
+                                     && search.isWalkable(mover, tx + dx, ty + dy)
+                                     && search.isAllowed(mover, tx, ty, dx, dy)
+                                     && search.isAllowed(mover, tx + dx, ty + dy, -dx, -dy);
+            if (passable && start < 0)
+            {
+                start = i;
+            }
+            else if (!passable && start > -1)
+            {
+                final int middle = start + (i - 1 - start) / 2;
+                final int mx = (cx + dx) * size - dx + middle * dy;
+                final int my = (cy + dy) * size - dy + middle * dx;
+                pairs[count++] = mx + my * mapWidth;
+                pairs[count++] = mx + dx + (my + dy) * mapWidth;
+                start = -1;
+            }
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    /**
+     * Update cluster entrances from its borders, and its left and top neighbors borders. Entrances still present keep
+     * their node.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void updateEntrances(int cluster)
+    {
+        final Map<Integer, List<Integer>> tiles = new LinkedHashMap<>();
+        collect(tiles, bordersRight[cluster], 0);
+        collect(tiles, bordersBottom[cluster], 0);
+        if (cluster % clusters.getHorizontal() > 0)
+        {
+            collect(tiles, bordersRight[cluster - 1], 1);
+        }
+        if (cluster >= clusters.getHorizontal())
+        {
+            collect(tiles, bordersBottom[cluster - clusters.getHorizontal()], 1);
+        }
+
+        for (final ClusterNode node : entrances[cluster])
+        {
+            final Integer tile = Integer.valueOf(node.getTile());
+            if (!tiles.containsKey(tile))
+            {
+                nodes.remove(tile);
+                freeIds.push(Integer.valueOf(node.getId()));
+            }
+        }
+
+        final ClusterNode[] current = new ClusterNode[tiles.size()];
+        int i = 0;
+        for (final Map.Entry<Integer, List<Integer>> entry : tiles.entrySet())
+        {
+            ClusterNode node = nodes.get(entry.getKey());
+            if (node == null)
+            {
+                final int id;
+                if (freeIds.isEmpty())
+                {
+                    id = capacity++;
+                }
+                else
+                {
+                    id = freeIds.pop().intValue();
+                }
+                node = new ClusterNode(id, entry.getKey().intValue());
+                nodes.put(entry.getKey(), node);
+            }
+            final List<Integer> across = entry.getValue();
+            final int[] facing = new int[across.size()];
+            for (int j = 0; j < facing.length; j++)
+            {
+                facing[j] = across.get(j).intValue();
+            }
+            node.setAcross(facing);
+            current[i++] = node;
+        }
+        entrances[cluster] = current;
+    }
+
+    /**
+     * Collect entrances tile with their facing tile.
+     * 
+     * @param tiles The collected tiles, with their facing tiles.
+     * @param pairs The border pairs.
+     * @param side The pair side to collect (0 for inside, 1 for outside).
+     */
+    private static void collect(Map<Integer, List<Integer>> tiles, int[] pairs, int side)
+    {
+        for (int i = 0; i < pairs.length; i += 2)
+        {
+            final Integer tile = Integer.valueOf(pairs[i + side]);
+            List<Integer> across = tiles.get(tile);
+            if (across == null)
+            {
+                across = new ArrayList<>(1);
+                tiles.put(tile, across);
+            }
+            across.add(Integer.valueOf(pairs[i + 1 - side]));
+        }
+    }
+
+    /**
+     * Update cluster entrances links, with facing entrances and other entrances of the cluster.
+     * 
+     * @param mover The mover reference.
+     * @param cluster The cluster index.
+     */
+    private void updateLinks(Pathfindable mover, int cluster)
+    {
+        final int mapWidth = clusters.getMap().getInTileWidth();
+        final ClusterNode[] current = entrances[cluster];
+        for (final ClusterNode node : current)
+        {
+            final int[] across = node.getAcross();
+            final ClusterNode[] facing = new ClusterNode[across.length];
+            for (int i = 0; i < across.length; i++)
+            {
+                facing[i] = nodes.get(Integer.valueOf(across[i]));
+            }
+            node.setFacing(facing);
+
+            search.search(mover, node.getTile() % mapWidth, node.getTile() / mapWidth);
+            final ClusterNode[] neighbours = new ClusterNode[current.length];
+            final double[] costs = new double[current.length];
+            int count = 0;
+            for (final ClusterNode other : current)
+            {
+                final double cost = search.getCost(other.getTile() % mapWidth, other.getTile() / mapWidth);
+                if (other != node && cost < Double.POSITIVE_INFINITY)
+                {
+                    neighbours[count] = other;
+                    costs[count] = cost;
+                    count++;
+                }
+            }
+            node.setNeighbours(Arrays.copyOf(neighbours, count), Arrays.copyOf(costs, count));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Cluster entrance node of the abstract graph, linked to the other entrances of its cluster, and to the entrances
+ * facing it in the neighbor clusters.
+ */
+final class ClusterNode
+{
+    /** No node. */
+    private static final ClusterNode[] NO_NODES = new ClusterNode[0];
+    /** No cost. */
+    private static final double[] NO_COSTS = new double[0];
+    /** No tile. */
+    private static final int[] NO_TILES = new int[0];
+
+    /** Node id, unique in its graph. */
+    private final int id;
+    /** Tile index. */
+    private final int tile;
+    /** Facing entrances tile index. */
+    private int[] across = NO_TILES;
+    /** Facing entrances, resolved from tiles. */
+    private ClusterNode[] facing = NO_NODES;
+    /** Cluster entrances reachable from this one. */
+    private ClusterNode[] neighbours = NO_NODES;
+    /** Cost to reach each cluster entrance. */
+    private double[] costs = NO_COSTS;
+
+    /**
+     * Create node.
+     * 
+     * @param id The node id.
+     * @param tile The tile index.
+     */
+    ClusterNode(int id, int tile)
+    {
+        super();
+
+        this.id = id;
+        this.tile = tile;
+    }
+
+    /**
+     * Set the facing entrances tile index.
+     * 
+     * @param across The facing entrances tile index.
+     */
+    void setAcross(int[] across)
+    {
+        this.across = across;
+    }
+
+    /**
+     * Set the facing entrances, resolved from {@link #getAcross()}.
+     * 
+     * @param facing The facing entrances.
+     */
+    void setFacing(ClusterNode[] facing)
+    {
+        this.facing = facing;
+    }
+
+    /**
+     * Set the reachable cluster entrances.
+     * 
+     * @param neighbours The reachable cluster entrances.
+     * @param costs The cost for each entrance.
+     */
+    void setNeighbours(ClusterNode[] neighbours, double[] costs)
+    {
+        this.neighbours = neighbours;
+        this.costs = costs;
+    }
+
+    /**
+     * Get the node id.
+     * 
+     * @return The node id.
+     */
+    int getId()
+    {
+        return id;
+    }
+
+    /**
+     * Get the tile index.
+     * 
+     * @return The tile index.
+     */
+    int getTile()
+    {
+        return tile;
+    }
+
+    /**
+     * Get the facing entrances tile index.
+     * 
+     * @return The facing entrances tile index.
+     */
+    int[] getAcross()
+    {
+        return across;
+    }
+
+    /**
+     * Get the facing entrances.
+     * 
+     * @return The facing entrances.
+     */
+    ClusterNode[] getFacing()
+    {
+        return facing;
+    }
+
+    /**
+     * Get the reachable cluster entrances.
+     * 
+     * @return The reachable cluster entrances.
+     */
+    ClusterNode[] getNeighbours()
+    {
+        return neighbours;
+    }
+
+    /**
+     * Get the costs to reach cluster entrances.
+     * 
+     * @return The costs, in the same order as {@link #getNeighbours()}.
+     */
+    double[] getCosts()
+    {
+        return costs;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Uniform cost search from one location to all reachable locations of a cluster, used to compute entrances costs.
+ * Objects are ignored, only tile categories are considered.
+ */
+final class ClusterSearch
+{
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Node generation stamps. */
+    private final int[] stamps;
+    /** Node costs from start. */
+    private final double[] costs;
+    /** Open list. */
+    private final IndexedHeap open;
+    /** Cluster horizontal origin in tile. */
+    private int originX;
+    /** Cluster vertical origin in tile. */
+    private int originY;
+    /** Cluster width in tile (lower than size on map border). */
+    private int width;
+    /** Cluster height in tile (lower than size on map border). */
+    private int height;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Create search.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param size The cluster size in tile.
+     */
+    ClusterSearch(MapTile map, MapTilePath mapPath, int size)
+    {
+        super();
+
+        this.map = map;
+        this.mapPath = mapPath;
+        this.size = size;
+        stamps = new int[size * size];
+        costs = new double[size * size];
+        open = new IndexedHeap(size * size);
+    }
+
+    /**
+     * Check if location is walkable for mover, ignoring objects.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if walkable, <code>false</code> else.
+     */
+    boolean isWalkable(Pathfindable mover, int tx, int ty)
+    {
+        return !mapPath.isBlocked(mover, tx, ty, true);
+    }
+
+    /**
+     * Check if movement is allowed from location.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @param sx The horizontal movement.
+     * @param sy The vertical movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isAllowed(Pathfindable mover, int tx, int ty, int sx, int sy)
+    {
+        final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+        return tilePath != null && mover.isMovementAllowed(tilePath.getCategory(), MovementTile.from(sx, sy));
+    }
+
+    /**
+     * Search costs from location to all reachable locations of its cluster.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal start location.
+     * @param ty The vertical start location.
+     */
+    void search(Pathfindable mover, int tx, int ty)
+    {
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        originX = tx / size * size;
+        originY = ty / size * size;
+        width = Math.min(size, map.getInTileWidth() - originX);
+        height = Math.min(size, map.getInTileHeight() - originY);
+
+        open.clear();
+        final int start = tx - originX + (ty - originY) * size;
+        stamps[start] = generation;
+        costs[start] = 0.0;
+        open.push(start, 0.0, 0.0);
+
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            final int cx = originX + current % size;
+            final int cy = originY + current / size;
+            final double cost = costs[current] + mapPath.getCost(mover, cx, cy);
+
+            for (int y = -1; y < 2; y++)
+            {
+                for (int x = -1; x < 2; x++)
+                {
+                    if (!(x == 0 && y == 0))
+                    {
+                        update(mover, cx, cy, x, y, cost);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the cost from last search start to location.
+     * 
+     * @param tx The horizontal location (must be inside last searched cluster).
+     * @param ty The vertical location (must be inside last searched cluster).
+     * @return The cost, {@link Double#POSITIVE_INFINITY} if not reachable.
+     */
+    double getCost(int tx, int ty)
+    {
+        final int node = tx - originX + (ty - originY) * size;
+        if (stamps[node] == generation)
+        {
+            return costs[node];
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Update neighbour cost.
+     * 
+     * @param mover The mover reference.
+     * @param cx The current horizontal location.
+     * @param cy The current vertical location.
+     * @param x The horizontal movement.
+     * @param y The vertical movement.
+     * @param cost The cost to reach neighbour.
+     */
+    private void update(Pathfindable mover, int cx, int cy, int x, int y, double cost)
+    {
+        final int nx = cx + x;
+        final int ny = cy + y;
+        if (nx < originX || ny < originY || nx >= originX + width || ny >= originY + height)
+        {
+            return;
+        }
+        final int neighbour = nx - originX + (ny - originY) * size;
+        if (stamps[neighbour] != generation)
+        {
+            if (isAllowed(mover, cx, cy, x, y) && isWalkable(mover, nx, ny))
+            {
+                stamps[neighbour] = generation;
+                costs[neighbour] = cost;
+                open.push(neighbour, cost, 0.0);
+            }
+        }
+        else if (cost < costs[neighbour] && isAllowed(mover, cx, cy, x, y))
+        {
+            costs[neighbour] = cost;
+            open.decrease(neighbour, cost);
+        }
+    }
+}
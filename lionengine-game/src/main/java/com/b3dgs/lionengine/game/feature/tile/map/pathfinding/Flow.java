@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Flow field toward a destination, computed by {@link FlowField}. It stores for each tile the integrated cost to reach
+ * the destination, and the movement to perform to get closer to it. Any number of movers sharing the same profile can
+ * follow it with {@link Pathfindable#setDestination(Flow)}, without any additional search.
+ * <p>
+ * Objects are not part of the field, as they move constantly: they are avoided by the mover itself.
+ * </p>
+ */
+public final class Flow
+{
+    /** No direction value. */
+    static final byte NONE = -1;
+    /** Horizontal movement by direction. */
+    static final int[] DX =
+    {
+        0, 0, -1, 1, -1, 1, -1, 1
+    };
+    /** Vertical movement by direction. */
+    static final int[] DY =
+    {
+        1, -1, 0, 0, 1, 1, -1, -1
+    };
+    /** Movements by direction. */
+    private static final MovementTile[] MOVEMENTS =
+    {
+        MovementTile.UP,
+        MovementTile.DOWN,
+        MovementTile.LEFT,
+        MovementTile.RIGHT,
+        MovementTile.DIAGONAL_UP_LEFT,
+        MovementTile.DIAGONAL_UP_RIGHT,
+        MovementTile.DIAGONAL_DOWN_LEFT,
+        MovementTile.DIAGONAL_DOWN_RIGHT
+    };
+
+    /** Integrated costs to destination. */
+    private final float[] costs;
+    /** Directions index to destination. */
+    private final byte[] directions;
+    /** Field width in tile. */
+    private final int width;
+    /** Field height in tile. */
+    private final int height;
+    /** Horizontal destination in tile. */
+    private final int destX;
+    /** Vertical destination in tile. */
+    private final int destY;
+
+    /**
+     * Create an empty flow, nothing reachable.
+     * 
+     * @param width The field width in tile.
+     * @param height The field height in tile.
+     * @param destX The horizontal destination in tile.
+     * @param destY The vertical destination in tile.
+     */
+    Flow(int width, int height, int destX, int destY)
+    {
+        super();
+
+        this.width = width;
+        this.height = height;
+        this.destX = destX;
+        this.destY = destY;
+        costs = new float[width * height];
+        directions = new byte[width * height];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NONE);
+    }
+
+    /**
+     * Get the path from location to destination by following the field.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The path from location (included) to destination (included), <code>null</code> if unreachable.
+     */
+    public Path getPath(int tx, int ty)
+    {
+        if (!isReachable(tx, ty))
+        {
+            return null;
+        }
+        final Path path = new Path();
+        int x = tx;
+        int y = ty;
+        path.appendStep(x, y);
+        while (x != destX || y != destY)
+        {
+            final int direction = directions[x + y * width];
+            x += DX[direction];
+            y += DY[direction];
+            path.appendStep(x, y);
+        }
+        return path;
+    }
+
+    /**
+     * Get the movement to perform from location to get closer to destination.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The movement, {@link MovementTile#NONE} on destination or if unreachable.
+     */
+    public MovementTile getDirection(int tx, int ty)
+    {
+        if (isInside(tx, ty))
+        {
+            final int direction = directions[tx + ty * width];
+            if (direction != NONE)
+            {
+                return MOVEMENTS[direction];
+            }
+        }
+        return MovementTile.NONE;
+    }
+
+    /**
+     * Get the integrated cost from location to destination.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The cost to reach destination, {@link Double#POSITIVE_INFINITY} if unreachable.
+     */
+    public double getCost(int tx, int ty)
+    {
+        if (isInside(tx, ty))
+        {
+            return costs[tx + ty * width];
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Check if destination is reachable from location.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return <code>true</code> if reachable, <code>false</code> else.
+     */
+    public boolean isReachable(int tx, int ty)
+    {
+        return isInside(tx, ty) && costs[tx + ty * width] < Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the horizontal destination.
+     * 
+     * @return The horizontal destination in tile.
+     */
+    public int getDestinationX()
+    {
+        return destX;
+    }
+
+    /**
+     * Get the vertical destination.
+     * 
+     * @return The vertical destination in tile.
+     */
+    public int getDestinationY()
+    {
+        return destY;
+    }
+
+    /**
+     * Set the node cost and direction.
+     * 
+     * @param node The node index.
+     * @param cost The integrated cost.
+     * @param direction The direction index ({@link #NONE} for destination).
+     */
+    void set(int node, float cost, byte direction)
+    {
+        costs[node] = cost;
+        directions[node] = direction;
+    }
+
+    /**
+     * Get the node cost.
+     * 
+     * @param node The node index.
+     * @return The integrated cost.
+     */
+    float getCost(int node)
+    {
+        return costs[node];
+    }
+
+    /**
+     * Check if location is inside field.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+}
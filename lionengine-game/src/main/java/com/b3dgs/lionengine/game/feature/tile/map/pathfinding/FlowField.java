@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Flow field service. Computes a single {@link Flow} by destination and mover profile (blocking, cost and allowed
+ * movements of each category) with a Dijkstra search from destination over {@link MapTilePath} costs, so a group of
+ * movers ordered to the same destination costs one computation instead of one search by mover.
+ * <p>
+ * Computed flows are cached, the least recently used one being evicted when capacity is reached. Cache is cleared when
+ * a map tile is set, and must be cleared with {@link #clear()} if pathfinding is loaded again. Map tiles stop being
+ * listened with {@link #dispose()}, once service is not used anymore.
+ * </p>
+ * 
+ * <pre>
+ * final FlowField flowField = services.create(FlowField.class);
+ * final Flow flow = flowField.get(mover, tx, ty);
+ * for (final Pathfindable pathfindable : group)
+ * {
+ *     pathfindable.setDestination(flow);
+ * }
+ * </pre>
+ */
+public final class FlowField
+{
+    /** Default cached flows number. */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    /** Cached flows, in access order. */
+    private final Map<String, Flow> flows;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Open list. */
+    private final IndexedHeap open;
+    /** Map tiles listener, clearing cache. */
+    private final TileSetListener listener = tile -> clear();
+    /** Computed flows number. */
+    private int computed;
+
+    /**
+     * Create a flow field service with {@link #DEFAULT_CAPACITY}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile} with {@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @throws LionEngineException If missing service.
+     */
+    public FlowField(Services services)
+    {
+        this(services, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a flow field service.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile} with {@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param capacity The maximum cached flows number (must be strictly positive).
+     * @throws LionEngineException If missing service or invalid capacity.
+     */
+    public FlowField(Services services, int capacity)
+    {
+        super();
+
+        Check.superiorStrict(capacity, 0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        open = new IndexedHeap(map.getInTileWidth() * map.getInTileHeight());
+        flows = new LinkedHashMap<String, Flow>(capacity * 2, 0.75F, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Flow> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+        map.addListener(listener);
+    }
+
+    /**
+     * Get the flow to destination for mover profile, computed if not cached. Mover must know all map categories.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal destination in tile.
+     * @param ty The vertical destination in tile.
+     * @return The flow to destination.
+     */
+    public Flow get(Pathfindable mover, int tx, int ty)
+    {
+        final String key = new StringBuilder(PathClusters.getProfile(mapPath, mover)).append(tx)
+                                                                                      .append('x')
+                                                                                      .append(ty)
+                                                                                      .toString();
+        Flow flow = flows.get(key);
+        if (flow == null)
+        {
+            flow = compute(mover, tx, ty);
+            flows.put(key, flow);
+        }
+        return flow;
+    }
+
+    /**
+     * Clear all cached flows.
+     */
+    public void clear()
+    {
+        flows.clear();
+    }
+
+    /**
+     * Stop listening map tiles changes and clear all cached flows.
+     */
+    public void dispose()
+    {
+        map.removeListener(listener);
+        flows.clear();
+    }
+
+    /**
+     * Get the cached flows number.
+     * 
+     * @return The cached flows number.
+     */
+    public int getCached()
+    {
+        return flows.size();
+    }
+
+    /**
+     * Get the computed flows number since creation.
+     * 
+     * @return The computed flows number.
+     */
+    public int getComputed()
+    {
+        return computed;
+    }
+
+    /**
+     * Compute flow to destination. Search goes backward: a neighbour is reached if it can move to the current node,
+     * paying its own cost, as the forward search pays the cost of the left tile.
+     * 
+     * @param mover The mover reference.
+     * @param dtx The horizontal destination in tile.
+     * @param dty The vertical destination in tile.
+     * @return The computed flow.
+     */
+    private Flow compute(Pathfindable mover, int dtx, int dty)
+    {
+        computed++;
+
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        final Flow flow = new Flow(width, height, dtx, dty);
+
+        if (dtx < 0 || dty < 0 || dtx >= width || dty >= height || mapPath.isBlocked(mover, dtx, dty, true))
+        {
+            return flow;
+        }
+        open.clear();
+        final int destination = dtx + dty * width;
+        flow.set(destination, 0.0F, Flow.NONE);
+        open.push(destination, 0.0, 0.0);
+
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            final int cx = current % width;
+            final int cy = current / width;
+            final float cost = flow.getCost(current);
+
+            for (byte direction = 0; direction < Flow.DX.length; direction++)
+            {
+                final int nx = cx - Flow.DX[direction];
+                final int ny = cy - Flow.DY[direction];
+                if (nx >= 0 && ny >= 0 && nx < width && ny < height)
+                {
+                    updateNeighbour(mover, flow, nx + ny * width, nx, ny, cost, direction);
+                }
+            }
+        }
+        return flow;
+    }
+
+    /**
+     * Update neighbour if it can reach current node with a lower cost.
+     * 
+     * @param mover The mover reference.
+     * @param flow The flow reference.
+     * @param neighbour The neighbour node index.
+     * @param nx The horizontal neighbour location.
+     * @param ny The vertical neighbour location.
+     * @param cost The current node cost.
+     * @param direction The direction from neighbour to current node.
+     */
+    private void updateNeighbour(Pathfindable mover,
+                                 Flow flow,
+                                 int neighbour,
+                                 int nx,
+                                 int ny,
+                                 float cost,
+                                 byte direction)
+    {
+        final float known = flow.getCost(neighbour);
+        if (known <= cost || mapPath.isBlocked(mover, nx, ny, true))
+        {
+            return;
+        }
+        final String category = map.getTileFeature(nx, ny, TilePath.class).getCategory();
+        if (!mover.isMovementAllowed(category, MovementTile.from(Flow.DX[direction], Flow.DY[direction])))
+        {
+            return;
+        }
+        final float next = cost + (float) mapPath.getCost(mover, nx, ny);
+        if (next < known)
+        {
+            final boolean opened = known < Float.POSITIVE_INFINITY;
+            flow.set(neighbour, next, direction);
+            if (opened)
+            {
+                open.decrease(neighbour, next);
+            }
+            else
+            {
+                open.push(neighbour, next, 0.0);
+            }
+        }
+    }
+}
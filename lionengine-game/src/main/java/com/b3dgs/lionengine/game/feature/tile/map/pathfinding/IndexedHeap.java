@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min heap of nodes, ordered by priority, then by tie value on equality. A contained node priority can
+ * be decreased without removal.
+ * <p>
+ * Nodes are represented by their index, which must be lower than the nodes capacity.
+ * </p>
+ */
+final class IndexedHeap
+{
+    /** Initial heap capacity. */
+    private static final int HEAP_CAPACITY = 64;
+
+    /** Heap as nodes index. */
+    private int[] heap = new int[HEAP_CAPACITY];
+    /** Node position in heap. */
+    private int[] positions;
+    /** Node priority. */
+    private double[] priorities;
+    /** Node tie value. */
+    private double[] ties;
+    /** Heap size. */
+    private int size;
+
+    /**
+     * Create heap.
+     * 
+     * @param nodes The nodes capacity.
+     */
+    IndexedHeap(int nodes)
+    {
+        super();
+
+        positions = new int[nodes];
+        priorities = new double[nodes];
+        ties = new double[nodes];
+    }
+
+    /**
+     * Ensure nodes capacity, existing nodes data are kept.
+     * 
+     * @param nodes The required nodes capacity.
+     */
+    void ensureNodes(int nodes)
+    {
+        if (nodes > positions.length)
+        {
+            final int capacity = Math.max(nodes, positions.length * 2);
+            positions = Arrays.copyOf(positions, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            ties = Arrays.copyOf(ties, capacity);
+        }
+    }
+
+    /**
+     * Remove all nodes.
+     */
+    void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Check if heap is empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Get the first node without removing it. Heap must not be empty.
+     * 
+     * @return The first node index.
+     */
+    int peek()
+    {
+        return heap[0];
+    }
+
+    /**
+     * Add a node, which must not be already contained.
+     * 
+     * @param node The node index.
+     * @param priority The node priority.
+     * @param tie The tie value, used when priorities are equal.
+     */
+    void push(int node, double priority, double tie)
+    {
+        if (size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        priorities[node] = priority;
+        ties[node] = tie;
+        heap[size] = node;
+        positions[node] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Decrease the priority of a contained node.
+     * 
+     * @param node The node index.
+     * @param priority The new node priority (must be lower or equal than current).
+     */
+    void decrease(int node, double priority)
+    {
+        priorities[node] = priority;
+        siftUp(positions[node]);
+    }
+
+    /**
+     * Remove and get the first node. Heap must not be empty.
+     * 
+     * @return The first node index.
+     */
+    int poll()
+    {
+        final int node = heap[0];
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return node;
+    }
+
+    /**
+     * Check if first node has a higher priority than second one.
+     * 
+     * @param first The first node index.
+     * @param second The second node index.
+     * @return <code>true</code> if first node must be polled before the second one, <code>false</code> else.
+     */
+    private boolean isBefore(int first, int second)
+    {
+        final int compare = Double.compare(priorities[first], priorities[second]);
+        if (compare == 0)
+        {
+            return ties[first] < ties[second];
+        }
+        return compare < 0;
+    }
+
+    /**
+     * Move up heap element until heap order is restored.
+     * 
+     * @param start The heap position.
+     */
+    private void siftUp(int start)
+    {
+        final int node = heap[start];
+        int i = start;
+        while (i > 0)
+        {
+            final int parent = (i - 1) >>> 1;
+            if (!isBefore(node, heap[parent]))
+            {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        positions[node] = i;
+    }
+
+    /**
+     * Move down heap element until heap order is restored.
+     * 
+     * @param start The heap position.
+     */
+    private void siftDown(int start)
+    {
+        final int node = heap[start];
+        int i = start;
+        int child = (i << 1) + 1;
+        while (child < size)
+        {
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if (!isBefore(heap[child], node))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+            child = (i << 1) + 1;
+        }
+        heap[i] = node;
+        positions[node] = i;
+    }
+}
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Tiled;
@@ -55,7 +56,8 @@ public interface MapTilePath extends Feature
     void removeObjectId(int tx, int ty, Integer id);
 
     /**
-     * Get objects ID at this location.
+     * Get objects ID at this location. This is the only way to get them in map compact mode, where
+     * {@link TilePath#getObjectsId()} is always empty.
      * 
      * @param tx The horizontal tile index.
      * @param ty The vertical tile index.
@@ -127,6 +129,24 @@ public interface MapTilePath extends Feature
      */
     CoordTile getFreeTileAround(Pathfindable mover, int tx, int ty, int tw, int th, int radius);
 
+    /**
+     * Get the hierarchical pathfinding clusters, created on first call for this size, and shared by all hierarchical
+     * path finders using this size. Clusters are invalidated when a tile is set or when pathfinding is loaded.
+     * 
+     * @param size The cluster size in tile (must be superior or equal to 2).
+     * @return The clusters.
+     * @throws LionEngineException If invalid size.
+     */
+    PathClusters getClusters(int size);
+
+    /**
+     * Get a read-only snapshot of blocking data (tiles category and objects id). Snapshot is rebuilt on call only if
+     * data changed since the last one, and can be safely read from any thread.
+     * 
+     * @return The current snapshot.
+     */
+    PathSnapshot getSnapshot();
+
     /**
      * Get the cost of the complete path, from start to end.
      * 
@@ -167,4 +187,9 @@ public interface MapTilePath extends Feature
      * @return <code>true</code> if blocking, <code>false</code> else.
      */
     boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId);
+
+    /**
+     * Stop listening map tiles changes. Must be called when feature is not used anymore.
+     */
+    void dispose();
 }
@@ -17,9 +17,12 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.LionEngineException;
@@ -30,9 +33,11 @@ import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Identifiable;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroup;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
 
 /**
  * Map tile path model implementation.
@@ -45,6 +50,22 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
     private final MapTile map;
     /** Map group reference. */
     private final MapTileGroup mapGroup;
+    /** Map tiles listener, invalidating blocking data. */
+    private final TileSetListener listener;
+    /** Objects id by tile index, used in compact mode where {@link TilePath} are shared (empty until first id). */
+    private final List<Collection<Integer>> objectsId = new ArrayList<>();
+    /** Hierarchical clusters by size. */
+    private final Map<Integer, PathClusters> clusters = new HashMap<>();
+    /** Tiles index with objects id, used in default mode where {@link TilePath} are not shared. */
+    private final Collection<Integer> occupied = new HashSet<>();
+    /** Blocking data version, increased on change. */
+    private int version;
+    /** Tiles category changed since last snapshot. */
+    private boolean categoriesChanged = true;
+    /** Last snapshot tiles category (shared between snapshots while unchanged). */
+    private String[] snapshotCategories;
+    /** Last snapshot, <code>null</code> if none. */
+    private PathSnapshot snapshot;
 
     /**
      * Create a map tile path.
@@ -70,6 +91,16 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
 
         map = services.get(MapTile.class);
         mapGroup = map.getFeature(MapTileGroupModel.class);
+        listener = tile ->
+        {
+            for (final PathClusters cluster : clusters.values())
+            {
+                cluster.invalidate(tile.getInTileX(), tile.getInTileY());
+            }
+            version++;
+            categoriesChanged = true;
+        };
+        map.addListener(listener);
     }
 
     /**
@@ -83,11 +114,10 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
      */
     private boolean isTileNotAvailable(Pathfindable mover, int ctx, int cty, Integer ignoreObjectId)
     {
-        final Collection<Integer> ids = getObjectsId(ctx, cty);
-        final Tile tile = map.getTile(ctx, cty);
-        if (tile != null)
+        final TilePath tilePath = map.getTileFeature(ctx, cty, TilePath.class);
+        if (tilePath != null)
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
+            final Collection<Integer> ids = getObjectsId(ctx, cty);
             if (mover.isBlocking(tilePath.getCategory())
                 || ignoreObjectId != null && !ids.isEmpty() && !ids.contains(ignoreObjectId))
             {
@@ -201,6 +231,136 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         return null;
     }
 
+    /**
+     * Get the tile index used as objects id key in compact mode.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The tile index.
+     */
+    private int getIndex(int tx, int ty)
+    {
+        return tx + ty * map.getInTileWidth();
+    }
+
+    /**
+     * Get the objects id of tile index in compact mode.
+     * 
+     * @param index The tile index.
+     * @return The objects id, <code>null</code> if none.
+     */
+    private Collection<Integer> getCompactObjectsId(int index)
+    {
+        if (index < objectsId.size())
+        {
+            return objectsId.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Get the objects id of tile index in compact mode, create them if not existing. Kept when emptied, to be reused.
+     * 
+     * @param index The tile index.
+     * @return The objects id.
+     */
+    private Collection<Integer> getCompactObjectsIdOrCreate(int index)
+    {
+        final int count = Math.max(index + 1, map.getInTileWidth() * map.getInTileHeight());
+        while (objectsId.size() < count)
+        {
+            objectsId.add(null);
+        }
+        Collection<Integer> ids = objectsId.get(index);
+        if (ids == null)
+        {
+            ids = new ArrayList<>(1);
+            objectsId.set(index, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Copy the tiles category.
+     * 
+     * @return The tiles category by index, <code>null</code> if no tile or no category.
+     */
+    private String[] copyCategories()
+    {
+        final int width = map.getInTileWidth();
+        final String[] copy = new String[width * map.getInTileHeight()];
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null && tile.hasFeature(TilePath.class))
+                {
+                    copy[tx + ty * width] = tile.getFeature(TilePath.class).getCategory();
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Copy the objects id.
+     * 
+     * @return The objects id by tile index.
+     */
+    private Map<Integer, Collection<Integer>> copyObjectsId()
+    {
+        final Map<Integer, Collection<Integer>> copy = new HashMap<>();
+        if (map.isCompact())
+        {
+            for (int index = 0; index < objectsId.size(); index++)
+            {
+                final Collection<Integer> ids = objectsId.get(index);
+                if (ids != null && !ids.isEmpty())
+                {
+                    copy.put(Integer.valueOf(index), new ArrayList<>(ids));
+                }
+            }
+        }
+        else
+        {
+            final int width = map.getInTileWidth();
+            for (final Integer index : occupied)
+            {
+                final int tx = index.intValue() % width;
+                final int ty = index.intValue() / width;
+                copy.put(index, new ArrayList<>(getObjectsId(tx, ty)));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Load the tiles path, one per tile reference shared between tiles.
+     */
+    private void loadPathfindingShared()
+    {
+        objectsId.clear();
+        final Map<TileRef, TilePath> shared = new HashMap<>();
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    final TileRef ref = new TileRef(tile);
+                    if (!shared.containsKey(ref))
+                    {
+                        final TilePath tilePath = new TilePathModel(getCategory(mapGroup.getGroup(tile)));
+                        map.addTileFeature(ref, tilePath);
+                        shared.put(ref, tilePath);
+                    }
+                }
+            }
+        }
+    }
+
     /*
      * MapTilePath
      */
@@ -214,6 +374,18 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         {
             categories.put(category.getName(), category);
         }
+        for (final PathClusters cluster : clusters.values())
+        {
+            cluster.invalidate();
+        }
+        occupied.clear();
+        version++;
+        categoriesChanged = true;
+        if (map.isCompact())
+        {
+            loadPathfindingShared();
+            return;
+        }
         for (int ty = 0; ty < map.getInTileHeight(); ty++)
         {
             for (int tx = 0; tx < map.getInTileWidth(); tx++)
@@ -233,33 +405,73 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
     @Override
     public void addObjectId(int tx, int ty, Integer id)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        if (map.isCompact())
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            tilePath.addObjectId(id);
+            if (map.hasTile(tx, ty))
+            {
+                final Collection<Integer> ids = getCompactObjectsIdOrCreate(getIndex(tx, ty));
+                if (!ids.contains(id))
+                {
+                    ids.add(id);
+                }
+            }
         }
+        else
+        {
+            final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+            if (tilePath != null)
+            {
+                tilePath.addObjectId(id);
+                occupied.add(Integer.valueOf(getIndex(tx, ty)));
+            }
+        }
+        version++;
     }
 
     @Override
     public void removeObjectId(int tx, int ty, Integer id)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        if (map.isCompact())
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            tilePath.removeObjectId(id);
+            final Collection<Integer> ids = map.hasTile(tx, ty) ? getCompactObjectsId(getIndex(tx, ty)) : null;
+            if (ids != null)
+            {
+                ids.remove(id);
+            }
         }
+        else
+        {
+            final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+            if (tilePath != null)
+            {
+                tilePath.removeObjectId(id);
+                if (tilePath.getObjectsId().isEmpty())
+                {
+                    occupied.remove(Integer.valueOf(getIndex(tx, ty)));
+                }
+            }
+        }
+        version++;
     }
 
     @Override
     public Collection<Integer> getObjectsId(int tx, int ty)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        if (map.isCompact() && map.hasTile(tx, ty))
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
-            return tilePath.getObjectsId();
+            final Collection<Integer> ids = getCompactObjectsId(getIndex(tx, ty));
+            if (ids != null)
+            {
+                return ids;
+            }
+        }
+        else if (!map.isCompact())
+        {
+            final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+            if (tilePath != null)
+            {
+                return tilePath.getObjectsId();
+            }
         }
         return Collections.emptyList();
     }
@@ -294,23 +506,53 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
                 }
             }
             // Check if tile is blocking
-            final Tile tile = map.getTile(tx, ty);
-            if (tile != null)
+            final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+            if (tilePath != null)
             {
-                final TilePath tilePath = tile.getFeature(TilePath.class);
                 return mover.isBlocking(tilePath.getCategory());
             }
         }
         return true;
     }
 
+    @Override
+    public PathClusters getClusters(int size)
+    {
+        final Integer key = Integer.valueOf(size);
+        PathClusters cluster = clusters.get(key);
+        if (cluster == null)
+        {
+            cluster = new PathClusters(map, this, size);
+            clusters.put(key, cluster);
+        }
+        return cluster;
+    }
+
+    @Override
+    public PathSnapshot getSnapshot()
+    {
+        if (snapshot == null || snapshot.getVersion() != version)
+        {
+            if (categoriesChanged)
+            {
+                snapshotCategories = copyCategories();
+                categoriesChanged = false;
+            }
+            snapshot = new PathSnapshot(version,
+                                        map.getInTileWidth(),
+                                        map.getInTileHeight(),
+                                        snapshotCategories,
+                                        copyObjectsId());
+        }
+        return snapshot;
+    }
+
     @Override
     public double getCost(Pathfindable mover, int tx, int ty)
     {
-        final Tile tile = map.getTile(tx, ty);
-        if (tile != null)
+        final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+        if (tilePath != null)
         {
-            final TilePath tilePath = tile.getFeature(TilePath.class);
             return mover.getCost(tilePath.getCategory());
         }
         return 0.0;
@@ -397,4 +639,10 @@ public class MapTilePathModel extends FeatureModel implements MapTilePath
         }
         return true;
     }
+
+    @Override
+    public void dispose()
+    {
+        map.removeListener(listener);
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Search nodes state, stamped with the current search generation so nothing has to be cleared between two searches.
+ * A node not stamped for the current generation is {@link #NONE}.
+ */
+final class NodeStates
+{
+    /** Unvisited node state (for current generation). */
+    static final byte NONE = 0;
+    /** Opened node state. */
+    static final byte OPEN = 1;
+    /** Closed node state. */
+    static final byte CLOSED = 2;
+
+    /** Node generation stamps, node state is valid only if stamp is the current generation. */
+    private int[] stamps;
+    /** Node states. */
+    private byte[] states;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Create states.
+     * 
+     * @param capacity The nodes capacity.
+     */
+    NodeStates(int capacity)
+    {
+        super();
+
+        stamps = new int[capacity];
+        states = new byte[capacity];
+    }
+
+    /**
+     * Ensure nodes capacity, keeping current states.
+     * 
+     * @param capacity The nodes capacity.
+     */
+    void ensureCapacity(int capacity)
+    {
+        if (capacity > stamps.length)
+        {
+            stamps = Arrays.copyOf(stamps, capacity);
+            states = Arrays.copyOf(states, capacity);
+        }
+    }
+
+    /**
+     * Start a new search generation, invalidating all previous states.
+     */
+    void next()
+    {
+        generation++;
+        if (generation == Integer.MAX_VALUE)
+        {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Stamp node for the current generation with {@link #NONE} state if not already stamped.
+     * 
+     * @param node The node index.
+     * @return <code>true</code> if node has been stamped, <code>false</code> if already stamped.
+     */
+    boolean stamp(int node)
+    {
+        if (stamps[node] != generation)
+        {
+            stamps[node] = generation;
+            states[node] = NONE;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Set node state, stamping it for the current generation.
+     * 
+     * @param node The node index.
+     * @param state The node state.
+     */
+    void set(int node, byte state)
+    {
+        stamps[node] = generation;
+        states[node] = state;
+    }
+
+    /**
+     * Get node state for the current generation.
+     * 
+     * @param node The node index.
+     * @return The node state.
+     */
+    byte get(int node)
+    {
+        if (stamps[node] == generation)
+        {
+            return states[node];
+        }
+        return NONE;
+    }
+}
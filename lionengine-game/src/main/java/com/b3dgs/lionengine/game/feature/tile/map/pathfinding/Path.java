@@ -48,6 +48,17 @@ public final class Path
         steps.add(0, new Step(x, y));
     }
 
+    /**
+     * Append a step to the path.
+     * 
+     * @param x The x coordinate of the new step.
+     * @param y The y coordinate of the new step.
+     */
+    public void appendStep(int x, int y)
+    {
+        steps.add(new Step(x, y));
+    }
+
     /**
      * Get the length of the path, i.e. the number of steps.
      * 
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Hierarchical pathfinding clusters of a map (HPA*). The map is partitioned in square clusters, linked by entrances on
+ * their borders. An abstract graph of entrances is built for each mover profile (blocking, cost and allowed movements
+ * of each category), and rebuilt lazily by cluster when tiles change.
+ * <p>
+ * Clusters are shared by all hierarchical path finders of a map, see {@link MapTilePath#getClusters(int)}. Objects
+ * are not part of the abstract graph, as they move constantly: they are checked when refining path.
+ * </p>
+ */
+public final class PathClusters
+{
+    /** Graphs by profile. */
+    private final Map<String, ClusterGraph> graphs = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Horizontal clusters number. */
+    private final int horizontal;
+    /** Vertical clusters number. */
+    private final int vertical;
+    /** Clusters version, increased on change. */
+    private final int[] versions;
+    /** Modifications count. */
+    private int modifications;
+
+    /**
+     * Create clusters.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param size The cluster size in tile (must be superior or equal to 2).
+     * @throws LionEngineException If invalid size.
+     */
+    PathClusters(MapTile map, MapTilePath mapPath, int size)
+    {
+        super();
+
+        Check.superiorOrEqual(size, 2);
+
+        this.map = map;
+        this.mapPath = mapPath;
+        this.size = size;
+        horizontal = (map.getInTileWidth() + size - 1) / size;
+        vertical = (map.getInTileHeight() + size - 1) / size;
+        versions = new int[horizontal * vertical];
+    }
+
+    /**
+     * Invalidate location, its cluster will be rebuilt on next use, with the neighbor clusters sharing the border.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    public void invalidate(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= map.getInTileWidth() || ty >= map.getInTileHeight())
+        {
+            return;
+        }
+        final int cluster = getCluster(tx, ty);
+        versions[cluster]++;
+        if (tx % size == 0 && tx > 0)
+        {
+            versions[cluster - 1]++;
+        }
+        if (ty % size == 0 && ty > 0)
+        {
+            versions[cluster - horizontal]++;
+        }
+        modifications++;
+    }
+
+    /**
+     * Invalidate all clusters, all graphs will be rebuilt on next use.
+     */
+    public void invalidate()
+    {
+        graphs.clear();
+        modifications++;
+    }
+
+    /**
+     * Get the cluster size.
+     * 
+     * @return The cluster size in tile.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the cluster index of location.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The cluster index.
+     */
+    int getCluster(int tx, int ty)
+    {
+        return tx / size + ty / size * horizontal;
+    }
+
+    /**
+     * Get the mover profile, movers with the same profile share the same graph. Mover must know all map categories.
+     * 
+     * @param mapPath The map path reference.
+     * @param mover The mover reference.
+     * @return The mover profile.
+     */
+    static String getProfile(MapTilePath mapPath, Pathfindable mover)
+    {
+        final List<String> categories = new ArrayList<>(mapPath.getCategories());
+        Collections.sort(categories);
+
+        final StringBuilder profile = new StringBuilder();
+        for (final String category : categories)
+        {
+            profile.append(category).append(':');
+            if (mover.isBlocking(category))
+            {
+                profile.append('B');
+            }
+            else
+            {
+                profile.append(mover.getCost(category));
+                for (final MovementTile movement : MovementTile.values())
+                {
+                    if (mover.isMovementAllowed(category, movement))
+                    {
+                        profile.append(',').append(movement.ordinal());
+                    }
+                }
+            }
+            profile.append(';');
+        }
+        return profile.toString();
+    }
+
+    /**
+     * Get the graph of mover profile, updated.
+     * 
+     * @param profile The mover profile (see {@link #getProfile(MapTilePath, Pathfindable)}).
+     * @param mover The mover reference.
+     * @return The updated graph.
+     */
+    ClusterGraph getGraph(String profile, Pathfindable mover)
+    {
+        ClusterGraph graph = graphs.get(profile);
+        if (graph == null)
+        {
+            graph = new ClusterGraph(this);
+            graphs.put(profile, graph);
+        }
+        graph.update(mover);
+        return graph;
+    }
+
+    /**
+     * Get the horizontal clusters number.
+     * 
+     * @return The horizontal clusters number.
+     */
+    int getHorizontal()
+    {
+        return horizontal;
+    }
+
+    /**
+     * Get the vertical clusters number.
+     * 
+     * @return The vertical clusters number.
+     */
+    int getVertical()
+    {
+        return vertical;
+    }
+
+    /**
+     * Get the clusters number.
+     * 
+     * @return The clusters number.
+     */
+    int getCount()
+    {
+        return versions.length;
+    }
+
+    /**
+     * Get the cluster version.
+     * 
+     * @param cluster The cluster index.
+     * @return The cluster version.
+     */
+    int getVersion(int cluster)
+    {
+        return versions[cluster];
+    }
+
+    /**
+     * Get the modifications count.
+     * 
+     * @return The modifications count.
+     */
+    int getModifications()
+    {
+        return modifications;
+    }
+
+    /**
+     * Get the map.
+     * 
+     * @return The map reference.
+     */
+    MapTile getMap()
+    {
+        return map;
+    }
+
+    /**
+     * Get the map path.
+     * 
+     * @return The map path reference.
+     */
+    MapTilePath getMapPath()
+    {
+        return mapPath;
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Asynchronous path finder, searching requests on a bounded worker pool so a burst of orders does not stall the update.
+ * <p>
+ * Each {@link #update(double)}, which must be called from the thread updating the map:
+ * </p>
+ * <ul>
+ * <li>delivers completed requests to their mover with {@link Pathfindable#setPath(PathRequest)},</li>
+ * <li>dispatches at most budget pending requests, as long as a worker is free.</li>
+ * </ul>
+ * <p>
+ * Workers never read the live map: each request searches the {@link MapTilePath#getSnapshot()} taken when dispatched,
+ * with its own {@link PathFinderImpl} nodes data by worker. Destination is resolved on dispatch as in
+ * {@link PathFinder#findPath(Pathfindable, int, int, boolean)}.
+ * </p>
+ */
+public final class PathFinderAsync implements Updatable
+{
+    /** Pending requests, not dispatched yet. */
+    private final Queue<PathRequest> pending = new ArrayDeque<>();
+    /** Completed requests, waiting delivery. */
+    private final Queue<PathRequest> completed = new ConcurrentLinkedQueue<>();
+    /** Free finders, one by worker. */
+    private final BlockingQueue<PathFinderImpl> finders;
+    /** Workers. */
+    private final ExecutorService executor;
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Workers number. */
+    private final int threads;
+    /** Maximum dispatched requests by update. */
+    private final int budget;
+    /** Dispatched requests not delivered yet. */
+    private int running;
+
+    /**
+     * Create an asynchronous path finder.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param threads The workers number (must be strictly positive).
+     * @param budget The maximum dispatched requests by update (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PathFinderAsync(MapTile map, int maxSearchDistance, Heuristic heuristic, int threads, int budget)
+    {
+        super();
+
+        Check.superiorStrict(threads, 0);
+        Check.superiorStrict(budget, 0);
+
+        this.map = map;
+        this.threads = threads;
+        this.budget = budget;
+        mapPath = map.getFeature(MapTilePath.class);
+        finders = new ArrayBlockingQueue<>(threads);
+        for (int i = 0; i < threads; i++)
+        {
+            finders.add(new PathFinderImpl(map, maxSearchDistance, heuristic));
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            final Thread thread = new Thread(runnable, PathFinderAsync.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request a path from mover current location, searched when dispatched.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The request, which can be cancelled.
+     */
+    public PathRequest request(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final PathRequest request = new PathRequest(mover, dtx, dty, ignoreRef);
+        pending.add(request);
+        return request;
+    }
+
+    /**
+     * Get the requests number not delivered yet (pending and running).
+     * 
+     * @return The requests number.
+     */
+    public int getPending()
+    {
+        return pending.size() + running;
+    }
+
+    /**
+     * Stop workers. Pending requests are not searched anymore.
+     */
+    public void close()
+    {
+        for (final PathRequest request : pending)
+        {
+            request.cancel();
+        }
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Deliver completed requests.
+     */
+    private void deliver()
+    {
+        PathRequest request = completed.poll();
+        while (request != null)
+        {
+            running--;
+            request.setDone();
+            if (!request.isCancelled())
+            {
+                request.getMover().setPath(request);
+            }
+            request = completed.poll();
+        }
+    }
+
+    /**
+     * Dispatch pending requests within budget.
+     */
+    private void dispatch()
+    {
+        PathSnapshot snapshot = null;
+        int dispatched = 0;
+        while (dispatched < budget && running < threads && !pending.isEmpty())
+        {
+            final PathRequest request = pending.poll();
+            if (request.isCancelled())
+            {
+                continue;
+            }
+            final Pathfindable mover = request.getMover();
+            final int stx = mover.getInTileX();
+            final int sty = mover.getInTileY();
+            final CoordTile destination = PathFinderImpl.getDestination(map,
+                                                                        mapPath,
+                                                                        mover,
+                                                                        stx,
+                                                                        sty,
+                                                                        request.getDestinationX(),
+                                                                        request.getDestinationY(),
+                                                                        request.isIgnoreRef());
+            running++;
+            dispatched++;
+            if (destination == null)
+            {
+                completed.add(request);
+            }
+            else
+            {
+                if (snapshot == null)
+                {
+                    snapshot = mapPath.getSnapshot();
+                }
+                request.prepare(new PathGridSnapshot(snapshot, mover),
+                                stx,
+                                sty,
+                                destination.getX(),
+                                destination.getY());
+                executor.execute(() -> search(request));
+            }
+        }
+    }
+
+    /**
+     * Search request, from a worker thread.
+     * 
+     * @param request The request to search.
+     */
+    private void search(PathRequest request)
+    {
+        final PathFinderImpl finder = finders.poll();
+        try
+        {
+            request.search(finder);
+        }
+        finally
+        {
+            finders.add(finder);
+            completed.add(request);
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        deliver();
+        dispatch();
+    }
+}
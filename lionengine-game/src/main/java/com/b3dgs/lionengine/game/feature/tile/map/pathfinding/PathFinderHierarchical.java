@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Hierarchical path finder (HPA*). An abstract path is searched over {@link PathClusters} entrances, then refined
+ * lazily: each call only returns the path to the furthest abstract step located in the clusters around the mover,
+ * found by a {@link PathFinderImpl} bounded to these clusters. Next call from the reached step continues on the same
+ * abstract path, until destination.
+ * <p>
+ * Destination located in the clusters around the mover is directly searched.
+ * </p>
+ */
+final class PathFinderHierarchical implements PathFinder
+{
+    /** No parent. */
+    private static final int NO_PARENT = -1;
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Clusters reference. */
+    private final PathClusters clusters;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Path finder bounded to clusters around mover. */
+    private final PathFinderImpl local;
+    /** Search used to connect start and destination to their cluster entrances. */
+    private final ClusterSearch search;
+    /** Abstract open list. */
+    private final IndexedHeap open = new IndexedHeap(0);
+    /** Abstract nodes states. */
+    private final NodeStates states = new NodeStates(0);
+    /** Abstract nodes costs from start. */
+    private double[] costs = new double[0];
+    /** Abstract nodes parent. */
+    private int[] parents = new int[0];
+    /** Abstract nodes tile. */
+    private int[] tiles = new int[0];
+    /** Abstract nodes reference (<code>null</code> for destination). */
+    private ClusterNode[] nodes = new ClusterNode[0];
+    /** Abstract nodes cost to destination (only for destination cluster entrances). */
+    private double[] goals = new double[0];
+    /** Last mover. */
+    private Pathfindable lastMover;
+    /** Last mover profile. */
+    private String lastProfile;
+    /** Current abstract path, as tile index, destination excluded. */
+    private int[] route = new int[0];
+    /** Current abstract path length. */
+    private int routeLength;
+    /** Last abstract step returned. */
+    private int routeStep = -1;
+    /** Current abstract path destination tile index. */
+    private int routeDestination = -1;
+    /** Current abstract path clusters modifications. */
+    private int routeModifications = -1;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param clusters The map clusters.
+     * @param maxSearchDistance The maximum depth of refined path.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHierarchical(MapTile map, PathClusters clusters, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.map = map;
+        this.clusters = clusters;
+        this.heuristic = heuristic;
+        mapPath = map.getFeature(MapTilePath.class);
+        local = new PathFinderImpl(map, maxSearchDistance, heuristic, clusters.getSize() * 4 + 1);
+        search = new ClusterSearch(map, mapPath, clusters.getSize());
+    }
+
+    /**
+     * Check if location is in the clusters around another one.
+     * 
+     * @param stx The reference horizontal location.
+     * @param sty The reference vertical location.
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if in the same or a neighbor cluster, <code>false</code> else.
+     */
+    private boolean isNear(int stx, int sty, int tx, int ty)
+    {
+        final int size = clusters.getSize();
+        return Math.abs(tx / size - stx / size) < 2 && Math.abs(ty / size - sty / size) < 2;
+    }
+
+    /**
+     * Get the graph of mover profile.
+     * 
+     * @param mover The mover reference.
+     * @return The graph.
+     */
+    private ClusterGraph getGraph(Pathfindable mover)
+    {
+        if (lastMover != mover)
+        {
+            lastMover = mover;
+            lastProfile = PathClusters.getProfile(clusters.getMapPath(), mover);
+        }
+        return clusters.getGraph(lastProfile, mover);
+    }
+
+    /**
+     * Start a new abstract search generation.
+     * 
+     * @param capacity The nodes capacity, last one is the destination.
+     */
+    private void nextGeneration(int capacity)
+    {
+        if (capacity > costs.length)
+        {
+            final int length = Math.max(capacity, costs.length * 2);
+            states.ensureCapacity(length);
+            costs = Arrays.copyOf(costs, length);
+            parents = Arrays.copyOf(parents, length);
+            tiles = Arrays.copyOf(tiles, length);
+            nodes = Arrays.copyOf(nodes, length);
+            goals = Arrays.copyOf(goals, length);
+            open.ensureNodes(length);
+        }
+        states.next();
+        open.clear();
+    }
+
+    /**
+     * Stamp node for current generation if needed.
+     * 
+     * @param node The node id.
+     */
+    private void stamp(int node)
+    {
+        if (states.stamp(node))
+        {
+            goals[node] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Relax abstract node with a new cost. Node is opened if unvisited or reached with a lower cost.
+     * 
+     * @param node The node id.
+     * @param tile The node tile index.
+     * @param ref The node reference (<code>null</code> for destination).
+     * @param cost The cost to reach node.
+     * @param parent The parent node id.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     */
+    private void relax(int node, int tile, ClusterNode ref, double cost, int parent, int dtx, int dty)
+    {
+        stamp(node);
+        if (states.get(node) != NodeStates.NONE && cost >= costs[node])
+        {
+            return;
+        }
+        final int width = map.getInTileWidth();
+        final double value = heuristic.getCost(tile % width, tile / width, dtx, dty);
+        costs[node] = cost;
+        parents[node] = parent;
+        tiles[node] = tile;
+        nodes[node] = ref;
+        if (states.get(node) == NodeStates.OPEN)
+        {
+            open.decrease(node, cost + value);
+        }
+        else
+        {
+            states.set(node, NodeStates.OPEN);
+            open.push(node, cost + value, value);
+        }
+    }
+
+    /**
+     * Search the abstract path and store it as current route.
+     * 
+     * @param mover The mover reference.
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     * @return <code>true</code> if found, <code>false</code> else.
+     */
+    private boolean searchRoute(Pathfindable mover, int stx, int sty, int dtx, int dty)
+    {
+        final ClusterGraph graph = getGraph(mover);
+        final int goal = graph.getCapacity();
+        final int width = map.getInTileWidth();
+        nextGeneration(goal + 1);
+
+        search.search(mover, dtx, dty);
+        for (final ClusterNode node : graph.getEntrances(clusters.getCluster(dtx, dty)))
+        {
+            stamp(node.getId());
+            goals[node.getId()] = search.getCost(node.getTile() % width, node.getTile() / width);
+        }
+        search.search(mover, stx, sty);
+        for (final ClusterNode node : graph.getEntrances(clusters.getCluster(stx, sty)))
+        {
+            final double cost = search.getCost(node.getTile() % width, node.getTile() / width);
+            if (cost < Double.POSITIVE_INFINITY)
+            {
+                relax(node.getId(), node.getTile(), node, cost, NO_PARENT, dtx, dty);
+            }
+        }
+
+        while (!open.isEmpty())
+        {
+            final int current = open.poll();
+            if (current == goal)
+            {
+                storeRoute(goal, dtx + dty * width);
+                return true;
+            }
+            states.set(current, NodeStates.CLOSED);
+            expand(mover, current, goal, dtx, dty);
+        }
+        return false;
+    }
+
+    /**
+     * Expand abstract node.
+     * 
+     * @param mover The mover reference.
+     * @param current The current node id.
+     * @param goal The goal node id.
+     * @param dtx The horizontal destination location.
+     * @param dty The vertical destination location.
+     */
+    private void expand(Pathfindable mover, int current, int goal, int dtx, int dty)
+    {
+        final int width = map.getInTileWidth();
+        final int tile = tiles[current];
+        final double cost = costs[current];
+        if (goals[current] < Double.POSITIVE_INFINITY)
+        {
+            relax(goal, dtx + dty * width, null, cost + goals[current], current, dtx, dty);
+        }
+
+        final ClusterNode node = nodes[current];
+        final ClusterNode[] neighbours = node.getNeighbours();
+        final double[] weights = node.getCosts();
+        for (int i = 0; i < neighbours.length; i++)
+        {
+            final ClusterNode next = neighbours[i];
+            relax(next.getId(), next.getTile(), next, cost + weights[i], current, dtx, dty);
+        }
+        final double step = mapPath.getCost(mover, tile % width, tile / width);
+        for (final ClusterNode next : node.getFacing())
+        {
+            relax(next.getId(), next.getTile(), next, cost + step, current, dtx, dty);
+        }
+    }
+
+    /**
+     * Store the route found, from goal parents.
+     * 
+     * @param goal The goal node id.
+     * @param destination The destination tile index.
+     */
+    private void storeRoute(int goal, int destination)
+    {
+        int length = 0;
+        int node = parents[goal];
+        while (node != NO_PARENT)
+        {
+            length++;
+            node = parents[node];
+        }
+        if (route.length < length + 1)
+        {
+            route = new int[length + 1];
+        }
+        node = parents[goal];
+        for (int i = length - 1; i >= 0; i--)
+        {
+            route[i] = tiles[node];
+            node = parents[node];
+        }
+        route[length] = destination;
+        routeLength = length + 1;
+        routeStep = -1;
+        routeDestination = destination;
+        routeModifications = clusters.getModifications();
+    }
+
+    /**
+     * Check if current route can be continued from location.
+     * 
+     * @param stx The horizontal start location.
+     * @param sty The vertical start location.
+     * @param destination The destination tile index.
+     * @return <code>true</code> if route can be continued, <code>false</code> else.
+     */
+    private boolean isRouteValid(int stx, int sty, int destination)
+    {
+        return routeDestination == destination
+               && routeModifications == clusters.getModifications()
+               && routeStep > -1
+               && route[routeStep] == stx + sty * map.getInTileWidth();
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null)
+            {
+                return null;
+            }
+            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+        }
+        if (isNear(stx, sty, dtx, dty))
+        {
+            final Path path = local.findPath(mover, dtx, dty, ignoreRef);
+            if (path != null)
+            {
+                return path;
+            }
+        }
+
+        final int width = map.getInTileWidth();
+        final int destination = dtx + dty * width;
+        if (!isRouteValid(stx, sty, destination) && !searchRoute(mover, stx, sty, dtx, dty))
+        {
+            return null;
+        }
+
+        final int start = stx + sty * width;
+        int step = routeStep + 1;
+        while (step + 1 < routeLength
+               && (route[step] == start || isNear(stx, sty, route[step + 1] % width, route[step + 1] / width)))
+        {
+            step++;
+        }
+        routeStep = step;
+        return local.findPath(mover, route[step] % width, route[step] / width, ignoreRef);
+    }
+}
@@ -17,34 +17,58 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.NavigableSet;
-import java.util.TreeSet;
-
 import com.b3dgs.lionengine.UtilMath;
-import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 
 /**
  * A path finder implementation that uses the AStar heuristic based algorithm to determine a path.
+ * <p>
+ * Open list is an {@link IndexedHeap} (with decrease key), ordered by total cost, then by heuristic on equality.
+ * Nodes data are stored in primitive arrays indexed by tile, and are stamped with the current search generation by
+ * {@link NodeStates}, so nothing has to be cleared between two searches.
+ * </p>
+ * <p>
+ * Search can be bounded to a square window centered on the mover, in order to only allocate data for the window
+ * instead of the whole map.
+ * </p>
  */
 final class PathFinderImpl implements PathFinder
 {
-    /** Closed list. */
-    private final Collection<Node> closed = new HashSet<>();
-    /** Open list. */
-    private final NavigableSet<Node> open = new TreeSet<>();
+    /** No parent index. */
+    private static final int NO_PARENT = -1;
+
     /** Map reference. */
     private final MapTile map;
     /** Map path reference. */
     private final MapTilePath mapPath;
+    /** Live map grid. */
+    private final PathGrid live;
     /** Max distance to search. */
     private final int maxSearchDistance;
-    /** Nodes array. */
-    private final Node[][] nodes;
     /** Heuristic used. */
     private final Heuristic heuristic;
+    /** Searched area width in tile. */
+    private final int width;
+    /** Searched area height in tile. */
+    private final int height;
+    /** Node states, node data are valid only if node is stamped for the current generation. */
+    private final NodeStates states;
+    /** Node costs from start. */
+    private final double[] costs;
+    /** Node heuristic values. */
+    private final double[] heuristics;
+    /** Node parents index. */
+    private final int[] parents;
+    /** Node depths. */
+    private final int[] depths;
+    /** Open list. */
+    private final IndexedHeap open;
+    /** Searched area horizontal origin in tile. */
+    private int originX;
+    /** Searched area vertical origin in tile. */
+    private int originY;
+    /** Current searched grid. */
+    private PathGrid grid;
 
     /**
      * Internal constructor.
@@ -54,6 +78,19 @@ final class PathFinderImpl implements PathFinder
      * @param heuristic The heuristic used to determine the search order of the map.
      */
     PathFinderImpl(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(map, maxSearchDistance, heuristic, Math.max(map.getInTileWidth(), map.getInTileHeight()));
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param window The searched area size in tile, centered on mover. Destination outside is not reachable.
+     */
+    PathFinderImpl(MapTile map, int maxSearchDistance, Heuristic heuristic, int window)
     {
         super();
 
@@ -61,15 +98,17 @@ final class PathFinderImpl implements PathFinder
         this.map = map;
         this.maxSearchDistance = maxSearchDistance;
         mapPath = map.getFeature(MapTilePath.class);
-        nodes = new Node[map.getInTileHeight()][map.getInTileWidth()];
+        live = new PathGridMap(map, mapPath);
+        width = Math.min(window, map.getInTileWidth());
+        height = Math.min(window, map.getInTileHeight());
 
-        for (int ty = 0; ty < map.getInTileHeight(); ty++)
-        {
-            for (int tx = 0; tx < map.getInTileWidth(); tx++)
-            {
-                nodes[ty][tx] = new Node(tx, ty);
-            }
-        }
+        final int count = width * height;
+        states = new NodeStates(count);
+        costs = new double[count];
+        heuristics = new double[count];
+        parents = new int[count];
+        depths = new int[count];
+        open = new IndexedHeap(count);
     }
 
     /**
@@ -99,6 +138,63 @@ final class PathFinderImpl implements PathFinder
         return heuristic.getCost(stx, sty, dtx, dty);
     }
 
+    /**
+     * Start a new search generation, invalidating all previous nodes data, and center searched area on start.
+     * 
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     */
+    private void nextGeneration(int stx, int sty)
+    {
+        states.next();
+        open.clear();
+        originX = UtilMath.clamp(stx - width / 2, 0, map.getInTileWidth() - width);
+        originY = UtilMath.clamp(sty - height / 2, 0, map.getInTileHeight() - height);
+    }
+
+    /**
+     * Check if location is inside searched area.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= originX && ty >= originY && tx < originX + width && ty < originY + height;
+    }
+
+    /**
+     * Get the node index of location, which must be inside searched area.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return The node index.
+     */
+    private int getNode(int tx, int ty)
+    {
+        return tx - originX + (ty - originY) * width;
+    }
+
+    /**
+     * Open node, stamping it for the current generation.
+     * 
+     * @param node The node index.
+     * @param cost The node cost.
+     * @param value The node heuristic value.
+     * @param parent The node parent index.
+     * @param depth The node depth.
+     */
+    private void open(int node, double cost, double value, int parent, int depth)
+    {
+        states.set(node, NodeStates.OPEN);
+        costs[node] = cost;
+        heuristics[node] = value;
+        parents[node] = parent;
+        depths[node] = depth;
+        open.push(node, cost + value, value);
+    }
+
     /**
      * Check if a given location is valid for the supplied mover.
      * 
@@ -112,18 +208,37 @@ final class PathFinderImpl implements PathFinder
      */
     private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
     {
-        boolean invalid = dtx < 0 || dty < 0 || dtx >= map.getInTileWidth() || dty >= map.getInTileHeight();
+        boolean invalid = !isInside(dtx, dty);
 
         if (!invalid && (stx != dtx || sty != dty))
         {
-            invalid = mapPath.isBlocked(mover, dtx, dty, ignoreRef);
+            invalid = grid.isBlocked(mover, dtx, dty, ignoreRef);
         }
 
         return !invalid;
     }
 
     /**
-     * Update the open and closed list to find the path.
+     * Check if location can be reached with a lower cost than the current known one. Checked before location validity
+     * to skip map queries on already visited nodes.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @param cost The cost to reach location.
+     * @return <code>true</code> if unvisited or reached with a lower cost (or outside area), <code>false</code> else.
+     */
+    private boolean isImprovable(int tx, int ty, double cost)
+    {
+        if (!isInside(tx, ty))
+        {
+            return true;
+        }
+        final int node = getNode(tx, ty);
+        return states.get(node) == NodeStates.NONE || cost < costs[node];
+    }
+
+    /**
+     * Update the open list with current node neighbours.
      * 
      * @param mover The entity that will be moving along the path.
      * @param stx The x coordinate of the start location.
@@ -131,7 +246,7 @@ final class PathFinderImpl implements PathFinder
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
      * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param current The current node index.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
@@ -141,19 +256,27 @@ final class PathFinderImpl implements PathFinder
                            int dtx,
                            int dty,
                            boolean ignoreRef,
-                           Node current,
+                           int current,
                            int maxDepth)
     {
+        final int cx = originX + current % width;
+        final int cy = originY + current / width;
+        final String category = grid.getCategory(cx, cy);
+        final double nextStepCost = costs[current] + grid.getCost(mover, cx, cy);
+
         int depth = maxDepth;
-        final Tile tile = map.getTile(current.getX(), current.getY());
-        final TilePath tilePath = tile.getFeature(TilePath.class);
         for (int y = -1; y < 2; y++)
         {
             for (int x = -1; x < 2; x++)
             {
-                if (!(x == 0 && y == 0))
+                final int xp = cx + x;
+                final int yp = cy + y;
+                if (!(x == 0 && y == 0)
+                    && isImprovable(xp, yp, nextStepCost)
+                    && mover.isMovementAllowed(category, MovementTile.from(x, y))
+                    && isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
                 {
-                    depth = check(tilePath, depth, x, y, mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
+                    depth = updateNeighbour(dtx, dty, current, xp, yp, nextStepCost, depth);
                 }
             }
         }
@@ -161,92 +284,71 @@ final class PathFinderImpl implements PathFinder
     }
 
     /**
-     * Update the open and closed list to find the path.
+     * Update the current neighbor on search.
      * 
-     * @param tilePath The current tile.
-     * @param nextDepth The next depth value.
-     * @param x The current horizontal movement.
-     * @param y The current vertical movement.
-     * @param mover The entity that will be moving along the path.
-     * @param stx The x coordinate of the start location.
-     * @param sty The y coordinate of the start location.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
-     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
-     * @param current The current node.
+     * @param current The current node index.
+     * @param xp The x coordinate of the neighbour location.
+     * @param yp The y coordinate of the neighbour location.
+     * @param nextStepCost The cost to reach neighbour from current node.
      * @param maxDepth The last max depth.
      * @return The next max depth.
      */
-    private int check(TilePath tilePath,
-                      int nextDepth,
-                      int x,
-                      int y,
-                      Pathfindable mover,
-                      int stx,
-                      int sty,
-                      int dtx,
-                      int dty,
-                      boolean ignoreRef,
-                      Node current,
-                      int maxDepth)
+    private int updateNeighbour(int dtx, int dty, int current, int xp, int yp, double nextStepCost, int maxDepth)
     {
-        final MovementTile movement = MovementTile.from(x, y);
-        if (mover.isMovementAllowed(tilePath.getCategory(), movement))
+        final int neighbour = getNode(xp, yp);
+        final byte state = states.get(neighbour);
+        final int depth = depths[current] + 1;
+
+        if (state == NodeStates.NONE)
+        {
+            open(neighbour, nextStepCost, getHeuristicCost(xp, yp, dtx, dty), current, depth);
+        }
+        else if (nextStepCost < costs[neighbour])
         {
-            final int xp = x + current.getX();
-            final int yp = y + current.getY();
+            costs[neighbour] = nextStepCost;
+            parents[neighbour] = current;
+            depths[neighbour] = depth;
 
-            if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
+            if (state == NodeStates.OPEN)
             {
-                return updateNeighbour(mover, dtx, dty, current, xp, yp, maxDepth);
+                open.decrease(neighbour, nextStepCost + heuristics[neighbour]);
             }
+            else
+            {
+                open(neighbour, nextStepCost, heuristics[neighbour], current, depth);
+            }
+        }
+        else
+        {
+            return maxDepth;
         }
-        return nextDepth;
+        return Math.max(maxDepth, depth);
     }
 
     /**
-     * Update the current neighbor on search.
+     * Get the destination to search, closest available location if destination is blocked.
      * 
-     * @param mover The entity that will be moving along the path.
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     * @param mover The mover that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
      * @param dtx The x coordinate of the destination location.
      * @param dty The y coordinate of the destination location.
-     * @param current The current node.
-     * @param xp The x coordinate of the destination location.
-     * @param yp The y coordinate of the destination location.
-     * @param maxDepth The last max depth.
-     * @return The next max depth.
-     */
-    private int updateNeighbour(Pathfindable mover, int dtx, int dty, Node current, int xp, int yp, int maxDepth)
-    {
-        int nextDepth = maxDepth;
-        final double nextStepCost = current.getCost() + getMovementCost(mover, current.getX(), current.getY());
-        final Node neighbour = nodes[yp][xp];
-
-        if (nextStepCost < neighbour.getCost())
-        {
-            open.remove(neighbour);
-            closed.remove(neighbour);
-        }
-        if (!open.contains(neighbour) && !closed.contains(neighbour))
-        {
-            neighbour.setCost(nextStepCost);
-            neighbour.setHeuristic(getHeuristicCost(xp, yp, dtx, dty));
-            nextDepth = Math.max(maxDepth, neighbour.setParent(current));
-            open.add(neighbour);
-        }
-        return nextDepth;
-    }
-
-    /*
-     * PathFinder
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The destination to search, <code>null</code> if none.
      */
-
-    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
-    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    static CoordTile getDestination(MapTile map,
+                                    MapTilePath mapPath,
+                                    Pathfindable mover,
+                                    int stx,
+                                    int sty,
+                                    int dtx,
+                                    int dty,
+                                    boolean ignoreRef)
     {
-        final int stx = mover.getInTileX();
-        final int sty = mover.getInTileY();
-
         if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
         {
             return null;
@@ -258,42 +360,77 @@ final class PathFinderImpl implements PathFinder
             {
                 return null;
             }
-            return findPath(mover, tile.getX(), tile.getY(), ignoreRef);
+            return getDestination(map, mapPath, mover, stx, sty, tile.getX(), tile.getY(), ignoreRef);
         }
+        return new CoordTile(dtx, dty);
+    }
 
-        nodes[sty][stx].setCost(0);
-        nodes[sty][stx].setDepth(0);
-        closed.clear();
-        open.clear();
-        open.add(nodes[sty][stx]);
-        nodes[dty][dtx].setParent(null);
+    /**
+     * Search path on grid, from start to a non blocked destination.
+     * 
+     * @param searched The grid to search.
+     * @param mover The mover that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or <code>null</code> if no path can be found.
+     */
+    Path search(PathGrid searched, Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        grid = searched;
+        nextGeneration(stx, sty);
+        if (!isInside(dtx, dty))
+        {
+            return null;
+        }
+        final int start = getNode(stx, sty);
+        final int destination = getNode(dtx, dty);
+        open(start, 0.0, 0.0, NO_PARENT, 0);
 
         int maxDepth = 0;
         while (maxDepth < maxSearchDistance && !open.isEmpty())
         {
-            final Node current = open.first();
-            if (current == nodes[dty][dtx])
+            if (open.peek() == destination)
             {
                 break;
             }
-            open.remove(current);
-            closed.add(current);
+            final int current = open.poll();
+            states.set(current, NodeStates.CLOSED);
             maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, current, maxDepth);
         }
-        if (nodes[dty][dtx].getParent() == null)
+        if (states.get(destination) == NodeStates.NONE || parents[destination] == NO_PARENT)
         {
             return null;
         }
         final Path path = new Path();
-        Node target = nodes[dty][dtx];
+        int target = destination;
 
-        while (target != nodes[sty][stx])
+        while (target != start)
         {
-            path.prependStep(target.getX(), target.getY());
-            target = target.getParent();
+            path.prependStep(originX + target % width, originY + target / width);
+            target = parents[target];
         }
         path.prependStep(stx, sty);
 
         return path;
     }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+        final CoordTile destination = getDestination(map, mapPath, mover, stx, sty, dtx, dty, ignoreRef);
+        if (destination == null)
+        {
+            return null;
+        }
+        return search(live, mover, stx, sty, destination.getX(), destination.getY(), ignoreRef);
+    }
 }
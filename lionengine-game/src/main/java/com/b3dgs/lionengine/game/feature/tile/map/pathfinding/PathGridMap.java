@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Path grid reading live map data, only usable from the thread updating the map.
+ */
+final class PathGridMap implements PathGrid
+{
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+
+    /**
+     * Create grid.
+     * 
+     * @param map The map reference.
+     * @param mapPath The map path reference.
+     */
+    PathGridMap(MapTile map, MapTilePath mapPath)
+    {
+        super();
+
+        this.map = map;
+        this.mapPath = mapPath;
+    }
+
+    /*
+     * PathGrid
+     */
+
+    @Override
+    public String getCategory(int tx, int ty)
+    {
+        final TilePath tilePath = map.getTileFeature(tx, ty, TilePath.class);
+        if (tilePath != null)
+        {
+            return tilePath.getCategory();
+        }
+        return null;
+    }
+
+    @Override
+    public double getCost(Pathfindable mover, int tx, int ty)
+    {
+        return mapPath.getCost(mover, tx, ty);
+    }
+
+    @Override
+    public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+    {
+        return mapPath.isBlocked(mover, tx, ty, ignoreObjectsId);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Path grid reading a {@link PathSnapshot}, usable from any thread. Objects blocking the mover are resolved on
+ * creation, as mover ignored ids may change while searching.
+ */
+final class PathGridSnapshot implements PathGrid
+{
+    /** Snapshot reference. */
+    private final PathSnapshot snapshot;
+    /** Sorted tiles index blocked by objects for mover. */
+    private final int[] blocked;
+
+    /**
+     * Create grid. Must be called from the thread updating the map.
+     * 
+     * @param snapshot The snapshot reference.
+     * @param mover The object moving on map.
+     */
+    PathGridSnapshot(PathSnapshot snapshot, Pathfindable mover)
+    {
+        super();
+
+        this.snapshot = snapshot;
+
+        final Map<Integer, Collection<Integer>> objectsId = snapshot.getObjectsId();
+        final int[] indexes = new int[objectsId.size()];
+        int count = 0;
+        for (final Map.Entry<Integer, Collection<Integer>> entry : objectsId.entrySet())
+        {
+            for (final Integer id : entry.getValue())
+            {
+                if (!mover.isIgnoredId(id))
+                {
+                    indexes[count] = entry.getKey().intValue();
+                    count++;
+                    break;
+                }
+            }
+        }
+        blocked = Arrays.copyOf(indexes, count);
+        Arrays.sort(blocked);
+    }
+
+    /*
+     * PathGrid
+     */
+
+    @Override
+    public String getCategory(int tx, int ty)
+    {
+        return snapshot.getCategory(tx, ty);
+    }
+
+    @Override
+    public double getCost(Pathfindable mover, int tx, int ty)
+    {
+        final String category = snapshot.getCategory(tx, ty);
+        if (category != null)
+        {
+            return mover.getCost(category);
+        }
+        return 0.0;
+    }
+
+    @Override
+    public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+    {
+        final int width = snapshot.getInTileWidth();
+        if (tx < 0 || ty < 0 || tx >= width || ty >= snapshot.getInTileHeight())
+        {
+            return true;
+        }
+        if (!ignoreObjectsId && Arrays.binarySearch(blocked, tx + ty * width) >= 0)
+        {
+            return true;
+        }
+        final String category = snapshot.getCategory(tx, ty);
+        return category == null || mover.isBlocking(category);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Asynchronous path request, created by {@link PathFinderAsync#request(Pathfindable, int, int, boolean)}. Result is
+ * delivered to its mover with {@link Pathfindable#setPath(PathRequest)} on a next finder update, unless cancelled.
+ */
+public final class PathRequest
+{
+    /** Mover reference. */
+    private final Pathfindable mover;
+    /** Horizontal destination in tile. */
+    private final int destX;
+    /** Vertical destination in tile. */
+    private final int destY;
+    /** Ignore objects flag. */
+    private final boolean ignoreRef;
+    /** Cancelled flag, read by workers. */
+    private volatile boolean cancelled;
+    /** Delivered flag. */
+    private boolean done;
+    /** Found path, <code>null</code> if none. */
+    private Path path;
+    /** Searched grid, <code>null</code> until dispatched or if destination is not available. */
+    private PathGrid grid;
+    /** Horizontal start in tile. */
+    private int startX;
+    /** Vertical start in tile. */
+    private int startY;
+    /** Horizontal searched destination in tile. */
+    private int searchX;
+    /** Vertical searched destination in tile. */
+    private int searchY;
+
+    /**
+     * Create request.
+     * 
+     * @param mover The mover reference.
+     * @param destX The horizontal destination in tile.
+     * @param destY The vertical destination in tile.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     */
+    PathRequest(Pathfindable mover, int destX, int destY, boolean ignoreRef)
+    {
+        super();
+
+        this.mover = mover;
+        this.destX = destX;
+        this.destY = destY;
+        this.ignoreRef = ignoreRef;
+    }
+
+    /**
+     * Cancel request. It will not be searched if not started yet, and will not be delivered.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Get the mover.
+     * 
+     * @return The mover reference.
+     */
+    public Pathfindable getMover()
+    {
+        return mover;
+    }
+
+    /**
+     * Get the requested horizontal destination.
+     * 
+     * @return The horizontal destination in tile.
+     */
+    public int getDestinationX()
+    {
+        return destX;
+    }
+
+    /**
+     * Get the requested vertical destination.
+     * 
+     * @return The vertical destination in tile.
+     */
+    public int getDestinationY()
+    {
+        return destY;
+    }
+
+    /**
+     * Get the found path, available once delivered.
+     * 
+     * @return The found path, <code>null</code> if none or not delivered.
+     */
+    public Path getPath()
+    {
+        if (done)
+        {
+            return path;
+        }
+        return null;
+    }
+
+    /**
+     * Check if request has been cancelled.
+     * 
+     * @return <code>true</code> if cancelled, <code>false</code> else.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Check if request has been delivered.
+     * 
+     * @return <code>true</code> if delivered, <code>false</code> else.
+     */
+    public boolean isDone()
+    {
+        return done;
+    }
+
+    /**
+     * Prepare search, from the thread updating the map.
+     * 
+     * @param grid The grid to search.
+     * @param startX The horizontal start in tile.
+     * @param startY The vertical start in tile.
+     * @param searchX The horizontal searched destination in tile.
+     * @param searchY The vertical searched destination in tile.
+     */
+    void prepare(PathGrid grid, int startX, int startY, int searchX, int searchY)
+    {
+        this.grid = grid;
+        this.startX = startX;
+        this.startY = startY;
+        this.searchX = searchX;
+        this.searchY = searchY;
+    }
+
+    /**
+     * Search path, from a worker thread. Nothing is searched if request is cancelled or has not been prepared.
+     * 
+     * @param finder The finder to use.
+     */
+    void search(PathFinderImpl finder)
+    {
+        if (!cancelled && grid != null)
+        {
+            path = finder.search(grid, mover, startX, startY, searchX, searchY, ignoreRef);
+        }
+    }
+
+    /**
+     * Mark request as delivered, from the thread updating the map.
+     */
+    void setDone()
+    {
+        grid = null;
+        done = true;
+    }
+
+    /**
+     * Check if objects are ignored.
+     * 
+     * @return <code>true</code> to ignore objects, <code>false</code> else.
+     */
+    boolean isIgnoreRef()
+    {
+        return ignoreRef;
+    }
+}
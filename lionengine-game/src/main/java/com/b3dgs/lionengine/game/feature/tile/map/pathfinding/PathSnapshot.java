@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Read-only snapshot of map blocking data, see {@link MapTilePath#getSnapshot()}. Once created it is never modified,
+ * so it can be read from any thread while the map keeps changing.
+ */
+public final class PathSnapshot
+{
+    /** Blocking data version. */
+    private final int version;
+    /** Width in tile. */
+    private final int width;
+    /** Height in tile. */
+    private final int height;
+    /** Tiles category by index, <code>null</code> if none. */
+    private final String[] categories;
+    /** Objects id by tile index. */
+    private final Map<Integer, Collection<Integer>> objectsId;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param version The blocking data version.
+     * @param width The width in tile.
+     * @param height The height in tile.
+     * @param categories The tiles category by index (must not be modified after).
+     * @param objectsId The objects id by tile index (must not be modified after).
+     */
+    PathSnapshot(int version, int width, int height, String[] categories, Map<Integer, Collection<Integer>> objectsId)
+    {
+        super();
+
+        this.version = version;
+        this.width = width;
+        this.height = height;
+        this.categories = categories;
+        this.objectsId = objectsId;
+    }
+
+    /**
+     * Get the blocking data version.
+     * 
+     * @return The version.
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Get the width.
+     * 
+     * @return The width in tile.
+     */
+    public int getInTileWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the height.
+     * 
+     * @return The height in tile.
+     */
+    public int getInTileHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Get the tile category.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category, <code>null</code> if no tile or outside.
+     */
+    public String getCategory(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return null;
+        }
+        return categories[tx + ty * width];
+    }
+
+    /**
+     * Get objects id at location.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The objects id (empty if none or outside).
+     */
+    public Collection<Integer> getObjectsId(int tx, int ty)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return Collections.emptyList();
+        }
+        final Collection<Integer> ids = objectsId.get(Integer.valueOf(tx + ty * width));
+        if (ids == null)
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(ids);
+    }
+
+    /**
+     * Get all objects id by tile index.
+     * 
+     * @return The objects id by tile index.
+     */
+    Map<Integer, Collection<Integer>> getObjectsId()
+    {
+        return objectsId;
+    }
+}
@@ -116,6 +116,34 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
      */
     boolean setDestination(int tx, int ty);
 
+    /**
+     * Assign a flow destination, computed by {@link FlowField} for this profile. Will move automatically until reach
+     * it after this call, by following the flow without any search. Obstacles are avoided with a regular search.
+     * 
+     * @param flow The flow to follow.
+     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     */
+    boolean setDestination(Flow flow);
+
+    /**
+     * Assign a specified location, path being searched asynchronously. Will move automatically until reach it once
+     * path is delivered, on a next finder update. Any pending request of this mover is cancelled.
+     * 
+     * @param finder The asynchronous path finder.
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return The request, which can be cancelled.
+     */
+    PathRequest setDestination(PathFinderAsync finder, int tx, int ty);
+
+    /**
+     * Follow path of a delivered request, called by {@link PathFinderAsync}. Ignored if a more recent request of this
+     * mover is pending. Listeners are notified with {@link PathfindableListener#notifyPathFound(Path)}.
+     * 
+     * @param request The delivered request.
+     */
+    void setPath(PathRequest request);
+
     /**
      * Set specified location in tile.
      * 
@@ -49,6 +49,8 @@ public final class PathfindableConfig
     public static final String ATT_BLOCK = "block";
     /** Allowed movements node. */
     public static final String NODE_MOVEMENT = Constant.XML_PREFIX + "movement";
+    /** Hierarchical pathfinding cluster size attribute. */
+    public static final String ATT_CLUSTER = "cluster";
 
     /**
      * Import the pathfindable data from node.
@@ -79,6 +81,25 @@ public final class PathfindableConfig
         return categories;
     }
 
+    /**
+     * Import the hierarchical pathfinding cluster size from node.
+     * 
+     * @param configurer The configurer reference (must not be <code>null</code>).
+     * @return The cluster size in tile, <code>0</code> if hierarchical pathfinding is not enabled.
+     * @throws LionEngineException If unable to read node.
+     */
+    public static int importClusterSize(Configurer configurer)
+    {
+        Check.notNull(configurer);
+
+        final Xml root = configurer.getRoot();
+        if (!root.hasChild(NODE_PATHFINDABLE))
+        {
+            return 0;
+        }
+        return root.getChild(NODE_PATHFINDABLE).readInteger(0, ATT_CLUSTER);
+    }
+
     /**
      * Export the pathfindable data to node.
      * 
@@ -99,6 +120,24 @@ public final class PathfindableConfig
         return node;
     }
 
+    /**
+     * Export the pathfindable data to node, with hierarchical pathfinding enabled.
+     * 
+     * @param pathData The pathfindable data (must not be <code>null</code>).
+     * @param clusterSize The cluster size in tile (must be superior or equal to 2).
+     * @return The path data node.
+     * @throws LionEngineException If unable to read node or invalid cluster size.
+     */
+    public static Xml exports(Map<String, PathData> pathData, int clusterSize)
+    {
+        Check.superiorOrEqual(clusterSize, 2);
+
+        final Xml node = exports(pathData);
+        node.writeInteger(ATT_CLUSTER, clusterSize);
+
+        return node;
+    }
+
     /**
      * Create a path data from its node.
      * 
@@ -36,4 +36,14 @@ public interface PathfindableListener
      * Notify listener when mover has arrived.
      */
     void notifyArrived();
+
+    /**
+     * Notify listener when an asynchronous path request has been delivered to mover.
+     * 
+     * @param path The found path, <code>null</code> if none.
+     */
+    default void notifyPathFound(Path path)
+    {
+        // Nothing by default
+    }
 }
@@ -74,6 +74,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath;
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Hierarchical pathfinding flag, path is found by parts until destination. */
+    private final boolean hierarchical;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Transformable model. */
@@ -82,6 +84,12 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final OrientableModel orientable;
     /** Last valid path found. */
     private Path path;
+    /** Followed flow, <code>null</code> if none. */
+    private Flow flow;
+    /** Pending asynchronous request, <code>null</code> if none. */
+    private PathRequest request;
+    /** Delivered path to follow on next step, <code>null</code> if none. */
+    private Path delivered;
     /** Text debug rendering. */
     private Text text;
     /** Current step index on path. */
@@ -125,7 +133,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      * <li>{@link Transformable}</li>
      * </ul>
      * <p>
-     * The {@link Setup} owner must provide a valid {@link PathfindableConfig}.
+     * The {@link Setup} owner must provide a valid {@link PathfindableConfig}. Hierarchical pathfinding is used if
+     * a cluster size is defined, in that case all map categories must be defined.
      * </p>
      * <p>
      * The {@link Services} must provide the following services:
@@ -154,7 +163,16 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
 
         final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
                                           + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        final int clusterSize = PathfindableConfig.importClusterSize(setup);
+        hierarchical = clusterSize > 0;
+        if (hierarchical)
+        {
+            pathfinder = Astar.createPathFinderHierarchical(map, range, Astar.createHeuristicClosest(), clusterSize);
+        }
+        else
+        {
+            pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        }
 
         recycle();
     }
@@ -254,13 +272,15 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         final Collection<Integer> cid = mapPath.getObjectsId(path.getX(nextStep), path.getY(nextStep));
         if (sharedPathIds.containsAll(cid))
         {
-            setDestination(destX, destY);
+            flow = null;
+            startDestination(destX, destY);
         }
         else
         {
             if (!ignoredIds.containsAll(cid))
             {
-                setDestination(destX, destY);
+                flow = null;
+                startDestination(destX, destY);
             }
         }
     }
@@ -391,6 +411,83 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return false;
     }
 
+    /**
+     * Start moving to destination, or prepare path change if already moving.
+     * 
+     * @param tx The horizontal location in tile.
+     * @param ty The vertical location in tile.
+     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     */
+    private boolean startDestination(int tx, int ty)
+    {
+        delivered = null;
+        if (getInTileX() != tx || getInTileY() != ty)
+        {
+            // New first path, when object is not moving
+            if (path == null)
+            {
+                currentStep = 0;
+                path = findPath(tx, ty, true);
+                pathFoundChanged = false;
+                for (final PathfindableListener listener : listeners)
+                {
+                    listener.notifyStartMove();
+                }
+                prepareDestination(tx, ty);
+                return true;
+            }
+            // Next path, while object is moving, change takes effect when the object reached a step point
+            prepareDestination(tx, ty);
+            pathFoundChanged = true;
+        }
+        return false;
+    }
+
+    /**
+     * Cancel pending asynchronous request if any.
+     */
+    private void cancelRequest()
+    {
+        if (request != null)
+        {
+            request.cancel();
+            request = null;
+        }
+    }
+
+    /**
+     * Get the next path to destination while moving, delivered one if it starts from current location.
+     * 
+     * @return The next path, <code>null</code> if none.
+     */
+    private Path findNextPath()
+    {
+        final Path next = delivered;
+        delivered = null;
+        if (next != null && next.getX(0) == getInTileX() && next.getY(0) == getInTileY())
+        {
+            return next;
+        }
+        return findPath(destX, destY, false);
+    }
+
+    /**
+     * Find path to destination, by following flow if defined.
+     * 
+     * @param tx The horizontal destination in tile.
+     * @param ty The vertical destination in tile.
+     * @param ignoreRef <code>true</code> to ignore objects, <code>false</code> else.
+     * @return The found path, <code>null</code> if none.
+     */
+    private Path findPath(int tx, int ty, boolean ignoreRef)
+    {
+        if (flow != null)
+        {
+            return flow.getPath(getInTileX(), getInTileY());
+        }
+        return pathfinder.findPath(this, tx, ty, ignoreRef);
+    }
+
     /**
      * Check if pathfinder changed.
      */
@@ -406,7 +503,7 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             {
                 path.clear();
             }
-            path = pathfinder.findPath(this, destX, destY, false);
+            path = findNextPath();
             pathFoundChanged = false;
             currentStep = 0;
             skip = false;
@@ -458,6 +555,7 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         destinationReached = true;
         moving = false;
         path = null;
+        flow = null;
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
@@ -612,6 +710,17 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
                     listener.notifyMoving();
                 }
             }
+            // Max step is reached, find next part in hierarchical mode
+            else if (hierarchical && !pathStopped && (getInTileX() != destX || getInTileY() != destY))
+            {
+                path.clear();
+                path = pathfinder.findPath(this, destX, destY, false);
+                currentStep = 0;
+                if (path == null)
+                {
+                    onArrived();
+                }
+            }
             // Max step is reached, stop moves and animation
             else
             {
@@ -694,26 +803,65 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     @Override
     public boolean setDestination(int tx, int ty)
     {
-        if (getInTileX() != tx || getInTileY() != ty)
+        cancelRequest();
+        flow = null;
+        return startDestination(tx, ty);
+    }
+
+    @Override
+    public boolean setDestination(Flow flow)
+    {
+        cancelRequest();
+        this.flow = flow;
+        return startDestination(flow.getDestinationX(), flow.getDestinationY());
+    }
+
+    @Override
+    public PathRequest setDestination(PathFinderAsync finder, int tx, int ty)
+    {
+        cancelRequest();
+        request = finder.request(this, tx, ty, path == null);
+        return request;
+    }
+
+    @Override
+    public void setPath(PathRequest completed)
+    {
+        if (request != null && !request.isCancelled() && request != completed)
         {
-            // New first path, when object is not moving
-            if (path == null)
+            return;
+        }
+        request = null;
+
+        final Path found = completed.getPath();
+        for (final PathfindableListener listener : listeners)
+        {
+            listener.notifyPathFound(found);
+        }
+        if (found == null)
+        {
+            return;
+        }
+        flow = null;
+        // New first path, when object is not moving
+        if (path == null)
+        {
+            currentStep = 0;
+            path = found;
+            pathFoundChanged = false;
+            for (final PathfindableListener listener : listeners)
             {
-                currentStep = 0;
-                path = pathfinder.findPath(this, tx, ty, true);
-                pathFoundChanged = false;
-                for (final PathfindableListener listener : listeners)
-                {
-                    listener.notifyStartMove();
-                }
-                prepareDestination(tx, ty);
-                return true;
+                listener.notifyStartMove();
             }
-            // Next path, while object is moving, change takes effect when the object reached a step point
-            prepareDestination(tx, ty);
+            prepareDestination(completed.getDestinationX(), completed.getDestinationY());
+        }
+        // Next path, while object is moving, change takes effect when the object reached a step point
+        else
+        {
+            prepareDestination(completed.getDestinationX(), completed.getDestinationY());
+            delivered = found;
             pathFoundChanged = true;
         }
-        return false;
     }
 
     @Override
@@ -879,6 +1027,9 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         pathFoundChanged = false;
         currentStep = 0;
         path = null;
+        flow = null;
+        delivered = null;
+        cancelRequest();
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
@@ -49,6 +49,10 @@ public interface TilePath extends Feature
 
     /**
      * Get the objects ID over this tile.
+     * <p>
+     * In map compact mode, tile path is shared by all tiles with the same sheet and number, so objects ID are not
+     * stored here and this collection is always empty: {@link MapTilePath#getObjectsId(int, int)} must be used.
+     * </p>
      * 
      * @return The objects ID over this tile.
      */
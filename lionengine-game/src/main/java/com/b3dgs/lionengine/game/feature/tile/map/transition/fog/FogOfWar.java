@@ -43,8 +43,8 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
 {
     /** Hidden map. */
     private final MapTileFog mapHidden = new MapTileFog();
-    /** Fogged map. */
-    private final MapTileFog mapFogged = new MapTileFog();
+    /** Fogged map, tiles not revealed anymore are fogged again. */
+    private final MapTileFog mapFogged = new MapTileFog(true);
     /** Fog black tile. */
     private SpriteTiled hideTiles;
     /** Fog gray tiles. */
@@ -75,14 +75,13 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
     }
 
     /**
-     * Update fovable field of view (fog of war).
+     * Update fovable field of view (fog of war). Only fovables which changed of revealed area are processed.
      * 
      * @param fovables The entities reference.
      */
     public void update(Collection<Fovable> fovables)
     {
         mapHidden.update(fovables);
-        mapFogged.reset();
         mapFogged.update(fovables);
     }
 
@@ -155,7 +154,7 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
      */
     public boolean isVisited(int tx, int ty)
     {
-        return mapHidden.getTile(tx, ty).getNumber() == MapTileFog.NO_FOG;
+        return mapHidden.getNumber(tx, ty) == MapTileFog.NO_FOG;
     }
 
     /**
@@ -167,7 +166,7 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
      */
     public boolean isFogged(int tx, int ty)
     {
-        return mapFogged.getTile(tx, ty).getNumber() < MapTileFog.FOG;
+        return mapFogged.getNumber(tx, ty) < MapTileFog.FOG;
     }
 
     /*
@@ -180,18 +179,18 @@ public class FogOfWar extends FeatureModel implements MapTileRenderer
         final int tx = tile.getInTileX();
         final int ty = tile.getInTileY();
 
-        final Tile fogTile = mapFogged.getTile(tx, ty);
-        if (fogMap && fogTile != null && fogTile.getNumber() != MapTileFog.NO_FOG)
+        final int fogTile = mapFogged.getNumber(tx, ty);
+        if (fogMap && fogTile != MapTileFog.NO_FOG)
         {
             fogTiles.setLocation(x, y);
-            fogTiles.setTile(fogTile.getNumber());
+            fogTiles.setTile(fogTile);
             fogTiles.render(g);
         }
 
-        final Tile hideTile = mapHidden.getTile(tx, ty);
-        if (hideMap && hideTile != null && hideTile.getNumber() != MapTileFog.NO_FOG)
+        final int hideTile = mapHidden.getNumber(tx, ty);
+        if (hideMap && hideTile != MapTileFog.NO_FOG)
         {
-            hideTiles.setTile(hideTile.getNumber());
+            hideTiles.setTile(hideTile);
             hideTiles.setLocation(x, y);
             hideTiles.render(g);
         }
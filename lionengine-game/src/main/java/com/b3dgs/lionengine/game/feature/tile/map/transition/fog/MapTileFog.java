@@ -17,9 +17,12 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.UtilMath;
@@ -36,6 +39,11 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * Designed to handle a fog of war (discovering tile and hiding tile).
+ * <p>
+ * Visibility is stored as a reference count by tile, increased by each {@link Fovable} revealing it. A fovable is
+ * only processed when its revealed area changed since last update, and tiles are only set and transitions only
+ * resolved around the changed area.
+ * </p>
  */
 public class MapTileFog
 {
@@ -47,27 +55,62 @@ public class MapTileFog
     private static final String FOG_GROUP = "fog";
     /** Transition group. */
     private static final String TRANSITION_GROUP = "transition";
+    /** Fog sheet. */
+    private static final Integer SHEET = Integer.valueOf(0);
+    /** Area horizontal start index. */
+    private static final int AREA_MIN_X = 0;
+    /** Area vertical start index. */
+    private static final int AREA_MIN_Y = 1;
+    /** Area horizontal end index (included). */
+    private static final int AREA_MAX_X = 2;
+    /** Area vertical end index (included). */
+    private static final int AREA_MAX_Y = 3;
+    /** Area last update index. */
+    private static final int AREA_UPDATE = 4;
 
-    /** Revealed tiles. */
-    private final Collection<Tile> revealed = new HashSet<>();
+    /** Revealed area by fovable. */
+    private final Map<Fovable, int[]> areas = new HashMap<>();
+    /** Changed areas since last update. */
+    private final Collection<int[]> changed = new ArrayList<>();
     /** Hidden map. */
     private final MapTile map;
     /** Map group. */
     private final MapTileGroup mapGroup;
     /** Transitions. */
     private final MapTileTransition transition;
+    /** Fog again tiles not revealed anymore. */
+    private final boolean refog;
+    /** Reveal count by tile index. */
+    private int[] counts = new int[0];
+    /** Tile number by tile index. */
+    private int[] numbers = new int[0];
+    /** Current update. */
+    private int update;
 
     /**
-     * Create a fog of war.
+     * Create a fog of war, where revealed tiles stay revealed until {@link #reset()}.
      */
     public MapTileFog()
+    {
+        this(false);
+    }
+
+    /**
+     * Create a fog of war.
+     * 
+     * @param refog <code>true</code> to fog again on update tiles not revealed anymore, <code>false</code> to keep
+     *            them revealed until {@link #reset()}.
+     */
+    public MapTileFog(boolean refog)
     {
         super();
 
+        this.refog = refog;
         final Services services = new Services();
         map = services.create(MapTileGame.class);
         mapGroup = map.addFeatureAndGet(new MapTileGroupModel());
         transition = map.addFeatureAndGet(new MapTileTransitionModel(services));
+        map.addListener(tile -> numbers[tile.getInTileX() + tile.getInTileY() * map.getInTileWidth()] = tile.getNumber());
     }
 
     /**
@@ -95,39 +138,58 @@ public class MapTileFog
             {
                 group = TRANSITION_GROUP;
             }
-            mapGroup.changeGroup(new TileGame(Integer.valueOf(0), i, 0, 0, map.getTileWidth(), map.getTileHeight()),
-                                 group);
+            mapGroup.changeGroup(new TileGame(SHEET, i, 0, 0, map.getTileWidth(), map.getTileHeight()), group);
         }
-        mapGroup.changeGroup(new TileGame(Integer.valueOf(0), NO_FOG, 0, 0, map.getTileWidth(), map.getTileHeight()),
+        mapGroup.changeGroup(new TileGame(SHEET, NO_FOG, 0, 0, map.getTileWidth(), map.getTileHeight()),
                              MapTileGroupModel.NO_GROUP_NAME);
         transition.loadTransitions(config);
 
+        counts = new int[map.getInTileWidth() * map.getInTileHeight()];
+        numbers = new int[counts.length];
+        areas.clear();
+        changed.clear();
+
         for (int x = 0; x < map.getInTileWidth(); x++)
         {
             for (int y = 0; y < map.getInTileHeight(); y++)
             {
-                final Tile tile = new TileGame(Integer.valueOf(0),
-                                               FOG,
-                                               x * map.getTileWidth(),
-                                               y * map.getTileHeight(),
-                                               map.getTileWidth(),
-                                               map.getTileHeight());
-                this.map.setTile(tile);
+                setTile(x, y, FOG);
             }
         }
     }
 
     /**
-     * Update fovable field of view (fog of war).
+     * Update fovable field of view (fog of war). Fovables not part of this update anymore stop revealing.
      * 
      * @param fovables The entities reference.
      */
     public void update(Iterable<Fovable> fovables)
     {
+        update++;
         for (final Fovable fovable : fovables)
         {
             updateFov(fovable);
         }
+
+        final Iterator<int[]> iterator = areas.values().iterator();
+        while (iterator.hasNext())
+        {
+            final int[] area = iterator.next();
+            if (area[AREA_UPDATE] != update)
+            {
+                if (refog)
+                {
+                    hide(area);
+                }
+                iterator.remove();
+            }
+        }
+
+        for (final int[] area : changed)
+        {
+            resolve(area);
+        }
+        changed.clear();
     }
 
     /**
@@ -135,17 +197,16 @@ public class MapTileFog
      */
     public void reset()
     {
-        for (final Tile tile : revealed)
+        areas.clear();
+        changed.clear();
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < numbers.length; i++)
         {
-            final Tile reset = new TileGame(tile.getSheet(),
-                                            FOG,
-                                            tile.getX(),
-                                            tile.getY(),
-                                            tile.getWidth(),
-                                            tile.getHeight());
-            map.setTile(reset);
+            if (numbers[i] != FOG)
+            {
+                setTile(i % map.getInTileWidth(), i / map.getInTileWidth(), FOG);
+            }
         }
-        revealed.clear();
     }
 
     /**
@@ -161,7 +222,35 @@ public class MapTileFog
     }
 
     /**
-     * Update fovable field of view (fog of war).
+     * Check if tile is revealed by at least one fovable (or has been, if fog is not set again).
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if revealed, <code>false</code> else (or if outside).
+     */
+    public boolean isRevealed(int tx, int ty)
+    {
+        return isInside(tx, ty) && counts[tx + ty * map.getInTileWidth()] > 0;
+    }
+
+    /**
+     * Get the tile number.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return The tile number, {@link #NO_FOG} if outside.
+     */
+    int getNumber(int tx, int ty)
+    {
+        if (isInside(tx, ty))
+        {
+            return numbers[tx + ty * map.getInTileWidth()];
+        }
+        return NO_FOG;
+    }
+
+    /**
+     * Update fovable field of view, only if its revealed area changed.
      * 
      * @param fovable The fovable reference.
      */
@@ -178,28 +267,190 @@ public class MapTileFog
         final int sy = UtilMath.clamp(ty - ray - th / 2, 0, map.getInTileHeight() - 1);
         final int ey = UtilMath.clamp(ty + ray + th / 2, 0, map.getInTileHeight() - 1);
 
-        for (int x = sx + 1; x < ex; x++)
+        int[] area = areas.get(fovable);
+        if (area == null)
+        {
+            area = new int[AREA_UPDATE + 1];
+            areas.put(fovable, area);
+        }
+        else if (area[AREA_MIN_X] == sx + 1
+                 && area[AREA_MIN_Y] == sy + 1
+                 && area[AREA_MAX_X] == ex - 1
+                 && area[AREA_MAX_Y] == ey - 1)
+        {
+            area[AREA_UPDATE] = update;
+            return;
+        }
+        else if (refog)
+        {
+            hide(area);
+        }
+        area[AREA_MIN_X] = sx + 1;
+        area[AREA_MIN_Y] = sy + 1;
+        area[AREA_MAX_X] = ex - 1;
+        area[AREA_MAX_Y] = ey - 1;
+        area[AREA_UPDATE] = update;
+        reveal(area);
+    }
+
+    /**
+     * Reveal area, increasing tiles reveal count.
+     * 
+     * @param area The area to reveal.
+     */
+    private void reveal(int[] area)
+    {
+        boolean revealed = false;
+        final int width = map.getInTileWidth();
+        for (int y = area[AREA_MIN_Y]; y <= area[AREA_MAX_Y]; y++)
+        {
+            for (int x = area[AREA_MIN_X]; x <= area[AREA_MAX_X]; x++)
+            {
+                final int index = x + y * width;
+                if (counts[index] == 0)
+                {
+                    revealed = true;
+                }
+                if (refog || counts[index] == 0)
+                {
+                    counts[index]++;
+                }
+            }
+        }
+        if (revealed)
+        {
+            changed.add(Arrays.copyOf(area, AREA_UPDATE));
+        }
+    }
+
+    /**
+     * Hide area, decreasing tiles reveal count.
+     * 
+     * @param area The area to hide.
+     */
+    private void hide(int[] area)
+    {
+        boolean hidden = false;
+        final int width = map.getInTileWidth();
+        for (int y = area[AREA_MIN_Y]; y <= area[AREA_MAX_Y]; y++)
+        {
+            for (int x = area[AREA_MIN_X]; x <= area[AREA_MAX_X]; x++)
+            {
+                final int index = x + y * width;
+                counts[index]--;
+                if (counts[index] == 0)
+                {
+                    hidden = true;
+                }
+            }
+        }
+        if (hidden)
+        {
+            changed.add(Arrays.copyOf(area, AREA_UPDATE));
+        }
+    }
+
+    /**
+     * Update tiles around changed area: tiles next to it are set again from reveal count, and transitions are resolved
+     * from revealed tiles on the fog boundary.
+     * 
+     * @param area The changed area.
+     */
+    private void resolve(int[] area)
+    {
+        final int width = map.getInTileWidth();
+        final int height = map.getInTileHeight();
+        final int minX = Math.max(0, area[AREA_MIN_X] - 1);
+        final int minY = Math.max(0, area[AREA_MIN_Y] - 1);
+        final int maxX = Math.min(width - 1, area[AREA_MAX_X] + 1);
+        final int maxY = Math.min(height - 1, area[AREA_MAX_Y] + 1);
+
+        for (int x = minX; x <= maxX; x++)
         {
-            for (int y = sy + 1; y < ey; y++)
+            for (int y = minY; y <= maxY; y++)
             {
-                final Tile tile = new TileGame(Integer.valueOf(0),
-                                               NO_FOG,
-                                               x * map.getTileWidth(),
-                                               y * map.getTileHeight(),
-                                               map.getTileWidth(),
-                                               map.getTileHeight());
-                map.setTile(tile);
-                transition.resolve(getTile(x, y));
+                final int index = x + y * width;
+                final int number;
+                if (counts[index] > 0)
+                {
+                    number = NO_FOG;
+                }
+                else
+                {
+                    number = FOG;
+                }
+                if (numbers[index] != number)
+                {
+                    setTile(x, y, number);
+                }
             }
         }
 
-        for (int x = sx; x < ex + 1; x++)
+        // Revealed tiles next to reset ones apply their transitions again
+        final int startX = Math.max(0, minX - 1);
+        final int startY = Math.max(0, minY - 1);
+        final int endX = Math.min(width - 1, maxX + 1);
+        final int endY = Math.min(height - 1, maxY + 1);
+        for (int x = startX; x <= endX; x++)
         {
-            for (int y = sy; y < ey + 1; y++)
+            for (int y = startY; y <= endY; y++)
             {
-                final Tile tile = map.getTile(x, y);
-                revealed.add(tile);
+                if (counts[x + y * width] > 0 && isBoundary(x, y))
+                {
+                    transition.resolve(map.getTile(x, y));
+                }
             }
         }
     }
+
+    /**
+     * Check if revealed tile has at least one not revealed neighbor.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if on fog boundary, <code>false</code> else.
+     */
+    private boolean isBoundary(int tx, int ty)
+    {
+        for (int y = ty - 1; y <= ty + 1; y++)
+        {
+            for (int x = tx - 1; x <= tx + 1; x++)
+            {
+                if (isInside(x, y) && counts[x + y * map.getInTileWidth()] == 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if location is inside map.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private boolean isInside(int tx, int ty)
+    {
+        return tx >= 0 && ty >= 0 && tx < map.getInTileWidth() && ty < map.getInTileHeight();
+    }
+
+    /**
+     * Set tile.
+     * 
+     * @param tx The horizontal location.
+     * @param ty The vertical location.
+     * @param number The tile number.
+     */
+    private void setTile(int tx, int ty, int number)
+    {
+        map.setTile(new TileGame(SHEET,
+                                 number,
+                                 tx * map.getTileWidth(),
+                                 ty * map.getTileHeight(),
+                                 map.getTileWidth(),
+                                 map.getTileHeight()));
+    }
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Pre-rendered chunks of tiles. Each chunk contains a square block of tiles rendered once by all renderers in a
+ * single image buffer. Chunks are invalidated when one of their tiles is set, and least recently rendered chunks are
+ * disposed when capacity is reached.
+ */
+final class MapTileChunks implements TileSetListener
+{
+    /** Cached chunks by index, in access order. */
+    private final Map<Integer, ImageBuffer> chunks;
+    /** Map reference. */
+    private final MapTile map;
+    /** Renderers reference. */
+    private final Iterable<MapTileRenderer> renderers;
+    /** Chunk size in tile. */
+    private final int size;
+    /** Map width in chunk when cached. */
+    private int chunksWidth;
+    /** Map height in chunk when cached. */
+    private int chunksHeight;
+    /** Tile width when cached. */
+    private int tileWidth;
+    /** Tile height when cached. */
+    private int tileHeight;
+    /** Rendered chunks counter. */
+    private int rendered;
+
+    /**
+     * Create chunks.
+     * 
+     * @param map The map reference.
+     * @param renderers The renderers reference.
+     * @param size The chunk size in tile (must be strictly positive).
+     * @param capacity The maximum number of cached chunks (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    MapTileChunks(MapTile map, Iterable<MapTileRenderer> renderers, int size, int capacity)
+    {
+        super();
+
+        Check.superiorStrict(size, 0);
+        Check.superiorStrict(capacity, 0);
+
+        this.map = map;
+        this.renderers = renderers;
+        this.size = size;
+        chunks = new LinkedHashMap<Integer, ImageBuffer>(capacity, 0.75F, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ImageBuffer> eldest)
+            {
+                final boolean remove = size() > capacity;
+                if (remove)
+                {
+                    eldest.getValue().dispose();
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Render visible chunks.
+     * 
+     * @param g The graphic output.
+     * @param sx The first visible horizontal tile.
+     * @param sy The first visible vertical tile.
+     * @param ex The last visible horizontal tile.
+     * @param ey The last visible vertical tile.
+     * @param viewX The horizontal view offset.
+     * @param viewY The vertical view offset.
+     */
+    void render(Graphic g, int sx, int sy, int ex, int ey, double viewX, double viewY)
+    {
+        checkSize();
+
+        final int csx = Math.max(0, Math.floorDiv(sx, size));
+        final int csy = Math.max(0, Math.floorDiv(sy, size));
+        final int cex = Math.min(chunksWidth - 1, Math.floorDiv(ex, size));
+        final int cey = Math.min(chunksHeight - 1, Math.floorDiv(ey, size));
+
+        for (int cy = csy; cy <= cey; cy++)
+        {
+            final int rows = getRows(cy);
+            final int y = (int) (-(cy * size + rows) * (double) tileHeight + viewY);
+            for (int cx = csx; cx <= cex; cx++)
+            {
+                final int x = (int) (cx * size * (double) tileWidth - viewX);
+                g.drawImage(getChunk(cx, cy), x, y);
+            }
+        }
+    }
+
+    /**
+     * Dispose all cached chunks.
+     */
+    void clear()
+    {
+        for (final ImageBuffer chunk : chunks.values())
+        {
+            chunk.dispose();
+        }
+        chunks.clear();
+    }
+
+    /**
+     * Get the number of cached chunks.
+     * 
+     * @return The cached chunks number.
+     */
+    int getCached()
+    {
+        return chunks.size();
+    }
+
+    /**
+     * Get the number of chunks rendered since creation.
+     * 
+     * @return The rendered chunks number.
+     */
+    int getRendered()
+    {
+        return rendered;
+    }
+
+    /**
+     * Clear cache if map or tile size changed.
+     */
+    private void checkSize()
+    {
+        final int width = (map.getInTileWidth() + size - 1) / size;
+        final int height = (map.getInTileHeight() + size - 1) / size;
+        if (width != chunksWidth
+            || height != chunksHeight
+            || tileWidth != map.getTileWidth()
+            || tileHeight != map.getTileHeight())
+        {
+            clear();
+            chunksWidth = width;
+            chunksHeight = height;
+            tileWidth = map.getTileWidth();
+            tileHeight = map.getTileHeight();
+        }
+    }
+
+    /**
+     * Get the number of tile columns of the chunk (last chunk may be partial).
+     * 
+     * @param cx The horizontal chunk index.
+     * @return The chunk columns.
+     */
+    private int getColumns(int cx)
+    {
+        return Math.min(size, map.getInTileWidth() - cx * size);
+    }
+
+    /**
+     * Get the number of tile rows of the chunk (last chunk may be partial).
+     * 
+     * @param cy The vertical chunk index.
+     * @return The chunk rows.
+     */
+    private int getRows(int cy)
+    {
+        return Math.min(size, map.getInTileHeight() - cy * size);
+    }
+
+    /**
+     * Get the cached chunk, render it if not cached.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The chunk image.
+     */
+    private ImageBuffer getChunk(int cx, int cy)
+    {
+        final Integer key = Integer.valueOf(cx + cy * chunksWidth);
+        ImageBuffer chunk = chunks.get(key);
+        if (chunk == null)
+        {
+            chunk = createChunk(cx, cy);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Create and render chunk.
+     * 
+     * @param cx The horizontal chunk index.
+     * @param cy The vertical chunk index.
+     * @return The chunk image.
+     */
+    private ImageBuffer createChunk(int cx, int cy)
+    {
+        final int columns = getColumns(cx);
+        final int rows = getRows(cy);
+        final ImageBuffer chunk = Graphics.createImageBuffer(columns * tileWidth,
+                                                             rows * tileHeight,
+                                                             ColorRgba.TRANSPARENT);
+        final Graphic g = chunk.createGraphic();
+        final int stx = cx * size;
+        final int sty = cy * size;
+
+        for (int ty = sty; ty < sty + rows; ty++)
+        {
+            final int y = (sty + rows - 1 - ty) * tileHeight;
+            for (int tx = stx; tx < stx + columns; tx++)
+            {
+                final Tile tile = map.getTileView(tx, ty);
+                if (tile != null)
+                {
+                    final int x = (tx - stx) * tileWidth;
+                    for (final MapTileRenderer renderer : renderers)
+                    {
+                        renderer.renderTile(g, map, tile, x, y);
+                    }
+                }
+            }
+        }
+        g.dispose();
+        chunk.prepare();
+        rendered++;
+
+        return chunk;
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        if (chunksWidth > 0)
+        {
+            final int cx = tile.getInTileX() / size;
+            final int cy = tile.getInTileY() / size;
+            final ImageBuffer chunk = chunks.remove(Integer.valueOf(cx + cy * chunksWidth));
+            if (chunk != null)
+            {
+                chunk.dispose();
+            }
+        }
+    }
+}
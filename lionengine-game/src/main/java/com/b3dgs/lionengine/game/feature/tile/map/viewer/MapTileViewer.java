@@ -43,4 +43,9 @@ public interface MapTileViewer extends Displayable
      * Remove all renderers.
      */
     void clear();
+
+    /**
+     * Stop listening map tiles changes and dispose pre-rendered chunks. Must be called when viewer is not used anymore.
+     */
+    void dispose();
 }
@@ -20,6 +20,7 @@ package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
 import com.b3dgs.lionengine.game.feature.Services;
@@ -40,6 +41,8 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
     private final MapTile map;
     /** Viewer reference. */
     private final Viewer viewer;
+    /** Pre-rendered chunks (<code>null</code> if not cached). */
+    private final MapTileChunks chunks;
 
     /**
      * Create the viewer. It is shipped with a default renderer: {@link MapTileRendererModel}.
@@ -59,10 +62,85 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
 
         map = services.get(MapTile.class);
         viewer = services.get(Viewer.class);
+        chunks = null;
 
         renderers.add(new MapTileRendererModel());
     }
 
+    /**
+     * Create the viewer with a pre-rendered chunk cache. It is shipped with a default renderer:
+     * {@link MapTileRendererModel}.
+     * <p>
+     * Tiles are rendered by blocks of <code>chunkSize</code> x <code>chunkSize</code> in cached images, and only
+     * chunks overlapping the viewer are drawn. A chunk is rendered again when one of its tiles is set, and least
+     * recently drawn chunks are disposed when cache <code>capacity</code> is reached. Capacity should be greater than
+     * the number of visible chunks. Renderers with dynamic content must call {@link #invalidate()} when changed, and
+     * chunks are released with {@link #dispose()}.
+     * </p>
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference.
+     * @param chunkSize The chunk size in tile (must be strictly positive).
+     * @param capacity The maximum number of cached chunks (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public MapTileViewerModel(Services services, int chunkSize, int capacity)
+    {
+        super();
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+        chunks = new MapTileChunks(map, renderers, chunkSize, capacity);
+        map.addListener(chunks);
+
+        renderers.add(new MapTileRendererModel());
+    }
+
+    /**
+     * Dispose all pre-rendered chunks, they will be rendered again when visible. Does nothing if not cached.
+     */
+    public void invalidate()
+    {
+        if (chunks != null)
+        {
+            chunks.clear();
+        }
+    }
+
+    /**
+     * Get the number of cached chunks.
+     * 
+     * @return The cached chunks number (0 if not cached).
+     */
+    public int getCachedChunks()
+    {
+        if (chunks != null)
+        {
+            return chunks.getCached();
+        }
+        return 0;
+    }
+
+    /**
+     * Get the number of chunks rendered since creation.
+     * 
+     * @return The rendered chunks number (0 if not cached).
+     */
+    public int getRenderedChunks()
+    {
+        if (chunks != null)
+        {
+            return chunks.getRendered();
+        }
+        return 0;
+    }
+
     /**
      * Render the tile from location.
      * 
@@ -74,7 +152,7 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
      */
     private void renderTile(Graphic g, int tx, int ty, double viewX, double viewY)
     {
-        final Tile tile = map.getTile(tx, ty);
+        final Tile tile = map.getTileView(tx, ty);
         if (tile != null)
         {
             final int x = (int) (tile.getX() - viewX);
@@ -110,6 +188,22 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
         }
     }
 
+    /**
+     * Render visible pre-rendered chunks.
+     * 
+     * @param g The graphic output.
+     */
+    private void renderChunks(Graphic g)
+    {
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / map.getTileWidth());
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
+        final int ex = sx + (int) Math.ceil(viewer.getWidth() / (double) map.getTileWidth());
+        final int ey = sy + (int) Math.ceil(viewer.getHeight() / (double) map.getTileHeight());
+        final double viewY = viewer.getY() - viewer.getViewY() + viewer.getScreenHeight() - viewer.getViewY();
+
+        chunks.render(g, sx, sy, ex, ey, viewer.getX(), viewY);
+    }
+
     /*
      * MapTileViewer
      */
@@ -118,24 +212,41 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
     public void addRenderer(MapTileRenderer renderer)
     {
         renderers.add(renderer);
+        invalidate();
     }
 
     @Override
     public void removeRenderer(MapTileRenderer renderer)
     {
         renderers.remove(renderer);
+        invalidate();
     }
 
     @Override
     public void clear()
     {
         renderers.clear();
+        invalidate();
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (chunks != null)
+        {
+            map.removeListener(chunks);
+            chunks.clear();
+        }
     }
 
     @Override
     public void render(Graphic g)
     {
-        if (map.isCreated())
+        if (map.isCreated() && chunks != null)
+        {
+            renderChunks(g);
+        }
+        else if (map.isCreated())
         {
             final int inTileHeight = (int) Math.ceil(viewer.getHeight() / (double) map.getTileHeight());
             final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
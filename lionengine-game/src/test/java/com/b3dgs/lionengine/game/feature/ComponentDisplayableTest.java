@@ -19,15 +19,24 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.ImageSurface;
+import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
 /**
  * Test {@link ComponentDisplayable}.
@@ -121,6 +130,65 @@ public final class ComponentDisplayableTest
         assertTrue(auto.get());
     }
 
+    /**
+     * Test the component in batch mode, grouping rendering by surface.
+     */
+    @Test
+    public void testComponentBatch()
+    {
+        final ComponentDisplayable component = new ComponentDisplayable(true);
+        final ImageBuffer page1 = new ImageBufferMock(16, 16);
+        final ImageBuffer page2 = new ImageBufferMock(16, 16);
+
+        for (int i = 0; i < 8; i++)
+        {
+            final Featurable featurable = new FeaturableModel();
+            if (i % 2 == 0)
+            {
+                featurable.addFeature(new DisplayableModel(Drawable.loadSprite(page1)));
+            }
+            else
+            {
+                featurable.addFeature(new DisplayableModel(Drawable.loadSprite(page2)));
+            }
+            component.notifyHandlableAdded(featurable);
+        }
+
+        final List<ImageSurface> drawn = new ArrayList<>();
+        final Graphic g = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image,
+                                  int dx1,
+                                  int dy1,
+                                  int dx2,
+                                  int dy2,
+                                  int sx1,
+                                  int sy1,
+                                  int sx2,
+                                  int sy2)
+            {
+                drawn.add(image);
+            }
+        };
+        component.render(g, null);
+
+        assertEquals(8, drawn.size());
+        int switches = 0;
+        for (int i = 1; i < drawn.size(); i++)
+        {
+            if (drawn.get(i) != drawn.get(i - 1))
+            {
+                switches++;
+            }
+        }
+        assertEquals(1, switches);
+        assertNull(new DisplayableModel(graphic ->
+        {
+            // Mock
+        }).getSurface());
+    }
+
     /**
      * Test the component notification.
      */
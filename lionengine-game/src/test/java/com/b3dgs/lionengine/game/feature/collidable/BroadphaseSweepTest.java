@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link BroadphaseSweep}.
+ */
+public final class BroadphaseSweepTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final Handler handler = new Handler(services);
+    private final BroadphaseSweep broadphase = new BroadphaseSweep();
+    private final AtomicInteger collided1 = new AtomicInteger();
+    private final AtomicInteger collided2 = new AtomicInteger();
+
+    private Featurable featurable1;
+    private Transformable transformable1;
+    private Featurable featurable2;
+    private Transformable transformable2;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeEach
+    public void prepare()
+    {
+        services.add(new Camera());
+
+        featurable1 = CollidableModelTest.createFeaturable(config, services);
+        transformable1 = featurable1.getFeature(Transformable.class);
+        final Collidable collidable1 = featurable1.getFeature(Collidable.class);
+        collidable1.setGroup(0);
+        collidable1.addAccept(1);
+        collidable1.addCollision(new Collision("test1", 0, 0, 3, 3, false));
+        collidable1.addListener(collidable -> collided1.incrementAndGet());
+
+        featurable2 = CollidableModelTest.createFeaturable(config, services);
+        transformable2 = featurable2.getFeature(Transformable.class);
+        final Collidable collidable2 = featurable2.getFeature(Collidable.class);
+        collidable2.setGroup(1);
+        collidable2.addAccept(0);
+        collidable2.addCollision(new Collision("test2", 0, 0, 3, 3, false));
+        collidable2.addListener(collidable -> collided2.incrementAndGet());
+
+        handler.addComponent(new ComponentCollision(broadphase));
+        handler.add(featurable1);
+        handler.add(featurable2);
+        handler.update(1.0);
+        collided1.set(0);
+        collided2.set(0);
+    }
+
+    /**
+     * Test collidables moved by their listeners during detection keep each pair checked once.
+     */
+    @Test
+    public void testMoveDuringDetect()
+    {
+        final int number = 8;
+        final AtomicInteger collided = new AtomicInteger();
+        for (int i = 0; i < number; i++)
+        {
+            final Featurable featurable = CollidableModelTest.createFeaturable(config, services);
+            final Transformable transformable = featurable.getFeature(Transformable.class);
+            final Collidable collidable = featurable.getFeature(Collidable.class);
+            collidable.setGroup(2);
+            collidable.addAccept(2);
+            collidable.addCollision(new Collision("moving", 0, 0, 3, 3, false));
+            collidable.addListener(other ->
+            {
+                collided.incrementAndGet();
+                transformable.teleport(4.0 - transformable.getX(), 1.0);
+            });
+            transformable.teleport(1.0 + i % 2 * 2.0, 1.0);
+            handler.add(featurable);
+        }
+        handler.update(1.0);
+
+        for (int i = 0; i < 10; i++)
+        {
+            collided.set(0);
+            handler.update(1.0);
+
+            assertEquals(number * (number - 1), collided.get());
+        }
+    }
+
+    /**
+     * Test collision detected once per pair and per update.
+     */
+    @Test
+    public void testCollide()
+    {
+        transformable1.teleport(1.0, 1.0);
+        transformable2.teleport(2.0, 2.0);
+        handler.update(1.0);
+
+        assertEquals(1, collided1.get());
+        assertEquals(1, collided2.get());
+
+        handler.update(1.0);
+
+        assertEquals(2, collided1.get());
+        assertEquals(2, collided2.get());
+    }
+
+    /**
+     * Test no collision when far.
+     */
+    @Test
+    public void testFar()
+    {
+        transformable1.teleport(1.0, 1.0);
+        transformable2.teleport(100.0, 1.0);
+        handler.update(1.0);
+
+        assertEquals(0, collided1.get());
+        assertEquals(0, collided2.get());
+
+        transformable2.teleport(1.0, 100.0);
+        handler.update(1.0);
+
+        assertEquals(0, collided1.get());
+        assertEquals(0, collided2.get());
+
+        transformable2.teleport(2.0, 2.0);
+        handler.update(1.0);
+
+        assertEquals(1, collided1.get());
+        assertEquals(1, collided2.get());
+    }
+
+    /**
+     * Test no more collision when removed.
+     */
+    @Test
+    public void testRemoved()
+    {
+        transformable1.teleport(1.0, 1.0);
+        transformable2.teleport(2.0, 2.0);
+        handler.remove(featurable2);
+        handler.update(1.0);
+
+        assertEquals(0, collided1.get());
+        assertEquals(0, collided2.get());
+    }
+}
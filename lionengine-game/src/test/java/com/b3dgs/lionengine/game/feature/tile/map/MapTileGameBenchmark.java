@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Benchmark {@link MapTileGame} memory and throughput between default and compact mode.
+ * <p>
+ * Not part of the default test suite, run it explicitly with <code>-Dtest=MapTileGameBenchmark</code>.
+ * </p>
+ */
+public final class MapTileGameBenchmark
+{
+    /** Map size in tile. */
+    private static final int SIZE = 1024;
+    /** Number of full map reads. */
+    private static final int READS = 10;
+
+    /**
+     * Get the current used memory, after garbage collection.
+     * 
+     * @return The used memory in bytes.
+     */
+    private static long getUsedMemory()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+        {
+            System.gc(); // CHECKSTYLE IGNORE LINE: IllegalMethodCall
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Fill map and read all tiles, log memory and throughput.
+     * 
+     * @param compact The compact mode flag.
+     * @return The memory used by the map in bytes.
+     */
+    private static long benchmark(boolean compact)
+    {
+        final long before = getUsedMemory();
+        final MapTileGame map = new MapTileGame(compact);
+        map.create(16, 16, SIZE, SIZE);
+
+        final long startSet = System.nanoTime();
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            for (int tx = 0; tx < SIZE; tx++)
+            {
+                map.setTile(map.createTile(UtilMap.SHEET, (tx + ty) % 8, tx * 16.0, ty * 16.0));
+            }
+        }
+        final long setTime = System.nanoTime() - startSet;
+        final long memory = getUsedMemory() - before;
+
+        long checksum = 0L;
+        final long startGet = System.nanoTime();
+        for (int i = 0; i < READS; i++)
+        {
+            for (int ty = 0; ty < SIZE; ty++)
+            {
+                for (int tx = 0; tx < SIZE; tx++)
+                {
+                    final Tile tile = map.getTile(tx, ty);
+                    checksum += tile.getNumber();
+                }
+            }
+        }
+        final long getTime = System.nanoTime() - startGet;
+
+        assertEquals(SIZE * SIZE, map.getTilesNumber());
+        assertTrue(checksum > 0L);
+
+        Verbose.info(compact ? "Compact" : "Default",
+                     " map ",
+                     String.valueOf(SIZE),
+                     "x",
+                     String.valueOf(SIZE),
+                     ": memory = ",
+                     String.valueOf(memory / 1024L / 1024L),
+                     "MB | set = ",
+                     String.valueOf(setTime / 1_000_000L),
+                     "ms | get = ",
+                     String.valueOf(SIZE * (long) SIZE * READS * 1_000L / Math.max(1L, getTime)),
+                     " tiles/us");
+        map.clear();
+        return memory;
+    }
+
+    /**
+     * Compare memory and throughput between modes.
+     */
+    @Test
+    public void testBenchmark()
+    {
+        final long standard = benchmark(false);
+        final long compact = benchmark(true);
+
+        assertTrue(compact < standard);
+    }
+}
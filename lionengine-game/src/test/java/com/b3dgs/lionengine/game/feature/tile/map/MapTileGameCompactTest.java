@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileRef;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePath;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePathModel;
+import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
+
+/**
+ * Test {@link MapTileGame} in compact mode.
+ */
+public final class MapTileGameCompactTest
+{
+    private final MapTileGame map = new MapTileGame(true);
+
+    /**
+     * Test map creation.
+     */
+    @Test
+    public void testCreate()
+    {
+        assertTrue(map.isCompact());
+        assertFalse(map.isCreated());
+
+        map.create(16, 32, 2, 3);
+
+        assertTrue(map.isCreated());
+        assertEquals(2, map.getInTileWidth());
+        assertEquals(3, map.getInTileHeight());
+        assertEquals(0, map.getTilesNumber());
+
+        final Tile tile = map.createTile(Integer.valueOf(1), 2, 16.0, 32.0);
+
+        assertEquals(1, tile.getSheet().intValue());
+        assertEquals(2, tile.getNumber());
+        assertEquals(16.0, tile.getX());
+        assertEquals(32.0, tile.getY());
+        assertEquals(1, tile.getInTileX());
+        assertEquals(1, tile.getInTileY());
+        assertEquals(16, tile.getWidth());
+        assertEquals(32, tile.getHeight());
+        assertEquals(1, tile.getInTileWidth());
+        assertEquals(1, tile.getInTileHeight());
+    }
+
+    /**
+     * Test map set and get tile.
+     */
+    @Test
+    public void testSetGetTile()
+    {
+        map.create(16, 16, 3, 3);
+        map.loadSheets(new ArrayList<SpriteTiled>());
+
+        assertNull(map.getTile(0, 0));
+        assertNull(map.getTile(-1, 0));
+        assertNull(map.getTile(0, 3));
+
+        final Tile tile = map.createTile(Integer.valueOf(0), 1, 16.0, 32.0);
+        map.setTile(tile);
+
+        assertEquals(1, map.getTilesNumber());
+        assertEquals(tile, map.getTile(1, 2));
+        assertEquals(tile.hashCode(), map.getTile(1, 2).hashCode());
+        assertEquals(tile, map.getTileAt(20.0, 40.0));
+        assertEquals(Arrays.asList(tile), map.getTilesHit(17.0, 33.0, 18.0, 34.0));
+        assertEquals(tile.toString(), map.getTile(1, 2).toString());
+
+        final Tile other = map.createTile(Integer.valueOf(0), 2, 16.0, 32.0);
+        map.setTile(other);
+
+        assertNotEquals(tile, map.getTile(1, 2));
+        assertEquals(other, map.getTile(1, 2));
+    }
+
+    /**
+     * Test the map clearing.
+     */
+    @Test
+    public void testClear()
+    {
+        map.create(16, 16, 2, 2);
+        final Tile tile = map.createTile(Integer.valueOf(0), 0, 0, 0);
+        map.setTile(tile);
+
+        assertEquals(tile, map.getTile(0, 0));
+
+        map.clear();
+
+        assertNull(map.getTile(0, 0));
+        assertEquals(0, map.getTilesNumber());
+    }
+
+    /**
+     * Test the map resize keeps existing tiles.
+     */
+    @Test
+    public void testResize()
+    {
+        map.create(1, 1, 2, 2);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        map.resize(3, 4);
+
+        assertEquals(3, map.getInTileWidth());
+        assertEquals(4, map.getInTileHeight());
+        assertEquals(4, map.getTilesNumber());
+        assertEquals(UtilMap.TILE_GROUND, map.getTile(1, 1).getNumber());
+        assertNull(map.getTile(2, 1));
+        assertNull(map.getTile(0, 3));
+    }
+
+    /**
+     * Test the shared and local tile features.
+     */
+    @Test
+    public void testFeatures()
+    {
+        map.create(1, 1, 2, 2);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        assertFalse(map.getTile(0, 0).hasFeature(TilePath.class));
+        assertThrows(() -> map.getTile(0, 0).getFeature(TilePath.class),
+                     "Feature not found: " + TilePath.class.getName());
+
+        final TilePath shared = new TilePathModel("shared");
+        map.addTileFeature(new TileRef(UtilMap.SHEET, UtilMap.TILE_GROUND), shared);
+
+        assertEquals(shared, map.getTile(0, 0).getFeature(TilePath.class));
+        assertEquals(shared, map.getTile(1, 1).getFeature(TilePath.class));
+
+        final TilePath local = new TilePathModel("local");
+        map.getTile(1, 1).addFeature(local);
+
+        assertEquals(shared, map.getTile(0, 0).getFeature(TilePath.class));
+        assertEquals(local, map.getTile(1, 1).getFeature(TilePath.class));
+        assertTrue(map.getTile(1, 1).getFeatures().iterator().hasNext());
+        assertTrue(map.getTile(1, 1).getFeaturesType().iterator().hasNext());
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 1, 1));
+
+        assertEquals(local, map.getTile(1, 1).getFeature(TilePath.class));
+    }
+
+    /**
+     * Test the tile features are kept when tile is set again, as in list mode.
+     */
+    @Test
+    public void testSetKeepFeatures()
+    {
+        map.create(1, 1, 2, 2);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+
+        final TilePath local = new TilePathModel("local");
+        final Tile tile = map.getTile(1, 1);
+        tile.addFeature(local);
+        map.setTile(tile);
+
+        assertEquals(local, map.getTile(1, 1).getFeature(TilePath.class));
+        assertEquals(local, map.getTileFeature(1, 1, TilePath.class));
+        assertFalse(map.getTile(0, 0).hasFeature(TilePath.class));
+
+        final MapTileGame standard = new MapTileGame();
+        standard.create(1, 1, 2, 2);
+        UtilMap.fill(standard, UtilMap.TILE_GROUND);
+        final Tile other = standard.getTile(1, 1);
+        other.addFeature(local);
+        standard.setTile(other);
+
+        assertEquals(local, standard.getTile(1, 1).getFeature(TilePath.class));
+    }
+
+    /**
+     * Test the tile features and views read without tile instance.
+     */
+    @Test
+    public void testFeatureView()
+    {
+        map.create(16, 16, 3, 3);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 16.0, 32.0));
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 32.0, 0.0));
+
+        assertNull(map.getTileView(-1, 0));
+        assertNull(map.getTileView(0, 0));
+        assertFalse(map.hasTile(-1, 0));
+        assertFalse(map.hasTile(0, 0));
+        assertTrue(map.hasTile(1, 2));
+        assertNull(map.getTileFeature(-1, 0, TilePath.class));
+        assertNull(map.getTileFeature(0, 0, TilePath.class));
+        assertThrows(() -> map.getTileFeature(1, 2, TilePath.class), "Feature not found: " + TilePath.class.getName());
+
+        final Tile view = map.getTileView(1, 2);
+
+        assertEquals(map.getTile(1, 2), view);
+        assertEquals(1, view.getInTileX());
+        assertEquals(2, view.getInTileY());
+        assertEquals(UtilMap.TILE_GROUND, view.getNumber());
+
+        final Tile other = map.getTileView(2, 0);
+
+        assertTrue(view == other);
+        assertEquals(map.getTile(2, 0), other);
+        assertEquals(2, other.getInTileX());
+        assertEquals(0, other.getInTileY());
+        assertEquals(UtilMap.TILE_TREE, other.getNumber());
+
+        final TilePath shared = new TilePathModel("shared");
+        map.addTileFeature(new TileRef(UtilMap.SHEET, UtilMap.TILE_GROUND), shared);
+
+        assertEquals(shared, map.getTileFeature(1, 2, TilePath.class));
+
+        final TilePath local = new TilePathModel("local");
+        map.getTile(1, 2).addFeature(local);
+
+        assertEquals(local, map.getTileFeature(1, 2, TilePath.class));
+    }
+
+    /**
+     * Test shared tile feature without compact mode.
+     */
+    @Test
+    public void testSharedFeatureNotCompact()
+    {
+        final MapTileGame standard = new MapTileGame();
+
+        assertFalse(standard.isCompact());
+        assertThrows(() -> standard.addTileFeature(new TileRef(0, 0), new TilePathModel("shared")),
+                     MapTileGame.ERROR_NOT_COMPACT);
+    }
+}
@@ -256,6 +256,7 @@ public final class MapTileGameTest
 
         assertEquals(0, map.getTilesNumber());
         assertNull(map.getTile(0, 0));
+        assertFalse(map.hasTile(0, 0));
         assertNull(map.getTileAt(51.0, 68.0));
 
         final Tile tile = map.createTile(Integer.valueOf(0), 0, 0.0, 0.0);
@@ -263,6 +264,8 @@ public final class MapTileGameTest
 
         assertEquals(1, map.getTilesNumber());
         assertEquals(tile, map.getTile(0, 0));
+        assertTrue(map.hasTile(0, 0));
+        assertFalse(map.hasTile(-1, 0));
         assertEquals(tile, map.getTile(Geom.createLocalizable(0, 0), 0, 0));
         assertEquals(tile, map.getTileAt(3.0, 6.0));
         assertEquals(Arrays.asList(tile), map.getTilesHit(-1, -1, 1, 1));
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link FlowField} and {@link Flow}.
+ */
+public final class FlowFieldTest
+{
+    /** Map size. */
+    private static final int SIZE = 32;
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create a full vertical wall of trees.
+     * 
+     * @param tx The wall horizontal location.
+     * @return The trees location.
+     */
+    private static CoordTile[] createWall(int tx)
+    {
+        final List<CoordTile> trees = new ArrayList<>();
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            trees.add(new CoordTile(tx, ty));
+        }
+        return trees.toArray(new CoordTile[trees.size()]);
+    }
+
+    /**
+     * Test flow leads to destination around walls.
+     */
+    @Test
+    public void testFlow()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, UtilPathfinding.createWalls(SIZE, 8, 16));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final FlowField flowField = services.create(FlowField.class);
+
+        final Flow flow = flowField.get(mover, SIZE - 1, SIZE - 1);
+
+        assertEquals(SIZE - 1, flow.getDestinationX());
+        assertEquals(SIZE - 1, flow.getDestinationY());
+        assertEquals(0.0, flow.getCost(SIZE - 1, SIZE - 1));
+        assertEquals(MovementTile.NONE, flow.getDirection(SIZE - 1, SIZE - 1));
+        assertEquals(MovementTile.NONE, flow.getDirection(-1, 0));
+
+        final Path path = flow.getPath(0, 0);
+
+        assertEquals(flow.getCost(0, 0), path.getLength() - 1.0);
+        assertEquals(0, path.getX(0));
+        assertEquals(0, path.getY(0));
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            final int tx = path.getX(i);
+            final int ty = path.getY(i);
+            final int sx = tx - path.getX(i - 1);
+            final int sy = ty - path.getY(i - 1);
+            assertEquals(MovementTile.from(sx, sy), flow.getDirection(path.getX(i - 1), path.getY(i - 1)));
+            assertEquals(UtilMap.TILE_GROUND, map.getTile(tx, ty).getNumber());
+        }
+        assertEquals(SIZE - 1, path.getX(path.getLength() - 1));
+        assertEquals(SIZE - 1, path.getY(path.getLength() - 1));
+    }
+
+    /**
+     * Test unreachable destination.
+     */
+    @Test
+    public void testUnreachable()
+    {
+        final Services services = new Services();
+        UtilPathfinding.createMap(services, SIZE, createWall(SIZE / 2));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final FlowField flowField = new FlowField(services);
+
+        final Flow flow = flowField.get(mover, SIZE - 1, 0);
+
+        assertFalse(flow.isReachable(0, 0));
+        assertFalse(flow.isReachable(SIZE / 2, 0));
+        assertFalse(flow.isReachable(SIZE, 0));
+        assertTrue(flow.isReachable(SIZE / 2 + 1, 0));
+        assertEquals(Double.POSITIVE_INFINITY, flow.getCost(0, 0));
+        assertEquals(MovementTile.NONE, flow.getDirection(0, 0));
+        assertNull(flow.getPath(0, 0));
+
+        assertFalse(flowField.get(mover, SIZE / 2, 0).isReachable(0, 0));
+        assertFalse(flowField.get(mover, -1, 0).isReachable(0, 0));
+    }
+
+    /**
+     * Test flows cache with eviction and invalidation.
+     */
+    @Test
+    public void testCache()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, new CoordTile(5, 5));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final Pathfindable other = UtilPathfinding.createPathfindable(services, config, 1, 1);
+        final FlowField flowField = new FlowField(services, 2);
+
+        final Flow flow = flowField.get(mover, 1, 1);
+
+        assertEquals(flow, flowField.get(other, 1, 1));
+        assertEquals(1, flowField.getComputed());
+
+        final Flow flow2 = flowField.get(mover, 2, 2);
+        assertEquals(flow, flowField.get(mover, 1, 1));
+        flowField.get(mover, 3, 3);
+
+        assertEquals(2, flowField.getCached());
+        assertEquals(3, flowField.getComputed());
+        assertEquals(flow, flowField.get(mover, 1, 1));
+        assertNotEquals(flow2, flowField.get(mover, 2, 2));
+        assertEquals(4, flowField.getComputed());
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 5, 5));
+
+        assertEquals(0, flowField.getCached());
+        assertNotEquals(flow, flowField.get(mover, 1, 1));
+
+        flowField.clear();
+
+        assertEquals(0, flowField.getCached());
+
+        final Flow kept = flowField.get(mover, 1, 1);
+        flowField.dispose();
+
+        assertEquals(0, flowField.getCached());
+
+        flowField.get(mover, 1, 1);
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 5, 5));
+
+        assertEquals(1, flowField.getCached());
+        assertNotEquals(kept, flowField.get(mover, 1, 1));
+        assertThrows(() -> new FlowField(services, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test pathfindables following the same flow until destination.
+     */
+    @Test
+    public void testPathfindable()
+    {
+        final Services services = new Services();
+        UtilPathfinding.createMap(services, SIZE, UtilPathfinding.createWalls(SIZE, 8, 16));
+        final FlowField flowField = services.create(FlowField.class);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final Pathfindable other = UtilPathfinding.createPathfindable(services, config, 0, SIZE - 1);
+        mover.setSpeed(1.0, 1.0);
+        other.setSpeed(1.0, 1.0);
+
+        final Flow flow = flowField.get(mover, SIZE - 1, SIZE / 2);
+
+        assertTrue(mover.setDestination(flow));
+        assertTrue(other.setDestination(flowField.get(other, SIZE - 1, SIZE / 2)));
+        assertEquals(1, flowField.getComputed());
+
+        for (int i = 0; i < SIZE * SIZE && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(mover.isDestinationReached());
+        assertFalse(mover.isMoving());
+        assertEquals(SIZE - 1, mover.getInTileX());
+        assertEquals(SIZE / 2, mover.getInTileY());
+    }
+}
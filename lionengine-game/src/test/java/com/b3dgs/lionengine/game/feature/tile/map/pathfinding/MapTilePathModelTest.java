@@ -18,8 +18,13 @@
 package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +39,7 @@ import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableModel;
 import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
@@ -131,6 +137,94 @@ public final class MapTilePathModelTest
         assertEquals(2, coord.getY());
     }
 
+    /**
+     * Test the objects id in compact mode, where tile path are shared.
+     */
+    @Test
+    public void testObjectsIdCompact()
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final MapTile compact = services.add(new MapTileGame(true));
+        compact.addFeature(new MapTileGroupModel());
+        compact.create(1, 1, 3, 3);
+        UtilMap.setGroups(compact);
+        UtilMap.fill(compact, UtilMap.TILE_GROUND);
+        final MapTilePath compactPath = compact.addFeatureAndGet(new MapTilePathModel(services));
+        compactPath.loadPathfinding(Medias.create("pathfinding.xml"));
+
+        assertEquals(compact.getTile(0, 0).getFeature(TilePath.class),
+                     compact.getTile(2, 2).getFeature(TilePath.class));
+        assertTrue(compactPath.getObjectsId(1, 1).isEmpty());
+
+        final Tile view = compact.getTileView(0, 0);
+        compactPath.addObjectId(1, 1, Integer.valueOf(1));
+        compactPath.addObjectId(3, 0, Integer.valueOf(2));
+
+        assertEquals(0, view.getInTileX());
+        assertEquals(0, view.getInTileY());
+        assertTrue(compactPath.getObjectsId(3, 0).isEmpty());
+
+        assertEquals(Arrays.asList(Integer.valueOf(1)), new ArrayList<>(compactPath.getObjectsId(1, 1)));
+        assertTrue(compactPath.getObjectsId(0, 0).isEmpty());
+        assertTrue(compact.getTile(1, 1).getFeature(TilePath.class).getObjectsId().isEmpty());
+
+        compactPath.removeObjectId(1, 1, Integer.valueOf(1));
+
+        assertTrue(compactPath.getObjectsId(1, 1).isEmpty());
+        assertEquals(0, view.getInTileX());
+        assertEquals(0, view.getInTileY());
+    }
+
+    /**
+     * Test the snapshot, rebuilt only when blocking data changed.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        final PathSnapshot snapshot = mapPath.getSnapshot();
+
+        assertEquals(snapshot, mapPath.getSnapshot());
+        assertEquals(3, snapshot.getInTileWidth());
+        assertEquals(3, snapshot.getInTileHeight());
+        assertEquals(map.getTile(1, 1).getFeature(TilePath.class).getCategory(), snapshot.getCategory(1, 1));
+        assertNull(snapshot.getCategory(-1, 0));
+        assertNull(snapshot.getCategory(0, 3));
+        assertTrue(snapshot.getObjectsId(1, 1).isEmpty());
+
+        mapPath.addObjectId(1, 1, Integer.valueOf(1));
+        final PathSnapshot next = mapPath.getSnapshot();
+
+        assertNotEquals(snapshot, next);
+        assertTrue(next.getVersion() > snapshot.getVersion());
+        assertEquals(Arrays.asList(Integer.valueOf(1)), new ArrayList<>(next.getObjectsId(1, 1)));
+        assertTrue(snapshot.getObjectsId(1, 1).isEmpty());
+        assertTrue(next.getObjectsId(3, 0).isEmpty());
+
+        mapPath.removeObjectId(1, 1, Integer.valueOf(1));
+
+        assertTrue(mapPath.getSnapshot().getObjectsId(1, 1).isEmpty());
+        assertEquals(Arrays.asList(Integer.valueOf(1)), new ArrayList<>(next.getObjectsId(1, 1)));
+    }
+
+    /**
+     * Test map tiles are not listened anymore once disposed.
+     */
+    @Test
+    public void testDispose()
+    {
+        final PathSnapshot snapshot = mapPath.getSnapshot();
+        map.setTile(map.getTile(1, 1));
+        final PathSnapshot changed = mapPath.getSnapshot();
+
+        assertNotEquals(snapshot, changed);
+
+        mapPath.dispose();
+        map.setTile(map.getTile(1, 1));
+
+        assertEquals(changed, mapPath.getSnapshot());
+    }
+
     /**
      * Create object test.
      * 
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Test {@link PathFinderAsync}.
+ */
+public final class PathFinderAsyncTest
+{
+    /** Map size. */
+    private static final int SIZE = 32;
+    /** Maximum updates waiting for delivery. */
+    private static final int MAX_UPDATES = 1000;
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Update finder until request is delivered.
+     * 
+     * @param finder The finder reference.
+     * @param request The request to wait.
+     */
+    private static void deliver(PathFinderAsync finder, PathRequest request)
+    {
+        for (int i = 0; i < MAX_UPDATES && !request.isDone(); i++)
+        {
+            finder.update(1.0);
+            UtilTests.pause(1L);
+        }
+        assertTrue(request.isDone());
+    }
+
+    /**
+     * Test asynchronous path is the same as synchronous one.
+     */
+    @Test
+    public void testRequest()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, UtilPathfinding.createWalls(SIZE, 8, 16));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinderAsync finder = new PathFinderAsync(map, SIZE * 2, new HeuristicClosest(), 2, 4);
+        try
+        {
+            final PathRequest request = finder.request(mover, SIZE - 1, SIZE - 1, false);
+
+            assertEquals(mover, request.getMover());
+            assertEquals(SIZE - 1, request.getDestinationX());
+            assertEquals(SIZE - 1, request.getDestinationY());
+            assertFalse(request.isDone());
+            assertNull(request.getPath());
+            assertEquals(1, finder.getPending());
+
+            deliver(finder, request);
+
+            final Path expected = Astar.createPathFinder(map, SIZE * 2, new HeuristicClosest())
+                                       .findPath(mover, SIZE - 1, SIZE - 1, false);
+            final Path path = request.getPath();
+
+            assertNotNull(path);
+            assertEquals(expected.getLength(), path.getLength());
+            for (int i = 0; i < path.getLength(); i++)
+            {
+                assertEquals(expected.getX(i), path.getX(i));
+                assertEquals(expected.getY(i), path.getY(i));
+            }
+            assertEquals(0, finder.getPending());
+        }
+        finally
+        {
+            finder.close();
+        }
+    }
+
+    /**
+     * Test cancelled request is neither searched nor delivered, and budget by update.
+     */
+    @Test
+    public void testCancelBudget()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinderAsync finder = new PathFinderAsync(map, SIZE * 2, new HeuristicClosest(), 1, 1);
+        try
+        {
+            final PathRequest cancelled = mover.setDestination(finder, SIZE - 1, 0);
+            final PathRequest first = finder.request(mover, 1, 1, false);
+            final PathRequest second = finder.request(mover, 2, 2, false);
+            cancelled.cancel();
+
+            assertTrue(cancelled.isCancelled());
+            assertEquals(3, finder.getPending());
+
+            finder.update(1.0);
+
+            assertEquals(2, finder.getPending());
+
+            deliver(finder, second);
+
+            assertTrue(first.isDone());
+            assertNotNull(first.getPath());
+            assertFalse(cancelled.isDone());
+            assertNull(cancelled.getPath());
+            assertEquals(0, finder.getPending());
+        }
+        finally
+        {
+            finder.close();
+        }
+        assertThrows(() -> new PathFinderAsync(map, SIZE, new HeuristicClosest(), 0, 1),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new PathFinderAsync(map, SIZE, new HeuristicClosest(), 1, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test pathfindable moving with asynchronous path until destination, notified on delivery.
+     */
+    @Test
+    public void testPathfindable()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, UtilPathfinding.createWalls(SIZE, 8, 16));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final List<Path> found = new ArrayList<>();
+        mover.addListener(new PathfindableListener()
+        {
+            @Override
+            public void notifyStartMove()
+            {
+                // Mock
+            }
+
+            @Override
+            public void notifyMoving()
+            {
+                // Mock
+            }
+
+            @Override
+            public void notifyArrived()
+            {
+                // Mock
+            }
+
+            @Override
+            public void notifyPathFound(Path path)
+            {
+                found.add(path);
+            }
+        });
+        mover.setSpeed(1.0, 1.0);
+        final PathFinderAsync finder = new PathFinderAsync(map, SIZE * 2, new HeuristicClosest(), 1, 1);
+        try
+        {
+            final PathRequest stale = mover.setDestination(finder, 0, SIZE - 1);
+            final PathRequest request = mover.setDestination(finder, SIZE - 1, SIZE / 2);
+
+            assertTrue(stale.isCancelled());
+
+            deliver(finder, request);
+
+            assertEquals(1, found.size());
+            assertEquals(request.getPath(), found.get(0));
+
+            for (int i = 0; i < SIZE * SIZE && !mover.isDestinationReached(); i++)
+            {
+                finder.update(1.0);
+                mover.update(1.0);
+            }
+
+            assertTrue(mover.isDestinationReached());
+            assertEquals(SIZE - 1, mover.getInTileX());
+            assertEquals(SIZE / 2, mover.getInTileY());
+        }
+        finally
+        {
+            finder.close();
+        }
+    }
+}
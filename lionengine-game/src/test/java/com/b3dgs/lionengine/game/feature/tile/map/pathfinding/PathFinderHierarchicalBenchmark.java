@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Benchmark {@link PathFinderHierarchical} on large maps, first part search (what a mover waits for) and complete path
+ * refinement, on the same maps as {@link PathFinderImplBenchmark}.
+ * <p>
+ * Not part of the default test suite, run it explicitly with <code>-Dtest=PathFinderHierarchicalBenchmark</code>.
+ * </p>
+ */
+public final class PathFinderHierarchicalBenchmark
+{
+    /** Walls horizontal spacing. */
+    private static final int WALL_SPACING = 32;
+    /** Walls gap spacing. */
+    private static final int GAP_SPACING = 32;
+    /** Cluster size. */
+    private static final int CLUSTER = 16;
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Run random searches and log throughput.
+     * 
+     * @param size The map size in tile.
+     * @param searches The number of searches.
+     */
+    private static void benchmark(int size, int searches)
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services,
+                                                      size,
+                                                      UtilPathfinding.createWalls(size, WALL_SPACING, GAP_SPACING));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        final PathFinder pathfinder = Astar.createPathFinderHierarchical(map,
+                                                                         (int) Math.sqrt(2.0 * size * size),
+                                                                         Astar.createHeuristicClosest(),
+                                                                         CLUSTER);
+
+        final long startBuild = System.nanoTime();
+        pathfinder.findPath(mover, size - 1, 0, false);
+        final long build = System.nanoTime() - startBuild;
+
+        final Random random = new Random(42L);
+        int found = 0;
+        long first = 0L;
+        long complete = 0L;
+        for (int i = 0; i < searches; i++)
+        {
+            final int stx = random.nextInt(WALL_SPACING - 1);
+            final int sty = random.nextInt(size);
+            final int dtx = size - 1 - random.nextInt(WALL_SPACING - 1);
+            final int dty = random.nextInt(size);
+            transformable.teleport(stx, sty);
+
+            final long start = System.nanoTime();
+            Path path = pathfinder.findPath(mover, dtx, dty, false);
+            first += System.nanoTime() - start;
+
+            while (path != null && (mover.getInTileX() != dtx || mover.getInTileY() != dty))
+            {
+                transformable.teleport(path.getX(path.getLength() - 1), path.getY(path.getLength() - 1));
+                path = pathfinder.findPath(mover, dtx, dty, false);
+            }
+            complete += System.nanoTime() - start;
+            if (mover.getInTileX() == dtx && mover.getInTileY() == dty)
+            {
+                found++;
+            }
+        }
+
+        assertTrue(found > 0);
+
+        Verbose.info("Map ",
+                     String.valueOf(size),
+                     "x",
+                     String.valueOf(size),
+                     ": ",
+                     String.valueOf(found),
+                     "/",
+                     String.valueOf(searches),
+                     " found | graph = ",
+                     String.valueOf(build / 1_000_000L),
+                     "ms | first part = ",
+                     String.valueOf(searches * 1_000_000_000.0 / first),
+                     " searches/s | complete = ",
+                     String.valueOf(searches * 1_000_000_000.0 / complete),
+                     " paths/s");
+    }
+
+    /**
+     * Benchmark on a 256x256 map.
+     */
+    @Test
+    public void testBenchmark256()
+    {
+        benchmark(256, 200);
+    }
+
+    /**
+     * Benchmark on a 1024x1024 map.
+     */
+    @Test
+    public void testBenchmark1024()
+    {
+        benchmark(1024, 20);
+    }
+}
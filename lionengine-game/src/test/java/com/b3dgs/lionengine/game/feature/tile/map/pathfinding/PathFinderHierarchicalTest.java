@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHierarchical}.
+ */
+public final class PathFinderHierarchicalTest
+{
+    /** Map size. */
+    private static final int SIZE = 64;
+    /** Cluster size. */
+    private static final int CLUSTER = 8;
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create vertical walls of trees, with a gap at alternate ends.
+     * 
+     * @return The trees location.
+     */
+    private static CoordTile[] createWalls()
+    {
+        final List<CoordTile> trees = new ArrayList<>();
+        for (int tx = 12; tx < SIZE; tx += 12)
+        {
+            final boolean top = tx / 12 % 2 == 0;
+            for (int ty = 0; ty < SIZE; ty++)
+            {
+                if (top && ty > 2 || !top && ty < SIZE - 3)
+                {
+                    trees.add(new CoordTile(tx, ty));
+                }
+            }
+        }
+        return trees.toArray(new CoordTile[trees.size()]);
+    }
+
+    /**
+     * Follow path parts until destination.
+     * 
+     * @param map The map reference.
+     * @param pathfinder The path finder.
+     * @param mover The mover.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     * @return The number of parts.
+     */
+    private static int follow(MapTile map, PathFinder pathfinder, Pathfindable mover, int dtx, int dty)
+    {
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        int parts = 0;
+        while (mover.getInTileX() != dtx || mover.getInTileY() != dty)
+        {
+            final Path path = pathfinder.findPath(mover, dtx, dty, false);
+            assertNotNull(path);
+            assertTrue(path.getLength() > 1);
+
+            for (int i = 0; i < path.getLength(); i++)
+            {
+                final int tx = path.getX(i);
+                final int ty = path.getY(i);
+                assertTrue(Math.abs(tx - mover.getInTileX()) <= CLUSTER * 2);
+                assertTrue(Math.abs(ty - mover.getInTileY()) <= CLUSTER * 2);
+                assertEquals(UtilMap.TILE_GROUND, map.getTile(tx, ty).getNumber());
+            }
+            final int last = path.getLength() - 1;
+            transformable.teleport(path.getX(last), path.getY(last));
+            parts++;
+            assertTrue(parts < SIZE);
+        }
+        return parts;
+    }
+
+    /**
+     * Test long path found by parts.
+     */
+    @Test
+    public void testLongPath()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, createWalls());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinder pathfinder = Astar.createPathFinderHierarchical(map, SIZE, new HeuristicClosest(), CLUSTER);
+
+        assertTrue(follow(map, pathfinder, mover, SIZE - 1, SIZE - 1) > 1);
+        assertTrue(follow(map, pathfinder, mover, 0, SIZE / 2) > 1);
+    }
+
+    /**
+     * Test near destination is directly found.
+     */
+    @Test
+    public void testNear()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinder pathfinder = Astar.createPathFinderHierarchical(map, SIZE, new HeuristicClosest(), CLUSTER);
+
+        final Path path = pathfinder.findPath(mover, 10, 10, false);
+
+        assertEquals(10, path.getX(path.getLength() - 1));
+        assertEquals(10, path.getY(path.getLength() - 1));
+    }
+
+    /**
+     * Test clusters are rebuilt when a tile is set.
+     */
+    @Test
+    public void testInvalidate()
+    {
+        final List<CoordTile> trees = new ArrayList<>();
+        for (int ty = 0; ty < SIZE; ty++)
+        {
+            trees.add(new CoordTile(SIZE / 2, ty));
+        }
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE, trees.toArray(new CoordTile[trees.size()]));
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinder pathfinder = Astar.createPathFinderHierarchical(map, SIZE, new HeuristicClosest(), CLUSTER);
+
+        assertNull(pathfinder.findPath(mover, SIZE - 1, 0, false));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, SIZE / 2, SIZE - 1));
+
+        assertTrue(follow(map, pathfinder, mover, SIZE - 1, 0) > 1);
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, SIZE / 2, SIZE - 1));
+
+        assertNull(pathfinder.findPath(mover, 0, 0, false));
+    }
+
+    /**
+     * Test pathfindable moving with hierarchical pathfinding until destination.
+     */
+    @Test
+    public void testPathfindable()
+    {
+        final Services services = new Services();
+        UtilPathfinding.createMap(services, SIZE, createWalls());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0, CLUSTER);
+        mover.setSpeed(1.0, 1.0);
+
+        assertTrue(mover.setDestination(SIZE - 1, SIZE - 1));
+
+        for (int i = 0; i < SIZE * SIZE && !mover.isDestinationReached(); i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(mover.isDestinationReached());
+        assertFalse(mover.isMoving());
+        assertEquals(SIZE - 1, mover.getInTileX());
+        assertEquals(SIZE - 1, mover.getInTileY());
+    }
+
+    /**
+     * Test invalid cluster size.
+     */
+    @Test
+    public void testInvalidSize()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilPathfinding.createMap(services, SIZE);
+
+        assertThrows(() -> Astar.createPathFinderHierarchical(map, SIZE, new HeuristicClosest(), 1),
+                     "Invalid argument: 1 is not superior or equal to 2");
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderImpl}.
+ */
+public final class PathFinderImplTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /** The services reference. */
+    private final Services services = new Services();
+
+    /**
+     * Create a vertical wall of trees.
+     * 
+     * @param tx The horizontal location.
+     * @param height The wall height from top.
+     * @return The trees location.
+     */
+    private static CoordTile[] createWall(int tx, int height)
+    {
+        final CoordTile[] trees = new CoordTile[height];
+        for (int ty = 0; ty < height; ty++)
+        {
+            trees[ty] = new CoordTile(tx, ty);
+        }
+        return trees;
+    }
+
+    /**
+     * Test path in straight line.
+     */
+    @Test
+    public void testStraight()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        final PathFinder pathfinder = new PathFinderImpl(map, 64, new HeuristicClosest());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final Path path = pathfinder.findPath(mover, 4, 0, false);
+
+        assertNotNull(path);
+        assertEquals(5, path.getLength());
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertEquals(i, path.getX(i));
+            assertEquals(0, path.getY(i));
+        }
+    }
+
+    /**
+     * Test path around a wall.
+     */
+    @Test
+    public void testAroundWall()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8, createWall(3, 7));
+        final PathFinder pathfinder = new PathFinderImpl(map, 64, new HeuristicClosest());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final Path path = pathfinder.findPath(mover, 6, 0, false);
+
+        assertNotNull(path);
+        assertEquals(0, path.getX(0));
+        assertEquals(0, path.getY(0));
+        assertEquals(6, path.getX(path.getLength() - 1));
+        assertEquals(0, path.getY(path.getLength() - 1));
+
+        boolean passed = false;
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            assertTrue(path.getX(i) != 3 || path.getY(i) == 7);
+            passed |= path.getY(i) == 7;
+        }
+        assertTrue(passed);
+    }
+
+    /**
+     * Test path not found when destination is enclosed, and found again when opened.
+     */
+    @Test
+    public void testEnclosed()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8, createWall(3, 8));
+        final PathFinder pathfinder = new PathFinderImpl(map, 64, new HeuristicClosest());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+
+        assertNull(pathfinder.findPath(mover, 6, 0, false));
+
+        map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, 3, 7));
+
+        assertNotNull(pathfinder.findPath(mover, 6, 0, false));
+    }
+
+    /**
+     * Test successive searches are not affected by previous ones.
+     */
+    @Test
+    public void testSuccessive()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        final PathFinder pathfinder = new PathFinderImpl(map, 64, new HeuristicClosest());
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+
+        for (int i = 0; i < 10; i++)
+        {
+            assertEquals(8, pathfinder.findPath(mover, 7, 7, false).getLength());
+            assertEquals(4, pathfinder.findPath(mover, 3, 0, false).getLength());
+        }
+    }
+
+    /**
+     * Test max search distance.
+     */
+    @Test
+    public void testMaxSearchDistance()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8);
+        final Pathfindable mover = UtilPathfinding.createPathfindable(services, config, 0, 0);
+        final PathFinder limited = new PathFinderImpl(map, 2, new HeuristicClosest());
+
+        assertNull(limited.findPath(mover, 7, 7, false));
+        assertNotNull(limited.findPath(mover, 1, 1, false));
+    }
+}
@@ -41,5 +41,11 @@ public final class PathTest
         assertEquals(1, path.getLength());
         assertEquals(1, path.getX(0));
         assertEquals(2, path.getY(0));
+
+        path.appendStep(3, 4);
+
+        assertEquals(2, path.getLength());
+        assertEquals(3, path.getX(1));
+        assertEquals(4, path.getY(1));
     }
 }
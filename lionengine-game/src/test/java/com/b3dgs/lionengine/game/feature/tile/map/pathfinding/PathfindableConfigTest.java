@@ -89,6 +89,50 @@ public final class PathfindableConfigTest
         assertTrue(media.getFile().delete());
     }
 
+    /**
+     * Test exports imports with cluster size.
+     */
+    @Test
+    public void testClusterSize()
+    {
+        final Map<String, PathData> map = new HashMap<>();
+        final PathData data = new PathData("category", 1.0, true, Arrays.asList(MovementTile.UP));
+        map.put(data.getName(), data);
+
+        final Xml root = new Xml("test");
+        root.add(PathfindableConfig.exports(map, 16));
+
+        final Media media = Medias.create("pathfindable.xml");
+        root.save(media);
+
+        final Configurer configurer = new Configurer(media);
+
+        assertEquals(map, PathfindableConfig.imports(configurer));
+        assertEquals(16, PathfindableConfig.importClusterSize(configurer));
+
+        assertTrue(media.getFile().delete());
+    }
+
+    /**
+     * Test default cluster size.
+     */
+    @Test
+    public void testClusterSizeDefault()
+    {
+        final Xml root = new Xml("test");
+        final Media media = Medias.create("pathfindable.xml");
+        root.save(media);
+
+        assertEquals(0, PathfindableConfig.importClusterSize(new Configurer(media)));
+
+        root.add(PathfindableConfig.exports(new HashMap<>()));
+        root.save(media);
+
+        assertEquals(0, PathfindableConfig.importClusterSize(new Configurer(media)));
+
+        assertTrue(media.getFile().delete());
+    }
+
     /**
      * Test without node.
      */
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Pathfinding test utility.
+ */
+public final class UtilPathfinding
+{
+    /** Ground category. */
+    public static final String GROUND = "ground";
+    /** Tree category. */
+    public static final String TREE = "tree";
+
+    /**
+     * Create a compact map filled with ground, with pathfinding feature. Tree tiles are blocking.
+     * 
+     * @param services The services reference.
+     * @param size The map size in tile.
+     * @param trees The tree tiles location.
+     * @return The created map.
+     */
+    public static MapTile createMap(Services services, int size, CoordTile... trees)
+    {
+        services.add(new Camera());
+        final MapTile map = services.add(new MapTileGame(true));
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, size, size);
+        UtilMap.setGroups(map);
+        UtilMap.fill(map, UtilMap.TILE_GROUND);
+        for (final CoordTile tree : trees)
+        {
+            map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tree.getX(), tree.getY()));
+        }
+
+        final Xml root = new Xml(PathfindingConfig.PATHFINDING);
+        final Xml ground = root.createChild(PathfindingConfig.TILE_PATH);
+        ground.writeString(PathfindingConfig.CATEGORY, GROUND);
+        ground.createChild(TileGroupsConfig.NODE_GROUP).setText(UtilMap.GROUND);
+        final Xml tree = root.createChild(PathfindingConfig.TILE_PATH);
+        tree.writeString(PathfindingConfig.CATEGORY, TREE);
+        tree.createChild(TileGroupsConfig.NODE_GROUP).setText(UtilMap.TREE);
+
+        final Media config = Medias.create(PathfindingConfig.FILENAME);
+        root.save(config);
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.loadPathfinding(config);
+
+        assertTrue(config.getFile().delete());
+
+        return map;
+    }
+
+    /**
+     * Create vertical walls of trees, with regular gaps.
+     * 
+     * @param size The map size in tile.
+     * @param spacing The horizontal spacing between walls.
+     * @param gaps The vertical spacing between gaps.
+     * @return The trees location.
+     */
+    public static CoordTile[] createWalls(int size, int spacing, int gaps)
+    {
+        final List<CoordTile> trees = new ArrayList<>();
+        for (int tx = spacing; tx < size; tx += spacing)
+        {
+            final int offset = tx / spacing * gaps / 3 % gaps;
+            for (int ty = 0; ty < size; ty++)
+            {
+                if ((ty + offset) % gaps > 2)
+                {
+                    trees.add(new CoordTile(tx, ty));
+                }
+            }
+        }
+        return trees.toArray(new CoordTile[trees.size()]);
+    }
+
+    /**
+     * Create a pathfindable of one tile, moving in all directions on ground, blocked by trees.
+     * 
+     * @param services The services reference (must contain the map).
+     * @param config The object configuration, pathfindable data are added to it.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The created pathfindable.
+     */
+    public static Pathfindable createPathfindable(Services services, Media config, int tx, int ty)
+    {
+        return createPathfindable(services, config, tx, ty, 0);
+    }
+
+    /**
+     * Create a pathfindable of one tile, moving in all directions on ground, blocked by trees.
+     * 
+     * @param services The services reference (must contain the map).
+     * @param config The object configuration, pathfindable data are added to it.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param clusterSize The hierarchical cluster size, <code>0</code> to disable.
+     * @return The created pathfindable.
+     */
+    public static Pathfindable createPathfindable(Services services, Media config, int tx, int ty, int clusterSize)
+    {
+        final Map<String, PathData> categories = new HashMap<>();
+        categories.put(GROUND, new PathData(GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        categories.put(TREE, new PathData(TREE, 1.0, true, Arrays.asList(MovementTile.values())));
+
+        final Xml root = new Xml(config);
+        root.removeChildren(PathfindableConfig.NODE_PATHFINDABLE);
+        if (clusterSize > 0)
+        {
+            root.add(PathfindableConfig.exports(categories, clusterSize));
+        }
+        else
+        {
+            root.add(PathfindableConfig.exports(categories));
+        }
+        root.save(config);
+
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        return object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+}
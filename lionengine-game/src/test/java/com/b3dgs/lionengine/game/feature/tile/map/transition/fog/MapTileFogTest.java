@@ -18,10 +18,13 @@
 package com.b3dgs.lionengine.game.feature.tile.map.transition.fog;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -113,4 +116,51 @@ public final class MapTileFogTest
         assertEquals(16, fog.getTile(3, 3).getNumber());
         assertEquals(16, fog.getTile(4, 3).getNumber());
     }
+
+    /**
+     * Test the fog with refog enabled, only revealed area of moved fovable is updated.
+     */
+    @Test
+    public void testRefog()
+    {
+        final Services services = new Services();
+        final MapTile map = UtilMap.createMap(7);
+        services.add(map);
+
+        final FovableModel fovable = new FovableModel(services);
+
+        final Setup setup = new Setup(UtilSetup.createConfig());
+        final FeaturableModel object = new FeaturableModel();
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.teleport(1, 3);
+        fovable.prepare(object);
+        fovable.setFov(1);
+
+        final MapTileFog fog = new MapTileFog(true);
+        Medias.setLoadFromJar(MapTileFog.class);
+        fog.create(map, Medias.create("fog.xml"), null);
+        Medias.setLoadFromJar(null);
+
+        final Collection<Fovable> fovables = new ArrayList<>(Arrays.asList(fovable));
+        fog.update(fovables);
+
+        assertTrue(fog.isRevealed(1, 3));
+        assertFalse(fog.isRevealed(5, 3));
+        assertEquals(MapTileFog.NO_FOG, fog.getNumber(1, 3));
+        assertEquals(MapTileFog.FOG, fog.getNumber(5, 3));
+
+        transformable.teleport(5, 3);
+        fog.update(fovables);
+
+        assertFalse(fog.isRevealed(1, 3));
+        assertTrue(fog.isRevealed(5, 3));
+        assertEquals(MapTileFog.FOG, fog.getNumber(1, 3));
+        assertEquals(MapTileFog.NO_FOG, fog.getNumber(5, 3));
+
+        fog.update(Collections.emptyList());
+
+        assertFalse(fog.isRevealed(5, 3));
+        assertEquals(MapTileFog.FOG, fog.getNumber(5, 3));
+        assertEquals(MapTileFog.NO_FOG, fog.getNumber(-1, 3));
+    }
 }
@@ -17,12 +17,17 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -31,8 +36,10 @@ import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBufferMock;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
@@ -41,6 +48,39 @@ import com.b3dgs.lionengine.graphic.drawable.Drawable;
  */
 public final class MapTileViewerModelTest
 {
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Create a map of 80x80 tiles of one pixel, with a single tile set.
+     * 
+     * @param services The services reference.
+     * @return The created map.
+     */
+    private static MapTileGame createMap(Services services)
+    {
+        final MapTileGame map = services.add(new MapTileGame());
+        map.create(1, 1, 80, 80);
+        map.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(1, 1), 1, 1)));
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 0, 0));
+        return map;
+    }
+
     private final Services services = new Services();
     private MapTileViewer mapViewer;
 
@@ -99,4 +139,84 @@ public final class MapTileViewerModelTest
 
         assertFalse(rendered.get());
     }
+
+    /**
+     * Test the viewer with chunk cache.
+     */
+    @Test
+    public void testChunks()
+    {
+        final Services services = new Services();
+        services.add(new ViewerMock());
+        final MapTileGame map = createMap(services);
+        final MapTileViewerModel viewer = new MapTileViewerModel(services, 16, 32);
+        viewer.prepare(map);
+
+        final AtomicInteger rendered = new AtomicInteger();
+        viewer.addRenderer((graphic, tiles, tile, x, y) -> rendered.incrementAndGet());
+
+        final Graphic g = new GraphicMock();
+        viewer.render(g);
+
+        assertEquals(1, rendered.get());
+        assertEquals(25, viewer.getCachedChunks());
+        assertEquals(25, viewer.getRenderedChunks());
+
+        viewer.render(g);
+
+        assertEquals(1, rendered.get());
+        assertEquals(25, viewer.getRenderedChunks());
+
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 20, 20));
+        viewer.render(g);
+
+        assertEquals(2, rendered.get());
+        assertEquals(26, viewer.getRenderedChunks());
+
+        viewer.invalidate();
+
+        assertEquals(0, viewer.getCachedChunks());
+
+        viewer.render(g);
+
+        assertEquals(4, rendered.get());
+        assertEquals(51, viewer.getRenderedChunks());
+
+        viewer.dispose();
+
+        assertEquals(0, viewer.getCachedChunks());
+
+        viewer.render(g);
+        map.setTile(map.createTile(Integer.valueOf(0), 0, 20, 20));
+        viewer.render(g);
+
+        assertEquals(76, viewer.getRenderedChunks());
+    }
+
+    /**
+     * Test the viewer with chunk cache capacity.
+     */
+    @Test
+    public void testChunksCapacity()
+    {
+        final Services services = new Services();
+        services.add(new ViewerMock());
+        final MapTileGame map = createMap(services);
+        final MapTileViewerModel viewer = new MapTileViewerModel(services, 16, 4);
+        viewer.prepare(map);
+        viewer.render(new GraphicMock());
+
+        assertEquals(4, viewer.getCachedChunks());
+        assertEquals(25, viewer.getRenderedChunks());
+    }
+
+    /**
+     * Test the viewer with invalid chunk arguments.
+     */
+    @Test
+    public void testChunksInvalid()
+    {
+        assertThrows(() -> new MapTileViewerModel(services, 0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTileViewerModel(services, 1, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct byte buffers of same capacity, shared between the game thread and the network thread.
+ * <p>
+ * Buffers larger than the pool capacity are allocated on demand and not kept.
+ * </p>
+ */
+final class BufferPool
+{
+    /** Available buffers. */
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    /** Available buffers number. */
+    private final AtomicInteger available = new AtomicInteger();
+    /** Buffers capacity. */
+    private final int capacity;
+    /** Maximum number of kept buffers. */
+    private final int max;
+
+    /**
+     * Create pool.
+     * 
+     * @param capacity The buffers capacity.
+     * @param max The maximum number of kept buffers.
+     */
+    BufferPool(int capacity, int max)
+    {
+        super();
+
+        this.capacity = capacity;
+        this.max = max;
+    }
+
+    /**
+     * Acquire a cleared buffer.
+     * 
+     * @param size The minimum buffer size.
+     * @return The buffer with at least the size as capacity.
+     */
+    ByteBuffer acquire(int size)
+    {
+        if (size > capacity)
+        {
+            return ByteBuffer.allocateDirect(size);
+        }
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null)
+        {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        available.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Release buffer, which must not be used anymore.
+     * 
+     * @param buffer The buffer to release.
+     */
+    void release(ByteBuffer buffer)
+    {
+        if (buffer.capacity() == capacity)
+        {
+            if (available.incrementAndGet() > max)
+            {
+                available.decrementAndGet();
+            }
+            else
+            {
+                buffers.offer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Get the buffers capacity.
+     * 
+     * @return The buffers capacity.
+     */
+    int getCapacity()
+    {
+        return capacity;
+    }
+}
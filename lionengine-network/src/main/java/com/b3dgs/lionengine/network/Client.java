@@ -66,5 +66,5 @@ interface Client extends Networker<ConnectionListener>
      * 
      * @return The client id.
      */
-    byte getId();
+    int getId();
 }
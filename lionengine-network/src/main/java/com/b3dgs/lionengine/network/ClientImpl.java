@@ -17,21 +17,15 @@
  */
 package com.b3dgs.lionengine.network;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.InetAddress;
-import java.net.Socket;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
@@ -46,14 +40,14 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     private final Timing pingRequestTimer;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
-    /** Socket. */
-    private Socket socket;
-    /** Output stream. */
-    private ObjectOutputStream out;
-    /** Input stream. */
-    private ObjectInputStream in;
+    /** Transport protocol. */
+    private final NetworkProtocol protocol;
+    /** Network transport. */
+    private Transport transport;
+    /** Server connection. */
+    private ClientSocket server;
     /** Client id. */
-    private byte clientId;
+    private int clientId;
     /** Client name. */
     private String clientName;
     /** Disconnect flag. */
@@ -71,8 +65,20 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
      * @param decoder The message decoder.
      */
     ClientImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, NetworkProtocol.TCP);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param protocol The transport protocol.
+     */
+    ClientImpl(NetworkMessageDecoder decoder, NetworkProtocol protocol)
     {
         super(decoder);
+        this.protocol = protocol;
         pingTimer = new Timing();
         pingRequestTimer = new Timing();
         bandwidthTimer = new Timing();
@@ -84,42 +90,24 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
 
     /**
      * Terminate connection.
+     * 
+     * @param reason The disconnection reason.
      */
-    private void kick()
+    private void kick(DisconnectReason reason)
     {
         if (!connected)
         {
             return;
         }
+        metrics.disconnected(reason);
+        metrics.removeRtt(clientId);
         messagesIn.clear();
         messagesOut.clear();
-        try
-        {
-            out.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Error on closing output");
-        }
-        try
-        {
-            in.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Error on closing input");
-        }
-        try
-        {
-            socket.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Error on closing socket");
-        }
+        transport.close();
+        server.terminate();
         for (final ConnectionListener listener : listeners)
         {
-            listener.notifyConnectionTerminated(Byte.valueOf(getId()));
+            listener.notifyConnectionTerminated(Integer.valueOf(getId()));
         }
         listeners.clear();
         connected = false;
@@ -127,94 +115,138 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     /**
-     * Get the name value read from the stream.
+     * Acquire a frame to send to server, with its header.
      * 
-     * @return The name string.
-     * @throws IOException In case of error.
+     * @param messageSystemId The message system id.
+     * @param size The data size.
+     * @return The frame to write.
      */
-    private String readString() throws IOException
+    private ByteBuffer acquire(byte messageSystemId, int size)
     {
-        final int size = in.readByte();
-        if (size > 0)
-        {
-            final byte[] name = new byte[size];
-            if (in.read(name) != -1)
-            {
-                return new String(name, NetworkMessage.CHARSET);
-            }
-        }
-        return null;
+        final ByteBuffer frame = transport.acquire(Byte.BYTES + Short.BYTES + size);
+        frame.put(messageSystemId);
+        frame.putShort((short) clientId);
+        return frame;
+    }
+
+    /**
+     * Send frame to server.
+     * 
+     * @param frame The frame to send.
+     */
+    private void send(ByteBuffer frame)
+    {
+        send(frame, NetworkChannel.RELIABLE_ORDERED);
+    }
+
+    /**
+     * Send frame to server.
+     * 
+     * @param frame The frame to send.
+     * @param channel The delivery channel.
+     */
+    private void send(ByteBuffer frame, NetworkChannel channel)
+    {
+        bandwidth += transport.send(server, frame, channel);
     }
 
     /**
      * Update the message from its id.
      * 
+     * @param frame The data frame.
      * @param messageSystemId The message system ID.
-     * @throws IOException If error when writing data.
      */
-    private void updateMessage(byte messageSystemId) throws IOException
+    private void updateMessage(ByteBuffer frame, byte messageSystemId)
     {
         switch (messageSystemId)
         {
             case NetworkMessageSystemId.CONNECTING:
-                updateConnecting();
+                updateConnecting(frame);
                 break;
             case NetworkMessageSystemId.CONNECTED:
-                updateConnected();
+                updateConnected(frame);
                 break;
             case NetworkMessageSystemId.PING:
-                ping = (int) pingTimer.elapsed();
+                updatePing(frame);
                 break;
             case NetworkMessageSystemId.KICKED:
-                kick();
+                kick(DisconnectReason.KICKED);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_CONNECTED:
-                updateOtherClientConnected();
+                updateOtherClientConnected(frame);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
-                updateOtherClientDisconnected();
+                updateOtherClientDisconnected(frame);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
-                updateOtherClientRenamed();
+                updateOtherClientRenamed(frame);
                 break;
             case NetworkMessageSystemId.USER_MESSAGE:
-                updateUserMessage();
+                updateUserMessage(frame);
                 break;
             default:
                 break;
         }
     }
 
+    /**
+     * Update the ping case, answering server request or measuring round trip time on answer.
+     * 
+     * @param frame The data frame.
+     */
+    private void updatePing(ByteBuffer frame)
+    {
+        if (frame.hasRemaining() && frame.get() == NetworkMessageSystemId.PING_REQUEST)
+        {
+            send(acquirePing(NetworkMessageSystemId.PING_ANSWER));
+        }
+        else
+        {
+            ping = (int) pingTimer.elapsed();
+            metrics.setRtt(clientId, ping);
+        }
+    }
+
+    /**
+     * Acquire a ping frame.
+     * 
+     * @param kind The ping kind.
+     * @return The frame to send.
+     */
+    private ByteBuffer acquirePing(byte kind)
+    {
+        final ByteBuffer frame = acquire(NetworkMessageSystemId.PING, Byte.BYTES);
+        frame.put(kind);
+        return frame;
+    }
+
     /**
      * Update the connecting case.
      * 
-     * @throws IOException If error when writing data.
+     * @param frame The data frame.
      */
-    private void updateConnecting() throws IOException
+    private void updateConnecting(ByteBuffer frame)
     {
         if (clientId == -1)
         {
             // Receive id
-            clientId = in.readByte();
+            clientId = frame.getShort();
             // Send the name
-            out.writeByte(NetworkMessageSystemId.CONNECTING);
-            out.writeByte(clientId);
-            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
-            out.writeByte(data.length);
-            out.write(data);
-            out.flush();
+            final ByteBuffer answer = acquire(NetworkMessageSystemId.CONNECTING, NetworkTransport.getSize(clientName));
+            NetworkTransport.putString(answer, clientName);
+            send(answer);
             Verbose.info("Client: Performing connection to the server...");
         }
     }
 
     /**
      * Update the connected case.
-     *
-     * @throws IOException If error when writing data.
+     * 
+     * @param frame The data frame.
      */
-    private void updateConnected() throws IOException
+    private void updateConnected(ByteBuffer frame)
     {
-        byte cid = in.readByte();
+        final int cid = frame.getShort();
         // Ensure the client id is the same
         if (cid != clientId)
         {
@@ -222,104 +254,92 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         }
         for (final ConnectionListener listener : listeners)
         {
-            listener.notifyConnectionEstablished(Byte.valueOf(clientId), clientName);
+            listener.notifyConnectionEstablished(Integer.valueOf(clientId), clientName);
         }
         // Read the client list
-        final int clientsNumber = in.readByte();
+        final int clientsNumber = frame.getShort();
         for (int i = 0; i < clientsNumber; i++)
         {
-            cid = in.readByte();
-            final String cname = readString();
+            final Integer other = Integer.valueOf(frame.getShort());
+            final String cname = NetworkTransport.getString(frame);
             for (final ConnectionListener listener : listeners)
             {
-                listener.notifyClientConnected(Byte.valueOf(cid), cname);
+                listener.notifyClientConnected(other, cname);
             }
         }
         // Message of the day if has
-        if (in.available() > 0)
+        if (frame.hasRemaining())
         {
-            final String motd = readString();
+            final String motd = NetworkTransport.getString(frame);
             for (final ConnectionListener listener : listeners)
             {
                 listener.notifyMessageOfTheDay(motd);
             }
         }
         // Send the last answer
-        out.write(NetworkMessageSystemId.CONNECTED);
-        out.write(clientId);
-        out.flush();
+        send(acquire(NetworkMessageSystemId.CONNECTED, 0));
         Verbose.info("Client: Connected to the server !");
     }
 
     /**
      * Update the other client connected case.
      * 
-     * @throws IOException If error when writing data.
+     * @param frame The data frame.
      */
-    private void updateOtherClientConnected() throws IOException
+    private void updateOtherClientConnected(ByteBuffer frame)
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final Integer cid = Integer.valueOf(frame.getShort());
+        final String cname = NetworkTransport.getString(frame);
         for (final ConnectionListener listener : listeners)
         {
-            listener.notifyClientConnected(Byte.valueOf(cid), cname);
+            listener.notifyClientConnected(cid, cname);
         }
     }
 
     /**
      * Update the other client disconnected case.
      * 
-     * @throws IOException If error when writing data.
+     * @param frame The data frame.
      */
-    private void updateOtherClientDisconnected() throws IOException
+    private void updateOtherClientDisconnected(ByteBuffer frame)
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final Integer cid = Integer.valueOf(frame.getShort());
+        final String cname = NetworkTransport.getString(frame);
         for (final ConnectionListener listener : listeners)
         {
-            listener.notifyClientDisconnected(Byte.valueOf(cid), cname);
+            listener.notifyClientDisconnected(cid, cname);
         }
     }
 
     /**
      * Update the other client renamed case.
      * 
-     * @throws IOException If error when writing data.
+     * @param frame The data frame.
      */
-    private void updateOtherClientRenamed() throws IOException
+    private void updateOtherClientRenamed(ByteBuffer frame)
     {
-        final byte cid = in.readByte();
-        final String cname = readString();
+        final Integer cid = Integer.valueOf(frame.getShort());
+        final String cname = NetworkTransport.getString(frame);
         for (final ConnectionListener listener : listeners)
         {
-            listener.notifyClientNameChanged(Byte.valueOf(cid), cname);
+            listener.notifyClientNameChanged(cid, cname);
         }
     }
 
     /**
-     * Update the other client renamed case.
+     * Update the user message case.
      * 
-     * @throws IOException If error when writing data.
+     * @param frame The data frame.
      */
-    private void updateUserMessage() throws IOException
+    private void updateUserMessage(ByteBuffer frame)
     {
-        final byte from = in.readByte();
-        final byte dest = in.readByte();
-        final byte type = in.readByte();
-        final int size = in.readInt();
-        if (size > 0)
-        {
-            final byte[] data = new byte[size];
-            if (in.read(data) != -1)
-            {
-                try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
-                {
-                    decodeMessage(type, from, dest, buffer);
-                }
-            }
-        }
+        final int from = frame.getShort();
+        final int dest = frame.getShort();
+        final byte type = frame.get();
+        final int size = frame.getInt();
+        decodeMessage(type, from, dest, size, frame);
         final int headerSize = 4;
-        bandwidth += headerSize + size;
+        bandwidth += headerSize + Math.abs(size);
     }
 
     /**
@@ -329,26 +349,16 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
      */
     private void sendMessage(NetworkMessage message)
     {
-        try (ByteArrayOutputStream encode = message.encode())
-        {
-            final byte[] encoded = encode.toByteArray();
-            // Message header
-            out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
-            out.writeByte(message.getClientId());
-            out.writeByte(message.getClientDestId());
-            out.writeByte(message.getType());
-            // Message content
-            out.writeInt(encoded.length);
-            out.write(encoded);
-            out.flush();
-
-            final int headerSize = 8;
-            bandwidth += headerSize + encoded.length;
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Unable to send the message for client: ", String.valueOf(clientId));
-        }
+        final ByteBuffer encoded = encode(message);
+        final ByteBuffer frame = acquire(NetworkMessageSystemId.USER_MESSAGE,
+                                         Short.BYTES + Byte.BYTES + Integer.BYTES + encoded.remaining());
+        // Message header
+        frame.putShort((short) message.getClientDestId());
+        frame.put(message.getType());
+        // Message content
+        frame.putInt(getSizeHeader(encoded));
+        frame.put(encoded);
+        send(frame, message.getChannel());
     }
 
     /*
@@ -364,9 +374,8 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
 
         try
         {
-            socket = new Socket(InetAddress.getByName(ip), port);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            transport = Transport.create(protocol, "Client " + ip);
+            server = transport.connect(ip, port);
             connected = true;
             clientId = -1;
             pingRequestTimer.start();
@@ -374,6 +383,7 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         }
         catch (final IOException exception)
         {
+            transport.close();
             throw new LionEngineException(exception, "Cannot connect to the server !");
         }
     }
@@ -392,19 +402,10 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         {
             return;
         }
-        try
-        {
-            out.write(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
-            out.write(clientId);
-            final byte[] data = clientName.getBytes(NetworkMessage.CHARSET);
-            out.writeByte(data.length);
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Unable to set a new client name !");
-        }
+        final ByteBuffer frame = acquire(NetworkMessageSystemId.OTHER_CLIENT_RENAMED,
+                                         NetworkTransport.getSize(clientName));
+        NetworkTransport.putString(frame, clientName);
+        send(frame);
     }
 
     @Override
@@ -426,7 +427,7 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     @Override
-    public byte getId()
+    public int getId()
     {
         return clientId;
     }
@@ -438,21 +439,10 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     @Override
     public void disconnect()
     {
-        try
+        if (connected)
         {
-            out.write(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-            out.write(clientId);
-            out.flush();
-            kick();
-        }
-        catch (final SocketException exception)
-        {
-            Verbose.exception(exception);
-            connected = false;
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
+            send(acquire(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED, 0));
+            kick(DisconnectReason.SHUTDOWN);
         }
         connected = false;
     }
@@ -468,20 +458,11 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         final long pingMilli = 1000L;
         if (pingRequestTimer.elapsed(pingMilli))
         {
-            try
-            {
-                out.writeByte(NetworkMessageSystemId.PING);
-                out.writeByte(clientId);
-                out.flush();
-                pingTimer.restart();
-                pingRequestTimer.restart();
-                bandwidth += 2;
-            }
-            catch (final IOException exception)
-            {
-                Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(clientId));
-            }
+            send(acquirePing(NetworkMessageSystemId.PING_REQUEST));
+            pingTimer.restart();
+            pingRequestTimer.restart();
         }
+        recordQueues();
         // Send messages
         for (final NetworkMessage message : messagesOut)
         {
@@ -492,13 +473,12 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         {
             bandwidthPerSecond = bandwidth;
             bandwidth = 0;
-            bandwidthTimer.stop();
-            bandwidthTimer.start();
+            bandwidthTimer.restart();
         }
         messagesOut.clear();
     }
 
-    @Override // CHECKSTYLE IGNORE LINE: TrailingComment|ReturnCount
+    @Override
     public void receiveMessages()
     {
         if (!connected)
@@ -506,18 +486,24 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
             return;
         }
         messagesIn.clear();
-        try
+        ByteBuffer frame = server.poll();
+        while (frame != null && connected)
         {
-            if (in.available() == 0)
+            try
             {
-                return;
+                updateMessage(frame, frame.get());
             }
-            final byte messageSystemId = in.readByte();
-            updateMessage(messageSystemId);
+            catch (final RuntimeException exception)
+            {
+                Verbose.exception(exception, "Unable to receive the messages for client: ", String.valueOf(clientId));
+            }
+            transport.release(frame);
+            frame = server.poll();
         }
-        catch (final IOException exception)
+        if (connected && transport.pollClosed() != null)
         {
-            Verbose.exception(exception, "Unable to receive the messages for client: ", String.valueOf(clientId));
+            kick(DisconnectReason.LOST);
         }
+        recordQueues();
     }
 }
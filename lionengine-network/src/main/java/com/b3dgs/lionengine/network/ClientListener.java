@@ -20,7 +20,7 @@ package com.b3dgs.lionengine.network;
 /**
  * Listen to new client connection.
  */
-interface ClientListener
+public interface ClientListener
 {
     /**
      * Notify when a new client is connected.
@@ -28,7 +28,7 @@ interface ClientListener
      * @param id The client id.
      * @param name The client name.
      */
-    void notifyClientConnected(Byte id, String name);
+    void notifyClientConnected(Integer id, String name);
 
     /**
      * Notify when a client is disconnected.
@@ -36,7 +36,7 @@ interface ClientListener
      * @param id The client id.
      * @param name The client name.
      */
-    void notifyClientDisconnected(Byte id, String name);
+    void notifyClientDisconnected(Integer id, String name);
 
     /**
      * Notify when a client changed its name.
@@ -44,5 +44,5 @@ interface ClientListener
      * @param id The client id.
      * @param name The client new name.
      */
-    void notifyClientNameChanged(Byte id, String name);
+    void notifyClientNameChanged(Integer id, String name);
 }
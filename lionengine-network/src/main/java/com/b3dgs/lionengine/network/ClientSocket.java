@@ -18,209 +18,333 @@
 package com.b3dgs.lionengine.network;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Verbose;
 
 /**
- * Client socket (bridge between server and client).
+ * Client socket (bridge between server and client), exchanging length prefixed frames.
+ * <p>
+ * Reading and writing are performed by the {@link Transport} thread, which stores received frames and sends queued
+ * frames, over a non blocking stream channel, or over a shared datagram channel (without stream channel). Frames are
+ * polled and queued by the game thread.
+ * </p>
  */
 final class ClientSocket
 {
-    /** Client socket. */
-    private final Socket socket;
-    /** Output stream. */
-    private final ObjectOutputStream out;
-    /** Input stream. */
-    private final ObjectInputStream in;
+    /** Frame length header size. */
+    static final int HEADER = Integer.BYTES;
+    /** Maximum frame length. */
+    static final int MAX_FRAME = 16 * 1024 * 1024;
+
+    /** Received frames. */
+    private final Queue<ByteBuffer> inbound = new ConcurrentLinkedQueue<>();
+    /** Frames to send. */
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    /** Pending flush flag. */
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    /** Closed flag. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /** Client channel (<code>null</code> if datagram). */
+    private final SocketChannel channel;
+    /** Buffers pool. */
+    private final BufferPool pool;
+    /** Read buffer (network thread only). */
+    private ByteBuffer reading;
+    /** Selection key (network thread only). */
+    private SelectionKey key;
     /** Client id. */
-    private final byte clientId;
+    private int clientId = -1;
     /** State. */
     private StateConnection state;
     /** Name. */
     private String name;
+    /** Pending ping request time in nano (<code>0</code> if none). */
+    private long pingTime;
 
     /**
      * Internal constructor.
      * 
-     * @param id The client id.
-     * @param socket The socket reference.
-     * @throws LionEngineException If error on client socket.
+     * @param channel The channel reference (<code>null</code> if datagram).
+     * @param pool The buffers pool.
      */
-    ClientSocket(final byte id, final Socket socket)
+    ClientSocket(SocketChannel channel, BufferPool pool)
     {
-        clientId = id;
-        this.socket = socket;
-        name = null;
-        try
+        super();
+
+        this.channel = channel;
+        this.pool = pool;
+        if (channel != null)
         {
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            reading = pool.acquire(pool.getCapacity());
         }
-        catch (final IOException exception)
+    }
+
+    /**
+     * Register channel for reading. Must be called by network thread.
+     * 
+     * @param selector The selector reference.
+     * @throws IOException If error.
+     */
+    void register(Selector selector) throws IOException
+    {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Read available data and store complete frames. Must be called by network thread.
+     * 
+     * @return <code>true</code> if still readable, <code>false</code> if end of stream reached.
+     * @throws IOException If error.
+     */
+    boolean read() throws IOException
+    {
+        if (channel.read(reading) < 0)
         {
-            throw new LionEngineException(exception, "Cannot create client");
+            return false;
         }
+        reading.flip();
+        while (reading.remaining() >= HEADER)
+        {
+            final int length = reading.getInt(reading.position());
+            if (length < 0 || length > MAX_FRAME)
+            {
+                throw new IOException("Invalid frame length: " + length);
+            }
+            if (reading.remaining() < HEADER + length)
+            {
+                break;
+            }
+            reading.position(reading.position() + HEADER);
+
+            final ByteBuffer frame = pool.acquire(length);
+            final int limit = reading.limit();
+            reading.limit(reading.position() + length);
+            frame.put(reading);
+            frame.flip();
+            reading.limit(limit);
+            inbound.offer(frame);
+        }
+        ensureCapacity();
+        return true;
     }
 
     /**
-     * Set the connection state.
+     * Store a received frame. Must be called by network thread.
      * 
-     * @param state The connection state.
+     * @param frame The received frame, from its content to its limit.
      */
-    public void setState(StateConnection state)
+    void receive(ByteBuffer frame)
     {
-        this.state = state;
+        inbound.offer(frame);
     }
 
     /**
-     * Get the current connection state.
+     * Write queued frames until channel is full. Must be called by network thread.
      * 
-     * @return The connection state.
+     * @return <code>true</code> if all frames written, <code>false</code> if channel is full.
+     * @throws IOException If error.
      */
-    public StateConnection getState()
+    boolean write() throws IOException
     {
-        return state;
+        ByteBuffer frame = outbound.peek();
+        while (frame != null)
+        {
+            channel.write(frame);
+            if (frame.hasRemaining())
+            {
+                return false;
+            }
+            outbound.poll();
+            pool.release(frame);
+            frame = outbound.peek();
+        }
+        return true;
     }
 
     /**
-     * Set the client name.
-     * 
-     * @param name The client name.
+     * Clear the pending flush flag, before writing. Must be called by network thread.
      */
-    public void setName(String name)
+    void flushed()
     {
-        this.name = name;
+        dirty.set(false);
     }
 
     /**
-     * Get the client name.
+     * Get the selection key.
      * 
-     * @return The client name.
+     * @return The selection key (<code>null</code> if not registered).
      */
-    public String getName()
+    SelectionKey getKey()
     {
-        return name;
+        return key;
     }
 
     /**
-     * Terminate client.
+     * Queue a frame to send.
+     * 
+     * @param frame The frame to send, released once sent.
+     * @return <code>true</code> if client requires a flush, <code>false</code> if already pending.
      */
-    public void terminate()
+    boolean queue(ByteBuffer frame)
     {
-        try
-        {
-            in.close();
-        }
-        catch (final IOException exception)
+        if (closed.get())
         {
-            Verbose.exception(exception);
+            pool.release(frame);
+            return false;
         }
-        try
-        {
-            out.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-        }
-        try
-        {
-            socket.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-        }
-        state = StateConnection.DISCONNECTED;
+        outbound.offer(frame);
+        return dirty.compareAndSet(false, true);
     }
 
     /**
-     * Receive messages data from the client.
+     * Poll the next received frame. It must be released to the pool when read.
      * 
-     * @return The messages data.
+     * @return The received frame, <code>null</code> if none.
      */
-    public byte[] receiveMessages()
+    ByteBuffer poll()
     {
-        try
+        return inbound.poll();
+    }
+
+    /**
+     * Close channel.
+     * 
+     * @return <code>true</code> if closed, <code>false</code> if was already closed.
+     */
+    boolean close()
+    {
+        if (closed.compareAndSet(false, true))
         {
-            final byte[] data;
-            final int size = in.available();
-            if (size <= 0)
-            {
-                data = null;
-            }
-            else
+            if (channel != null)
             {
-                data = new byte[size];
-                in.readFully(data);
+                try
+                {
+                    channel.close();
+                }
+                catch (final IOException exception)
+                {
+                    Verbose.exception(exception);
+                }
             }
-            return data;
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-            return new byte[0];
+            return true;
         }
+        return false;
     }
 
     /**
-     * Send message to the client.
+     * Check if closed.
      * 
-     * @param data The messages data.
+     * @return <code>true</code> if closed, <code>false</code> else.
      */
-    public void sendMessage(byte data)
+    boolean isClosed()
     {
-        try
-        {
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
+        return closed.get();
+    }
+
+    /**
+     * Grow read buffer if current frame does not fit.
+     */
+    private void ensureCapacity()
+    {
+        reading.compact();
+        if (reading.position() >= HEADER)
         {
-            Verbose.exception(exception);
+            final int required = HEADER + reading.getInt(0);
+            if (required > reading.capacity())
+            {
+                final ByteBuffer grown = pool.acquire(required);
+                reading.flip();
+                grown.put(reading);
+                pool.release(reading);
+                reading = grown;
+            }
         }
     }
 
     /**
-     * Send message to the client.
+     * Set the client id.
      * 
-     * @param data The messages data.
+     * @param id The client id.
      */
-    public void sendMessages(byte[] data)
+    public void setId(int id)
     {
-        try
-        {
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-        }
+        clientId = id;
     }
 
     /**
-     * Get the output stream.
+     * Set the connection state.
      * 
-     * @return The output stream.
+     * @param state The connection state.
      */
-    public ObjectOutputStream getOut()
+    public void setState(StateConnection state)
     {
-        return out;
+        this.state = state;
     }
 
     /**
-     * Get the input stream.
+     * Get the current connection state.
      * 
-     * @return The input stream.
+     * @return The connection state.
      */
-    public ObjectInputStream getIn()
+    public StateConnection getState()
     {
-        return in;
+        return state;
+    }
+
+    /**
+     * Set the client name.
+     * 
+     * @param name The client name.
+     */
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Get the client name.
+     * 
+     * @return The client name.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Set the pending ping request time.
+     * 
+     * @param time The request time in nano (<code>0</code> if none).
+     */
+    public void setPingTime(long time)
+    {
+        pingTime = time;
+    }
+
+    /**
+     * Get the pending ping request time.
+     * 
+     * @return The request time in nano (<code>0</code> if none).
+     */
+    public long getPingTime()
+    {
+        return pingTime;
+    }
+
+    /**
+     * Terminate client.
+     */
+    public void terminate()
+    {
+        close();
+        state = StateConnection.DISCONNECTED;
     }
 
     /**
@@ -228,7 +352,7 @@ final class ClientSocket
      * 
      * @return The client id.
      */
-    public byte getId()
+    public int getId()
     {
         return clientId;
     }
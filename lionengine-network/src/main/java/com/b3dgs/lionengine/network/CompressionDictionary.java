@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+
+/**
+ * Build a compression preset dictionary from sample messages.
+ * <p>
+ * The byte sequences shared by most samples are kept, most common last, as deflate references closer data with less
+ * bits. Client and server must use the same dictionary.
+ * </p>
+ */
+public final class CompressionDictionary
+{
+    /** Maximum dictionary size (deflate window). */
+    public static final int MAX_SIZE = 32 * 1024;
+    /** Sequence length. */
+    private static final int GRAM = Long.BYTES;
+    /** Default encode buffer size. */
+    private static final int DEFAULT_SIZE = 256;
+
+    /**
+     * Train a dictionary from sample messages.
+     * 
+     * @param samples The sample messages, representative of sent ones (must not be <code>null</code>).
+     * @param size The maximum dictionary size (strictly positive, up to {@link #MAX_SIZE}).
+     * @return The dictionary, empty if no common sequence.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public static byte[] train(Collection<? extends NetworkMessage> samples, int size)
+    {
+        Check.notNull(samples);
+        Check.superiorStrict(size, 0);
+        Check.inferiorOrEqual(size, MAX_SIZE);
+
+        final Map<Long, Integer> counts = new HashMap<>();
+        final Collection<Long> sequences = new HashSet<>();
+        ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_SIZE);
+        for (final NetworkMessage sample : samples)
+        {
+            buffer = encode(sample, buffer);
+            sequences.clear();
+            for (int i = buffer.position(); i + GRAM <= buffer.limit(); i++)
+            {
+                sequences.add(Long.valueOf(buffer.getLong(i)));
+            }
+            for (final Long sequence : sequences)
+            {
+                counts.merge(sequence, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+            }
+        }
+
+        final List<Map.Entry<Long, Integer>> common = new ArrayList<>();
+        for (final Map.Entry<Long, Integer> entry : counts.entrySet())
+        {
+            if (entry.getValue().intValue() > 1)
+            {
+                common.add(entry);
+            }
+        }
+        common.sort((a, b) -> Integer.compare(b.getValue().intValue(), a.getValue().intValue()));
+
+        final int kept = Math.min(common.size(), size / GRAM);
+        final ByteBuffer dictionary = ByteBuffer.allocate(kept * GRAM);
+        for (int i = kept - 1; i >= 0; i--)
+        {
+            dictionary.putLong(common.get(i).getKey().longValue());
+        }
+        return dictionary.array();
+    }
+
+    /**
+     * Encode message.
+     * 
+     * @param message The message to encode.
+     * @param buffer The buffer to use.
+     * @return The buffer used, grown if necessary, with encoded data from position to limit.
+     */
+    private static ByteBuffer encode(NetworkMessage message, ByteBuffer buffer)
+    {
+        ByteBuffer current = buffer;
+        while (true)
+        {
+            current.clear();
+            try
+            {
+                message.encode(current);
+                current.flip();
+                return current;
+            }
+            catch (final BufferOverflowException exception)
+            {
+                current = ByteBuffer.allocate(current.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private CompressionDictionary()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -28,7 +28,7 @@ public interface ConnectionListener extends ClientListener
      * @param id The id received.
      * @param name The client name.
      */
-    void notifyConnectionEstablished(Byte id, String name);
+    void notifyConnectionEstablished(Integer id, String name);
 
     /**
      * Notify the message of the day.
@@ -42,5 +42,5 @@ public interface ConnectionListener extends ClientListener
      * 
      * @param id The id received.
      */
-    void notifyConnectionTerminated(Byte id);
+    void notifyConnectionTerminated(Integer id);
 }
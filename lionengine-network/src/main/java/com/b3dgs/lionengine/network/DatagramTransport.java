@@ -0,0 +1,549 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
+
+/**
+ * Datagram transport, where a single thread performs all socket operations over one datagram channel.
+ * <p>
+ * Each remote address is a peer, with its {@link ReliableEndpoint} providing the delivery channels. A client sends
+ * connection requests until server answers, and a peer is closed on disconnection packet or when nothing has been
+ * received during {@value #TIMEOUT_MILLI}ms.
+ * </p>
+ */
+final class DatagramTransport implements Transport, Runnable
+{
+    /** Maximum pooled buffers. */
+    private static final int BUFFER_MAX = 1024;
+    /** Select time out in milli, for retransmission and pacing. */
+    private static final long SELECT_TIMEOUT = 1L;
+    /** Thread join timeout in milli. */
+    private static final long JOIN_TIMEOUT = 1000L;
+    /** Peer time out in milli. */
+    private static final long TIMEOUT_MILLI = 5000L;
+    /** Nano per milli. */
+    private static final long MILLI = 1_000_000L;
+    /** Connection request interval in nano. */
+    private static final long CONNECT_INTERVAL = 100L * MILLI;
+    /** Keep alive interval in nano. */
+    private static final long PING_INTERVAL = 1000L * MILLI;
+    /** Peer time out in nano. */
+    private static final long TIMEOUT = TIMEOUT_MILLI * MILLI;
+
+    /** Peers to register. */
+    private final Queue<Peer> registering = new ConcurrentLinkedQueue<>();
+    /** Batches to send. */
+    private final Queue<Outgoing> outgoing = new ConcurrentLinkedQueue<>();
+    /** Accepted clients. */
+    private final Queue<ClientSocket> accepted = new ConcurrentLinkedQueue<>();
+    /** Closed clients by remote or on time out. */
+    private final Queue<ClientSocket> closed = new ConcurrentLinkedQueue<>();
+    /** Pending wake up flag. */
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    /** Peers by address (network thread only). */
+    private final Map<SocketAddress, Peer> peers = new HashMap<>();
+    /** Peers by client (network thread only). */
+    private final Map<ClientSocket, Peer> sockets = new IdentityHashMap<>();
+    /** Buffers pool. */
+    private final BufferPool pool = new BufferPool(NetworkTransport.BUFFER_CAPACITY, BUFFER_MAX);
+    /** Receive buffer. */
+    private final ByteBuffer receiving = ByteBuffer.allocateDirect(ReliableEndpoint.PACKET_SIZE);
+    /** Selector. */
+    private final Selector selector;
+    /** Network thread. */
+    private final Thread thread;
+    /** Datagram channel. */
+    private DatagramChannel channel;
+    /** Server flag (accept connection requests). */
+    private boolean server;
+    /** Current loop time in nano (network thread only). */
+    private long now;
+    /** Running flag. */
+    private volatile boolean running;
+
+    /**
+     * Create transport.
+     * 
+     * @param name The thread name.
+     * @throws LionEngineException If unable to open selector.
+     */
+    DatagramTransport(String name)
+    {
+        super();
+
+        try
+        {
+            selector = Selector.open();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, "Cannot open selector !");
+        }
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Open the datagram channel.
+     * 
+     * @param address The local address.
+     * @throws IOException If error.
+     */
+    private void open(InetSocketAddress address) throws IOException
+    {
+        channel = DatagramChannel.open();
+        try
+        {
+            channel.configureBlocking(false);
+            channel.bind(address);
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+        catch (final IOException | ClosedSelectorException exception)
+        {
+            channel.close();
+            channel = null;
+            throw exception;
+        }
+    }
+
+    /**
+     * Start network thread if not started.
+     */
+    private void start()
+    {
+        if (!running)
+        {
+            running = true;
+            thread.start();
+        }
+    }
+
+    /**
+     * Add a peer.
+     * 
+     * @param peer The peer to add.
+     */
+    private void add(Peer peer)
+    {
+        peers.put(peer.address, peer);
+        sockets.put(peer.client, peer);
+    }
+
+    /**
+     * Register pending peers.
+     */
+    private void register()
+    {
+        Peer peer = registering.poll();
+        while (peer != null)
+        {
+            add(peer);
+            peer = registering.poll();
+        }
+    }
+
+    /**
+     * Receive all pending packets.
+     * 
+     * @throws IOException If error.
+     */
+    private void receive() throws IOException
+    {
+        receiving.clear();
+        SocketAddress address = channel.receive(receiving);
+        while (address != null)
+        {
+            receiving.flip();
+            Peer peer = peers.get(address);
+            if (peer == null
+                && server
+                && receiving.hasRemaining()
+                && ReliableEndpoint.getKind(receiving) == ReliableEndpoint.KIND_CONNECT)
+            {
+                peer = new Peer(address, new ClientSocket(null, pool));
+                add(peer);
+                accepted.offer(peer.client);
+            }
+            if (peer != null)
+            {
+                peer.lastReceived = now;
+                peer.connected = true;
+                if (peer.endpoint.receive(receiving, now) == ReliableEndpoint.KIND_DISCONNECT)
+                {
+                    remove(peer);
+                }
+            }
+            receiving.clear();
+            address = channel.receive(receiving);
+        }
+    }
+
+    /**
+     * Give pending batches to their peer.
+     */
+    private void dispatch()
+    {
+        Outgoing next = outgoing.poll();
+        while (next != null)
+        {
+            final Peer peer = sockets.get(next.client);
+            if (peer != null)
+            {
+                peer.endpoint.send(next.channel, next.batch);
+            }
+            pool.release(next.batch);
+            next = outgoing.poll();
+        }
+    }
+
+    /**
+     * Update peers: connection requests, keep alive, time out and sending.
+     */
+    private void update()
+    {
+        final Iterator<Peer> iterator = peers.values().iterator();
+        while (iterator.hasNext())
+        {
+            final Peer peer = iterator.next();
+            if (peer.client.isClosed())
+            {
+                peer.endpoint.flush(now);
+                peer.endpoint.sendControl(ReliableEndpoint.KIND_DISCONNECT);
+                iterator.remove();
+                sockets.remove(peer.client);
+            }
+            else if (now - peer.lastReceived > TIMEOUT)
+            {
+                iterator.remove();
+                sockets.remove(peer.client);
+                close(peer.client);
+            }
+            else
+            {
+                if (!peer.connected && now - peer.lastSent >= CONNECT_INTERVAL)
+                {
+                    peer.endpoint.sendControl(ReliableEndpoint.KIND_CONNECT);
+                }
+                peer.endpoint.update(now);
+                if (now - peer.lastSent >= PING_INTERVAL)
+                {
+                    peer.endpoint.sendControl(ReliableEndpoint.KIND_ACK);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove peer closed by remote.
+     * 
+     * @param peer The peer to remove.
+     */
+    private void remove(Peer peer)
+    {
+        peers.remove(peer.address);
+        sockets.remove(peer.client);
+        close(peer.client);
+    }
+
+    /**
+     * Close client and notify if not already closed.
+     * 
+     * @param client The client to close.
+     */
+    private void close(ClientSocket client)
+    {
+        if (client.close())
+        {
+            closed.offer(client);
+        }
+    }
+
+    /**
+     * Send pending data and disconnection to all peers, and close channel.
+     */
+    private void closeAll()
+    {
+        dispatch();
+        for (final Peer peer : peers.values())
+        {
+            peer.endpoint.flush(now);
+            peer.endpoint.sendControl(ReliableEndpoint.KIND_DISCONNECT);
+            peer.client.close();
+        }
+        peers.clear();
+        sockets.clear();
+        closeChannel();
+    }
+
+    /**
+     * Close the datagram channel and selector.
+     */
+    private void closeChannel()
+    {
+        try
+        {
+            if (channel != null)
+            {
+                channel.close();
+            }
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on closing transport");
+        }
+    }
+
+    /*
+     * Transport
+     */
+
+    @Override
+    public int listen(int port) throws IOException
+    {
+        open(new InetSocketAddress(port));
+        server = true;
+        start();
+
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    @Override
+    public ClientSocket connect(String ip, int port) throws IOException
+    {
+        final InetSocketAddress address = new InetSocketAddress(InetAddress.getByName(ip), port);
+        open(null);
+
+        final Peer peer = new Peer(address, new ClientSocket(null, pool));
+        peer.lastReceived = System.nanoTime();
+        peer.lastSent = peer.lastReceived - CONNECT_INTERVAL;
+        registering.offer(peer);
+        start();
+        selector.wakeup();
+
+        return peer.client;
+    }
+
+    @Override
+    public ByteBuffer acquireBatch(int size)
+    {
+        final ByteBuffer batch = pool.acquire(size);
+        batch.limit(size);
+        return batch;
+    }
+
+    @Override
+    public int sendBatch(ClientSocket client, ByteBuffer batch, NetworkChannel channel)
+    {
+        final int size = batch.position();
+        batch.flip();
+        outgoing.offer(new Outgoing(client, channel, batch));
+        if (dirty.compareAndSet(false, true))
+        {
+            selector.wakeup();
+        }
+        return size;
+    }
+
+    @Override
+    public void release(ByteBuffer frame)
+    {
+        pool.release(frame);
+    }
+
+    @Override
+    public ClientSocket pollAccepted()
+    {
+        return accepted.poll();
+    }
+
+    @Override
+    public ClientSocket pollClosed()
+    {
+        return closed.poll();
+    }
+
+    @Override
+    public void close()
+    {
+        if (thread.getState() == Thread.State.NEW && selector.isOpen())
+        {
+            Peer peer = registering.poll();
+            while (peer != null)
+            {
+                peer.client.close();
+                peer = registering.poll();
+            }
+            closeChannel();
+        }
+        else if (running)
+        {
+            running = false;
+            selector.wakeup();
+            try
+            {
+                thread.join(JOIN_TIMEOUT);
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                Verbose.exception(exception);
+            }
+        }
+    }
+
+    /*
+     * Runnable
+     */
+
+    @Override
+    public void run()
+    {
+        while (running)
+        {
+            try
+            {
+                selector.select(SELECT_TIMEOUT);
+                selector.selectedKeys().clear();
+                now = System.nanoTime();
+                dirty.set(false);
+                register();
+                receive();
+                dispatch();
+                update();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Error on datagram transport");
+            }
+        }
+        closeAll();
+    }
+
+    /**
+     * Remote endpoint.
+     */
+    private final class Peer implements EndpointListener
+    {
+        /** Remote address. */
+        private final SocketAddress address;
+        /** Client reference. */
+        private final ClientSocket client;
+        /** Reliability layer. */
+        private final ReliableEndpoint endpoint = new ReliableEndpoint(this);
+        /** Last received time. */
+        private long lastReceived = now;
+        /** Last sent time. */
+        private long lastSent = now;
+        /** Remote answered flag. */
+        private boolean connected;
+
+        /**
+         * Create peer.
+         * 
+         * @param address The remote address.
+         * @param client The client reference.
+         */
+        Peer(SocketAddress address, ClientSocket client)
+        {
+            super();
+
+            this.address = address;
+            this.client = client;
+        }
+
+        /*
+         * EndpointListener
+         */
+
+        @Override
+        public void notifyPacket(ByteBuffer packet)
+        {
+            try
+            {
+                channel.send(packet, address);
+                lastSent = now;
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Error on sending to ", String.valueOf(address));
+            }
+        }
+
+        @Override
+        public void notifyFrame(ByteBuffer frame)
+        {
+            if (!client.isClosed())
+            {
+                final ByteBuffer copy = pool.acquire(frame.remaining());
+                copy.put(frame);
+                copy.flip();
+                client.receive(copy);
+            }
+        }
+    }
+
+    /**
+     * Batch to send.
+     */
+    private static final class Outgoing
+    {
+        /** Client destination. */
+        private final ClientSocket client;
+        /** Delivery channel. */
+        private final NetworkChannel channel;
+        /** Batch data. */
+        private final ByteBuffer batch;
+
+        /**
+         * Create outgoing batch.
+         * 
+         * @param client The client destination.
+         * @param channel The delivery channel.
+         * @param batch The batch data.
+         */
+        Outgoing(ClientSocket client, NetworkChannel channel, ByteBuffer batch)
+        {
+            super();
+
+            this.client = client;
+            this.channel = channel;
+            this.batch = batch;
+        }
+    }
+}
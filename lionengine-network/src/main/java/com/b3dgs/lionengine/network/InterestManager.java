@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Localizable;
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+
+/**
+ * Interest management, filtering the clients receiving entity messages sent to all clients.
+ * <p>
+ * On each {@link #update()}, tracked entities are stored in a spatial grid, and each client with an interest area
+ * keeps the entities around its center. An entity enters the area under the radius, and leaves it over the radius
+ * multiplied by the hysteresis, to avoid flickering at the border. An optional {@link Visibility} (such as a fog of war
+ * query) can restrict the entities in the area.
+ * </p>
+ * <p>
+ * Messages which are not entity messages, not tracked entities, and clients without interest area are not filtered.
+ * </p>
+ */
+public class InterestManager implements MessageFilter
+{
+    /** Entity id range. */
+    private static final int IDS = 1 << Short.SIZE;
+    /** Default entities capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** No entity. */
+    private static final int NONE = -1;
+
+    /**
+     * Get the cell key.
+     * 
+     * @param cx The horizontal cell index.
+     * @param cy The vertical cell index.
+     * @return The cell key.
+     */
+    private static Long key(int cx, int cy)
+    {
+        return Long.valueOf((long) cx << Integer.SIZE | cy & 0xFFFF_FFFFL);
+    }
+
+    /** Tracked entities index by id. */
+    private final Map<Short, Integer> indexes = new HashMap<>();
+    /** First entity index by cell. */
+    private final Map<Long, Integer> cells = new HashMap<>();
+    /** Clients interest. */
+    private final Map<Integer, Area> areas = new HashMap<>();
+    /** Cell size. */
+    private final double cellSize;
+    /** Leave radius factor. */
+    private final double hysteresis;
+    /** Tracked entities id. */
+    private short[] ids = new short[DEFAULT_CAPACITY];
+    /** Tracked entities location. */
+    private Localizable[] localizables = new Localizable[DEFAULT_CAPACITY];
+    /** Next entity index in same cell. */
+    private int[] next = new int[DEFAULT_CAPACITY];
+    /** Tracked entities number. */
+    private int count;
+    /** Visibility query (<code>null</code> if none). */
+    private Visibility visibility;
+
+    /**
+     * Create interest manager.
+     * 
+     * @param cellSize The spatial grid cell size (strictly positive).
+     * @param hysteresis The leave radius factor (superior or equal to 1.0).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public InterestManager(double cellSize, double hysteresis)
+    {
+        super();
+
+        Check.superiorStrict(cellSize, 0.0);
+        Check.superiorOrEqual(hysteresis, 1.0);
+
+        this.cellSize = cellSize;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Track an entity location.
+     * 
+     * @param entityId The entity id.
+     * @param localizable The entity location.
+     */
+    public void addEntity(short entityId, Localizable localizable)
+    {
+        final Integer index = indexes.get(Short.valueOf(entityId));
+        if (index != null)
+        {
+            localizables[index.intValue()] = localizable;
+            return;
+        }
+        if (count == ids.length)
+        {
+            final int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            localizables = Arrays.copyOf(localizables, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        ids[count] = entityId;
+        localizables[count] = localizable;
+        indexes.put(Short.valueOf(entityId), Integer.valueOf(count));
+        count++;
+    }
+
+    /**
+     * Stop tracking an entity, which will not be filtered anymore.
+     * 
+     * @param entityId The entity id.
+     */
+    public void removeEntity(short entityId)
+    {
+        final Integer index = indexes.remove(Short.valueOf(entityId));
+        if (index != null)
+        {
+            final int i = index.intValue();
+            count--;
+            if (i < count)
+            {
+                ids[i] = ids[count];
+                localizables[i] = localizables[count];
+                indexes.put(Short.valueOf(ids[i]), index);
+            }
+            localizables[count] = null;
+            for (final Area area : areas.values())
+            {
+                area.current.clear(UtilConversion.toUnsignedShort(entityId));
+            }
+        }
+    }
+
+    /**
+     * Set the client interest area.
+     * 
+     * @param clientId The client id.
+     * @param center The area center.
+     * @param radius The area radius (strictly positive).
+     * @throws LionEngineException If invalid radius.
+     */
+    public void setArea(Integer clientId, Localizable center, double radius)
+    {
+        Check.superiorStrict(radius, 0.0);
+
+        final Area area = areas.get(clientId);
+        if (area == null)
+        {
+            areas.put(clientId, new Area(center, radius));
+        }
+        else
+        {
+            area.center = center;
+            area.radius = radius;
+        }
+    }
+
+    /**
+     * Remove the client interest area, client will receive all messages.
+     * 
+     * @param clientId The client id.
+     */
+    public void removeArea(Integer clientId)
+    {
+        areas.remove(clientId);
+    }
+
+    /**
+     * Set the visibility query.
+     * 
+     * @param visibility The visibility query (<code>null</code> if none).
+     */
+    public void setVisibility(Visibility visibility)
+    {
+        this.visibility = visibility;
+    }
+
+    /**
+     * Update spatial grid and clients interest.
+     */
+    public void update()
+    {
+        cells.clear();
+        for (int i = 0; i < count; i++)
+        {
+            final Long cell = key(getCell(localizables[i].getX()), getCell(localizables[i].getY()));
+            final Integer first = cells.put(cell, Integer.valueOf(i));
+            next[i] = first == null ? NONE : first.intValue();
+        }
+        for (final Map.Entry<Integer, Area> entry : areas.entrySet())
+        {
+            update(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Check if client is interested by the entity.
+     * 
+     * @param clientId The client id.
+     * @param entityId The entity id.
+     * @return <code>true</code> if interested or entity or client not filtered, <code>false</code> else.
+     */
+    public boolean isInterested(int clientId, short entityId)
+    {
+        final Area area = areas.get(Integer.valueOf(clientId));
+        return area == null
+               || !indexes.containsKey(Short.valueOf(entityId))
+               || area.current.get(UtilConversion.toUnsignedShort(entityId));
+    }
+
+    /**
+     * Get the cell index.
+     * 
+     * @param location The location value.
+     * @return The cell index.
+     */
+    private int getCell(double location)
+    {
+        return (int) Math.floor(location / cellSize);
+    }
+
+    /**
+     * Update client interest.
+     * 
+     * @param clientId The client id.
+     * @param area The client area.
+     */
+    private void update(Integer clientId, Area area)
+    {
+        final double x = area.center.getX();
+        final double y = area.center.getY();
+        final double enter = area.radius * area.radius;
+        final double leave = enter * hysteresis * hysteresis;
+        final double reach = area.radius * hysteresis;
+
+        area.next.clear();
+        final int maxX = getCell(x + reach);
+        final int maxY = getCell(y + reach);
+        for (int cx = getCell(x - reach); cx <= maxX; cx++)
+        {
+            for (int cy = getCell(y - reach); cy <= maxY; cy++)
+            {
+                final Integer first = cells.get(key(cx, cy));
+                int i = first == null ? NONE : first.intValue();
+                while (i != NONE)
+                {
+                    final int id = UtilConversion.toUnsignedShort(ids[i]);
+                    final double dx = localizables[i].getX() - x;
+                    final double dy = localizables[i].getY() - y;
+                    final double distance = dx * dx + dy * dy;
+                    if ((distance <= enter || distance <= leave && area.current.get(id))
+                        && (visibility == null || visibility.isVisible(clientId, localizables[i])))
+                    {
+                        area.next.set(id);
+                    }
+                    i = next[i];
+                }
+            }
+        }
+        final BitSet current = area.current;
+        area.current = area.next;
+        area.next = current;
+    }
+
+    /*
+     * MessageFilter
+     */
+
+    @Override
+    public boolean accept(NetworkMessage message, int clientId)
+    {
+        if (message instanceof NetworkMessageEntity)
+        {
+            final short entityId = ((NetworkMessageEntity<?>) message).getEntityId();
+            return entityId < 0 || isInterested(clientId, entityId);
+        }
+        return true;
+    }
+
+    /**
+     * Entity visibility query for a client.
+     */
+    @FunctionalInterface
+    public interface Visibility
+    {
+        /**
+         * Check if entity is visible by client.
+         * 
+         * @param clientId The client id.
+         * @param entity The entity location.
+         * @return <code>true</code> if visible, <code>false</code> else.
+         */
+        boolean isVisible(Integer clientId, Localizable entity);
+    }
+
+    /**
+     * Client interest area.
+     */
+    private static final class Area
+    {
+        /** Entities in area. */
+        private BitSet current = new BitSet(IDS);
+        /** Entities in area being computed. */
+        private BitSet next = new BitSet(IDS);
+        /** Area center. */
+        private Localizable center;
+        /** Area radius. */
+        private double radius;
+
+        /**
+         * Create area.
+         * 
+         * @param center The area center.
+         * @param radius The area radius.
+         */
+        Area(Localizable center, double radius)
+        {
+            super();
+
+            this.center = center;
+            this.radius = radius;
+        }
+    }
+}
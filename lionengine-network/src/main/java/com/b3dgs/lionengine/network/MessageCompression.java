@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Message data compression, with raw deflate at fast level and an optional preset dictionary.
+ * <p>
+ * Compressed data are prefixed by their original size. Data smaller than the threshold, or not reduced by compression,
+ * are sent as is. Compression ratio and time are accumulated for reporting.
+ * </p>
+ */
+final class MessageCompression
+{
+    /** Default buffer size. */
+    private static final int DEFAULT_SIZE = 1024;
+
+    /** Compressor. */
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    /** Decompressor. */
+    private final Inflater inflater = new Inflater(true);
+    /** Preset dictionary (<code>null</code> if none). */
+    private final byte[] dictionary;
+    /** Minimum size to compress. */
+    private final int threshold;
+    /** Compressed data. */
+    private ByteBuffer compressed = ByteBuffer.allocate(DEFAULT_SIZE);
+    /** Received compressed data. */
+    private byte[] input = new byte[DEFAULT_SIZE];
+    /** Decompressed data. */
+    private ByteBuffer decompressed = ByteBuffer.allocate(DEFAULT_SIZE);
+    /** Original data size. */
+    private long original;
+    /** Sent data size. */
+    private long sent;
+    /** Compression and decompression time in nano. */
+    private long time;
+
+    /**
+     * Create compression.
+     * 
+     * @param threshold The minimum size to compress.
+     * @param dictionary The preset dictionary (<code>null</code> if none).
+     */
+    MessageCompression(int threshold, byte[] dictionary)
+    {
+        super();
+
+        this.threshold = threshold;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Compress data if large enough and reduced.
+     * 
+     * @param data The data to compress, from position to limit, in a heap buffer.
+     * @return The compressed data with original size, valid until next call, <code>null</code> to send data as is.
+     */
+    ByteBuffer compress(ByteBuffer data)
+    {
+        final int length = data.remaining();
+        original += length;
+        if (length < threshold || length <= Integer.BYTES + 1)
+        {
+            sent += length;
+            return null;
+        }
+        final long start = System.nanoTime();
+        if (compressed.capacity() < Integer.BYTES + length)
+        {
+            compressed = ByteBuffer.allocate(Math.max(compressed.capacity() * 2, Integer.BYTES + length));
+        }
+        deflater.reset();
+        if (dictionary != null)
+        {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(data.array(), data.arrayOffset() + data.position(), length);
+        deflater.finish();
+        final int size = deflater.deflate(compressed.array(), Integer.BYTES, length - Integer.BYTES - 1);
+        final boolean reduced = deflater.finished();
+        time += System.nanoTime() - start;
+
+        if (!reduced)
+        {
+            sent += length;
+            return null;
+        }
+        compressed.clear();
+        compressed.putInt(0, length);
+        compressed.limit(Integer.BYTES + size);
+        sent += compressed.remaining();
+        return compressed;
+    }
+
+    /**
+     * Decompress data.
+     * 
+     * @param data The compressed data with original size, from position to limit.
+     * @return The decompressed data, valid until next call, <code>null</code> if invalid.
+     */
+    ByteBuffer decompress(ByteBuffer data)
+    {
+        final long start = System.nanoTime();
+        final int length = data.getInt();
+        final int size = data.remaining();
+        if (length < 0 || length > ClientSocket.MAX_FRAME)
+        {
+            return null;
+        }
+        if (input.length < size)
+        {
+            input = new byte[Math.max(input.length * 2, size)];
+        }
+        data.get(input, 0, size);
+        if (decompressed.capacity() < length)
+        {
+            decompressed = ByteBuffer.allocate(Math.max(decompressed.capacity() * 2, length));
+        }
+        inflater.reset();
+        if (dictionary != null)
+        {
+            inflater.setDictionary(dictionary);
+        }
+        inflater.setInput(input, 0, size);
+        try
+        {
+            final int count = inflater.inflate(decompressed.array(), 0, length);
+            if (count != length)
+            {
+                return null;
+            }
+        }
+        catch (final DataFormatException exception)
+        {
+            return null;
+        }
+        finally
+        {
+            time += System.nanoTime() - start;
+        }
+        decompressed.clear();
+        decompressed.limit(length);
+        return decompressed;
+    }
+
+    /**
+     * Get the compression ratio of sent data.
+     * 
+     * @return The sent size on original size (1 if nothing sent).
+     */
+    double getRatio()
+    {
+        if (original == 0L)
+        {
+            return 1.0;
+        }
+        return sent / (double) original;
+    }
+
+    /**
+     * Get the compression and decompression time.
+     * 
+     * @return The elapsed time in nano.
+     */
+    long getTime()
+    {
+        return time;
+    }
+}
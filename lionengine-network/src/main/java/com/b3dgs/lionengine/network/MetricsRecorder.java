@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Network metrics recorder, updated by the networker thread, and copied to {@link NetworkMetrics} snapshots.
+ */
+final class MetricsRecorder
+{
+    /** Number of message types. */
+    static final int TYPES = 1 << Byte.SIZE;
+
+    /** Received messages by type. */
+    final long[] messagesIn = new long[TYPES];
+    /** Received bytes by type. */
+    final long[] bytesIn = new long[TYPES];
+    /** Sent messages by type. */
+    final long[] messagesOut = new long[TYPES];
+    /** Sent bytes by type. */
+    final long[] bytesOut = new long[TYPES];
+    /** Disconnections by reason. */
+    final long[] disconnects = new long[DisconnectReason.values().length];
+    /** Round trip time in milli by client id. */
+    final Map<Integer, Integer> rtt = new HashMap<>();
+    /** Encode durations. */
+    final TimeHistogram encode = new TimeHistogram();
+    /** Decode durations. */
+    final TimeHistogram decode = new TimeHistogram();
+    /** Highest received messages queue depth. */
+    int queueInPeak;
+    /** Highest sent messages queue depth. */
+    int queueOutPeak;
+
+    /**
+     * Create recorder.
+     */
+    MetricsRecorder()
+    {
+        super();
+    }
+
+    /**
+     * Record a received message.
+     * 
+     * @param type The message type.
+     * @param size The message data size in bytes.
+     * @param nano The decode duration in nano.
+     */
+    void received(byte type, int size, long nano)
+    {
+        final int index = type & 0xFF;
+        messagesIn[index]++;
+        bytesIn[index] += size;
+        decode.record(nano);
+    }
+
+    /**
+     * Record a sent message.
+     * 
+     * @param type The message type.
+     * @param size The message data size in bytes.
+     * @param nano The encode duration in nano.
+     */
+    void sent(byte type, int size, long nano)
+    {
+        final int index = type & 0xFF;
+        messagesOut[index]++;
+        bytesOut[index] += size;
+        encode.record(nano);
+    }
+
+    /**
+     * Record the received messages queue depth.
+     * 
+     * @param depth The current depth.
+     */
+    void queueIn(int depth)
+    {
+        queueInPeak = Math.max(queueInPeak, depth);
+    }
+
+    /**
+     * Record the sent messages queue depth.
+     * 
+     * @param depth The current depth.
+     */
+    void queueOut(int depth)
+    {
+        queueOutPeak = Math.max(queueOutPeak, depth);
+    }
+
+    /**
+     * Record a disconnection.
+     * 
+     * @param reason The disconnection reason.
+     */
+    void disconnected(DisconnectReason reason)
+    {
+        disconnects[reason.ordinal()]++;
+    }
+
+    /**
+     * Set the client round trip time.
+     * 
+     * @param id The client id.
+     * @param milli The round trip time in milli.
+     */
+    void setRtt(int id, int milli)
+    {
+        rtt.put(Integer.valueOf(id), Integer.valueOf(milli));
+    }
+
+    /**
+     * Remove the client round trip time.
+     * 
+     * @param id The client id.
+     */
+    void removeRtt(int id)
+    {
+        rtt.remove(Integer.valueOf(id));
+    }
+}
@@ -28,8 +28,12 @@ final class NetworkMessageSystemId
     public static final byte CONNECTING = -120;
     /** Last connection step (client is now connected to the server properly). */
     public static final byte CONNECTED = -110;
-    /** Ping message. */
+    /** Ping message, followed by {@link #PING_REQUEST} or {@link #PING_ANSWER}. */
     public static final byte PING = -105;
+    /** Ping request, to be answered. */
+    public static final byte PING_REQUEST = 0;
+    /** Ping answer. */
+    public static final byte PING_ANSWER = 1;
     /** Client is kicked. */
     public static final byte KICKED = -100;
     /** Inform about a new connected client. */
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Immutable snapshot of a networker metrics, retrieved with {@link Networker#getMetrics()}.
+ * <p>
+ * Counters are cumulated since networker creation, so rates are computed by differences between two snapshots. A
+ * message encoded once by server for all its clients is counted once.
+ * </p>
+ */
+public final class NetworkMetrics
+{
+    /** Minimum to string length. */
+    private static final int MIN_LENGTH = 128;
+
+    /**
+     * Sum all values.
+     * 
+     * @param values The values to sum.
+     * @return The sum.
+     */
+    private static long sum(long[] values)
+    {
+        long sum = 0L;
+        for (final long value : values)
+        {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /** Snapshot time in nano. */
+    private final long time;
+    /** Bytes sent per second. */
+    private final int bandwidth;
+    /** Received messages by type. */
+    private final long[] messagesIn;
+    /** Received bytes by type. */
+    private final long[] bytesIn;
+    /** Sent messages by type. */
+    private final long[] messagesOut;
+    /** Sent bytes by type. */
+    private final long[] bytesOut;
+    /** Disconnections by reason. */
+    private final long[] disconnects;
+    /** Round trip time in milli by client id. */
+    private final Map<Integer, Integer> rtt;
+    /** Encode durations. */
+    private final TimeHistogram encode;
+    /** Decode durations. */
+    private final TimeHistogram decode;
+    /** Received messages queue depth. */
+    private final int queueIn;
+    /** Sent messages queue depth. */
+    private final int queueOut;
+    /** Highest received messages queue depth. */
+    private final int queueInPeak;
+    /** Highest sent messages queue depth. */
+    private final int queueOutPeak;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param recorder The recorder to copy.
+     * @param bandwidth The bytes sent per second.
+     * @param queueIn The current received messages queue depth.
+     * @param queueOut The current sent messages queue depth.
+     */
+    NetworkMetrics(MetricsRecorder recorder, int bandwidth, int queueIn, int queueOut)
+    {
+        super();
+
+        time = System.nanoTime();
+        this.bandwidth = bandwidth;
+        messagesIn = recorder.messagesIn.clone();
+        bytesIn = recorder.bytesIn.clone();
+        messagesOut = recorder.messagesOut.clone();
+        bytesOut = recorder.bytesOut.clone();
+        disconnects = recorder.disconnects.clone();
+        rtt = Collections.unmodifiableMap(new HashMap<>(recorder.rtt));
+        encode = new TimeHistogram(recorder.encode);
+        decode = new TimeHistogram(recorder.decode);
+        this.queueIn = queueIn;
+        this.queueOut = queueOut;
+        queueInPeak = Math.max(recorder.queueInPeak, queueIn);
+        queueOutPeak = Math.max(recorder.queueOutPeak, queueOut);
+    }
+
+    /**
+     * Get the snapshot time.
+     * 
+     * @return The snapshot time in nano, as {@link System#nanoTime()}.
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * Get the amount of bytes sent per second.
+     * 
+     * @return The number of bytes sent per second.
+     */
+    public int getBandwidth()
+    {
+        return bandwidth;
+    }
+
+    /**
+     * Get the number of received messages of this type.
+     * 
+     * @param type The message type.
+     * @return The number of received messages.
+     */
+    public long getMessagesIn(byte type)
+    {
+        return messagesIn[type & 0xFF];
+    }
+
+    /**
+     * Get the number of received messages data bytes of this type.
+     * 
+     * @param type The message type.
+     * @return The number of received bytes.
+     */
+    public long getBytesIn(byte type)
+    {
+        return bytesIn[type & 0xFF];
+    }
+
+    /**
+     * Get the number of sent messages of this type.
+     * 
+     * @param type The message type.
+     * @return The number of sent messages.
+     */
+    public long getMessagesOut(byte type)
+    {
+        return messagesOut[type & 0xFF];
+    }
+
+    /**
+     * Get the number of sent messages data bytes of this type.
+     * 
+     * @param type The message type.
+     * @return The number of sent bytes.
+     */
+    public long getBytesOut(byte type)
+    {
+        return bytesOut[type & 0xFF];
+    }
+
+    /**
+     * Get the number of received messages of all types.
+     * 
+     * @return The number of received messages.
+     */
+    public long getMessagesIn()
+    {
+        return sum(messagesIn);
+    }
+
+    /**
+     * Get the number of received messages data bytes of all types.
+     * 
+     * @return The number of received bytes.
+     */
+    public long getBytesIn()
+    {
+        return sum(bytesIn);
+    }
+
+    /**
+     * Get the number of sent messages of all types.
+     * 
+     * @return The number of sent messages.
+     */
+    public long getMessagesOut()
+    {
+        return sum(messagesOut);
+    }
+
+    /**
+     * Get the number of sent messages data bytes of all types.
+     * 
+     * @return The number of sent bytes.
+     */
+    public long getBytesOut()
+    {
+        return sum(bytesOut);
+    }
+
+    /**
+     * Get the number of disconnections for this reason.
+     * 
+     * @param reason The disconnection reason (must not be <code>null</code>).
+     * @return The number of disconnections.
+     * @throws LionEngineException If invalid argument.
+     */
+    public long getDisconnects(DisconnectReason reason)
+    {
+        Check.notNull(reason);
+
+        return disconnects[reason.ordinal()];
+    }
+
+    /**
+     * Get the round trip time of a client, measured with ping.
+     * 
+     * @param id The client id (own id for a client).
+     * @return The round trip time in milli, <code>-1</code> if not measured.
+     */
+    public int getRtt(int id)
+    {
+        final Integer value = rtt.get(Integer.valueOf(id));
+        if (value == null)
+        {
+            return -1;
+        }
+        return value.intValue();
+    }
+
+    /**
+     * Get the round trip times, measured with ping.
+     * 
+     * @return The round trip times in milli by client id (unmodifiable).
+     */
+    public Map<Integer, Integer> getRtts()
+    {
+        return rtt;
+    }
+
+    /**
+     * Get the messages encode durations, including compression.
+     * 
+     * @return The encode durations.
+     */
+    public TimeHistogram getEncodeTime()
+    {
+        return encode;
+    }
+
+    /**
+     * Get the messages decode durations, including decompression.
+     * 
+     * @return The decode durations.
+     */
+    public TimeHistogram getDecodeTime()
+    {
+        return decode;
+    }
+
+    /**
+     * Get the number of messages received on last update.
+     * 
+     * @return The received messages queue depth.
+     */
+    public int getQueueIn()
+    {
+        return queueIn;
+    }
+
+    /**
+     * Get the number of messages waiting to be sent.
+     * 
+     * @return The sent messages queue depth.
+     */
+    public int getQueueOut()
+    {
+        return queueOut;
+    }
+
+    /**
+     * Get the highest number of messages received by an update.
+     * 
+     * @return The highest received messages queue depth.
+     */
+    public int getQueueInPeak()
+    {
+        return queueInPeak;
+    }
+
+    /**
+     * Get the highest number of messages sent by an update.
+     * 
+     * @return The highest sent messages queue depth.
+     */
+    public int getQueueOutPeak()
+    {
+        return queueOutPeak;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder(MIN_LENGTH).append(getClass().getSimpleName())
+                                            .append(" [bandwidth=")
+                                            .append(bandwidth)
+                                            .append(", messagesIn=")
+                                            .append(getMessagesIn())
+                                            .append(", messagesOut=")
+                                            .append(getMessagesOut())
+                                            .append(", rtt=")
+                                            .append(rtt)
+                                            .append(", disconnects=")
+                                            .append(Arrays.toString(disconnects))
+                                            .append("]")
+                                            .toString();
+    }
+}
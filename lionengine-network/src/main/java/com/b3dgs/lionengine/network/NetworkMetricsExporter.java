@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Export {@link NetworkMetrics} snapshots as a platform MBean, under
+ * <code>com.b3dgs.lionengine.network:type=NetworkMetrics,name=&lt;name&gt;</code>.
+ * <p>
+ * Networker is not thread safe, so snapshots are pushed by networker thread with {@link #update(NetworkMetrics)}
+ * (once per second is enough), and the last one is served to management clients.
+ * </p>
+ */
+public final class NetworkMetricsExporter implements NetworkMetricsMXBean, AutoCloseable
+{
+    /** Object name domain and type. */
+    private static final String DOMAIN = "com.b3dgs.lionengine.network:type=NetworkMetrics,name=";
+    /** 99th percentile. */
+    private static final double P99 = 0.99;
+
+    /** MBean server. */
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    /** Registered name. */
+    private final ObjectName name;
+    /** Last snapshot (<code>null</code> if none). */
+    private volatile NetworkMetrics metrics;
+
+    /**
+     * Create and register exporter.
+     * 
+     * @param name The exported name (must not be <code>null</code>).
+     * @throws LionEngineException If invalid name or already registered.
+     */
+    public NetworkMetricsExporter(String name)
+    {
+        super();
+
+        Check.notNull(name);
+
+        try
+        {
+            this.name = new ObjectName(DOMAIN + ObjectName.quote(name));
+            server.registerMBean(this, this.name);
+        }
+        catch (final JMException exception)
+        {
+            throw new LionEngineException(exception, "Cannot register network metrics: " + name);
+        }
+    }
+
+    /**
+     * Set the snapshot to serve.
+     * 
+     * @param metrics The last snapshot (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public void update(NetworkMetrics metrics)
+    {
+        Check.notNull(metrics);
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the registered name.
+     * 
+     * @return The registered name.
+     */
+    public ObjectName getName()
+    {
+        return name;
+    }
+
+    /*
+     * NetworkMetricsMXBean
+     */
+
+    @Override
+    public int getBandwidth()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0 : current.getBandwidth();
+    }
+
+    @Override
+    public long getMessagesIn()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getMessagesIn();
+    }
+
+    @Override
+    public long getMessagesOut()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getMessagesOut();
+    }
+
+    @Override
+    public long getBytesIn()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getBytesIn();
+    }
+
+    @Override
+    public long getBytesOut()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getBytesOut();
+    }
+
+    @Override
+    public Map<Integer, Integer> getRtts()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? new HashMap<>() : new HashMap<>(current.getRtts());
+    }
+
+    @Override
+    public int getQueueIn()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0 : current.getQueueIn();
+    }
+
+    @Override
+    public int getQueueOut()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0 : current.getQueueOut();
+    }
+
+    @Override
+    public double getEncodeTimeMean()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0.0 : current.getEncodeTime().getMean();
+    }
+
+    @Override
+    public long getEncodeTimeP99()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getEncodeTime().getPercentile(P99);
+    }
+
+    @Override
+    public double getDecodeTimeMean()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0.0 : current.getDecodeTime().getMean();
+    }
+
+    @Override
+    public long getDecodeTimeP99()
+    {
+        final NetworkMetrics current = metrics;
+        return current == null ? 0L : current.getDecodeTime().getPercentile(P99);
+    }
+
+    @Override
+    public Map<String, Long> getDisconnects()
+    {
+        final NetworkMetrics current = metrics;
+        final Map<String, Long> disconnects = new HashMap<>();
+        for (final DisconnectReason reason : DisconnectReason.values())
+        {
+            disconnects.put(reason.name(), Long.valueOf(current == null ? 0L : current.getDisconnects(reason)));
+        }
+        return disconnects;
+    }
+
+    /*
+     * AutoCloseable
+     */
+
+    /**
+     * Unregister exporter.
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            server.unregisterMBean(name);
+        }
+        catch (final JMException exception)
+        {
+            throw new LionEngineException(exception, "Cannot unregister network metrics: " + name);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link NetworkMetrics}, registered by {@link NetworkMetricsExporter}.
+ */
+public interface NetworkMetricsMXBean
+{
+    /**
+     * Get the amount of bytes sent per second.
+     * 
+     * @return The number of bytes sent per second.
+     */
+    int getBandwidth();
+
+    /**
+     * Get the number of received messages.
+     * 
+     * @return The number of received messages.
+     */
+    long getMessagesIn();
+
+    /**
+     * Get the number of sent messages.
+     * 
+     * @return The number of sent messages.
+     */
+    long getMessagesOut();
+
+    /**
+     * Get the number of received messages data bytes.
+     * 
+     * @return The number of received bytes.
+     */
+    long getBytesIn();
+
+    /**
+     * Get the number of sent messages data bytes.
+     * 
+     * @return The number of sent bytes.
+     */
+    long getBytesOut();
+
+    /**
+     * Get the round trip times, measured with ping.
+     * 
+     * @return The round trip times in milli by client id.
+     */
+    Map<Integer, Integer> getRtts();
+
+    /**
+     * Get the number of messages received on last update.
+     * 
+     * @return The received messages queue depth.
+     */
+    int getQueueIn();
+
+    /**
+     * Get the number of messages waiting to be sent.
+     * 
+     * @return The sent messages queue depth.
+     */
+    int getQueueOut();
+
+    /**
+     * Get the mean encode duration.
+     * 
+     * @return The mean duration in nano.
+     */
+    double getEncodeTimeMean();
+
+    /**
+     * Get the 99th percentile encode duration.
+     * 
+     * @return The duration in nano.
+     */
+    long getEncodeTimeP99();
+
+    /**
+     * Get the mean decode duration.
+     * 
+     * @return The mean duration in nano.
+     */
+    double getDecodeTimeMean();
+
+    /**
+     * Get the 99th percentile decode duration.
+     * 
+     * @return The duration in nano.
+     */
+    long getDecodeTimeP99();
+
+    /**
+     * Get the number of disconnections by reason.
+     * 
+     * @return The number of disconnections by {@link DisconnectReason} name.
+     */
+    Map<String, Long> getDisconnects();
+}
@@ -17,11 +17,12 @@
  */
 package com.b3dgs.lionengine.network;
 
-import java.io.DataInputStream;
-import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
@@ -32,6 +33,9 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
  */
 abstract class NetworkModel<L extends ClientListener> implements Networker<L>
 {
+    /** Default encode buffer size. */
+    private static final int DEFAULT_ENCODE_SIZE = 256;
+
     /** Messages list. */
     protected final Collection<NetworkMessage> messagesOut;
     /** Messages list. */
@@ -40,6 +44,14 @@ abstract class NetworkModel<L extends ClientListener> implements Networker<L>
     protected final NetworkMessageDecoder decoder;
     /** The client connection listener. */
     protected final Collection<L> listeners;
+    /** Metrics recorder. */
+    protected final MetricsRecorder metrics = new MetricsRecorder();
+    /** Encode buffer, reused and grown on demand. */
+    private ByteBuffer encode = ByteBuffer.allocate(DEFAULT_ENCODE_SIZE);
+    /** Message compression (<code>null</code> if disabled). */
+    private MessageCompression compression;
+    /** Last encoded message compressed flag. */
+    private boolean compressed;
 
     /**
      * Internal constructor.
@@ -55,28 +67,86 @@ abstract class NetworkModel<L extends ClientListener> implements Networker<L>
     }
 
     /**
-     * Decode a message from its type.
+     * Encode a message in the shared encode buffer, compressed if enabled.
+     * 
+     * @param message The message to encode.
+     * @return The encoded data, valid until next call (from position to limit).
+     */
+    protected ByteBuffer encode(NetworkMessage message)
+    {
+        final long start = System.nanoTime();
+        while (true)
+        {
+            encode.clear();
+            try
+            {
+                message.encode(encode);
+                encode.flip();
+                final ByteBuffer data = compression == null ? null : compression.compress(encode);
+                compressed = data != null;
+                final ByteBuffer encoded = compressed ? data : encode;
+                metrics.sent(message.getType(), encoded.remaining(), System.nanoTime() - start);
+                return encoded;
+            }
+            catch (final BufferOverflowException exception)
+            {
+                encode = ByteBuffer.allocate(encode.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Get the size header of the last encoded data.
+     * 
+     * @param encoded The last encoded data.
+     * @return The size header, negative if compressed.
+     */
+    protected int getSizeHeader(ByteBuffer encoded)
+    {
+        if (compressed)
+        {
+            return -encoded.remaining();
+        }
+        return encoded.remaining();
+    }
+
+    /**
+     * Decode a message from its type, directly from the frame, or from its decompressed data.
      * 
      * @param type The message type.
      * @param from The client id source.
      * @param dest The client id destination (-1 if all).
-     * @param buffer The data.
-     * @throws IOException Error on reading.
+     * @param size The size header, negative if compressed.
+     * @param frame The frame, positioned on message data.
      */
-    protected void decodeMessage(byte type, byte from, byte dest, DataInputStream buffer) throws IOException
+    protected void decodeMessage(byte type, int from, int dest, int size, ByteBuffer frame)
     {
+        final int length = Math.abs(size);
+        if (length < 0 || length > frame.remaining() || size < 0 && compression == null)
+        {
+            return;
+        }
+        final long start = System.nanoTime();
+        frame.limit(frame.position() + length);
+        final ByteBuffer data = size < 0 ? compression.decompress(frame) : frame;
         final NetworkMessage message = decoder.getNetworkMessageFromType(type);
-        if (message != null)
+        if (data != null && message != null)
         {
-            final int skip = 3;
-            if (buffer.skipBytes(skip) == skip)
-            {
-                message.decode(type, from, dest, buffer);
-                messagesIn.add(message);
-            }
+            message.decode(type, from, dest, data);
+            messagesIn.add(message);
+            metrics.received(type, length, System.nanoTime() - start);
         }
     }
 
+    /**
+     * Record the messages queues depth, called once received messages and before sending messages.
+     */
+    protected void recordQueues()
+    {
+        metrics.queueIn(messagesIn.size());
+        metrics.queueOut(messagesOut.size());
+    }
+
     /*
      * Networker
      */
@@ -110,4 +180,42 @@ abstract class NetworkModel<L extends ClientListener> implements Networker<L>
     {
         return messagesIn;
     }
+
+    @Override
+    public void setCompression(int threshold, byte[] dictionary)
+    {
+        Check.superiorOrEqual(threshold, 0);
+        if (dictionary != null)
+        {
+            Check.inferiorOrEqual(dictionary.length, CompressionDictionary.MAX_SIZE);
+        }
+
+        compression = new MessageCompression(threshold, dictionary);
+    }
+
+    @Override
+    public NetworkMetrics getMetrics()
+    {
+        return new NetworkMetrics(metrics, getBandwidth(), messagesIn.size(), messagesOut.size());
+    }
+
+    @Override
+    public double getCompressionRatio()
+    {
+        if (compression == null)
+        {
+            return 1.0;
+        }
+        return compression.getRatio();
+    }
+
+    @Override
+    public long getCompressionTime()
+    {
+        if (compression == null)
+        {
+            return 0L;
+        }
+        return compression.getTime();
+    }
 }
@@ -0,0 +1,448 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+
+/**
+ * Non blocking stream transport, where a single thread performs all socket operations with a selector.
+ * <p>
+ * Frames are stored in pooled direct buffers, and all channels are reliable and ordered.
+ * </p>
+ */
+final class NetworkTransport implements Transport, Runnable
+{
+    /** Pooled buffer capacity. */
+    static final int BUFFER_CAPACITY = 8192;
+    /** Maximum string size in bytes (unsigned short length prefix). */
+    static final int STRING_MAX = 0xFFFF;
+    /** Maximum pooled buffers. */
+    private static final int BUFFER_MAX = 1024;
+    /** Thread join timeout in milli. */
+    private static final long JOIN_TIMEOUT = 1000L;
+
+    /**
+     * Write string as length prefixed bytes.
+     * 
+     * @param frame The frame to write to.
+     * @param value The string value (encoded size must be inferior or equal to {@link #STRING_MAX}).
+     * @throws LionEngineException If string is too long.
+     */
+    static void putString(ByteBuffer frame, String value)
+    {
+        final byte[] data = value.getBytes(NetworkMessage.CHARSET);
+        Check.inferiorOrEqual(data.length, STRING_MAX);
+
+        frame.putShort((short) data.length);
+        frame.put(data);
+    }
+
+    /**
+     * Read length prefixed string.
+     * 
+     * @param frame The frame to read from.
+     * @return The string value.
+     */
+    static String getString(ByteBuffer frame)
+    {
+        final byte[] data = new byte[frame.getShort() & STRING_MAX];
+        frame.get(data);
+        return new String(data, NetworkMessage.CHARSET);
+    }
+
+    /**
+     * Get the written string size.
+     * 
+     * @param value The string value.
+     * @return The string size in bytes.
+     */
+    static int getSize(String value)
+    {
+        return Short.BYTES + value.getBytes(NetworkMessage.CHARSET).length;
+    }
+
+    /**
+     * Configure channel for non blocking and low latency usage.
+     * 
+     * @param channel The channel to configure.
+     * @throws IOException If error.
+     */
+    private static void configure(SocketChannel channel) throws IOException
+    {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+    }
+
+    /** Clients to register. */
+    private final Queue<ClientSocket> registering = new ConcurrentLinkedQueue<>();
+    /** Clients to flush. */
+    private final Queue<ClientSocket> flushing = new ConcurrentLinkedQueue<>();
+    /** Accepted clients. */
+    private final Queue<ClientSocket> accepted = new ConcurrentLinkedQueue<>();
+    /** Closed clients by remote or on error. */
+    private final Queue<ClientSocket> closed = new ConcurrentLinkedQueue<>();
+    /** Buffers pool. */
+    private final BufferPool pool = new BufferPool(BUFFER_CAPACITY, BUFFER_MAX);
+    /** Selector. */
+    private final Selector selector;
+    /** Network thread. */
+    private final Thread thread;
+    /** Server channel (<code>null</code> if client). */
+    private ServerSocketChannel server;
+    /** Running flag. */
+    private volatile boolean running;
+
+    /**
+     * Create transport.
+     * 
+     * @param name The thread name.
+     * @throws LionEngineException If unable to open selector.
+     */
+    NetworkTransport(String name)
+    {
+        super();
+
+        try
+        {
+            selector = Selector.open();
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, "Cannot open selector !");
+        }
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start network thread if not started.
+     */
+    private void start()
+    {
+        if (!running)
+        {
+            running = true;
+            thread.start();
+        }
+    }
+
+    /**
+     * Register pending clients.
+     */
+    private void register()
+    {
+        ClientSocket client = registering.poll();
+        while (client != null)
+        {
+            try
+            {
+                client.register(selector);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                close(client);
+            }
+            client = registering.poll();
+        }
+    }
+
+    /**
+     * Write pending frames, and listen to writable channel if not fully written.
+     */
+    private void flush()
+    {
+        ClientSocket client = flushing.poll();
+        while (client != null)
+        {
+            client.flushed();
+            final SelectionKey key = client.getKey();
+            try
+            {
+                if (!client.write() && key != null && key.isValid())
+                {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+            catch (final IOException | CancelledKeyException exception)
+            {
+                close(client);
+            }
+            client = flushing.poll();
+        }
+    }
+
+    /**
+     * Accept pending connections.
+     * 
+     * @throws IOException If error.
+     */
+    private void accept() throws IOException
+    {
+        SocketChannel channel = server.accept();
+        while (channel != null)
+        {
+            configure(channel);
+            final ClientSocket client = new ClientSocket(channel, pool);
+            client.register(selector);
+            accepted.offer(client);
+            channel = server.accept();
+        }
+    }
+
+    /**
+     * Read and write selected client.
+     * 
+     * @param key The client key.
+     */
+    private void update(SelectionKey key)
+    {
+        final ClientSocket client = (ClientSocket) key.attachment();
+        try
+        {
+            if (key.isReadable() && !client.read())
+            {
+                close(client);
+            }
+            else if (key.isValid() && key.isWritable() && client.write())
+            {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+        catch (final IOException | CancelledKeyException exception)
+        {
+            close(client);
+        }
+    }
+
+    /**
+     * Close client and notify if not already closed.
+     * 
+     * @param client The client to close.
+     */
+    private void close(ClientSocket client)
+    {
+        if (client.close())
+        {
+            closed.offer(client);
+        }
+    }
+
+    /**
+     * Close all channels, pending registrations included.
+     */
+    private void closeAll()
+    {
+        ClientSocket client = registering.poll();
+        while (client != null)
+        {
+            client.close();
+            client = registering.poll();
+        }
+        for (final SelectionKey key : selector.keys())
+        {
+            if (key.attachment() instanceof ClientSocket)
+            {
+                ((ClientSocket) key.attachment()).close();
+            }
+        }
+        try
+        {
+            if (server != null)
+            {
+                server.close();
+            }
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on closing transport");
+        }
+    }
+
+    /*
+     * Transport
+     */
+
+    @Override
+    public int listen(int port) throws IOException
+    {
+        server = ServerSocketChannel.open();
+        try
+        {
+            server.configureBlocking(false);
+            server.bind(new InetSocketAddress(port));
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (final IOException | ClosedSelectorException exception)
+        {
+            server.close();
+            server = null;
+            throw exception;
+        }
+        start();
+
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public ClientSocket connect(String ip, int port) throws IOException
+    {
+        final SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getByName(ip), port));
+        try
+        {
+            configure(channel);
+        }
+        catch (final IOException exception)
+        {
+            channel.close();
+            throw exception;
+        }
+
+        final ClientSocket client = new ClientSocket(channel, pool);
+        registering.offer(client);
+        start();
+        selector.wakeup();
+
+        return client;
+    }
+
+    @Override
+    public ByteBuffer acquireBatch(int size)
+    {
+        final ByteBuffer batch = pool.acquire(size);
+        batch.limit(size);
+        return batch;
+    }
+
+    @Override
+    public int sendBatch(ClientSocket client, ByteBuffer batch, NetworkChannel channel)
+    {
+        final int size = batch.position();
+        batch.flip();
+        if (client.queue(batch))
+        {
+            flushing.offer(client);
+            selector.wakeup();
+        }
+        return size;
+    }
+
+    @Override
+    public void release(ByteBuffer frame)
+    {
+        pool.release(frame);
+    }
+
+    @Override
+    public ClientSocket pollAccepted()
+    {
+        return accepted.poll();
+    }
+
+    @Override
+    public ClientSocket pollClosed()
+    {
+        return closed.poll();
+    }
+
+    @Override
+    public void close()
+    {
+        if (thread.getState() == Thread.State.NEW && selector.isOpen())
+        {
+            closeAll();
+        }
+        else if (running)
+        {
+            running = false;
+            selector.wakeup();
+            try
+            {
+                thread.join(JOIN_TIMEOUT);
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                Verbose.exception(exception);
+            }
+        }
+    }
+
+    /*
+     * Runnable
+     */
+
+    @Override
+    public void run()
+    {
+        while (running)
+        {
+            try
+            {
+                selector.select();
+                register();
+                flush();
+
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                    {
+                        continue;
+                    }
+                    if (key.isAcceptable())
+                    {
+                        accept();
+                    }
+                    else
+                    {
+                        update(key);
+                    }
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Error on network transport");
+            }
+        }
+        flush();
+        closeAll();
+    }
+}
@@ -19,7 +19,9 @@ package com.b3dgs.lionengine.network;
 
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
 import com.b3dgs.lionengine.network.purview.Networkable;
 
 /**
@@ -33,14 +35,30 @@ public interface NetworkedWorld extends ClientListener
     void disconnect();
 
     /**
-     * Add a networkable entity to the world.
+     * Add a networkable entity to the world, receiving all messages.
      * 
      * @param networkable The networkable entity.
      */
     void addNetworkable(Networkable networkable);
 
     /**
-     * Remove a networkable entity to the world.
+     * Add a networkable entity to the world, receiving only the entity messages with the specified entity id.
+     * 
+     * @param networkable The networkable entity.
+     * @param entityId The entity id to receive (see {@link NetworkMessageEntity#getEntityId()}).
+     */
+    void addNetworkableEntity(Networkable networkable, short entityId);
+
+    /**
+     * Add a networkable entity to the world, receiving only the messages of the specified type.
+     * 
+     * @param networkable The networkable entity.
+     * @param type The message type to receive (see {@link NetworkMessage#getType()}).
+     */
+    void addNetworkableType(Networkable networkable, byte type);
+
+    /**
+     * Remove a networkable entity to the world, with all its subscriptions.
      * 
      * @param networkable The networkable entity.
      */
@@ -76,4 +94,34 @@ public interface NetworkedWorld extends ClientListener
      * @return The number of bytes sent per second.
      */
     int getBandwidth();
+
+    /**
+     * Get a snapshot of the network metrics. Can be exported with {@link NetworkMetricsExporter}.
+     * 
+     * @return The metrics snapshot.
+     */
+    NetworkMetrics getMetrics();
+
+    /**
+     * Enable compression of messages data. Client and server must use the same settings.
+     * 
+     * @param threshold The minimum data size to compress, smaller ones are sent as is (positive).
+     * @param dictionary The preset dictionary, from {@link CompressionDictionary} (<code>null</code> if none).
+     * @throws LionEngineException If invalid arguments.
+     */
+    void setCompression(int threshold, byte[] dictionary);
+
+    /**
+     * Get the compression ratio of sent messages data.
+     * 
+     * @return The sent size on original size (1 if not compressed).
+     */
+    double getCompressionRatio();
+
+    /**
+     * Get the time spent in compression and decompression.
+     * 
+     * @return The elapsed time in nano.
+     */
+    long getCompressionTime();
 }
@@ -18,6 +18,7 @@
 package com.b3dgs.lionengine.network;
 
 import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.network.prediction.PredictionClient;
 
 /**
  * Networkable world interface client side.
@@ -33,6 +34,14 @@ public interface NetworkedWorldClient extends NetworkedWorld, ConnectionListener
      */
     void connect(String ip, int port);
 
+    /**
+     * Add the client prediction, receiving the state messages, and sending inputs with the client id.
+     * 
+     * @param prediction The client prediction.
+     * @param typeState The state message type.
+     */
+    void addPrediction(PredictionClient prediction, byte typeState);
+
     /**
      * Set the client new name.
      * 
@@ -59,5 +68,5 @@ public interface NetworkedWorldClient extends NetworkedWorld, ConnectionListener
      * 
      * @return The network id.
      */
-    byte getId();
+    int getId();
 }
@@ -19,27 +19,63 @@ package com.b3dgs.lionengine.network;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 
 import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
 import com.b3dgs.lionengine.network.purview.Networkable;
 
 /**
  * Networked world base implementation.
+ * <p>
+ * Received messages are dispatched with an index by entity id and by message type, so each message is only applied to
+ * its subscribers, and to the networkables receiving all messages. A networkable subscribed more than once receives
+ * each message only once.
+ * </p>
  * 
  * @param <L> Listener type.
  * @param <N> Network implementation.
  */
 abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkModel<L>> implements NetworkedWorld
 {
+    /**
+     * Remove networkable from indexed subscribers.
+     * 
+     * @param index The subscribers index.
+     * @param networkable The networkable to remove.
+     */
+    private static void remove(Map<Integer, Collection<Networkable>> index, Networkable networkable)
+    {
+        final Iterator<Collection<Networkable>> iterator = index.values().iterator();
+        while (iterator.hasNext())
+        {
+            final Collection<Networkable> subscribers = iterator.next();
+            if (subscribers.remove(networkable) && subscribers.isEmpty())
+            {
+                iterator.remove();
+            }
+        }
+    }
+
     /** List of networkable objects. */
     protected final Collection<Networkable> networkables;
-    /** List of networkable objects. */
-    protected final Collection<Networkable> toAdd;
     /** The client connection listener. */
     protected final Collection<L> listeners;
     /** The network. */
     protected final N network;
+    /** List of networkable objects to add. */
+    private final Collection<Subscription> toAdd;
+    /** Networkable objects receiving all messages. */
+    private final Collection<Networkable> broadcast;
+    /** Networkable objects by entity id. */
+    private final Map<Integer, Collection<Networkable>> entities;
+    /** Networkable objects by message type. */
+    private final Map<Integer, Collection<Networkable>> types;
+    /** Indexed networkable objects already served with current message. */
+    private final Collection<Networkable> served;
     /** Will add. */
     private boolean willAdd;
 
@@ -54,6 +90,10 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         networkables = new HashSet<>(1);
         toAdd = new ArrayList<>(1);
         listeners = new ArrayList<>(1);
+        broadcast = new HashSet<>(1);
+        entities = new HashMap<>();
+        types = new HashMap<>();
+        served = new HashSet<>();
         willAdd = false;
     }
 
@@ -77,6 +117,26 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         listeners.remove(listener);
     }
 
+    /**
+     * Apply message to indexed subscribers, except those receiving all messages or already served.
+     * 
+     * @param subscribers The subscribers (can be <code>null</code>).
+     * @param message The message to apply.
+     */
+    private void dispatch(Collection<Networkable> subscribers, NetworkMessage message)
+    {
+        if (subscribers != null)
+        {
+            for (final Networkable networkable : subscribers)
+            {
+                if (!broadcast.contains(networkable) && served.add(networkable))
+                {
+                    networkable.applyMessage(message);
+                }
+            }
+        }
+    }
+
     /*
      * NetworkedWorld
      */
@@ -95,7 +155,21 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     @Override
     public void addNetworkable(Networkable networkable)
     {
-        toAdd.add(networkable);
+        toAdd.add(new Subscription(networkable, null, 0));
+        willAdd = true;
+    }
+
+    @Override
+    public void addNetworkableEntity(Networkable networkable, short entityId)
+    {
+        toAdd.add(new Subscription(networkable, entities, entityId));
+        willAdd = true;
+    }
+
+    @Override
+    public void addNetworkableType(Networkable networkable, byte type)
+    {
+        toAdd.add(new Subscription(networkable, types, type));
         willAdd = true;
     }
 
@@ -103,6 +177,9 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     public void removeNetworkable(Networkable networkable)
     {
         networkables.remove(networkable);
+        broadcast.remove(networkable);
+        remove(entities, networkable);
+        remove(types, networkable);
     }
 
     @Override
@@ -133,9 +210,9 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     {
         if (willAdd)
         {
-            for (final Networkable networkable : toAdd)
+            for (final Subscription subscription : toAdd)
             {
-                networkables.add(networkable);
+                subscription.apply();
             }
             toAdd.clear();
             willAdd = false;
@@ -143,10 +220,23 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         network.receiveMessages();
         for (final NetworkMessage message : network.getMessages())
         {
-            for (final Networkable networkable : networkables)
+            for (final Networkable networkable : broadcast)
             {
                 networkable.applyMessage(message);
             }
+            if (!types.isEmpty())
+            {
+                dispatch(types.get(Integer.valueOf(message.getType())), message);
+            }
+            if (!entities.isEmpty() && message instanceof NetworkMessageEntity)
+            {
+                final short entityId = ((NetworkMessageEntity<?>) message).getEntityId();
+                if (entityId > -1)
+                {
+                    dispatch(entities.get(Integer.valueOf(entityId)), message);
+                }
+            }
+            served.clear();
         }
     }
 
@@ -157,20 +247,94 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     }
 
     @Override
-    public void notifyClientConnected(Byte id, String name)
+    public NetworkMetrics getMetrics()
+    {
+        return network.getMetrics();
+    }
+
+    @Override
+    public void setCompression(int threshold, byte[] dictionary)
+    {
+        network.setCompression(threshold, dictionary);
+    }
+
+    @Override
+    public double getCompressionRatio()
+    {
+        return network.getCompressionRatio();
+    }
+
+    @Override
+    public long getCompressionTime()
+    {
+        return network.getCompressionTime();
+    }
+
+    @Override
+    public void notifyClientConnected(Integer id, String name)
     {
         // Nothing to do
     }
 
     @Override
-    public void notifyClientDisconnected(Byte id, String name)
+    public void notifyClientDisconnected(Integer id, String name)
     {
         // Nothing to do
     }
 
     @Override
-    public void notifyClientNameChanged(Byte id, String name)
+    public void notifyClientNameChanged(Integer id, String name)
     {
         // Nothing to do
     }
+
+    /**
+     * Pending networkable subscription.
+     */
+    private final class Subscription
+    {
+        /** Networkable reference. */
+        private final Networkable networkable;
+        /** Subscribers index (<code>null</code> for all messages). */
+        private final Map<Integer, Collection<Networkable>> index;
+        /** Subscription key. */
+        private final int key;
+
+        /**
+         * Create subscription.
+         * 
+         * @param networkable The networkable reference.
+         * @param index The subscribers index (<code>null</code> for all messages).
+         * @param key The subscription key.
+         */
+        Subscription(Networkable networkable, Map<Integer, Collection<Networkable>> index, int key)
+        {
+            super();
+
+            this.networkable = networkable;
+            this.index = index;
+            this.key = key;
+        }
+
+        /**
+         * Register subscription.
+         */
+        void apply()
+        {
+            networkables.add(networkable);
+            if (index == null)
+            {
+                broadcast.add(networkable);
+            }
+            else
+            {
+                final Collection<Networkable> subscribers = index.computeIfAbsent(Integer.valueOf(key),
+                                                                                  k -> new ArrayList<>(1));
+                if (!subscribers.contains(networkable))
+                {
+                    subscribers.add(networkable);
+                }
+            }
+        }
+    }
 }
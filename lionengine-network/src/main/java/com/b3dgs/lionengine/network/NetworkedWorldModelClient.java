@@ -17,7 +17,11 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.prediction.PredictionClient;
 
 /**
  * Networkable world implementation client side.
@@ -25,6 +29,9 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionListener, ClientImpl>
                                        implements NetworkedWorldClient
 {
+    /** Client predictions. */
+    private final Collection<PredictionClient> predictions = new ArrayList<>();
+
     /**
      * Constructor.
      * 
@@ -35,6 +42,17 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
         super(new ClientImpl(decoder));
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param protocol The transport protocol.
+     */
+    public NetworkedWorldModelClient(NetworkMessageDecoder decoder, NetworkProtocol protocol)
+    {
+        super(new ClientImpl(decoder, protocol));
+    }
+
     /*
      * NetworkedWorld
      */
@@ -50,6 +68,14 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
         network.addListener(this);
     }
 
+    @Override
+    public void addPrediction(PredictionClient prediction, byte typeState)
+    {
+        predictions.add(prediction);
+        prediction.setClientId(Integer.valueOf(network.getId()));
+        addNetworkableType(prediction, typeState);
+    }
+
     @Override
     public void disconnect()
     {
@@ -76,7 +102,7 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
     }
 
     @Override
-    public byte getId()
+    public int getId()
     {
         return network.getId();
     }
@@ -86,9 +112,12 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
      */
 
     @Override
-    public void notifyConnectionEstablished(Byte id, String name)
+    public void notifyConnectionEstablished(Integer id, String name)
     {
-        // Nothing to do
+        for (final PredictionClient prediction : predictions)
+        {
+            prediction.setClientId(id);
+        }
     }
 
     @Override
@@ -98,7 +127,7 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
     }
 
     @Override
-    public void notifyConnectionTerminated(Byte id)
+    public void notifyConnectionTerminated(Integer id)
     {
         // Nothing to do
     }
@@ -25,6 +25,9 @@ import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListener, ServerImpl>
                                        implements NetworkedWorldServer
 {
+    /** Interest management (<code>null</code> if none). */
+    private InterestManager interest;
+
     /**
      * Constructor.
      * 
@@ -35,6 +38,17 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
         super(new ServerImpl(decoder));
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param protocol The transport protocol.
+     */
+    public NetworkedWorldModelServer(NetworkMessageDecoder decoder, NetworkProtocol protocol)
+    {
+        super(new ServerImpl(decoder, protocol));
+    }
+
     /*
      * NetworkedWorld
      */
@@ -51,6 +65,39 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
         network.start(name, port);
     }
 
+    @Override
+    public void setMaxBatchSize(int size)
+    {
+        network.setMaxBatchSize(size);
+    }
+
+    @Override
+    public void setInterest(InterestManager interest)
+    {
+        this.interest = interest;
+        network.setFilter(interest);
+    }
+
+    @Override
+    public void sendMessages()
+    {
+        if (interest != null)
+        {
+            interest.update();
+        }
+        super.sendMessages();
+    }
+
+    @Override
+    public void notifyClientDisconnected(Integer id, String name)
+    {
+        super.notifyClientDisconnected(id, name);
+        if (interest != null)
+        {
+            interest.removeArea(id);
+        }
+    }
+
     @Override
     public void disconnect()
     {
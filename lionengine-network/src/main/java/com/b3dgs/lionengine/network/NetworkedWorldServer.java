@@ -33,4 +33,20 @@ public interface NetworkedWorldServer extends NetworkedWorld
      * @throws LionEngineException If unable to start server.
      */
     void startServer(String name, int port, String messageOfTheDay);
+
+    /**
+     * Set the maximum size of the per client batch, where all messages of a tick are coalesced.
+     * 
+     * @param size The maximum batch size in bytes (strictly positive).
+     * @throws LionEngineException If invalid size.
+     */
+    void setMaxBatchSize(int size);
+
+    /**
+     * Set the interest management, filtering the clients receiving the entity messages sent to all clients. It is
+     * updated before each send.
+     * 
+     * @param interest The interest management (<code>null</code> to send to all clients).
+     */
+    void setInterest(InterestManager interest);
 }
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.network;
 
 import java.util.Collection;
 
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 
 /**
@@ -84,4 +85,34 @@ interface Networker<L extends ClientListener>
      * @return The number of bytes sent per second.
      */
     int getBandwidth();
+
+    /**
+     * Get a snapshot of the network metrics. Can be exported with {@link NetworkMetricsExporter}.
+     * 
+     * @return The metrics snapshot.
+     */
+    NetworkMetrics getMetrics();
+
+    /**
+     * Enable compression of messages data. Client and server must use the same settings.
+     * 
+     * @param threshold The minimum data size to compress, smaller ones are sent as is (positive).
+     * @param dictionary The preset dictionary, from {@link CompressionDictionary} (<code>null</code> if none).
+     * @throws LionEngineException If invalid arguments.
+     */
+    void setCompression(int threshold, byte[] dictionary);
+
+    /**
+     * Get the compression ratio of sent messages data.
+     * 
+     * @return The sent size on original size (1 if not compressed).
+     */
+    double getCompressionRatio();
+
+    /**
+     * Get the time spent in compression and decompression.
+     * 
+     * @return The elapsed time in nano.
+     */
+    long getCompressionTime();
 }
@@ -0,0 +1,673 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.network.message.NetworkChannel;
+
+/**
+ * Reliability layer of a datagram connection, independent of any socket and clock.
+ * <p>
+ * Each packet has a sequence number and acknowledges the last received one, with a bit field for the
+ * {@value #ACK_BITS} previous ones (selective acknowledge). Reliable packets not acknowledged are retransmitted on time
+ * out (estimated from round trip time), or when three later packets are acknowledged. Reliable sending is paced over
+ * the round trip time, and limited by a congestion window, increased on acknowledge and halved on loss.
+ * </p>
+ * <p>
+ * Frames sent on {@link NetworkChannel#RELIABLE_ORDERED} are a byte stream split in packets. Frames sent on other
+ * channels are packed in packets, except if larger than a packet, where they are sent on the ordered stream.
+ * </p>
+ */
+final class ReliableEndpoint
+{
+    /** Packet size. */
+    static final int PACKET_SIZE = 1200;
+    /** Acknowledge only packet. */
+    static final int KIND_ACK = 0;
+    /** Connection request packet. */
+    static final int KIND_CONNECT = 1;
+    /** Disconnection packet. */
+    static final int KIND_DISCONNECT = 2;
+    /** First channel packet. */
+    private static final int KIND_CHANNEL = 3;
+    /** Packet header size (kind, sequence, acknowledge, acknowledge bits, channel sequence). */
+    private static final int PACKET_HEADER = Byte.BYTES + Integer.BYTES * 4;
+    /** Packet payload size. */
+    private static final int PAYLOAD = PACKET_SIZE - PACKET_HEADER;
+    /** Acknowledge bits. */
+    private static final int ACK_BITS = Integer.SIZE;
+    /** Sent packets window. */
+    private static final int WINDOW = 1024;
+    /** Later acknowledged packets before retransmission. */
+    private static final int FAST_RETRANSMIT = 3;
+    /** Nano per milli. */
+    private static final long MILLI = 1_000_000L;
+    /** Minimum retransmission time out. */
+    private static final long MIN_RTO = 30L * MILLI;
+    /** Maximum retransmission time out. */
+    private static final long MAX_RTO = 2000L * MILLI;
+    /** Initial retransmission time out. */
+    private static final long INITIAL_RTO = 200L * MILLI;
+    /** Minimum congestion window. */
+    private static final double MIN_CWND = 2.0;
+    /** Initial congestion window. */
+    private static final double INITIAL_CWND = 16.0;
+    /** Maximum congestion window. */
+    private static final double MAX_CWND = WINDOW / 2.0;
+    /** Packets sent in a burst when late. */
+    private static final int BURST = 4;
+    /** Ordered channel index. */
+    private static final int ORDERED = NetworkChannel.RELIABLE_ORDERED.ordinal();
+    /** Unordered channel index. */
+    private static final int UNORDERED = NetworkChannel.RELIABLE_UNORDERED.ordinal();
+    /** Unreliable channel index. */
+    private static final int UNRELIABLE = NetworkChannel.UNRELIABLE_SEQUENCED.ordinal();
+
+    /**
+     * Get the packet kind.
+     * 
+     * @param packet The packet data.
+     * @return The packet kind.
+     */
+    static int getKind(ByteBuffer packet)
+    {
+        return packet.get(packet.position());
+    }
+
+    /** Reliable chunks to send. */
+    private final Deque<Chunk> reliable = new ArrayDeque<>();
+    /** Unreliable chunks to send. */
+    private final Deque<Chunk> unreliable = new ArrayDeque<>();
+    /** Sent reliable packets sequence. */
+    private final int[] sentSeq = new int[WINDOW];
+    /** Sent reliable packets chunk (<code>null</code> if acknowledged). */
+    private final Chunk[] sentChunk = new Chunk[WINDOW];
+    /** Sent reliable packets time. */
+    private final long[] sentTime = new long[WINDOW];
+    /** Next sequence by channel. */
+    private final int[] channelSeq = new int[NetworkChannel.values().length];
+    /** Ordered chunks received in advance. */
+    private final Map<Integer, byte[]> orderedPending = new HashMap<>();
+    /** Unordered chunks received after base. */
+    private final Set<Integer> unorderedReceived = new HashSet<>();
+    /** Packet buffer. */
+    private final ByteBuffer packet = ByteBuffer.allocate(PACKET_SIZE);
+    /** Listener reference. */
+    private final EndpointListener listener;
+    /** Ordered stream received. */
+    private ByteBuffer stream = ByteBuffer.allocate(PACKET_SIZE * 2);
+    /** Next packet sequence. */
+    private int localSeq;
+    /** Last received packet sequence. */
+    private int remoteSeq;
+    /** Received packets before last one. */
+    private int remoteBits;
+    /** Received flag. */
+    private boolean remoteReceived;
+    /** Acknowledge to send. */
+    private boolean ackPending;
+    /** Next ordered chunk. */
+    private int orderedNext;
+    /** Unordered chunks received below. */
+    private int unorderedBase;
+    /** Last unreliable chunk. */
+    private int unreliableLast = -1;
+    /** Reliable packets not acknowledged. */
+    private int inFlight;
+    /** Congestion window in packets. */
+    private double cwnd = INITIAL_CWND;
+    /** Smoothed round trip time in nano (0 if no sample). */
+    private long srtt;
+    /** Round trip time variation in nano. */
+    private long rttvar;
+    /** Retransmission time out in nano. */
+    private long rto = INITIAL_RTO;
+    /** Next reliable send time. */
+    private long nextSend;
+    /** Window is not reduced again before this time. */
+    private long recovery;
+    /** Lost packets. */
+    private int lost;
+
+    /**
+     * Create endpoint.
+     * 
+     * @param listener The listener reference.
+     */
+    ReliableEndpoint(EndpointListener listener)
+    {
+        super();
+
+        this.listener = listener;
+    }
+
+    /**
+     * Queue frames to send.
+     * 
+     * @param channel The delivery channel.
+     * @param frames The complete frames (with their length header), from position to limit.
+     */
+    void send(NetworkChannel channel, ByteBuffer frames)
+    {
+        final int index = channel.ordinal();
+        if (index == ORDERED)
+        {
+            queueStream(frames);
+            return;
+        }
+        final int limit = frames.limit();
+        while (frames.remaining() >= ClientSocket.HEADER)
+        {
+            final int end = frames.position() + ClientSocket.HEADER + frames.getInt(frames.position());
+            frames.limit(end);
+            if (end - frames.position() > PAYLOAD)
+            {
+                queueStream(frames);
+            }
+            else
+            {
+                queuePacked(index, frames);
+            }
+            frames.limit(limit);
+            frames.position(end);
+        }
+    }
+
+    /**
+     * Send the due packets: retransmissions, unreliable chunks, paced reliable chunks and acknowledge.
+     * 
+     * @param now The current time in nano.
+     */
+    void update(long now)
+    {
+        for (int i = 0; inFlight > 0 && i < WINDOW; i++)
+        {
+            if (sentChunk[i] != null && now - sentTime[i] > rto)
+            {
+                lose(i, now);
+                rto = Math.min(MAX_RTO, rto * 2);
+            }
+        }
+        while (!unreliable.isEmpty())
+        {
+            emit(unreliable.poll(), now, false);
+        }
+        final long interval = srtt == 0L ? 0L : (long) (srtt / cwnd);
+        nextSend = Math.max(nextSend, now - interval * BURST);
+        while (!reliable.isEmpty() && inFlight < cwnd && nextSend <= now)
+        {
+            emit(reliable.poll(), now, true);
+            nextSend += interval;
+        }
+        if (ackPending)
+        {
+            sendControl(KIND_ACK);
+        }
+    }
+
+    /**
+     * Send all queued chunks, ignoring pacing and congestion window.
+     * 
+     * @param now The current time in nano.
+     */
+    void flush(long now)
+    {
+        while (!unreliable.isEmpty())
+        {
+            emit(unreliable.poll(), now, false);
+        }
+        while (!reliable.isEmpty())
+        {
+            emit(reliable.poll(), now, true);
+        }
+    }
+
+    /**
+     * Send a control packet, without payload.
+     * 
+     * @param kind The packet kind ({@link #KIND_ACK}, {@link #KIND_CONNECT} or {@link #KIND_DISCONNECT}).
+     */
+    void sendControl(int kind)
+    {
+        writeHeader(kind, 0);
+        packet.flip();
+        listener.notifyPacket(packet);
+    }
+
+    /**
+     * Receive a packet from the remote endpoint.
+     * 
+     * @param data The packet data, from position to limit.
+     * @param now The current time in nano.
+     * @return The packet kind, negative if invalid.
+     */
+    int receive(ByteBuffer data, long now)
+    {
+        if (data.remaining() < PACKET_HEADER)
+        {
+            return -1;
+        }
+        final int kind = data.get();
+        final int seq = data.getInt();
+        final int ack = data.getInt();
+        final int ackBits = data.getInt();
+        final int chunkSeq = data.getInt();
+
+        acknowledge(ack, ackBits, now);
+        received(seq);
+
+        final int channel = kind - KIND_CHANNEL;
+        if (channel >= channelSeq.length)
+        {
+            return -1;
+        }
+        if (channel == ORDERED)
+        {
+            ackPending = true;
+            receiveOrdered(chunkSeq, data);
+        }
+        else if (channel == UNORDERED)
+        {
+            ackPending = true;
+            if (chunkSeq >= unorderedBase && unorderedReceived.add(Integer.valueOf(chunkSeq)))
+            {
+                receiveFrames(data);
+                while (unorderedReceived.remove(Integer.valueOf(unorderedBase)))
+                {
+                    unorderedBase++;
+                }
+            }
+        }
+        else if (channel == UNRELIABLE && chunkSeq > unreliableLast)
+        {
+            unreliableLast = chunkSeq;
+            receiveFrames(data);
+        }
+        return kind;
+    }
+
+    /**
+     * Check if all reliable data have been acknowledged.
+     * 
+     * @return <code>true</code> if nothing to send, <code>false</code> else.
+     */
+    boolean isIdle()
+    {
+        return reliable.isEmpty() && unreliable.isEmpty() && inFlight == 0;
+    }
+
+    /**
+     * Get the smoothed round trip time.
+     * 
+     * @return The round trip time in milli (0 if unknown).
+     */
+    double getRtt()
+    {
+        return srtt / (double) MILLI;
+    }
+
+    /**
+     * Get the congestion window.
+     * 
+     * @return The congestion window in packets.
+     */
+    double getWindow()
+    {
+        return cwnd;
+    }
+
+    /**
+     * Get the number of lost packets.
+     * 
+     * @return The number of lost packets, retransmitted.
+     */
+    int getLost()
+    {
+        return lost;
+    }
+
+    /**
+     * Queue ordered stream data, appended to the last queued ordered chunk if possible (never to a sent chunk, as
+     * its sequence may already be received).
+     * 
+     * @param data The data to queue.
+     */
+    private void queueStream(ByteBuffer data)
+    {
+        while (data.hasRemaining())
+        {
+            final Chunk last = reliable.peekLast();
+            final Chunk chunk;
+            if (last != null && !last.sent && last.kind == KIND_CHANNEL + ORDERED && last.length < PAYLOAD)
+            {
+                chunk = last;
+            }
+            else
+            {
+                chunk = new Chunk(KIND_CHANNEL + ORDERED, channelSeq[ORDERED]++);
+                reliable.add(chunk);
+            }
+            final int length = Math.min(PAYLOAD - chunk.length, data.remaining());
+            data.get(chunk.data, chunk.length, length);
+            chunk.length += length;
+        }
+    }
+
+    /**
+     * Queue a complete frame, appended to the last queued chunk of the same channel if possible (never to a sent
+     * chunk, as its sequence may already be received).
+     * 
+     * @param channel The channel index.
+     * @param frame The complete frame.
+     */
+    private void queuePacked(int channel, ByteBuffer frame)
+    {
+        final Deque<Chunk> queue = channel == UNRELIABLE ? unreliable : reliable;
+        final int kind = KIND_CHANNEL + channel;
+        final Chunk last = queue.peekLast();
+        final Chunk chunk;
+        if (last != null && !last.sent && last.kind == kind && last.length + frame.remaining() <= PAYLOAD)
+        {
+            chunk = last;
+        }
+        else
+        {
+            chunk = new Chunk(kind, channelSeq[channel]++);
+            queue.add(chunk);
+        }
+        final int length = frame.remaining();
+        frame.get(chunk.data, chunk.length, length);
+        chunk.length += length;
+    }
+
+    /**
+     * Write packet header.
+     * 
+     * @param kind The packet kind.
+     * @param chunkSeq The chunk sequence.
+     */
+    private void writeHeader(int kind, int chunkSeq)
+    {
+        packet.clear();
+        packet.put((byte) kind);
+        packet.putInt(localSeq);
+        packet.putInt(remoteReceived ? remoteSeq : -1);
+        packet.putInt(remoteBits);
+        packet.putInt(chunkSeq);
+        localSeq++;
+        ackPending = false;
+    }
+
+    /**
+     * Send a chunk packet.
+     * 
+     * @param chunk The chunk to send.
+     * @param now The current time in nano.
+     * @param tracked <code>true</code> to retransmit until acknowledged, <code>false</code> else.
+     */
+    private void emit(Chunk chunk, long now, boolean tracked)
+    {
+        final int seq = localSeq;
+        if (tracked)
+        {
+            final int slot = seq & WINDOW - 1;
+            if (sentChunk[slot] != null)
+            {
+                lose(slot, now);
+            }
+            sentSeq[slot] = seq;
+            sentChunk[slot] = chunk;
+            sentTime[slot] = now;
+            inFlight++;
+        }
+        chunk.sent = true;
+        writeHeader(chunk.kind, chunk.seq);
+        packet.put(chunk.data, 0, chunk.length);
+        packet.flip();
+        listener.notifyPacket(packet);
+    }
+
+    /**
+     * Consider sent packet as lost, and queue its chunk for retransmission.
+     * 
+     * @param slot The sent packet slot.
+     * @param now The current time in nano.
+     */
+    private void lose(int slot, long now)
+    {
+        reliable.addFirst(sentChunk[slot]);
+        sentChunk[slot] = null;
+        inFlight--;
+        lost++;
+        if (now >= recovery)
+        {
+            cwnd = Math.max(MIN_CWND, cwnd / 2.0);
+            recovery = now + Math.max(srtt, MIN_RTO);
+        }
+    }
+
+    /**
+     * Process remote acknowledge.
+     * 
+     * @param ack The last received sequence by remote.
+     * @param ackBits The received bits before last.
+     * @param now The current time in nano.
+     */
+    private void acknowledge(int ack, int ackBits, long now)
+    {
+        acknowledged(ack, now);
+        for (int i = 0; i < ACK_BITS; i++)
+        {
+            if ((ackBits >>> i & 1) != 0)
+            {
+                acknowledged(ack - 1 - i, now);
+            }
+        }
+        for (int i = FAST_RETRANSMIT; i <= ACK_BITS; i++)
+        {
+            final int seq = ack - i;
+            final int slot = seq & WINDOW - 1;
+            if (sentChunk[slot] != null && sentSeq[slot] == seq)
+            {
+                lose(slot, now);
+            }
+        }
+    }
+
+    /**
+     * Process packet acknowledge.
+     * 
+     * @param seq The packet sequence.
+     * @param now The current time in nano.
+     */
+    private void acknowledged(int seq, long now)
+    {
+        final int slot = seq & WINDOW - 1;
+        if (sentChunk[slot] != null && sentSeq[slot] == seq)
+        {
+            sentChunk[slot] = null;
+            inFlight--;
+            cwnd = Math.min(MAX_CWND, cwnd + 1.0 / cwnd);
+
+            final long sample = Math.max(1L, now - sentTime[slot]);
+            if (srtt == 0L)
+            {
+                srtt = sample;
+                rttvar = sample / 2L;
+            }
+            else
+            {
+                rttvar = (3L * rttvar + Math.abs(srtt - sample)) / 4L;
+                srtt = (7L * srtt + sample) / 8L;
+            }
+            rto = Math.max(MIN_RTO, Math.min(MAX_RTO, srtt + 4L * rttvar));
+        }
+    }
+
+    /**
+     * Store received packet sequence for acknowledge.
+     * 
+     * @param seq The received sequence.
+     */
+    private void received(int seq)
+    {
+        if (!remoteReceived)
+        {
+            remoteSeq = seq;
+            remoteBits = 0;
+            remoteReceived = true;
+        }
+        else if (seq > remoteSeq)
+        {
+            final int shift = seq - remoteSeq;
+            if (shift > ACK_BITS)
+            {
+                remoteBits = 0;
+            }
+            else if (shift == ACK_BITS)
+            {
+                remoteBits = 1 << ACK_BITS - 1;
+            }
+            else
+            {
+                remoteBits = remoteBits << shift | 1 << shift - 1;
+            }
+            remoteSeq = seq;
+        }
+        else if (seq < remoteSeq && remoteSeq - seq <= ACK_BITS)
+        {
+            remoteBits |= 1 << remoteSeq - seq - 1;
+        }
+    }
+
+    /**
+     * Receive ordered chunk, and deliver the stream frames.
+     * 
+     * @param chunkSeq The chunk sequence.
+     * @param data The chunk data.
+     */
+    private void receiveOrdered(int chunkSeq, ByteBuffer data)
+    {
+        if (chunkSeq == orderedNext)
+        {
+            appendStream(data);
+            orderedNext++;
+            byte[] next = orderedPending.remove(Integer.valueOf(orderedNext));
+            while (next != null)
+            {
+                appendStream(ByteBuffer.wrap(next));
+                orderedNext++;
+                next = orderedPending.remove(Integer.valueOf(orderedNext));
+            }
+            stream.flip();
+            receiveFrames(stream);
+            stream.compact();
+        }
+        else if (chunkSeq > orderedNext && !orderedPending.containsKey(Integer.valueOf(chunkSeq)))
+        {
+            final byte[] copy = new byte[data.remaining()];
+            data.get(copy);
+            orderedPending.put(Integer.valueOf(chunkSeq), copy);
+        }
+    }
+
+    /**
+     * Append data to the ordered stream.
+     * 
+     * @param data The data to append.
+     */
+    private void appendStream(ByteBuffer data)
+    {
+        if (stream.remaining() < data.remaining())
+        {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(stream.capacity() * 2,
+                                                                  stream.position() + data.remaining()));
+            stream.flip();
+            grown.put(stream);
+            stream = grown;
+        }
+        stream.put(data);
+    }
+
+    /**
+     * Deliver the complete frames, and keep position on the first incomplete one.
+     * 
+     * @param data The frames data.
+     */
+    private void receiveFrames(ByteBuffer data)
+    {
+        final int limit = data.limit();
+        while (data.remaining() >= ClientSocket.HEADER)
+        {
+            final int length = data.getInt(data.position());
+            if (length < 0 || length > ClientSocket.MAX_FRAME)
+            {
+                data.position(limit);
+                break;
+            }
+            if (data.remaining() < ClientSocket.HEADER + length)
+            {
+                break;
+            }
+            final int end = data.position() + ClientSocket.HEADER + length;
+            data.position(data.position() + ClientSocket.HEADER);
+            data.limit(end);
+            listener.notifyFrame(data);
+            data.limit(limit);
+            data.position(end);
+        }
+    }
+
+    /**
+     * Packet payload to send.
+     */
+    private static final class Chunk
+    {
+        /** Packet kind. */
+        private final int kind;
+        /** Chunk sequence in its channel. */
+        private final int seq;
+        /** Chunk data. */
+        private final byte[] data = new byte[PAYLOAD];
+        /** Chunk data length. */
+        private int length;
+        /** Sent flag, chunk content cannot change once sent. */
+        private boolean sent;
+
+        /**
+         * Create chunk.
+         * 
+         * @param kind The packet kind.
+         * @param seq The chunk sequence in its channel.
+         */
+        Chunk(int kind, int seq)
+        {
+            super();
+
+            this.kind = kind;
+            this.seq = seq;
+        }
+    }
+}
@@ -31,11 +31,20 @@ interface Server extends Networker<ClientListener>
      */
     void setMessageOfTheDay(String message);
 
+    /**
+     * Set the maximum size of the per client batch, where all messages of a tick are coalesced. A message larger than
+     * this size is sent in its own batch.
+     * 
+     * @param size The maximum batch size in bytes (strictly positive).
+     * @throws LionEngineException If invalid size.
+     */
+    void setMaxBatchSize(int size);
+
     /**
      * Start the server and listen to client connection.
      * 
      * @param name The server name.
-     * @param port The port number.
+     * @param port The port number (0 for any available port, see {@link #getPort()}).
      * @throws LionEngineException If unable to start server.
      */
     void start(String name, int port);
@@ -45,7 +54,7 @@ interface Server extends Networker<ClientListener>
      * 
      * @param clientId The client id.
      */
-    void removeClient(Byte clientId);
+    void removeClient(Integer clientId);
 
     /**
      * Get the number of client.
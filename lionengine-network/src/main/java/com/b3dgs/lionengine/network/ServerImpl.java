@@ -17,50 +17,48 @@
  */
 package com.b3dgs.lionengine.network;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
 /**
  * Server implementation.
+ * <p>
+ * Clients are handled by a single non blocking {@link Transport}, so the number of clients is only limited by the id
+ * range (up to {@link #MAX_CLIENTS}). Messages are batched by their {@link NetworkChannel}.
+ * </p>
  */
 // CHECKSTYLE IGNORE LINE: ClassDataAbstractionCoupling
 final class ServerImpl extends NetworkModel<ClientListener> implements Server
 {
+    /** Maximum number of clients. */
+    static final int MAX_CLIENTS = Short.MAX_VALUE;
     /** Server name log. */
     private static final String SERVER = "Server: ";
-
-    /**
-     * Send the id and the name to the client.
-     * 
-     * @param client The client to send to.
-     * @param id The id to send.
-     * @param name The name to send.
-     * @throws IOException In case of error.
-     */
-    private static void writeIdAndName(ClientSocket client, int id, String name) throws IOException
-    {
-        // New client id
-        client.getOut().writeByte(id);
-        // New client name
-        final byte[] data = name.getBytes(NetworkMessage.CHARSET);
-        client.getOut().writeByte(data.length);
-        client.getOut().write(data);
-    }
+    /** User message frame header size. */
+    private static final int USER_HEADER = ClientSocket.HEADER
+                                           + Byte.BYTES
+                                           + Short.BYTES
+                                           + Short.BYTES
+                                           + Byte.BYTES
+                                           + Integer.BYTES;
+    /** Default fan out buffer size. */
+    private static final int DEFAULT_FANOUT_SIZE = 8192;
+    /** Default fan out frames number. */
+    private static final int DEFAULT_FANOUT_FRAMES = 64;
 
     /**
      * Check if the client is in a valid state.
@@ -70,21 +68,25 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @return <code>true</code> if valid, <code>false</code> else.
      */
-    private static boolean checkValidity(ClientSocket client, byte from, StateConnection expected)
+    private static boolean checkValidity(ClientSocket client, int from, StateConnection expected)
     {
         return from >= 0 && client.getState() == expected;
     }
 
     /** Client list. */
-    private final Map<Byte, ClientSocket> clients;
+    private final Map<Integer, ClientSocket> clients;
     /** Remove list. */
     private final Collection<ClientSocket> toRemove;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
-    /** Connection listener. */
-    private ClientConnecter clientConnectionListener;
-    /** Server socket. */
-    private ServerSocket serverSocket;
+    /** Ping request timer. */
+    private final Timing pingTimer;
+    /** Batches by channel. */
+    private final ByteBuffer[] batches = new ByteBuffer[NetworkChannel.values().length];
+    /** Transport protocol. */
+    private final NetworkProtocol protocol;
+    /** Network transport. */
+    private Transport transport;
     /** Current port. */
     private int port;
     /** Message of the day. */
@@ -94,13 +96,29 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     /** Started flag. */
     private boolean started;
     /** Last id. */
-    private byte lastId;
+    private int lastId;
     /** Will remove a client. */
     private boolean willRemove;
     /** Bandwidth size. */
     private int bandwidth;
     /** Bandwidth per second. */
     private int bandwidthPerSecond;
+    /** Encoded frames of the current tick, shared by all clients. */
+    private ByteBuffer fanout = ByteBuffer.allocate(DEFAULT_FANOUT_SIZE);
+    /** Encoded frames offset in fan out buffer (last is the end). */
+    private int[] fanoutOffsets = new int[DEFAULT_FANOUT_FRAMES + 1];
+    /** Encoded frames destination. */
+    private int[] fanoutDests = new int[DEFAULT_FANOUT_FRAMES];
+    /** Encoded frames channel. */
+    private NetworkChannel[] fanoutChannels = new NetworkChannel[DEFAULT_FANOUT_FRAMES];
+    /** Encoded frames message. */
+    private NetworkMessage[] fanoutMessages = new NetworkMessage[DEFAULT_FANOUT_FRAMES];
+    /** Encoded frames number. */
+    private int fanoutCount;
+    /** Maximum batch size in bytes. */
+    private int maxBatchSize = NetworkTransport.BUFFER_CAPACITY;
+    /** Filter of messages sent to all clients (<code>null</code> if none). */
+    private MessageFilter filter;
 
     /**
      * Internal constructor.
@@ -108,11 +126,24 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param decoder The message decoder.
      */
     ServerImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, NetworkProtocol.TCP);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param protocol The transport protocol.
+     */
+    ServerImpl(NetworkMessageDecoder decoder, NetworkProtocol protocol)
     {
         super(decoder);
+        this.protocol = protocol;
         clients = new HashMap<>(1);
         toRemove = new HashSet<>(1);
         bandwidthTimer = new Timing();
+        pingTimer = new Timing();
         willRemove = false;
         clientsNumber = 0;
         messageOfTheDay = null;
@@ -125,72 +156,131 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     /**
      * Add a client.
      * 
-     * @param socket The socket to add.
+     * @param client The client to add.
      */
-    void notifyNewClientConnected(Socket socket)
+    void notifyNewClientConnected(ClientSocket client)
     {
-        try
+        if (clientsNumber >= MAX_CLIENTS)
         {
-            int secure = 0;
-            while (clients.containsKey(Byte.valueOf(lastId)))
-            {
-                lastId++;
-                secure++;
-                final int max = 127;
-                if (secure > max)
-                {
-                    break;
-                }
-            }
-            // Prepare first data
-            final ClientSocket client = new ClientSocket(lastId, socket);
-            client.setState(StateConnection.CONNECTING);
-            client.getOut().writeByte(NetworkMessageSystemId.CONNECTING);
-            client.getOut().writeByte(client.getId());
-            client.getOut().flush();
-
-            // Update list
-            clients.put(Byte.valueOf(client.getId()), client);
-            clientsNumber++;
-        }
-        catch (final IOException exception)
-        {
-            errorNewClientConnected(exception);
+            Verbose.warning(Server.class, "addClient", "Error on adding client: server is full");
+            client.terminate();
+            return;
         }
-        catch (final LionEngineException exception)
+        while (clients.containsKey(Integer.valueOf(lastId)))
         {
-            errorNewClientConnected(exception);
+            lastId = (lastId + 1) % MAX_CLIENTS;
         }
+        client.setId(lastId);
+        client.setState(StateConnection.CONNECTING);
+
+        // Prepare first data
+        final ByteBuffer frame = transport.acquire(Byte.BYTES + Short.BYTES);
+        frame.put(NetworkMessageSystemId.CONNECTING);
+        frame.putShort((short) client.getId());
+        bandwidth += transport.send(client, frame);
+
+        // Update list
+        clients.put(Integer.valueOf(client.getId()), client);
+        clientsNumber++;
     }
 
     /**
      * Remove a client from the server.
      * 
      * @param client The client to remove.
+     * @param reason The disconnection reason.
      */
-    void removeClient(ClientSocket client)
+    void removeClient(ClientSocket client, DisconnectReason reason)
     {
-        if (client != null)
+        if (client != null && toRemove.add(client))
         {
-            toRemove.add(client);
             client.terminate();
             clientsNumber--;
             willRemove = true;
+            metrics.disconnected(reason);
+            metrics.removeRtt(client.getId());
             Verbose.info(SERVER, client.getName(), " disconnected");
         }
     }
 
     /**
-     * Error on new client connection.
+     * Send the other client id and name to the client.
      * 
-     * @param exception The associated exception.
+     * @param client The client to send to.
+     * @param messageSystemId The message system id.
+     * @param other The other client.
      */
-    private void errorNewClientConnected(Exception exception)
+    private void sendIdAndName(ClientSocket client, byte messageSystemId, ClientSocket other)
     {
-        Verbose.warning(Server.class, "addClient", "Error on adding client: ", exception.getMessage());
-        if (clients.remove(Byte.valueOf(lastId)) != null)
+        final int size = Byte.BYTES + Short.BYTES + NetworkTransport.getSize(other.getName());
+        final ByteBuffer frame = transport.acquire(size);
+        frame.put(messageSystemId);
+        frame.putShort((short) other.getId());
+        NetworkTransport.putString(frame, other.getName());
+        bandwidth += transport.send(client, frame);
+    }
+
+    /**
+     * Send a message system id without data.
+     * 
+     * @param client The client to send to.
+     * @param messageSystemId The message system id.
+     */
+    private void sendSystemId(ClientSocket client, byte messageSystemId)
+    {
+        final ByteBuffer frame = transport.acquire(Byte.BYTES);
+        frame.put(messageSystemId);
+        bandwidth += transport.send(client, frame);
+    }
+
+    /**
+     * Send a ping request or answer.
+     * 
+     * @param client The client to send to.
+     * @param kind The ping kind.
+     */
+    private void sendPing(ClientSocket client, byte kind)
+    {
+        final ByteBuffer frame = transport.acquire(Byte.BYTES + Byte.BYTES);
+        frame.put(NetworkMessageSystemId.PING);
+        frame.put(kind);
+        bandwidth += transport.send(client, frame);
+    }
+
+    /**
+     * Answer client ping request, or measure client round trip time on answer.
+     * 
+     * @param client The current client.
+     * @param frame The data frame.
+     */
+    private void receivePing(ClientSocket client, ByteBuffer frame)
+    {
+        if (!frame.hasRemaining() || frame.get() == NetworkMessageSystemId.PING_REQUEST)
         {
-            clientsNumber--;
+            sendPing(client, NetworkMessageSystemId.PING_ANSWER);
+        }
+        else if (client.getPingTime() > 0L)
+        {
+            final long nanoMilli = 1_000_000L;
+            metrics.setRtt(client.getId(), (int) ((System.nanoTime() - client.getPingTime()) / nanoMilli));
+            client.setPingTime(0L);
+        }
+    }
+
+    /**
+     * Notify other connected clients about a client.
+     * 
+     * @param client The client source.
+     * @param messageSystemId The message system id.
+     */
+    private void notifyOthers(ClientSocket client, byte messageSystemId)
+    {
+        for (final ClientSocket other : clients.values())
+        {
+            if (other.getId() != client.getId() && other.getState() == StateConnection.CONNECTED)
+            {
+                sendIdAndName(other, messageSystemId, client);
+            }
         }
     }
 
@@ -198,47 +288,55 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * Update the receive connecting state.
      * 
      * @param client The current client.
-     * @param buffer The data buffer.
+     * @param frame The data frame.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveConnecting(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
-            throws IOException
+    private void receiveConnecting(ClientSocket client, ByteBuffer frame, int from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
             // Receive the name
-            final byte[] name = new byte[buffer.readByte()];
-            if (buffer.read(name) == -1)
-            {
-                throw new IOException("Unable to read client name !");
-            }
-            client.setName(new String(name, NetworkMessage.CHARSET));
+            client.setName(NetworkTransport.getString(frame));
 
             // Send new state
             client.setState(StateConnection.CONNECTED);
-            client.getOut().writeByte(NetworkMessageSystemId.CONNECTED);
-            client.getOut().writeByte(client.getId());
-            client.getOut().writeByte(clientsNumber - 1);
+
+            int size = Byte.BYTES + Short.BYTES + Short.BYTES;
+            int others = 0;
+            for (final ClientSocket other : clients.values())
+            {
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
+                {
+                    size += Short.BYTES + NetworkTransport.getSize(other.getName());
+                    others++;
+                }
+            }
+            if (messageOfTheDay != null)
+            {
+                size += NetworkTransport.getSize(messageOfTheDay);
+            }
+
+            final ByteBuffer answer = transport.acquire(size);
+            answer.put(NetworkMessageSystemId.CONNECTED);
+            answer.putShort((short) client.getId());
+            answer.putShort((short) others);
 
             // Send the list of other clients
             for (final ClientSocket other : clients.values())
             {
-                if (other.getId() != from)
+                if (other.getId() != from && other.getState() == StateConnection.CONNECTED)
                 {
-                    ServerImpl.writeIdAndName(client, other.getId(), other.getName());
+                    answer.putShort((short) other.getId());
+                    NetworkTransport.putString(answer, other.getName());
                 }
             }
             // Send message of the day if has
             if (messageOfTheDay != null)
             {
-                final byte[] motd = messageOfTheDay.getBytes(NetworkMessage.CHARSET);
-                client.getOut().writeByte(motd.length);
-                client.getOut().write(motd);
+                NetworkTransport.putString(answer, messageOfTheDay);
             }
-            // Send
-            client.getOut().flush();
+            bandwidth += transport.send(client, answer);
         }
     }
 
@@ -248,9 +346,8 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param client The current client.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveConnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveConnected(ClientSocket client, int from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
@@ -258,21 +355,9 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             Verbose.info(SERVER, client.getName(), " connected");
             for (final ClientListener listener : listeners)
             {
-                listener.notifyClientConnected(Byte.valueOf(client.getId()), client.getName());
-            }
-
-            // Notify other clients
-            for (final ClientSocket other : clients.values())
-            {
-                if (other.getId() == from)
-                {
-                    continue;
-                }
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_CONNECTED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                // Send
-                other.getOut().flush();
+                listener.notifyClientConnected(Integer.valueOf(client.getId()), client.getName());
             }
+            notifyOthers(client, NetworkMessageSystemId.OTHER_CLIENT_CONNECTED);
         }
     }
 
@@ -282,68 +367,57 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param client The current client.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveDisconnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveDisconnected(ClientSocket client, int from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
-            // Notify other clients
-            client.setState(StateConnection.DISCONNECTED);
-            for (final ClientListener listener : listeners)
-            {
-                listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
-            }
-            for (final ClientSocket other : clients.values())
-            {
-                if (other.getId() == from || other.getState() != StateConnection.CONNECTED)
-                {
-                    continue;
-                }
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                // Send
-                other.getOut().flush();
-            }
-            removeClient(Byte.valueOf(from));
+            disconnected(client, DisconnectReason.LEFT);
         }
     }
 
+    /**
+     * Notify client disconnection and remove it.
+     * 
+     * @param client The disconnected client.
+     * @param reason The disconnection reason.
+     */
+    private void disconnected(ClientSocket client, DisconnectReason reason)
+    {
+        client.setState(StateConnection.DISCONNECTED);
+        for (final ClientListener listener : listeners)
+        {
+            listener.notifyClientDisconnected(Integer.valueOf(client.getId()), client.getName());
+        }
+        notifyOthers(client, NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+        removeClient(client, reason);
+    }
+
     /**
      * Update the receive renamed state.
      * 
      * @param client The current client.
-     * @param buffer The data buffer.
+     * @param frame The data frame.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveRenamed(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
-            throws IOException
+    private void receiveRenamed(ClientSocket client, ByteBuffer frame, int from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
-            // Receive the name
-            final byte[] name = new byte[buffer.readByte()];
-            if (buffer.read(name) == -1)
-            {
-                throw new IOException("Unable to read client name on rename !");
-            }
-            final String newName = new String(name, NetworkMessage.CHARSET);
+            final String newName = NetworkTransport.getString(frame);
             Verbose.info(SERVER, client.getName(), " rennamed to ", newName);
             client.setName(newName);
 
             for (final ClientListener listener : listeners)
             {
-                listener.notifyClientNameChanged(Byte.valueOf(client.getId()), client.getName());
+                listener.notifyClientNameChanged(Integer.valueOf(client.getId()), client.getName());
             }
 
             // Notify all clients
             for (final ClientSocket other : clients.values())
             {
-                other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
-                ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                other.getOut().flush();
+                sendIdAndName(other, NetworkMessageSystemId.OTHER_CLIENT_RENAMED, client);
             }
         }
     }
@@ -352,30 +426,20 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * Update the receive standard message state.
      * 
      * @param client The client to test.
-     * @param buffer The data buffer.
+     * @param frame The data frame.
      * @param from The id from.
      * @param expected The expected client state.
-     * @throws IOException If error.
      */
-    private void receiveMessage(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
-            throws IOException
+    private void receiveMessage(ClientSocket client, ByteBuffer frame, int from, StateConnection expected)
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
-            final byte dest = buffer.readByte();
-            final byte type = buffer.readByte();
-            final int size = buffer.readInt();
-            if (size > 0)
-            {
-                final byte[] clientData = new byte[size];
-                if (buffer.read(clientData) != -1) // CHECKSTYLE IGNORE LINE: TrailingComment|NestedIfDepth
-                {
-                    final DataInputStream clientBuffer = new DataInputStream(new ByteArrayInputStream(clientData));
-                    decodeMessage(type, from, dest, clientBuffer);
-                }
-            }
+            final int dest = frame.getShort();
+            final byte type = frame.get();
+            final int size = frame.getInt();
+            decodeMessage(type, from, dest, size, frame);
             final int headerSize = 4;
-            bandwidth += headerSize + size;
+            bandwidth += headerSize + Math.abs(size);
         }
     }
 
@@ -383,45 +447,174 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * Update the message depending of its ID.
      * 
      * @param client The client socket.
-     * @param buffer The buffer input.
+     * @param frame The data frame.
      * @param messageSystemId The message system ID.
      * @param from The source ID.
-     * @throws IOException If error when reading.
      */
-    private void updateMessage(ClientSocket client, DataInputStream buffer, byte messageSystemId, byte from)
-            throws IOException
+    private void updateMessage(ClientSocket client, ByteBuffer frame, byte messageSystemId, int from)
     {
         switch (messageSystemId)
         {
             case NetworkMessageSystemId.CONNECTING:
-                receiveConnecting(client, buffer, from, StateConnection.CONNECTING);
+                receiveConnecting(client, frame, from, StateConnection.CONNECTING);
                 break;
             case NetworkMessageSystemId.CONNECTED:
                 receiveConnected(client, from, StateConnection.CONNECTED);
                 break;
             case NetworkMessageSystemId.PING:
-                client.getOut().writeByte(NetworkMessageSystemId.PING);
-                client.getOut().flush();
-                bandwidth += 1;
+                receivePing(client, frame);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED:
                 receiveDisconnected(client, from, StateConnection.CONNECTED);
                 break;
             case NetworkMessageSystemId.OTHER_CLIENT_RENAMED:
-                receiveRenamed(client, buffer, from, StateConnection.CONNECTED);
+                receiveRenamed(client, frame, from, StateConnection.CONNECTED);
                 break;
             case NetworkMessageSystemId.USER_MESSAGE:
-                receiveMessage(client, buffer, from, StateConnection.CONNECTED);
+                receiveMessage(client, frame, from, StateConnection.CONNECTED);
                 break;
             default:
                 break;
         }
     }
 
+    /**
+     * Receive all frames of client, including the ones received before the connection closed by remote.
+     * 
+     * @param client The client reference.
+     */
+    private void receiveMessages(ClientSocket client)
+    {
+        ByteBuffer frame = client.poll();
+        while (frame != null && client.getState() != StateConnection.DISCONNECTED)
+        {
+            try
+            {
+                final byte messageSystemId = frame.get();
+                final int from = frame.getShort();
+
+                // Check id
+                if (from == client.getId())
+                {
+                    // Check message header type
+                    updateMessage(client, frame, messageSystemId, from);
+                }
+            }
+            catch (final RuntimeException exception)
+            {
+                Verbose.exception(exception, "Error on updating server");
+            }
+            transport.release(frame);
+            frame = client.poll();
+        }
+    }
+
+    /**
+     * Encode message once as a complete frame in the fan out buffer.
+     * 
+     * @param message The message to encode.
+     */
+    private void prepareFrame(NetworkMessage message)
+    {
+        final ByteBuffer encoded = encode(message);
+        final int size = USER_HEADER + encoded.remaining();
+        if (fanout.remaining() < size)
+        {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(fanout.capacity() * 2, fanout.position() + size));
+            fanout.flip();
+            grown.put(fanout);
+            fanout = grown;
+        }
+        if (fanoutCount >= fanoutDests.length)
+        {
+            fanoutDests = Arrays.copyOf(fanoutDests, fanoutDests.length * 2);
+            fanoutMessages = Arrays.copyOf(fanoutMessages, fanoutDests.length);
+            fanoutChannels = Arrays.copyOf(fanoutChannels, fanoutDests.length);
+            fanoutOffsets = Arrays.copyOf(fanoutOffsets, fanoutDests.length + 1);
+        }
+        fanoutOffsets[fanoutCount] = fanout.position();
+        fanoutDests[fanoutCount] = message.getClientDestId();
+        fanoutMessages[fanoutCount] = message;
+        fanoutChannels[fanoutCount] = message.getChannel();
+        fanoutCount++;
+
+        // Frame header
+        fanout.putInt(size - ClientSocket.HEADER);
+        // Message header
+        fanout.put(NetworkMessageSystemId.USER_MESSAGE);
+        fanout.putShort((short) message.getClientId());
+        fanout.putShort((short) message.getClientDestId());
+        fanout.put(message.getType());
+        // Message content
+        fanout.putInt(getSizeHeader(encoded));
+        fanout.put(encoded);
+    }
+
+    /**
+     * Send the prepared frames for the client, coalesced by channel in batches of {@link #maxBatchSize}.
+     * 
+     * @param client The client destination.
+     */
+    private void sendFrames(ClientSocket client)
+    {
+        final int id = client.getId();
+        for (int i = 0; i < fanoutCount; i++)
+        {
+            final int dest = fanoutDests[i];
+            if (dest != -1 && dest != id || dest == -1 && filter != null && !filter.accept(fanoutMessages[i], id))
+            {
+                continue;
+            }
+            final int offset = fanoutOffsets[i];
+            final int size = fanoutOffsets[i + 1] - offset;
+            final NetworkChannel channel = fanoutChannels[i];
+            final int index = channel.ordinal();
+            if (batches[index] != null && batches[index].remaining() < size)
+            {
+                bandwidth += transport.sendBatch(client, batches[index], channel);
+                batches[index] = null;
+            }
+            if (batches[index] == null)
+            {
+                batches[index] = transport.acquireBatch(Math.max(maxBatchSize, size));
+            }
+            fanout.limit(offset + size);
+            fanout.position(offset);
+            batches[index].put(fanout);
+        }
+        for (final NetworkChannel channel : NetworkChannel.values())
+        {
+            final int index = channel.ordinal();
+            if (batches[index] != null)
+            {
+                bandwidth += transport.sendBatch(client, batches[index], channel);
+                batches[index] = null;
+            }
+        }
+    }
+
     /*
      * Server
      */
 
+    /**
+     * Set the filter of messages sent to all clients.
+     * 
+     * @param filter The filter reference (<code>null</code> if none).
+     */
+    void setFilter(MessageFilter filter)
+    {
+        this.filter = filter;
+    }
+
+    @Override
+    public void setMaxBatchSize(int size)
+    {
+        Check.superiorStrict(size, 0);
+
+        maxBatchSize = size;
+    }
+
     @Override
     public void setMessageOfTheDay(String message)
     {
@@ -435,24 +628,24 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         {
             try
             {
-                serverSocket = new ServerSocket(port);
-                clientConnectionListener = new ClientConnecter(serverSocket, this);
-                clientConnectionListener.start();
-                this.port = port;
+                transport = Transport.create(protocol, name);
+                this.port = transport.listen(port);
                 bandwidthTimer.start();
+                pingTimer.start();
                 started = true;
             }
             catch (final IOException exception)
             {
+                transport.close();
                 throw new LionEngineException(exception, "Cannot create the server !");
             }
         }
     }
 
     @Override
-    public void removeClient(Byte clientId)
+    public void removeClient(Integer clientId)
     {
-        removeClient(clients.get(clientId));
+        removeClient(clients.get(clientId), DisconnectReason.KICKED);
     }
 
     @Override
@@ -485,46 +678,23 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             return;
         }
         receiveMessages();
-        clientConnectionListener.terminate();
 
         // Disconnect all clients
-        final Collection<ClientSocket> delete = new ArrayList<>(clients.size());
-        for (final ClientSocket client : clients.values())
+        final Collection<ClientSocket> delete = new ArrayList<>(clients.values());
+        for (final ClientSocket client : delete)
         {
-            for (final ClientSocket other : clients.values())
-            {
-                if (other.getId() == client.getId())
-                {
-                    continue;
-                }
-                try
-                {
-                    other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
-                    ServerImpl.writeIdAndName(other, client.getId(), client.getName());
-                    other.getOut().flush();
-                }
-                catch (final IOException exception)
-                {
-                    Verbose.exception(exception);
-                }
-            }
-            delete.add(client);
+            notifyOthers(client, NetworkMessageSystemId.OTHER_CLIENT_DISCONNECTED);
+            sendSystemId(client, NetworkMessageSystemId.KICKED);
         }
+        // Pending frames are flushed before closing
+        transport.close();
         for (final ClientSocket client : delete)
         {
-            client.sendMessage(NetworkMessageSystemId.KICKED);
-            removeClient(client);
+            removeClient(client, DisconnectReason.SHUTDOWN);
         }
-        delete.clear();
         clients.clear();
-        try
-        {
-            serverSocket.close();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception, "Error on closing server");
-        }
+        toRemove.clear();
+        willRemove = false;
         started = false;
     }
 
@@ -532,76 +702,84 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     public void receiveMessages()
     {
         messagesIn.clear();
-        for (final ClientSocket client : clients.values())
+        if (!started)
         {
-            // Get client data from socket
-            final byte[] data = client.receiveMessages();
-            try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
-            {
-                final byte messageSystemId = buffer.readByte();
-                final byte from = buffer.readByte();
-
-                // Check id
-                if (from != client.getId())
-                {
-                    continue;
-                }
-                // Check message header type
-                updateMessage(client, buffer, messageSystemId, from);
-            }
-            catch (final IOException exception)
+            return;
+        }
+        ClientSocket client = transport.pollAccepted();
+        while (client != null)
+        {
+            notifyNewClientConnected(client);
+            client = transport.pollAccepted();
+        }
+        for (final ClientSocket current : clients.values())
+        {
+            receiveMessages(current);
+        }
+        client = transport.pollClosed();
+        while (client != null)
+        {
+            if (client.getState() != StateConnection.DISCONNECTED
+                && clients.get(Integer.valueOf(client.getId())) == client)
             {
-                Verbose.exception(exception, "Error on updating server");
+                disconnected(client, DisconnectReason.LOST);
             }
+            client = transport.pollClosed();
         }
         // Remove deleted clients
         if (willRemove)
         {
-            for (final ClientSocket client : toRemove)
+            for (final ClientSocket removed : toRemove)
             {
-                clients.remove(Byte.valueOf(client.getId()));
+                clients.remove(Integer.valueOf(removed.getId()));
             }
             toRemove.clear();
             willRemove = false;
         }
+        recordQueues();
     }
 
     @Override
     public void sendMessages()
     {
+        if (!started)
+        {
+            messagesOut.clear();
+            return;
+        }
         // Send messages
         messagesOut.addAll(messagesIn);
+        recordQueues();
+        fanout.clear();
+        fanoutCount = 0;
         for (final NetworkMessage message : messagesOut)
+        {
+            prepareFrame(message);
+        }
+        fanoutOffsets[fanoutCount] = fanout.position();
+        if (fanoutCount > 0)
         {
             for (final ClientSocket client : clients.values())
             {
-                if (!(message.getClientDestId() == client.getId() || message.getClientDestId() == -1))
-                {
-                    continue;
-                }
-                try (ByteArrayOutputStream encode = message.encode())
+                if (client.getState() == StateConnection.CONNECTED)
                 {
-                    final byte[] encoded = encode.toByteArray();
-                    // Message header
-                    client.getOut().writeByte(NetworkMessageSystemId.USER_MESSAGE);
-                    client.getOut().writeByte(message.getClientId());
-                    client.getOut().writeByte(message.getClientDestId());
-                    client.getOut().writeByte(message.getType());
-                    // Message content
-                    client.getOut().writeInt(encoded.length);
-                    client.getOut().write(encoded);
-                    client.getOut().flush();
-
-                    final int headerSize = 4;
-                    bandwidth += headerSize + encoded.length;
+                    sendFrames(client);
                 }
-                catch (final IOException exception)
+            }
+            Arrays.fill(fanoutMessages, 0, fanoutCount, null);
+        }
+        final long pingMilli = 1000L;
+        if (pingTimer.elapsed(pingMilli))
+        {
+            for (final ClientSocket client : clients.values())
+            {
+                if (client.getState() == StateConnection.CONNECTED)
                 {
-                    Verbose.exception(exception,
-                                      "Unable to send the messages for client: ",
-                                      String.valueOf(client.getId()));
+                    sendPing(client, NetworkMessageSystemId.PING_REQUEST);
+                    client.setPingTime(System.nanoTime());
                 }
             }
+            pingTimer.restart();
         }
         final long bandwidthMilli = 1000L;
         if (bandwidthTimer.elapsed(bandwidthMilli))
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Histogram of durations, where bucket <code>i</code> counts durations in nano inferior to <code>2^i</code> (and
+ * superior or equal to <code>2^(i-1)</code>), last bucket counting all longer durations.
+ */
+public final class TimeHistogram
+{
+    /** Number of buckets (last one is around 2 seconds). */
+    public static final int BUCKETS = 32;
+
+    /** Bucket counters. */
+    private final long[] buckets;
+    /** Number of recorded durations. */
+    private long count;
+    /** Sum of recorded durations. */
+    private long total;
+    /** Longest recorded duration. */
+    private long max;
+
+    /**
+     * Create an empty histogram.
+     */
+    TimeHistogram()
+    {
+        super();
+
+        buckets = new long[BUCKETS];
+    }
+
+    /**
+     * Create a histogram copy.
+     * 
+     * @param histogram The histogram to copy.
+     */
+    TimeHistogram(TimeHistogram histogram)
+    {
+        super();
+
+        buckets = Arrays.copyOf(histogram.buckets, BUCKETS);
+        count = histogram.count;
+        total = histogram.total;
+        max = histogram.max;
+    }
+
+    /**
+     * Record a duration.
+     * 
+     * @param nano The duration in nano.
+     */
+    void record(long nano)
+    {
+        final long duration = Math.max(0L, nano);
+        buckets[Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(duration))]++;
+        count++;
+        total += duration;
+        max = Math.max(max, duration);
+    }
+
+    /**
+     * Get the number of recorded durations.
+     * 
+     * @return The number of recorded durations.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Get the sum of recorded durations.
+     * 
+     * @return The total duration in nano.
+     */
+    public long getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * Get the longest recorded duration.
+     * 
+     * @return The longest duration in nano.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Get the mean recorded duration.
+     * 
+     * @return The mean duration in nano (0 if none).
+     */
+    public double getMean()
+    {
+        if (count == 0L)
+        {
+            return 0.0;
+        }
+        return total / (double) count;
+    }
+
+    /**
+     * Get the bucket counter.
+     * 
+     * @param bucket The bucket index [0 - {@link #BUCKETS}[.
+     * @return The number of durations in bucket.
+     * @throws LionEngineException If invalid bucket.
+     */
+    public long getBucket(int bucket)
+    {
+        Check.superiorOrEqual(bucket, 0);
+        Check.inferiorStrict(bucket, BUCKETS);
+
+        return buckets[bucket];
+    }
+
+    /**
+     * Get the duration upper bound of the bucket containing the percentile.
+     * 
+     * @param percentile The percentile [0 - 1].
+     * @return The duration upper bound in nano, bounded by {@link #getMax()} (0 if none).
+     * @throws LionEngineException If invalid percentile.
+     */
+    public long getPercentile(double percentile)
+    {
+        Check.superiorOrEqual(percentile, 0.0);
+        Check.inferiorOrEqual(percentile, 1.0);
+
+        final long rank = (long) Math.ceil(percentile * count);
+        long current = 0L;
+        for (int i = 0; i < BUCKETS - 1; i++)
+        {
+            current += buckets[i];
+            if (current >= rank && current > 0L)
+            {
+                return Math.min(max, (1L << i) - 1L);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
+
+/**
+ * Network transport, where a dedicated thread performs all socket operations.
+ * <p>
+ * Data are exchanged as frames, prefixed by their length, and stored in pooled buffers. The game thread builds frames
+ * with {@link #acquire(int)} and {@link #send(ClientSocket, ByteBuffer, NetworkChannel)}, polls received frames from
+ * {@link ClientSocket#poll()} and gives them back with {@link #release(ByteBuffer)}.
+ * </p>
+ */
+interface Transport
+{
+    /**
+     * Create a transport.
+     * 
+     * @param protocol The transport protocol.
+     * @param name The thread name.
+     * @return The created transport.
+     * @throws LionEngineException If unable to create transport.
+     */
+    static Transport create(NetworkProtocol protocol, String name)
+    {
+        if (protocol == NetworkProtocol.UDP)
+        {
+            return new DatagramTransport(name);
+        }
+        return new NetworkTransport(name);
+    }
+
+    /**
+     * Listen to client connection and start network thread.
+     * 
+     * @param port The port number (0 for any available).
+     * @return The bound port number.
+     * @throws IOException If unable to listen.
+     */
+    int listen(int port) throws IOException;
+
+    /**
+     * Connect to a server and start network thread.
+     * 
+     * @param ip The server ip.
+     * @param port The server port.
+     * @return The server connection.
+     * @throws IOException If unable to connect.
+     */
+    ClientSocket connect(String ip, int port) throws IOException;
+
+    /**
+     * Acquire a batch to write, where complete frames (including their length header) are appended.
+     * 
+     * @param size The batch size.
+     * @return The batch buffer, with size as limit.
+     */
+    ByteBuffer acquireBatch(int size);
+
+    /**
+     * Send an acquired batch of frames with a single queuing. Batch must not be used anymore.
+     * 
+     * @param client The client destination.
+     * @param batch The batch written from {@link #acquireBatch(int)}.
+     * @param channel The delivery channel.
+     * @return The batch size in bytes.
+     */
+    int sendBatch(ClientSocket client, ByteBuffer batch, NetworkChannel channel);
+
+    /**
+     * Release a received frame, which must not be used anymore.
+     * 
+     * @param frame The frame to release.
+     */
+    void release(ByteBuffer frame);
+
+    /**
+     * Get the next accepted client.
+     * 
+     * @return The accepted client, <code>null</code> if none.
+     */
+    ClientSocket pollAccepted();
+
+    /**
+     * Get the next client closed by remote or on error.
+     * 
+     * @return The closed client, <code>null</code> if none.
+     */
+    ClientSocket pollClosed();
+
+    /**
+     * Stop network thread, after sending pending frames, and close all channels, even if thread was not started.
+     */
+    void close();
+
+    /**
+     * Acquire a frame to write, positioned after its length header.
+     * 
+     * @param size The frame content size.
+     * @return The frame buffer.
+     */
+    default ByteBuffer acquire(int size)
+    {
+        final ByteBuffer frame = acquireBatch(ClientSocket.HEADER + size);
+        frame.position(ClientSocket.HEADER);
+        return frame;
+    }
+
+    /**
+     * Send an acquired frame. Frame must not be used anymore.
+     * 
+     * @param client The client destination.
+     * @param frame The frame written from {@link #acquire(int)}.
+     * @param channel The delivery channel.
+     * @return The frame size in bytes.
+     */
+    default int send(ClientSocket client, ByteBuffer frame, NetworkChannel channel)
+    {
+        frame.putInt(0, frame.position() - ClientSocket.HEADER);
+        return sendBatch(client, frame, channel);
+    }
+
+    /**
+     * Send an acquired frame on the reliable ordered channel. Frame must not be used anymore.
+     * 
+     * @param client The client destination.
+     * @param frame The frame written from {@link #acquire(int)}.
+     * @return The frame size in bytes.
+     */
+    default int send(ClientSocket client, ByteBuffer frame)
+    {
+        return send(client, frame, NetworkChannel.RELIABLE_ORDERED);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Executed commands and resulting state checksums of a lockstep session, which can be replayed on a new simulation.
+ */
+public class CommandLog
+{
+    /**
+     * Execute encoded commands, each prefixed by its length.
+     * 
+     * @param simulation The simulation reference.
+     * @param player The player id.
+     * @param commands The encoded commands.
+     */
+    static void execute(Simulation simulation, int player, byte[] commands)
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap(commands);
+        while (buffer.remaining() >= Short.BYTES)
+        {
+            final int end = buffer.position() + Short.BYTES + buffer.getShort(buffer.position());
+            buffer.position(buffer.position() + Short.BYTES);
+            buffer.limit(end);
+            simulation.execute(player, buffer);
+            buffer.limit(commands.length);
+            buffer.position(end);
+        }
+    }
+
+    /** Executed commands, in execution order. */
+    private final List<Entry> entries = new ArrayList<>();
+    /** State checksums by turn. */
+    private final List<String> checksums = new ArrayList<>();
+
+    /**
+     * Create empty log.
+     */
+    public CommandLog()
+    {
+        super();
+    }
+
+    /**
+     * Add executed commands.
+     * 
+     * @param turn The turn.
+     * @param player The player id.
+     * @param commands The encoded commands.
+     */
+    void add(int turn, int player, byte[] commands)
+    {
+        entries.add(new Entry(turn, player, commands));
+    }
+
+    /**
+     * Add the checksum of the next turn.
+     * 
+     * @param checksum The state checksum at the end of turn.
+     */
+    void addChecksum(String checksum)
+    {
+        checksums.add(checksum);
+    }
+
+    /**
+     * Replay the logged commands on a simulation in its initial state.
+     * 
+     * @param simulation The simulation reference.
+     * @param turnLength The number of ticks per turn.
+     * @return The state checksums by turn, equal to {@link #getChecksums()} if deterministic.
+     */
+    public List<String> replay(Simulation simulation, int turnLength)
+    {
+        final StateChecksum checksum = new StateChecksum();
+        final List<String> replayed = new ArrayList<>(checksums.size());
+        int index = 0;
+        for (int turn = 0; turn < checksums.size(); turn++)
+        {
+            while (index < entries.size() && entries.get(index).turn == turn)
+            {
+                final Entry entry = entries.get(index);
+                execute(simulation, entry.player, entry.commands);
+                index++;
+            }
+            for (int tick = 0; tick < turnLength; tick++)
+            {
+                simulation.update(Lockstep.EXTRP);
+            }
+            replayed.add(checksum.compute(simulation));
+        }
+        return replayed;
+    }
+
+    /**
+     * Get the state checksums.
+     * 
+     * @return The state checksums by turn.
+     */
+    public List<String> getChecksums()
+    {
+        return Collections.unmodifiableList(checksums);
+    }
+
+    /**
+     * Get the number of executed turns.
+     * 
+     * @return The number of executed turns.
+     */
+    public int getTurns()
+    {
+        return checksums.size();
+    }
+
+    /**
+     * Executed commands of a player.
+     */
+    private static final class Entry
+    {
+        /** Turn. */
+        private final int turn;
+        /** Player id. */
+        private final int player;
+        /** Encoded commands. */
+        private final byte[] commands;
+
+        /**
+         * Create entry.
+         * 
+         * @param turn The turn.
+         * @param player The player id.
+         * @param commands The encoded commands.
+         */
+        Entry(int turn, int player, byte[] commands)
+        {
+            super();
+
+            this.turn = turn;
+            this.player = player;
+            this.commands = commands;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Identifiable;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Simulation updating a {@link Handler}, where state is the location of each {@link Transformable}, by id order.
+ */
+public abstract class HandlerSimulation implements Simulation
+{
+    /** Handler reference. */
+    private final Handler handler;
+
+    /**
+     * Create simulation.
+     * 
+     * @param handler The handler reference.
+     */
+    public HandlerSimulation(Handler handler)
+    {
+        super();
+
+        this.handler = handler;
+    }
+
+    /*
+     * Simulation
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        handler.update(extrp);
+    }
+
+    @Override
+    public void write(ByteBuffer state)
+    {
+        final Map<Integer, Featurable> sorted = new TreeMap<>();
+        for (final Featurable featurable : handler.values())
+        {
+            sorted.put(featurable.getFeature(Identifiable.class).getId(), featurable);
+        }
+        for (final Map.Entry<Integer, Featurable> entry : sorted.entrySet())
+        {
+            state.putInt(entry.getKey().intValue());
+            if (entry.getValue().hasFeature(Transformable.class))
+            {
+                final Transformable transformable = entry.getValue().getFeature(Transformable.class);
+                state.putDouble(transformable.getX());
+                state.putDouble(transformable.getY());
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageTurn;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Deterministic lockstep, where every peer runs the same {@link Simulation} and only player commands are exchanged, so
+ * bandwidth does not depend on the simulation size.
+ * <p>
+ * Simulation is updated by fixed ticks with a constant {@link #EXTRP}, grouped in turns. Commands added during turn
+ * <code>n</code> are sent and executed at the beginning of turn <code>n + input delay</code> by all peers, in player id
+ * order. A turn is executed only when commands of all players are received (possibly empty), else simulation waits.
+ * </p>
+ * <p>
+ * Each turn message carries the state checksum of the last executed turn, compared with the local one to detect desync.
+ * Executed commands and checksums are kept in a {@link CommandLog} for replay.
+ * </p>
+ * <p>
+ * It must be added to the networked world as networkable for its message type, on every peer running the simulation.
+ * The server already sends every received message to all clients, so it relays the turns without any lockstep.
+ * </p>
+ */
+public class Lockstep extends NetworkableModel implements Updatable
+{
+    /** Constant extrapolation value. */
+    public static final double EXTRP = 1.0;
+    /** Kept local checksums, waiting for remote ones. */
+    private static final int CHECKSUM_HISTORY = 64;
+    /** Default commands buffer size. */
+    private static final int DEFAULT_SIZE = 256;
+    /** No checksum. */
+    private static final String NONE = "";
+
+    /** Received commands by turn and player. */
+    private final Map<Integer, Map<Integer, byte[]>> commands = new HashMap<>();
+    /** Received checksums by turn and player, waiting for local ones. */
+    private final Map<Integer, Map<Integer, String>> remotes = new HashMap<>();
+    /** Local checksums by turn. */
+    private final Map<Integer, String> checksums = new HashMap<>();
+    /** Players id. */
+    private final Collection<Integer> players = new TreeSet<>();
+    /** Listeners. */
+    private final Collection<LockstepListener> listeners = new ArrayList<>();
+    /** Executed commands log. */
+    private final CommandLog log = new CommandLog();
+    /** State checksum. */
+    private final StateChecksum checksum = new StateChecksum();
+    /** Simulation reference. */
+    private final Simulation simulation;
+    /** Turn message type. */
+    private final byte type;
+    /** Ticks per turn. */
+    private final int turnLength;
+    /** Input delay in turns. */
+    private final int inputDelay;
+    /** Local commands for next issued turn. */
+    private ByteBuffer pending = ByteBuffer.allocate(DEFAULT_SIZE);
+    /** Executed ticks. */
+    private int tick;
+    /** Last issued turn. */
+    private int issued;
+    /** Accumulated time in ticks. */
+    private double time;
+
+    /**
+     * Create lockstep.
+     * 
+     * @param simulation The simulation reference.
+     * @param type The turn message type.
+     * @param turnLength The ticks per turn (strictly positive).
+     * @param inputDelay The input delay in turns (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public Lockstep(Simulation simulation, byte type, int turnLength, int inputDelay)
+    {
+        super();
+
+        Check.notNull(simulation);
+        Check.superiorStrict(turnLength, 0);
+        Check.superiorStrict(inputDelay, 0);
+
+        this.simulation = simulation;
+        this.type = type;
+        this.turnLength = turnLength;
+        this.inputDelay = inputDelay;
+        issued = inputDelay - 1;
+    }
+
+    /**
+     * Add a listener.
+     * 
+     * @param listener The listener to add.
+     */
+    public void addListener(LockstepListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a player, local one included. Must be done by all peers before first update.
+     * 
+     * @param player The player id.
+     */
+    public void addPlayer(int player)
+    {
+        players.add(Integer.valueOf(player));
+    }
+
+    /**
+     * Add a local command, executed by all peers after input delay.
+     * 
+     * @param command The command data (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void addCommand(byte[] command)
+    {
+        Check.notNull(command);
+        Check.inferiorOrEqual(command.length, Short.MAX_VALUE);
+
+        if (pending.remaining() < Short.BYTES + command.length)
+        {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2,
+                                                                  pending.position() + Short.BYTES + command.length));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.putShort((short) command.length);
+        pending.put(command);
+    }
+
+    /**
+     * Get the executed ticks.
+     * 
+     * @return The executed ticks.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the current turn.
+     * 
+     * @return The current turn.
+     */
+    public int getTurn()
+    {
+        return tick / turnLength;
+    }
+
+    /**
+     * Get the executed commands log.
+     * 
+     * @return The commands log.
+     */
+    public CommandLog getLog()
+    {
+        return log;
+    }
+
+    /**
+     * Execute the next tick if possible.
+     * 
+     * @return <code>true</code> if executed, <code>false</code> if waiting for commands.
+     */
+    private boolean step()
+    {
+        if (tick % turnLength == 0)
+        {
+            final int turn = tick / turnLength;
+            issue(turn + inputDelay);
+            if (!isReady(turn))
+            {
+                return false;
+            }
+            execute(turn);
+        }
+        simulation.update(EXTRP);
+        tick++;
+        if (tick % turnLength == 0)
+        {
+            completed(tick / turnLength - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Send the local commands for the turn, once.
+     * 
+     * @param turn The scheduled turn.
+     */
+    private void issue(int turn)
+    {
+        if (issued < turn)
+        {
+            issued = turn;
+            final byte[] data = new byte[pending.position()];
+            pending.flip();
+            pending.get(data);
+            pending.clear();
+
+            final int player = getClientId().intValue();
+            store(turn, player, data);
+
+            final int checksumTurn = turn - inputDelay - 1;
+            final String value = checksums.getOrDefault(Integer.valueOf(checksumTurn), NONE);
+            addNetworkMessage(new NetworkMessageTurn(type, player, turn, data, checksumTurn, value));
+        }
+    }
+
+    /**
+     * Check if commands of all players are received.
+     * 
+     * @param turn The turn to check.
+     * @return <code>true</code> if ready, <code>false</code> else.
+     */
+    private boolean isReady(int turn)
+    {
+        if (turn < inputDelay)
+        {
+            return true;
+        }
+        final Map<Integer, byte[]> received = commands.get(Integer.valueOf(turn));
+        return received != null && received.keySet().containsAll(players);
+    }
+
+    /**
+     * Execute the turn commands, in player order.
+     * 
+     * @param turn The turn to execute.
+     */
+    private void execute(int turn)
+    {
+        final Map<Integer, byte[]> received = commands.remove(Integer.valueOf(turn));
+        if (received != null)
+        {
+            for (final Integer player : players)
+            {
+                final byte[] data = received.get(player);
+                if (data.length > 0)
+                {
+                    log.add(turn, player.intValue(), data);
+                    CommandLog.execute(simulation, player.intValue(), data);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the turn checksum, and compare with the received ones.
+     * 
+     * @param turn The completed turn.
+     */
+    private void completed(int turn)
+    {
+        final Integer key = Integer.valueOf(turn);
+        final String local = checksum.compute(simulation);
+        log.addChecksum(local);
+        checksums.put(key, local);
+        checksums.remove(Integer.valueOf(turn - CHECKSUM_HISTORY));
+
+        final Map<Integer, String> received = remotes.remove(key);
+        if (received != null)
+        {
+            for (final Map.Entry<Integer, String> entry : received.entrySet())
+            {
+                compare(turn, entry.getKey().intValue(), local, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Compare checksums and notify if different.
+     * 
+     * @param turn The checksum turn.
+     * @param player The remote player.
+     * @param local The local checksum.
+     * @param remote The remote checksum.
+     */
+    private void compare(int turn, int player, String local, String remote)
+    {
+        if (!local.equals(remote))
+        {
+            for (final LockstepListener listener : listeners)
+            {
+                listener.notifyDesync(turn, player, local, remote);
+            }
+        }
+    }
+
+    /**
+     * Store player commands if not already executed.
+     * 
+     * @param turn The scheduled turn.
+     * @param player The player id.
+     * @param data The encoded commands.
+     */
+    private void store(int turn, int player, byte[] data)
+    {
+        if (turn >= getTurn())
+        {
+            commands.computeIfAbsent(Integer.valueOf(turn), t -> new TreeMap<>())
+                    .putIfAbsent(Integer.valueOf(player), data);
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    /**
+     * Execute the elapsed ticks, waiting if commands are missing. Late time is kept up to one turn.
+     * 
+     * @param extrp The extrapolation value.
+     */
+    @Override
+    public void update(double extrp)
+    {
+        time = Math.min(time + extrp, turnLength);
+        while (time >= EXTRP && step())
+        {
+            time -= EXTRP;
+        }
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageTurn)
+        {
+            final NetworkMessageTurn turn = (NetworkMessageTurn) message;
+            final int player = turn.getClientId();
+            store(turn.getTurn(), player, turn.getCommands());
+
+            final int checksumTurn = turn.getChecksumTurn();
+            if (checksumTurn >= 0 && player != getClientId().intValue())
+            {
+                final String local = checksums.get(Integer.valueOf(checksumTurn));
+                if (local != null)
+                {
+                    compare(checksumTurn, player, local, turn.getChecksum());
+                }
+                else if (checksumTurn * turnLength >= tick)
+                {
+                    remotes.computeIfAbsent(Integer.valueOf(checksumTurn), t -> new HashMap<>())
+                           .put(Integer.valueOf(player), turn.getChecksum());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Deterministic simulation, driven by {@link Lockstep}.
+ * <p>
+ * The same commands executed on the same initial state must always lead to the same state, on every peer: no real time,
+ * no unseeded random, no iteration over unordered collections.
+ * </p>
+ */
+public interface Simulation
+{
+    /**
+     * Execute a player command, at the beginning of its turn.
+     * 
+     * @param player The player id.
+     * @param command The command data, from position to limit.
+     */
+    void execute(int player, ByteBuffer command);
+
+    /**
+     * Update simulation by one tick.
+     * 
+     * @param extrp The constant extrapolation value ({@link Lockstep#EXTRP}).
+     */
+    void update(double extrp);
+
+    /**
+     * Write the simulation state used for the turn checksum.
+     * 
+     * @param state The state buffer (grown and written again on overflow).
+     */
+    void write(ByteBuffer state);
+}
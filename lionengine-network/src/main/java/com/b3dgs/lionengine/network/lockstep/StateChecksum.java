@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import com.b3dgs.lionengine.UtilChecksum;
+
+/**
+ * Compute simulation state checksum, with a reusable state buffer.
+ */
+final class StateChecksum
+{
+    /** Default state buffer size. */
+    private static final int DEFAULT_SIZE = 4096;
+
+    /** State buffer. */
+    private ByteBuffer state = ByteBuffer.allocate(DEFAULT_SIZE);
+
+    /**
+     * Create checksum.
+     */
+    StateChecksum()
+    {
+        super();
+    }
+
+    /**
+     * Compute the simulation state checksum.
+     * 
+     * @param simulation The simulation reference.
+     * @return The state checksum.
+     */
+    String compute(Simulation simulation)
+    {
+        while (true)
+        {
+            state.clear();
+            try
+            {
+                simulation.write(state);
+                break;
+            }
+            catch (final BufferOverflowException exception)
+            {
+                state = ByteBuffer.allocate(state.capacity() * 2);
+            }
+        }
+        final byte[] data = new byte[state.position()];
+        state.flip();
+        state.get(data);
+        return UtilChecksum.getSha(data);
+    }
+}
@@ -17,9 +17,9 @@
  */
 package com.b3dgs.lionengine.network.message;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.UnsupportedCharsetException;
 
@@ -27,11 +27,17 @@ import com.b3dgs.lionengine.Verbose;
 
 /**
  * Network message description.
+ * <p>
+ * Message data are written to and read from byte buffers. Header (type, source and destination) is handled by the
+ * network, and decoding reads directly from the received data, so an instance can be reused between messages.
+ * </p>
  */
 public abstract class NetworkMessage
 {
     /** Charset. */
     public static final Charset CHARSET = NetworkMessage.getCharset("UTF-8");
+    /** Destination id for a message handled by the server only (never relayed to clients). */
+    public static final int DEST_SERVER = -2;
 
     /**
      * Get the charset.
@@ -55,9 +61,9 @@ public abstract class NetworkMessage
     /** The message type (should be an enum ordinal to make the id clean). */
     private byte type;
     /** Id of the client who sent this message. */
-    private byte clientId;
+    private int clientId;
     /** Id of the client to sent this message. */
-    private byte clientDestId;
+    private int clientDestId;
 
     /**
      * Constructor base.
@@ -73,9 +79,9 @@ public abstract class NetworkMessage
      * @param type The message type.
      * @param clientId The client id.
      */
-    public NetworkMessage(byte type, byte clientId)
+    public NetworkMessage(byte type, int clientId)
     {
-        this(type, clientId, (byte) -1);
+        this(type, clientId, -1);
     }
 
     /**
@@ -83,9 +89,9 @@ public abstract class NetworkMessage
      * 
      * @param type The message type.
      * @param clientId The client id.
-     * @param clientDestId The client destination id (-1 if all).
+     * @param clientDestId The client destination id (-1 if all, {@link #DEST_SERVER} if server only).
      */
-    public NetworkMessage(byte type, byte clientId, byte clientDestId)
+    public NetworkMessage(byte type, int clientId, int clientDestId)
     {
         this.type = type;
         this.clientId = clientId;
@@ -93,20 +99,30 @@ public abstract class NetworkMessage
     }
 
     /**
-     * Encode the message.
+     * Encode the message data, from the buffer position.
      * 
-     * @param buffer The current buffer.
-     * @throws IOException Error on writing.
+     * @param buffer The buffer to write to.
+     * @throws BufferOverflowException If buffer is too small (caller may retry with a larger buffer).
      */
-    protected abstract void encode(ByteArrayOutputStream buffer) throws IOException;
+    public abstract void encode(ByteBuffer buffer);
 
     /**
-     * Decode the message from the data.
+     * Decode the message data, from the buffer position to its limit.
+     * 
+     * @param buffer The buffer to read from.
+     * @throws BufferUnderflowException If invalid data.
+     */
+    protected abstract void decode(ByteBuffer buffer);
+
+    /**
+     * Get the delivery channel of the message. Override to use a less constrained channel.
      * 
-     * @param buffer The data reference.
-     * @throws IOException Error on reading.
+     * @return The delivery channel ({@link NetworkChannel#RELIABLE_ORDERED} by default).
      */
-    protected abstract void decode(DataInputStream buffer) throws IOException;
+    public NetworkChannel getChannel()
+    {
+        return NetworkChannel.RELIABLE_ORDERED;
+    }
 
     /**
      * Get the message type.
@@ -123,7 +139,7 @@ public abstract class NetworkMessage
      * 
      * @return The owner id of this message.
      */
-    public final byte getClientId()
+    public final int getClientId()
     {
         return clientId;
     }
@@ -133,39 +149,21 @@ public abstract class NetworkMessage
      * 
      * @return The destination of this message.
      */
-    public final byte getClientDestId()
+    public final int getClientDestId()
     {
         return clientDestId;
     }
 
-    /**
-     * Encode the message.
-     * 
-     * @return The encoded message data.
-     * @throws IOException Error on writing.
-     */
-    public final ByteArrayOutputStream encode() throws IOException
-    {
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-        buffer.write(type);
-        buffer.write(clientId);
-        buffer.write(clientDestId);
-        encode(buffer);
-
-        return buffer;
-    }
-
     /**
      * Decode the message from the data.
      * 
      * @param type The message type.
      * @param from The client id from.
      * @param dest The client id destination.
-     * @param buffer The data reference.
-     * @throws IOException Error on reading.
+     * @param buffer The data reference, from its position to its limit.
+     * @throws BufferUnderflowException If invalid data.
      */
-    public final void decode(byte type, byte from, byte dest, DataInputStream buffer) throws IOException
+    public final void decode(byte type, int from, int dest, ByteBuffer buffer)
     {
         this.type = type;
         clientId = from;
@@ -17,9 +17,7 @@
  */
 package com.b3dgs.lionengine.network.message;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Message chat implementation.
@@ -44,9 +42,9 @@ public class NetworkMessageChat extends NetworkMessage
      * @param clientId The client id.
      * @param message The message content.
      */
-    public NetworkMessageChat(byte type, byte clientId, String message)
+    public NetworkMessageChat(byte type, int clientId, String message)
     {
-        this(type, clientId, (byte) -1, message);
+        this(type, clientId, -1, message);
     }
 
     /**
@@ -57,7 +55,7 @@ public class NetworkMessageChat extends NetworkMessage
      * @param clientDestId The client destination.
      * @param message The message content.
      */
-    public NetworkMessageChat(byte type, byte clientId, byte clientDestId, String message)
+    public NetworkMessageChat(byte type, int clientId, int clientDestId, String message)
     {
         super(type, clientId, clientDestId);
         this.message = message;
@@ -78,16 +76,16 @@ public class NetworkMessageChat extends NetworkMessage
      */
 
     @Override
-    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    public void encode(ByteBuffer buffer)
     {
-        buffer.write(message.getBytes(NetworkMessage.CHARSET));
+        buffer.put(message.getBytes(NetworkMessage.CHARSET));
     }
 
     @Override
-    protected void decode(DataInputStream buffer) throws IOException
+    protected void decode(ByteBuffer buffer)
     {
-        final byte[] msg = new byte[buffer.available()];
-        buffer.readFully(msg);
+        final byte[] msg = new byte[buffer.remaining()];
+        buffer.get(msg);
         message = new String(msg, NetworkMessage.CHARSET);
     }
 }
@@ -17,24 +17,54 @@
  */
 package com.b3dgs.lionengine.network.message;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.IOException;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilConversion;
 
 /**
  * Standard entity message.
+ * <p>
+ * Actions are stored as primitive values indexed by their enum ordinal (up to {@link #MAX_ACTIONS}), without boxing.
+ * Each action is encoded with its ordinal and value kind, so no encoding function is required by implementation. An
+ * instance can be reused after {@link #clear()}.
+ * </p>
  * 
  * @param <M> The message entity element enum.
  */
 public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMessage
 {
-    /** List of actions. */
-    private final Map<M, Object> actions = new HashMap<>(1);
+    /** Maximum number of actions (count and ordinals are encoded on an unsigned byte). */
+    public static final int MAX_ACTIONS = 255;
+    /** Action not found error. */
+    private static final String ERROR_ACTION = "Action not found: ";
+    /** Invalid kind error. */
+    private static final String ERROR_KIND = "Invalid action kind: ";
+    /** Boolean kind. */
+    private static final byte KIND_BOOLEAN = 1;
+    /** Char kind. */
+    private static final byte KIND_CHAR = 2;
+    /** Byte kind. */
+    private static final byte KIND_BYTE = 3;
+    /** Short kind. */
+    private static final byte KIND_SHORT = 4;
+    /** Integer kind. */
+    private static final byte KIND_INT = 5;
+    /** Double kind. */
+    private static final byte KIND_DOUBLE = 6;
+    /** Default slots number. */
+    private static final int DEFAULT_SLOTS = 8;
+
+    /** Action kinds by ordinal (0 if not defined). */
+    private byte[] kinds = new byte[DEFAULT_SLOTS];
+    /** Action values by ordinal. */
+    private long[] values = new long[DEFAULT_SLOTS];
+    /** Defined ordinals in insertion order. */
+    private int[] keys = new int[DEFAULT_SLOTS];
+    /** Defined actions number. */
+    private int count;
     /** Entity number. */
     private short entityId;
 
@@ -53,7 +83,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * @param type The message type.
      * @param clientId The client id.
      */
-    public NetworkMessageEntity(byte type, byte clientId)
+    public NetworkMessageEntity(byte type, int clientId)
     {
         super(type, clientId);
         this.entityId = -1;
@@ -67,7 +97,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public NetworkMessageEntity(byte type, short entityId)
     {
-        super(type, (byte) -1);
+        super(type, -1);
         this.entityId = entityId;
     }
 
@@ -78,30 +108,12 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * @param entityId The entity id.
      * @param destId The client destination.
      */
-    public NetworkMessageEntity(byte type, short entityId, byte destId)
+    public NetworkMessageEntity(byte type, short entityId, int destId)
     {
-        super(type, (byte) -1, destId);
+        super(type, -1, destId);
         this.entityId = entityId;
     }
 
-    /**
-     * Encode function for the current key.
-     * 
-     * @param buffer The current buffer to write.
-     * @param key The current key.
-     * @throws IOException Exception in case of error.
-     */
-    protected abstract void encode(ByteArrayOutputStream buffer, M key) throws IOException;
-
-    /**
-     * Decode function for the current key number.
-     * 
-     * @param buffer The current buffer to read.
-     * @param i The current key number.
-     * @throws IOException Exception in case of error.
-     */
-    protected abstract void decode(DataInputStream buffer, int i) throws IOException;
-
     /**
      * Add an action.
      * 
@@ -110,7 +122,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, boolean value)
     {
-        actions.put(element, Boolean.valueOf(value));
+        set(element.ordinal(), KIND_BOOLEAN, value ? 1L : 0L);
     }
 
     /**
@@ -121,7 +133,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, char value)
     {
-        actions.put(element, Character.valueOf(value));
+        set(element.ordinal(), KIND_CHAR, value);
     }
 
     /**
@@ -132,7 +144,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, byte value)
     {
-        actions.put(element, Byte.valueOf(value));
+        set(element.ordinal(), KIND_BYTE, value);
     }
 
     /**
@@ -143,7 +155,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, short value)
     {
-        actions.put(element, Short.valueOf(value));
+        set(element.ordinal(), KIND_SHORT, value);
     }
 
     /**
@@ -154,7 +166,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, int value)
     {
-        actions.put(element, Integer.valueOf(value));
+        set(element.ordinal(), KIND_INT, value);
     }
 
     /**
@@ -165,7 +177,7 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public void addAction(M element, double value)
     {
-        actions.put(element, Double.valueOf(value));
+        set(element.ordinal(), KIND_DOUBLE, Double.doubleToRawLongBits(value));
     }
 
     /**
@@ -173,10 +185,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public boolean getActionBoolean(M element)
     {
-        return ((Boolean) actions.get(element)).booleanValue();
+        return get(element, KIND_BOOLEAN) != 0L;
     }
 
     /**
@@ -184,10 +197,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public byte getActionByte(M element)
     {
-        return ((Byte) actions.get(element)).byteValue();
+        return (byte) get(element, KIND_BYTE);
     }
 
     /**
@@ -195,10 +209,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public char getActionChar(M element)
     {
-        return ((Character) actions.get(element)).charValue();
+        return (char) get(element, KIND_CHAR);
     }
 
     /**
@@ -206,10 +221,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public short getActionShort(M element)
     {
-        return ((Short) actions.get(element)).shortValue();
+        return (short) get(element, KIND_SHORT);
     }
 
     /**
@@ -217,10 +233,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public int getActionInteger(M element)
     {
-        return ((Integer) actions.get(element)).intValue();
+        return (int) get(element, KIND_INT);
     }
 
     /**
@@ -228,10 +245,11 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      * 
      * @param element The action element.
      * @return The action value.
+     * @throws LionEngineException If action not found.
      */
     public double getActionDouble(M element)
     {
-        return ((Double) actions.get(element)).doubleValue();
+        return Double.longBitsToDouble(get(element, KIND_DOUBLE));
     }
 
     /**
@@ -242,7 +260,20 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
      */
     public boolean hasAction(M element)
     {
-        return actions.containsKey(element);
+        final int ordinal = element.ordinal();
+        return ordinal < kinds.length && kinds[ordinal] != 0;
+    }
+
+    /**
+     * Remove all actions, in order to reuse the message.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            kinds[keys[i]] = 0;
+        }
+        count = 0;
     }
 
     /**
@@ -255,46 +286,130 @@ public abstract class NetworkMessageEntity<M extends Enum<M>> extends NetworkMes
         return entityId;
     }
 
+    /**
+     * Set action value.
+     * 
+     * @param ordinal The action ordinal.
+     * @param kind The value kind.
+     * @param value The value bits.
+     * @throws LionEngineException If too many actions.
+     */
+    private void set(int ordinal, byte kind, long value)
+    {
+        Check.inferiorStrict(ordinal, MAX_ACTIONS);
+
+        if (ordinal >= kinds.length)
+        {
+            final int length = Math.min(MAX_ACTIONS, Math.max(ordinal + 1, kinds.length * 2));
+            kinds = Arrays.copyOf(kinds, length);
+            values = Arrays.copyOf(values, length);
+            keys = Arrays.copyOf(keys, length);
+        }
+        if (kinds[ordinal] == 0)
+        {
+            keys[count] = ordinal;
+            count++;
+        }
+        kinds[ordinal] = kind;
+        values[ordinal] = value;
+    }
+
+    /**
+     * Get action value.
+     * 
+     * @param element The action element.
+     * @param kind The expected kind.
+     * @return The value bits.
+     * @throws LionEngineException If action not found.
+     */
+    private long get(M element, byte kind)
+    {
+        final int ordinal = element.ordinal();
+        if (ordinal >= kinds.length || kinds[ordinal] != kind)
+        {
+            throw new LionEngineException(ERROR_ACTION + element.name());
+        }
+        return values[ordinal];
+    }
+
     /*
      * NetworkMessage
      */
 
     /**
-     * Retrieve the keys, store its total number in the buffer, and call {@link #encode(ByteArrayOutputStream, Enum) for
-     * each key}.
+     * Write the entity id, the actions number, and for each action its ordinal, kind and value.
      * 
      * @param buffer The current buffer to write.
-     * @throws IOException Exception in case of error.
      */
     @Override
-    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    public void encode(ByteBuffer buffer)
     {
-        buffer.write(UtilConversion.shortToByteArray(entityId));
-        final Collection<M> keys = actions.keySet();
-
-        // Fill the data
-        buffer.write((byte) keys.size());
-        for (final M key : keys)
+        buffer.putShort(entityId);
+        buffer.put((byte) count);
+        for (int i = 0; i < count; i++)
         {
-            encode(buffer, key);
+            final int ordinal = keys[i];
+            final long value = values[ordinal];
+            buffer.put((byte) ordinal);
+            buffer.put(kinds[ordinal]);
+            switch (kinds[ordinal])
+            {
+                case KIND_CHAR:
+                    buffer.putChar((char) value);
+                    break;
+                case KIND_SHORT:
+                    buffer.putShort((short) value);
+                    break;
+                case KIND_INT:
+                    buffer.putInt((int) value);
+                    break;
+                case KIND_DOUBLE:
+                    buffer.putLong(value);
+                    break;
+                default:
+                    buffer.put((byte) value);
+                    break;
+            }
         }
     }
 
     /**
-     * Read the first byte to retrieve the total number of key and call {@link #decode(DataInputStream, int) for each
-     * key}.
+     * Read the entity id, the actions number, and for each action its ordinal, kind and value.
      * 
      * @param buffer The current buffer to read.
-     * @throws IOException Exception in case of error.
+     * @throws LionEngineException If invalid action kind.
      */
     @Override
-    protected void decode(DataInputStream buffer) throws IOException
+    protected void decode(ByteBuffer buffer)
     {
-        entityId = buffer.readShort();
-        final int number = buffer.readByte();
+        clear();
+        entityId = buffer.getShort();
+        final int number = UtilConversion.mask(buffer.get());
         for (int i = 0; i < number; i++)
         {
-            decode(buffer, i);
+            final int ordinal = UtilConversion.mask(buffer.get());
+            final byte kind = buffer.get();
+            switch (kind)
+            {
+                case KIND_BOOLEAN:
+                case KIND_BYTE:
+                    set(ordinal, kind, buffer.get());
+                    break;
+                case KIND_CHAR:
+                    set(ordinal, kind, buffer.getChar());
+                    break;
+                case KIND_SHORT:
+                    set(ordinal, kind, buffer.getShort());
+                    break;
+                case KIND_INT:
+                    set(ordinal, kind, buffer.getInt());
+                    break;
+                case KIND_DOUBLE:
+                    set(ordinal, kind, buffer.getLong());
+                    break;
+                default:
+                    throw new LionEngineException(ERROR_KIND + kind);
+            }
         }
     }
 }
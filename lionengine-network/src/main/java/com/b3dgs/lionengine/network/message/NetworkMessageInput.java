@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Client input message, containing consecutive inputs by tick, from a sequence number. Each message repeats the last
+ * not acknowledged inputs, so a lost message is covered by the next one.
+ */
+public class NetworkMessageInput extends NetworkMessage
+{
+    /** First input sequence. */
+    private int sequence;
+    /** Inputs data, from first sequence. */
+    private byte[][] inputs;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageInput()
+    {
+        super();
+    }
+
+    /**
+     * Create an input message.
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param sequence The first input sequence.
+     * @param inputs The inputs data, from first sequence.
+     */
+    public NetworkMessageInput(byte type, int clientId, int sequence, byte[][] inputs)
+    {
+        super(type, clientId, DEST_SERVER);
+        this.sequence = sequence;
+        this.inputs = inputs;
+    }
+
+    /**
+     * Get the first input sequence.
+     * 
+     * @return The first input sequence.
+     */
+    public int getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * Get the inputs data.
+     * 
+     * @return The inputs data, from first sequence.
+     */
+    public byte[][] getInputs()
+    {
+        return inputs;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * Inputs are repeated until acknowledged.
+     * 
+     * @return {@link NetworkChannel#UNRELIABLE_SEQUENCED}.
+     */
+    @Override
+    public NetworkChannel getChannel()
+    {
+        return NetworkChannel.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer)
+    {
+        buffer.putInt(sequence);
+        buffer.put((byte) inputs.length);
+        for (final byte[] input : inputs)
+        {
+            buffer.putShort((short) input.length);
+            buffer.put(input);
+        }
+    }
+
+    @Override
+    protected void decode(ByteBuffer buffer)
+    {
+        sequence = buffer.getInt();
+        inputs = new byte[buffer.get()][];
+        for (int i = 0; i < inputs.length; i++)
+        {
+            inputs[i] = new byte[buffer.getShort()];
+            buffer.get(inputs[i]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Snapshot message, containing a state snapshot encoded as a delta from a baseline snapshot, or the acknowledge of a
+ * received snapshot (without data).
+ */
+public class NetworkMessageSnapshot extends NetworkMessage
+{
+    /** No data. */
+    private static final byte[] EMPTY = new byte[0];
+
+    /** Snapshot tick. */
+    private int tick;
+    /** Baseline tick (-1 if none). */
+    private int baseline;
+    /** Encoded delta. */
+    private byte[] data;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageSnapshot()
+    {
+        super();
+    }
+
+    /**
+     * Create an acknowledge message.
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param clientDestId The client destination.
+     * @param tick The acknowledged snapshot tick.
+     */
+    public NetworkMessageSnapshot(byte type, int clientId, int clientDestId, int tick)
+    {
+        this(type, clientId, clientDestId, tick, -1, EMPTY);
+    }
+
+    /**
+     * Create a snapshot message.
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param clientDestId The client destination.
+     * @param tick The snapshot tick.
+     * @param baseline The baseline tick (-1 if none).
+     * @param data The encoded delta.
+     */
+    public NetworkMessageSnapshot(byte type, int clientId, int clientDestId, int tick, int baseline, byte[] data)
+    {
+        super(type, clientId, clientDestId);
+        this.tick = tick;
+        this.baseline = baseline;
+        this.data = data;
+    }
+
+    /**
+     * Get the snapshot tick.
+     * 
+     * @return The snapshot tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the baseline tick.
+     * 
+     * @return The baseline tick (-1 if none).
+     */
+    public int getBaseline()
+    {
+        return baseline;
+    }
+
+    /**
+     * Get the encoded delta.
+     * 
+     * @return The encoded delta.
+     */
+    public byte[] getData()
+    {
+        return data;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * Snapshots and acknowledges are superseded by the next ones, lost ones are recovered by the baseline mechanism.
+     * 
+     * @return {@link NetworkChannel#UNRELIABLE_SEQUENCED}.
+     */
+    @Override
+    public NetworkChannel getChannel()
+    {
+        return NetworkChannel.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer)
+    {
+        buffer.putInt(tick);
+        buffer.putInt(baseline);
+        buffer.put(data);
+    }
+
+    @Override
+    protected void decode(ByteBuffer buffer)
+    {
+        tick = buffer.getInt();
+        baseline = buffer.getInt();
+        data = new byte[buffer.remaining()];
+        buffer.get(data);
+    }
+}
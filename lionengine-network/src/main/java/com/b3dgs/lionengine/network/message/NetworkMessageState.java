@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Authoritative entity location message, with the last input sequence applied by server for its owner.
+ */
+public class NetworkMessageState extends NetworkMessage
+{
+    /** Server tick. */
+    private int tick;
+    /** Entity id. */
+    private short entityId;
+    /** Last applied input sequence (-1 if none). */
+    private int acknowledged;
+    /** Horizontal location. */
+    private double x;
+    /** Vertical location. */
+    private double y;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageState()
+    {
+        super();
+    }
+
+    /**
+     * Create a state message.
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param tick The server tick.
+     * @param entityId The entity id.
+     * @param acknowledged The last applied input sequence (-1 if none).
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    public NetworkMessageState(byte type, int clientId, int tick, short entityId, int acknowledged, double x, double y)
+    {
+        super(type, clientId);
+        this.tick = tick;
+        this.entityId = entityId;
+        this.acknowledged = acknowledged;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Get the server tick.
+     * 
+     * @return The server tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the entity id.
+     * 
+     * @return The entity id.
+     */
+    public short getEntityId()
+    {
+        return entityId;
+    }
+
+    /**
+     * Get the last applied input sequence.
+     * 
+     * @return The last applied input sequence (-1 if none).
+     */
+    public int getAcknowledged()
+    {
+        return acknowledged;
+    }
+
+    /**
+     * Get the horizontal location.
+     * 
+     * @return The horizontal location.
+     */
+    public double getX()
+    {
+        return x;
+    }
+
+    /**
+     * Get the vertical location.
+     * 
+     * @return The vertical location.
+     */
+    public double getY()
+    {
+        return y;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * States are superseded by the next ones.
+     * 
+     * @return {@link NetworkChannel#UNRELIABLE_SEQUENCED}.
+     */
+    @Override
+    public NetworkChannel getChannel()
+    {
+        return NetworkChannel.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer)
+    {
+        buffer.putInt(tick);
+        buffer.putShort(entityId);
+        buffer.putInt(acknowledged);
+        buffer.putDouble(x);
+        buffer.putDouble(y);
+    }
+
+    @Override
+    protected void decode(ByteBuffer buffer)
+    {
+        tick = buffer.getInt();
+        entityId = buffer.getShort();
+        acknowledged = buffer.getInt();
+        x = buffer.getDouble();
+        y = buffer.getDouble();
+    }
+}
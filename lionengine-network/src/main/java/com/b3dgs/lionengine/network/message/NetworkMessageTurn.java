@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lockstep turn message, containing the player commands scheduled for a turn, and the state checksum of a previous
+ * executed turn.
+ */
+public class NetworkMessageTurn extends NetworkMessage
+{
+    /** Scheduled turn. */
+    private int turn;
+    /** Encoded commands. */
+    private byte[] commands;
+    /** Checksum turn (-1 if none). */
+    private int checksumTurn;
+    /** Checksum value. */
+    private String checksum;
+
+    /**
+     * Constructor.
+     */
+    public NetworkMessageTurn()
+    {
+        super();
+    }
+
+    /**
+     * Create a turn message.
+     * 
+     * @param type The message type.
+     * @param clientId The player id.
+     * @param turn The scheduled turn.
+     * @param commands The encoded commands.
+     * @param checksumTurn The checksum turn (-1 if none).
+     * @param checksum The checksum value.
+     */
+    public NetworkMessageTurn(byte type, int clientId, int turn, byte[] commands, int checksumTurn, String checksum)
+    {
+        super(type, clientId);
+        this.turn = turn;
+        this.commands = commands;
+        this.checksumTurn = checksumTurn;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Get the scheduled turn.
+     * 
+     * @return The scheduled turn.
+     */
+    public int getTurn()
+    {
+        return turn;
+    }
+
+    /**
+     * Get the encoded commands.
+     * 
+     * @return The encoded commands.
+     */
+    public byte[] getCommands()
+    {
+        return commands;
+    }
+
+    /**
+     * Get the checksum turn.
+     * 
+     * @return The checksum turn (-1 if none).
+     */
+    public int getChecksumTurn()
+    {
+        return checksumTurn;
+    }
+
+    /**
+     * Get the checksum value.
+     * 
+     * @return The checksum value.
+     */
+    public String getChecksum()
+    {
+        return checksum;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    @Override
+    public void encode(ByteBuffer buffer)
+    {
+        final byte[] data = checksum.getBytes(CHARSET);
+        buffer.putInt(turn);
+        buffer.putInt(checksumTurn);
+        buffer.putShort((short) data.length);
+        buffer.put(data);
+        buffer.put(commands);
+    }
+
+    @Override
+    protected void decode(ByteBuffer buffer)
+    {
+        turn = buffer.getInt();
+        checksumTurn = buffer.getInt();
+        final byte[] data = new byte[buffer.getShort()];
+        buffer.get(data);
+        checksum = new String(data, CHARSET);
+        commands = new byte[buffer.remaining()];
+        buffer.get(commands);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.prediction;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Buffer of timed locations, in order to render a remote mover between two received locations.
+ */
+public final class InterpolationBuffer
+{
+    /** Locations tick. */
+    private final int[] ticks;
+    /** Horizontal locations. */
+    private final double[] xs;
+    /** Vertical locations. */
+    private final double[] ys;
+    /** Oldest index. */
+    private int oldest;
+    /** Stored locations. */
+    private int count;
+
+    /**
+     * Create buffer.
+     * 
+     * @param capacity The maximum stored locations (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public InterpolationBuffer(int capacity)
+    {
+        super();
+
+        Check.superiorStrict(capacity, 0);
+
+        ticks = new int[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+    }
+
+    /**
+     * Add a location, ignored if not newer than last one. Oldest one is dropped if full.
+     * 
+     * @param tick The location tick.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    public void add(int tick, double x, double y)
+    {
+        if (count > 0 && tick <= ticks[index(count - 1)])
+        {
+            return;
+        }
+        if (count == ticks.length)
+        {
+            oldest = index(1);
+            count--;
+        }
+        final int index = index(count);
+        ticks[index] = tick;
+        xs[index] = x;
+        ys[index] = y;
+        count++;
+    }
+
+    /**
+     * Set the mover location at tick, interpolated between surrounding locations, or clamped to the oldest or newest.
+     * 
+     * @param tick The render tick.
+     * @param transformable The mover to update.
+     * @return <code>true</code> if updated, <code>false</code> if no location.
+     */
+    public boolean apply(double tick, Transformable transformable)
+    {
+        if (count == 0)
+        {
+            return false;
+        }
+        int from = index(0);
+        if (tick > ticks[from])
+        {
+            for (int i = 1; i < count; i++)
+            {
+                final int to = index(i);
+                if (tick <= ticks[to])
+                {
+                    final double alpha = (tick - ticks[from]) / (ticks[to] - ticks[from]);
+                    transformable.setLocation(xs[from] + (xs[to] - xs[from]) * alpha,
+                                              ys[from] + (ys[to] - ys[from]) * alpha);
+                    return true;
+                }
+                from = to;
+            }
+        }
+        transformable.setLocation(xs[from], ys[from]);
+        return true;
+    }
+
+    /**
+     * Get the number of stored locations.
+     * 
+     * @return The number of stored locations.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Get the buffer index from oldest.
+     * 
+     * @param offset The offset from oldest.
+     * @return The buffer index.
+     */
+    private int index(int offset)
+    {
+        return (oldest + offset) % ticks.length;
+    }
+}
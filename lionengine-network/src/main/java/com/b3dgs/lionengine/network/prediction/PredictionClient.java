@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.prediction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageInput;
+import com.b3dgs.lionengine.network.message.NetworkMessageState;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Client side prediction.
+ * <p>
+ * Each tick input is applied immediately to the predicted mover, and kept with its sequence until acknowledged. On
+ * authoritative state reception, the mover is set to the server location and the not acknowledged inputs are applied
+ * again. Remote movers are rendered {@link #getDelay()} ticks in the past, interpolated between received states.
+ * </p>
+ * <p>
+ * It must be added to the networked client as networkable for the state type, and the message decoder must create a
+ * {@link NetworkMessageState} for it.
+ * </p>
+ */
+public class PredictionClient extends NetworkableModel
+{
+    /** Maximum not acknowledged inputs. */
+    static final int INPUTS = 64;
+    /** Inputs sent again in each message. */
+    private static final int REDUNDANCY = 8;
+    /** Render tick convergence factor. */
+    private static final double SMOOTH = 0.1;
+    /** Remote locations buffer size. */
+    private static final int BUFFER = 32;
+
+    /** Remote movers by entity id. */
+    private final Map<Short, Remote> remotes = new HashMap<>();
+    /** Not acknowledged inputs by sequence modulo size. */
+    private final byte[][] inputs = new byte[INPUTS][];
+    /** Input model. */
+    private final InputModel model;
+    /** Input message type. */
+    private final byte typeInput;
+    /** Remote render delay in ticks. */
+    private final int delay;
+    /** Predicted mover (<code>null</code> if none). */
+    private Transformable predicted;
+    /** Predicted entity id. */
+    private short predictedId;
+    /** Next input sequence. */
+    private int sequence;
+    /** Last acknowledged input sequence. */
+    private int acknowledged = -1;
+    /** Newest received server tick (-1 if none). */
+    private int latestTick = -1;
+    /** Remote render tick. */
+    private double renderTick;
+    /** Last correction distance. */
+    private double correction;
+
+    /**
+     * Create client prediction.
+     * 
+     * @param model The input model (must not be <code>null</code>).
+     * @param typeInput The input message type.
+     * @param delay The remote render delay in ticks (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PredictionClient(InputModel model, byte typeInput, int delay)
+    {
+        super();
+
+        Check.notNull(model);
+        Check.superiorStrict(delay, 0);
+
+        this.model = model;
+        this.typeInput = typeInput;
+        this.delay = delay;
+    }
+
+    /**
+     * Set the predicted mover, owned by this client.
+     * 
+     * @param entityId The entity id.
+     * @param transformable The mover reference.
+     */
+    public void setPredicted(short entityId, Transformable transformable)
+    {
+        predictedId = entityId;
+        predicted = transformable;
+    }
+
+    /**
+     * Add a remote mover, interpolated from server states.
+     * 
+     * @param entityId The entity id.
+     * @param transformable The mover reference.
+     */
+    public void addRemote(short entityId, Transformable transformable)
+    {
+        remotes.put(Short.valueOf(entityId), new Remote(transformable));
+    }
+
+    /**
+     * Remove a remote mover.
+     * 
+     * @param entityId The entity id.
+     */
+    public void removeRemote(short entityId)
+    {
+        remotes.remove(Short.valueOf(entityId));
+    }
+
+    /**
+     * Update by one tick: predict and send the input, and interpolate remote movers.
+     * 
+     * @param input The tick input (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void update(byte[] input)
+    {
+        Check.notNull(input);
+
+        if (predicted != null)
+        {
+            if (sequence - acknowledged > INPUTS)
+            {
+                acknowledged = sequence - INPUTS;
+            }
+            inputs[sequence % INPUTS] = input;
+            model.apply(predicted, input);
+
+            final int first = Math.max(acknowledged + 1, sequence - REDUNDANCY + 1);
+            final byte[][] sent = new byte[sequence - first + 1][];
+            for (int i = 0; i < sent.length; i++)
+            {
+                sent[i] = inputs[(first + i) % INPUTS];
+            }
+            addNetworkMessage(new NetworkMessageInput(typeInput, getClientId().intValue(), first, sent));
+            sequence++;
+        }
+        if (latestTick >= 0)
+        {
+            final double target = latestTick - (double) delay;
+            renderTick++;
+            if (Math.abs(target - renderTick) > delay)
+            {
+                renderTick = target;
+            }
+            else
+            {
+                renderTick += (target - renderTick) * SMOOTH;
+            }
+            for (final Remote remote : remotes.values())
+            {
+                remote.buffer.apply(renderTick, remote.transformable);
+            }
+        }
+    }
+
+    /**
+     * Get the remote render delay.
+     * 
+     * @return The remote render delay in ticks.
+     */
+    public int getDelay()
+    {
+        return delay;
+    }
+
+    /**
+     * Get the number of not acknowledged inputs.
+     * 
+     * @return The number of not acknowledged inputs.
+     */
+    public int getPending()
+    {
+        return sequence - acknowledged - 1;
+    }
+
+    /**
+     * Get the last correction applied by reconciliation.
+     * 
+     * @return The distance between predicted and reconciled location.
+     */
+    public double getCorrection()
+    {
+        return correction;
+    }
+
+    /**
+     * Set predicted mover to server state, and apply again the not acknowledged inputs.
+     * 
+     * @param state The server state.
+     */
+    private void reconcile(NetworkMessageState state)
+    {
+        final int ack = state.getAcknowledged();
+        if (ack < acknowledged || ack >= sequence)
+        {
+            return;
+        }
+        acknowledged = ack;
+
+        final double x = predicted.getX();
+        final double y = predicted.getY();
+        predicted.teleport(state.getX(), state.getY());
+        for (int i = ack + 1; i < sequence; i++)
+        {
+            model.apply(predicted, inputs[i % INPUTS]);
+        }
+        correction = Math.hypot(predicted.getX() - x, predicted.getY() - y);
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageState)
+        {
+            final NetworkMessageState state = (NetworkMessageState) message;
+            latestTick = Math.max(latestTick, state.getTick());
+            if (predicted != null && state.getEntityId() == predictedId)
+            {
+                reconcile(state);
+            }
+            else
+            {
+                final Remote remote = remotes.get(Short.valueOf(state.getEntityId()));
+                if (remote != null)
+                {
+                    remote.buffer.add(state.getTick(), state.getX(), state.getY());
+                }
+            }
+        }
+    }
+
+    /**
+     * Remote mover.
+     */
+    private static final class Remote
+    {
+        /** Mover reference. */
+        private final Transformable transformable;
+        /** Received locations. */
+        private final InterpolationBuffer buffer = new InterpolationBuffer(BUFFER);
+
+        /**
+         * Create remote.
+         * 
+         * @param transformable The mover reference.
+         */
+        Remote(Transformable transformable)
+        {
+            super();
+
+            this.transformable = transformable;
+        }
+    }
+}
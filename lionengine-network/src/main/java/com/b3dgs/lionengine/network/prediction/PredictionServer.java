@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.prediction;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageInput;
+import com.b3dgs.lionengine.network.message.NetworkMessageState;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Server side authority for predicted movers.
+ * <p>
+ * Received inputs are applied in sequence order to the mover owned by their client, ignoring already applied ones, and
+ * skipping lost ones. On each {@link #update()}, the location of each mover is sent to all clients, with the last
+ * applied input sequence.
+ * </p>
+ * <p>
+ * It must be added to the networked server as networkable for the input type, and the message decoder must create a
+ * {@link NetworkMessageInput} for it.
+ * </p>
+ */
+public class PredictionServer extends NetworkableModel
+{
+    /** Movers by entity id. */
+    private final Map<Short, Owned> movers = new TreeMap<>();
+    /** Input model. */
+    private final InputModel model;
+    /** State message type. */
+    private final byte typeState;
+    /** Current tick. */
+    private int tick = -1;
+
+    /**
+     * Create server authority.
+     * 
+     * @param model The input model (must not be <code>null</code>).
+     * @param typeState The state message type.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PredictionServer(InputModel model, byte typeState)
+    {
+        super();
+
+        Check.notNull(model);
+
+        this.model = model;
+        this.typeState = typeState;
+    }
+
+    /**
+     * Add a mover.
+     * 
+     * @param clientId The owner client id (-1 if none).
+     * @param entityId The entity id.
+     * @param transformable The mover reference.
+     */
+    public void addMover(int clientId, short entityId, Transformable transformable)
+    {
+        movers.put(Short.valueOf(entityId), new Owned(clientId, transformable));
+    }
+
+    /**
+     * Remove a mover.
+     * 
+     * @param entityId The entity id.
+     */
+    public void removeMover(short entityId)
+    {
+        movers.remove(Short.valueOf(entityId));
+    }
+
+    /**
+     * Send the movers state.
+     */
+    public void update()
+    {
+        tick++;
+        for (final Map.Entry<Short, Owned> entry : movers.entrySet())
+        {
+            final Owned owned = entry.getValue();
+            addNetworkMessage(new NetworkMessageState(typeState,
+                                                      -1,
+                                                      tick,
+                                                      entry.getKey().shortValue(),
+                                                      owned.acknowledged,
+                                                      owned.transformable.getX(),
+                                                      owned.transformable.getY()));
+        }
+    }
+
+    /**
+     * Get the last applied input sequence.
+     * 
+     * @param entityId The entity id.
+     * @return The last applied input sequence (-1 if none or unknown).
+     */
+    public int getAcknowledged(short entityId)
+    {
+        final Owned owned = movers.get(Short.valueOf(entityId));
+        if (owned == null)
+        {
+            return -1;
+        }
+        return owned.acknowledged;
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageInput)
+        {
+            final NetworkMessageInput input = (NetworkMessageInput) message;
+            for (final Owned owned : movers.values())
+            {
+                if (owned.clientId == input.getClientId())
+                {
+                    final byte[][] inputs = input.getInputs();
+                    final int first = Math.max(0, owned.acknowledged + 1 - input.getSequence());
+                    for (int i = first; i < inputs.length; i++)
+                    {
+                        model.apply(owned.transformable, inputs[i]);
+                        owned.acknowledged = input.getSequence() + i;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Mover owned by a client.
+     */
+    private static final class Owned
+    {
+        /** Owner client id. */
+        private final int clientId;
+        /** Mover reference. */
+        private final Transformable transformable;
+        /** Last applied input sequence. */
+        private int acknowledged = -1;
+
+        /**
+         * Create owned mover.
+         * 
+         * @param clientId The owner client id.
+         * @param transformable The mover reference.
+         */
+        Owned(int clientId, Transformable transformable)
+        {
+            super();
+
+            this.clientId = clientId;
+            this.transformable = transformable;
+        }
+    }
+}
@@ -57,12 +57,12 @@ public interface Networkable
      * 
      * @param id The client id.
      */
-    void setClientId(Byte id);
+    void setClientId(Integer id);
 
     /**
      * Get the client id.
      * 
      * @return The client id.
      */
-    Byte getClientId();
+    Integer getClientId();
 }
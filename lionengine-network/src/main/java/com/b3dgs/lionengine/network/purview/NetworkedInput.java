@@ -91,13 +91,13 @@ public abstract class NetworkedInput implements Networkable, InputDeviceKeyListe
     }
 
     @Override
-    public void setClientId(Byte id)
+    public void setClientId(Integer id)
     {
         networkable.setClientId(id);
     }
 
     @Override
-    public Byte getClientId()
+    public Integer getClientId()
     {
         return networkable.getClientId();
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Read values written by {@link BitWriter}.
+ */
+final class BitReader
+{
+    /** Data reference. */
+    private final byte[] data;
+    /** Pending bits. */
+    private long pending;
+    /** Pending bits number. */
+    private int pendingBits;
+    /** Read bytes. */
+    private int position;
+
+    /**
+     * Create reader.
+     * 
+     * @param data The data to read.
+     */
+    BitReader(byte[] data)
+    {
+        super();
+
+        this.data = data;
+    }
+
+    /**
+     * Read bits.
+     * 
+     * @param bits The number of bits to read (from 0 to 32).
+     * @return The read value.
+     * @throws LionEngineException If not enough data.
+     */
+    int read(int bits)
+    {
+        if (bits == 0)
+        {
+            return 0;
+        }
+        while (pendingBits < bits)
+        {
+            if (position >= data.length)
+            {
+                throw new LionEngineException("Snapshot data underflow");
+            }
+            pending = pending << Byte.SIZE | UtilConversion.mask(data[position]);
+            position++;
+            pendingBits += Byte.SIZE;
+        }
+        pendingBits -= bits;
+        return (int) (pending >>> pendingBits & 0xFFFF_FFFFL >>> Integer.SIZE - bits);
+    }
+
+    /**
+     * Read an unsigned value prefixed by its bits length.
+     * 
+     * @return The read value.
+     * @throws LionEngineException If not enough data.
+     */
+    int readUnsigned()
+    {
+        return read(read(BitWriter.LENGTH_BITS));
+    }
+
+    /**
+     * Read a zig zag encoded signed value.
+     * 
+     * @return The read value.
+     * @throws LionEngineException If not enough data.
+     */
+    int readSigned()
+    {
+        final int value = readUnsigned();
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Write values as packed bits, most significant first.
+ */
+final class BitWriter
+{
+    /** Default data size. */
+    private static final int DEFAULT_SIZE = 256;
+    /** Bits used to store a value length. */
+    static final int LENGTH_BITS = 6;
+
+    /** Written data. */
+    private byte[] data = new byte[DEFAULT_SIZE];
+    /** Pending bits. */
+    private long pending;
+    /** Pending bits number. */
+    private int pendingBits;
+    /** Written bytes. */
+    private int size;
+
+    /**
+     * Create writer.
+     */
+    BitWriter()
+    {
+        super();
+    }
+
+    /**
+     * Write the lowest bits of value.
+     * 
+     * @param value The value to write.
+     * @param bits The number of bits to write (from 0 to 32).
+     */
+    void write(int value, int bits)
+    {
+        if (bits > 0)
+        {
+            pending = pending << bits | value & 0xFFFF_FFFFL >>> Integer.SIZE - bits;
+            pendingBits += bits;
+            while (pendingBits >= Byte.SIZE)
+            {
+                pendingBits -= Byte.SIZE;
+                put((byte) (pending >>> pendingBits));
+            }
+        }
+    }
+
+    /**
+     * Write an unsigned value prefixed by its bits length.
+     * 
+     * @param value The value to write.
+     */
+    void writeUnsigned(int value)
+    {
+        final int bits = Integer.SIZE - Integer.numberOfLeadingZeros(value);
+        write(bits, LENGTH_BITS);
+        write(value, bits);
+    }
+
+    /**
+     * Write a signed value with zig zag encoding, so small absolute values use few bits.
+     * 
+     * @param value The value to write.
+     */
+    void writeSigned(int value)
+    {
+        writeUnsigned(value << 1 ^ value >> Integer.SIZE - 1);
+    }
+
+    /**
+     * Write pending bits, padded with zero, and get the written data.
+     * 
+     * @return The written data copy.
+     */
+    byte[] toByteArray()
+    {
+        if (pendingBits > 0)
+        {
+            put((byte) (pending << Byte.SIZE - pendingBits));
+            pendingBits = 0;
+        }
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Clear written data.
+     */
+    void clear()
+    {
+        pending = 0L;
+        pendingBits = 0;
+        size = 0;
+    }
+
+    /**
+     * Store a complete byte.
+     * 
+     * @param value The byte value.
+     */
+    private void put(byte value)
+    {
+        if (size == data.length)
+        {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[size] = value;
+        size++;
+    }
+}
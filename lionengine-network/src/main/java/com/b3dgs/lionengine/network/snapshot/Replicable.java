@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+/**
+ * Describe an object with replicated fields, as quantized integer values.
+ * <p>
+ * Fields are identified by their index, and their number must not change while replicated.
+ * </p>
+ */
+public interface Replicable
+{
+    /**
+     * Get the number of replicated fields.
+     * 
+     * @return The number of replicated fields.
+     */
+    int getReplicatedFields();
+
+    /**
+     * Get the replicated field value.
+     * 
+     * @param index The field index.
+     * @return The quantized field value.
+     */
+    int getReplicatedField(int index);
+
+    /**
+     * Set the replicated field value.
+     * 
+     * @param index The field index.
+     * @param value The quantized field value.
+     */
+    void setReplicatedField(int index, int value);
+
+    /**
+     * Check if field is interpolated between snapshots on client side.
+     * 
+     * @param index The field index.
+     * @return <code>true</code> if interpolated, <code>false</code> if set to the last received value.
+     */
+    default boolean isInterpolated(int index)
+    {
+        return false;
+    }
+}
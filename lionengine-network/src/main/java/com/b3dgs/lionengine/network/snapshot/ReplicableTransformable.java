@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Replicate a {@link Transformable} location, quantized with a precision, and interpolated on client side.
+ */
+public class ReplicableTransformable implements Replicable
+{
+    /** Horizontal location field. */
+    public static final int FIELD_X = 0;
+    /** Vertical location field. */
+    public static final int FIELD_Y = 1;
+    /** Fields number. */
+    private static final int FIELDS = 2;
+
+    /** Transformable reference. */
+    private final Transformable transformable;
+    /** Quantization steps per pixel. */
+    private final double precision;
+
+    /**
+     * Create replicable.
+     * 
+     * @param transformable The transformable reference (must not be <code>null</code>).
+     * @param precision The quantization steps per pixel (strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ReplicableTransformable(Transformable transformable, int precision)
+    {
+        super();
+
+        Check.notNull(transformable);
+        Check.superiorStrict(precision, 0);
+
+        this.transformable = transformable;
+        this.precision = precision;
+    }
+
+    /*
+     * Replicable
+     */
+
+    @Override
+    public int getReplicatedFields()
+    {
+        return FIELDS;
+    }
+
+    @Override
+    public int getReplicatedField(int index)
+    {
+        if (index == FIELD_X)
+        {
+            return (int) Math.round(transformable.getX() * precision);
+        }
+        return (int) Math.round(transformable.getY() * precision);
+    }
+
+    @Override
+    public void setReplicatedField(int index, int value)
+    {
+        if (index == FIELD_X)
+        {
+            transformable.teleportX(value / precision);
+        }
+        else
+        {
+            transformable.teleportY(value / precision);
+        }
+    }
+
+    @Override
+    public boolean isInterpolated(int index)
+    {
+        return true;
+    }
+}
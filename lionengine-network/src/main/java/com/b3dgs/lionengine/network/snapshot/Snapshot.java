@@ -0,0 +1,400 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Immutable state of the replicated entities at a tick, sorted by entity id.
+ * <p>
+ * A snapshot is encoded as a delta from a baseline snapshot known by both sides: only created, removed and changed
+ * entities are written, each changed field as a zig zag encoded difference, prefixed by its bits length.
+ * </p>
+ */
+final class Snapshot
+{
+    /** End operation. */
+    private static final int OP_END = 0;
+    /** Update operation. */
+    private static final int OP_UPDATE = 1;
+    /** Create operation. */
+    private static final int OP_CREATE = 2;
+    /** Remove operation. */
+    private static final int OP_REMOVE = 3;
+    /** Operation bits. */
+    private static final int OP_BITS = 2;
+    /** Identifier before the first one. */
+    private static final int ID_START = Short.MIN_VALUE - 1;
+    /** Empty snapshot. */
+    private static final Snapshot EMPTY = new Snapshot(-1, new short[0], new int[1], new int[0]);
+
+    /**
+     * Decode snapshot written by {@link #encode(Snapshot, BitWriter)}.
+     * 
+     * @param tick The snapshot tick.
+     * @param baseline The baseline snapshot (<code>null</code> if none).
+     * @param reader The data reader.
+     * @return The decoded snapshot.
+     * @throws LionEngineException If invalid data.
+     */
+    static Snapshot decode(int tick, Snapshot baseline, BitReader reader)
+    {
+        final Snapshot base = baseline == null ? EMPTY : baseline;
+        final Builder builder = new Builder(tick);
+        int j = 0;
+        int id = ID_START;
+        int op = reader.read(OP_BITS);
+        while (op != OP_END)
+        {
+            id += reader.readUnsigned();
+            // Unchanged entities
+            while (j < base.ids.length && base.ids[j] < id)
+            {
+                builder.copy(base, j);
+                j++;
+            }
+            if (op == OP_CREATE)
+            {
+                final int fields = reader.readUnsigned();
+                builder.start((short) id);
+                for (int f = 0; f < fields; f++)
+                {
+                    builder.add(reader.readSigned());
+                }
+                // Replaced entity
+                if (j < base.ids.length && base.ids[j] == id)
+                {
+                    j++;
+                }
+            }
+            else if (j < base.ids.length && base.ids[j] == id)
+            {
+                if (op == OP_UPDATE)
+                {
+                    builder.start((short) id);
+                    for (int f = base.offsets[j]; f < base.offsets[j + 1]; f++)
+                    {
+                        builder.add(reader.read(1) == 0 ? base.values[f] : base.values[f] + reader.readSigned());
+                    }
+                }
+                j++;
+            }
+            else
+            {
+                throw new LionEngineException("Snapshot entity not in baseline: " + id);
+            }
+            op = reader.read(OP_BITS);
+        }
+        while (j < base.ids.length)
+        {
+            builder.copy(base, j);
+            j++;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Check if entity values are the same.
+     * 
+     * @param a The first snapshot.
+     * @param i The first entity index.
+     * @param b The second snapshot.
+     * @param j The second entity index.
+     * @return <code>true</code> if same values, <code>false</code> else.
+     */
+    private static boolean same(Snapshot a, int i, Snapshot b, int j)
+    {
+        final int fields = a.offsets[i + 1] - a.offsets[i];
+        if (fields != b.offsets[j + 1] - b.offsets[j])
+        {
+            return false;
+        }
+        for (int f = 0; f < fields; f++)
+        {
+            if (a.values[a.offsets[i] + f] != b.values[b.offsets[j] + f])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Snapshot tick. */
+    private final int tick;
+    /** Entities id, sorted. */
+    private final short[] ids;
+    /** Entities first value offset (last is the values number). */
+    private final int[] offsets;
+    /** Entities values. */
+    private final int[] values;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param tick The snapshot tick.
+     * @param ids The entities id, sorted.
+     * @param offsets The entities first value offset.
+     * @param values The entities values.
+     */
+    private Snapshot(int tick, short[] ids, int[] offsets, int[] values)
+    {
+        super();
+
+        this.tick = tick;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /**
+     * Encode snapshot as a delta from baseline.
+     * 
+     * @param baseline The baseline snapshot (<code>null</code> if none).
+     * @param writer The data writer.
+     */
+    void encode(Snapshot baseline, BitWriter writer)
+    {
+        final Snapshot base = baseline == null ? EMPTY : baseline;
+        int i = 0;
+        int j = 0;
+        int last = ID_START;
+        while (i < ids.length || j < base.ids.length)
+        {
+            final int current = i < ids.length ? ids[i] : Integer.MAX_VALUE;
+            final int previous = j < base.ids.length ? base.ids[j] : Integer.MAX_VALUE;
+            if (current < previous)
+            {
+                last = writeCreate(writer, i, last);
+                i++;
+            }
+            else if (previous < current)
+            {
+                writer.write(OP_REMOVE, OP_BITS);
+                writer.writeUnsigned(previous - last);
+                last = previous;
+                j++;
+            }
+            else
+            {
+                if (!same(this, i, base, j))
+                {
+                    last = writeUpdate(writer, i, base, j, last);
+                }
+                i++;
+                j++;
+            }
+        }
+        writer.write(OP_END, OP_BITS);
+    }
+
+    /**
+     * Get the snapshot tick.
+     * 
+     * @return The snapshot tick.
+     */
+    int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the entity index.
+     * 
+     * @param id The entity id.
+     * @return The entity index, negative if not found.
+     */
+    int indexOf(short id)
+    {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    /**
+     * Get the entity fields number.
+     * 
+     * @param index The entity index.
+     * @return The fields number.
+     */
+    int getFields(int index)
+    {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Get the entity field value.
+     * 
+     * @param index The entity index.
+     * @param field The field index.
+     * @return The field value.
+     */
+    int getValue(int index, int field)
+    {
+        return values[offsets[index] + field];
+    }
+
+    /**
+     * Write entity creation.
+     * 
+     * @param writer The data writer.
+     * @param i The entity index.
+     * @param last The last written id.
+     * @return The written id.
+     */
+    private int writeCreate(BitWriter writer, int i, int last)
+    {
+        writer.write(OP_CREATE, OP_BITS);
+        writer.writeUnsigned(ids[i] - last);
+        writer.writeUnsigned(offsets[i + 1] - offsets[i]);
+        for (int f = offsets[i]; f < offsets[i + 1]; f++)
+        {
+            writer.writeSigned(values[f]);
+        }
+        return ids[i];
+    }
+
+    /**
+     * Write entity update, or creation if fields number changed.
+     * 
+     * @param writer The data writer.
+     * @param i The entity index.
+     * @param base The baseline snapshot.
+     * @param j The baseline entity index.
+     * @param last The last written id.
+     * @return The written id.
+     */
+    private int writeUpdate(BitWriter writer, int i, Snapshot base, int j, int last)
+    {
+        final int fields = offsets[i + 1] - offsets[i];
+        if (fields != base.offsets[j + 1] - base.offsets[j])
+        {
+            return writeCreate(writer, i, last);
+        }
+        writer.write(OP_UPDATE, OP_BITS);
+        writer.writeUnsigned(ids[i] - last);
+        for (int f = 0; f < fields; f++)
+        {
+            final int delta = values[offsets[i] + f] - base.values[base.offsets[j] + f];
+            if (delta == 0)
+            {
+                writer.write(0, 1);
+            }
+            else
+            {
+                writer.write(1, 1);
+                writer.writeSigned(delta);
+            }
+        }
+        return ids[i];
+    }
+
+    /**
+     * Snapshot builder, where entities must be added by increasing id.
+     */
+    static final class Builder
+    {
+        /** Default capacity. */
+        private static final int DEFAULT_CAPACITY = 16;
+
+        /** Snapshot tick. */
+        private final int tick;
+        /** Entities id. */
+        private short[] ids = new short[DEFAULT_CAPACITY];
+        /** Entities first value offset. */
+        private int[] offsets = new int[DEFAULT_CAPACITY + 1];
+        /** Entities values. */
+        private int[] values = new int[DEFAULT_CAPACITY * 2];
+        /** Entities number. */
+        private int count;
+        /** Values number. */
+        private int size;
+
+        /**
+         * Create builder.
+         * 
+         * @param tick The snapshot tick.
+         */
+        Builder(int tick)
+        {
+            super();
+
+            this.tick = tick;
+        }
+
+        /**
+         * Start a new entity.
+         * 
+         * @param id The entity id, greater than the previous one.
+         */
+        void start(short id)
+        {
+            if (count == ids.length)
+            {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                offsets = Arrays.copyOf(offsets, ids.length + 1);
+            }
+            ids[count] = id;
+            offsets[count] = size;
+            count++;
+        }
+
+        /**
+         * Add a value to the current entity.
+         * 
+         * @param value The field value.
+         */
+        void add(int value)
+        {
+            if (size == values.length)
+            {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * Copy an entity from another snapshot.
+         * 
+         * @param snapshot The source snapshot.
+         * @param index The entity index.
+         */
+        void copy(Snapshot snapshot, int index)
+        {
+            start(snapshot.ids[index]);
+            for (int f = snapshot.offsets[index]; f < snapshot.offsets[index + 1]; f++)
+            {
+                add(snapshot.values[f]);
+            }
+        }
+
+        /**
+         * Create the snapshot.
+         * 
+         * @return The built snapshot.
+         */
+        Snapshot build()
+        {
+            offsets[count] = size;
+            return new Snapshot(tick,
+                                Arrays.copyOf(ids, count),
+                                Arrays.copyOf(offsets, count + 1),
+                                Arrays.copyOf(values, size));
+        }
+    }
+}
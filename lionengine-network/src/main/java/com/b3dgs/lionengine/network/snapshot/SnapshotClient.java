@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Client side snapshot replication.
+ * <p>
+ * Received deltas are applied on the acknowledged baseline to reconstruct the server snapshot, which is then
+ * acknowledged. {@link #apply(double)} sets the replicated fields, interpolated between the two last snapshots.
+ * </p>
+ * <p>
+ * It must be added to the networked world as networkable for the snapshot type. The message decoder must create a
+ * {@link NetworkMessageSnapshot} for both types.
+ * </p>
+ */
+public class SnapshotClient extends NetworkableModel
+{
+    /** Replicated entities by id. */
+    private final Map<Short, Replicable> replicables = new HashMap<>();
+    /** Received snapshots history, by tick modulo size. */
+    private final Snapshot[] history = new Snapshot[SnapshotServer.HISTORY];
+    /** Snapshot message type. */
+    private final byte typeSnapshot;
+    /** Acknowledge message type. */
+    private final byte typeAck;
+    /** Previous snapshot (<code>null</code> if none). */
+    private Snapshot previous;
+    /** Current snapshot (<code>null</code> if none). */
+    private Snapshot current;
+
+    /**
+     * Create client replication.
+     * 
+     * @param typeSnapshot The snapshot message type.
+     * @param typeAck The acknowledge message type.
+     */
+    public SnapshotClient(byte typeSnapshot, byte typeAck)
+    {
+        super();
+
+        this.typeSnapshot = typeSnapshot;
+        this.typeAck = typeAck;
+    }
+
+    /**
+     * Add a replicated entity.
+     * 
+     * @param entityId The entity id.
+     * @param replicable The replicated entity.
+     */
+    public void addReplicable(short entityId, Replicable replicable)
+    {
+        replicables.put(Short.valueOf(entityId), replicable);
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param entityId The entity id.
+     */
+    public void removeReplicable(short entityId)
+    {
+        replicables.remove(Short.valueOf(entityId));
+    }
+
+    /**
+     * Apply the replicated fields, interpolated between the previous and the current snapshot.
+     * 
+     * @param alpha The interpolation factor, from 0.0 (previous) to 1.0 (current).
+     */
+    public void apply(double alpha)
+    {
+        if (current == null)
+        {
+            return;
+        }
+        for (final Map.Entry<Short, Replicable> entry : replicables.entrySet())
+        {
+            final short id = entry.getKey().shortValue();
+            final int index = current.indexOf(id);
+            if (index > -1)
+            {
+                final Replicable replicable = entry.getValue();
+                final int old = previous == null ? -1 : previous.indexOf(id);
+                final int fields = Math.min(current.getFields(index), replicable.getReplicatedFields());
+                final boolean interpolable = old > -1 && previous.getFields(old) == current.getFields(index);
+                for (int f = 0; f < fields; f++)
+                {
+                    final int value = current.getValue(index, f);
+                    if (interpolable && replicable.isInterpolated(f))
+                    {
+                        final int from = previous.getValue(old, f);
+                        replicable.setReplicatedField(f, (int) Math.round(from + (value - from) * alpha));
+                    }
+                    else
+                    {
+                        replicable.setReplicatedField(f, value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the last received tick.
+     * 
+     * @return The last received tick (-1 if none).
+     */
+    public int getTick()
+    {
+        if (current == null)
+        {
+            return -1;
+        }
+        return current.getTick();
+    }
+
+    /**
+     * Get the received snapshot from history.
+     * 
+     * @param tick The snapshot tick.
+     * @return The snapshot, <code>null</code> if not available.
+     */
+    private Snapshot getSnapshot(int tick)
+    {
+        final Snapshot snapshot = history[tick % history.length];
+        if (snapshot != null && snapshot.getTick() == tick)
+        {
+            return snapshot;
+        }
+        return null;
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message.getType() != typeSnapshot || !(message instanceof NetworkMessageSnapshot))
+        {
+            return;
+        }
+        final NetworkMessageSnapshot received = (NetworkMessageSnapshot) message;
+        final int tick = received.getTick();
+        if (tick <= getTick())
+        {
+            return;
+        }
+        final Snapshot baseline;
+        if (received.getBaseline() < 0)
+        {
+            baseline = null;
+        }
+        else
+        {
+            baseline = getSnapshot(received.getBaseline());
+            if (baseline == null)
+            {
+                return;
+            }
+        }
+        final Snapshot snapshot = Snapshot.decode(tick, baseline, new BitReader(received.getData()));
+        history[tick % history.length] = snapshot;
+        previous = current;
+        current = snapshot;
+
+        final int clientId = getClientId().intValue();
+        addNetworkMessage(new NetworkMessageSnapshot(typeAck, clientId, NetworkMessage.DEST_SERVER, tick));
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.b3dgs.lionengine.network.ClientListener;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Server side snapshot replication.
+ * <p>
+ * On each {@link #update()}, the replicated fields are captured as a snapshot, and each client receives it as a delta
+ * from the last snapshot it acknowledged (or the full snapshot if not available anymore). Clients sharing the same
+ * baseline share the same encoded data.
+ * </p>
+ * <p>
+ * It must be added to the networked world as networkable for the acknowledge type, and as client listener before
+ * server start. The message decoder must create a {@link NetworkMessageSnapshot} for both types.
+ * </p>
+ */
+public class SnapshotServer extends NetworkableModel implements ClientListener
+{
+    /** Snapshots history size. */
+    static final int HISTORY = 32;
+    /** No acknowledge. */
+    private static final Integer NONE = Integer.valueOf(-1);
+
+    /** Replicated entities by id. */
+    private final Map<Short, Replicable> replicables = new TreeMap<>();
+    /** Last acknowledged tick by client. */
+    private final Map<Integer, Integer> acknowledged = new HashMap<>();
+    /** Encoded data by baseline tick for current update. */
+    private final Map<Integer, byte[]> encoded = new HashMap<>();
+    /** Snapshots history, by tick modulo size. */
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    /** Data writer. */
+    private final BitWriter writer = new BitWriter();
+    /** Snapshot message type. */
+    private final byte typeSnapshot;
+    /** Acknowledge message type. */
+    private final byte typeAck;
+    /** Current tick. */
+    private int tick = -1;
+
+    /**
+     * Create server replication.
+     * 
+     * @param typeSnapshot The snapshot message type.
+     * @param typeAck The acknowledge message type.
+     */
+    public SnapshotServer(byte typeSnapshot, byte typeAck)
+    {
+        super();
+
+        this.typeSnapshot = typeSnapshot;
+        this.typeAck = typeAck;
+    }
+
+    /**
+     * Add a replicated entity.
+     * 
+     * @param entityId The entity id.
+     * @param replicable The replicated entity.
+     */
+    public void addReplicable(short entityId, Replicable replicable)
+    {
+        replicables.put(Short.valueOf(entityId), replicable);
+    }
+
+    /**
+     * Remove a replicated entity.
+     * 
+     * @param entityId The entity id.
+     */
+    public void removeReplicable(short entityId)
+    {
+        replicables.remove(Short.valueOf(entityId));
+    }
+
+    /**
+     * Capture current snapshot, and prepare the delta messages for each client.
+     */
+    public void update()
+    {
+        tick++;
+        final Snapshot snapshot = capture();
+        history[tick % HISTORY] = snapshot;
+
+        encoded.clear();
+        for (final Map.Entry<Integer, Integer> entry : acknowledged.entrySet())
+        {
+            final Snapshot baseline = getSnapshot(entry.getValue().intValue());
+            final int baselineTick = baseline == null ? -1 : baseline.getTick();
+            final byte[] data = encoded.computeIfAbsent(Integer.valueOf(baselineTick), key ->
+            {
+                writer.clear();
+                snapshot.encode(baseline, writer);
+                return writer.toByteArray();
+            });
+            addNetworkMessage(new NetworkMessageSnapshot(typeSnapshot,
+                                                         -1,
+                                                         entry.getKey().intValue(),
+                                                         tick,
+                                                         baselineTick,
+                                                         data));
+        }
+    }
+
+    /**
+     * Get the current tick.
+     * 
+     * @return The current tick (-1 if not updated).
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the snapshot from history.
+     * 
+     * @param snapshotTick The snapshot tick.
+     * @return The snapshot, <code>null</code> if not available.
+     */
+    Snapshot getSnapshot(int snapshotTick)
+    {
+        if (snapshotTick < 0 || snapshotTick <= tick - HISTORY)
+        {
+            return null;
+        }
+        final Snapshot snapshot = history[snapshotTick % HISTORY];
+        if (snapshot != null && snapshot.getTick() == snapshotTick)
+        {
+            return snapshot;
+        }
+        return null;
+    }
+
+    /**
+     * Capture the replicated entities fields.
+     * 
+     * @return The current snapshot.
+     */
+    private Snapshot capture()
+    {
+        final Snapshot.Builder builder = new Snapshot.Builder(tick);
+        for (final Map.Entry<Short, Replicable> entry : replicables.entrySet())
+        {
+            final Replicable replicable = entry.getValue();
+            builder.start(entry.getKey().shortValue());
+            final int fields = replicable.getReplicatedFields();
+            for (int i = 0; i < fields; i++)
+            {
+                builder.add(replicable.getReplicatedField(i));
+            }
+        }
+        return builder.build();
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message.getType() == typeAck && message instanceof NetworkMessageSnapshot)
+        {
+            final Integer client = Integer.valueOf(message.getClientId());
+            final Integer last = acknowledged.get(client);
+            final int ack = ((NetworkMessageSnapshot) message).getTick();
+            if (last != null && ack > last.intValue() && ack <= tick)
+            {
+                acknowledged.put(client, Integer.valueOf(ack));
+            }
+        }
+    }
+
+    /*
+     * ClientListener
+     */
+
+    @Override
+    public void notifyClientConnected(Integer id, String name)
+    {
+        acknowledged.put(id, NONE);
+    }
+
+    @Override
+    public void notifyClientDisconnected(Integer id, String name)
+    {
+        acknowledged.remove(id);
+    }
+
+    @Override
+    public void notifyClientNameChanged(Integer id, String name)
+    {
+        // Nothing to do
+    }
+}
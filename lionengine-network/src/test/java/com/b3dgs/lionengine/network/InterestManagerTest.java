@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Localizable;
+import com.b3dgs.lionengine.network.message.NetworkMessageChat;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+
+/**
+ * Test {@link InterestManager}.
+ */
+public final class InterestManagerTest
+{
+    /** Client id. */
+    private static final int CLIENT = 1;
+    /** Other client id. */
+    private static final int OTHER = 2;
+
+    /**
+     * Test area with hysteresis.
+     */
+    @Test
+    public void testArea()
+    {
+        final InterestManager interest = new InterestManager(16.0, 1.5);
+        final Location center = new Location(0.0, 0.0);
+        final Location entity = new Location(5.0, 0.0);
+        interest.addEntity((short) 1, entity);
+        interest.setArea(Integer.valueOf(CLIENT), center, 10.0);
+        interest.update();
+
+        assertTrue(interest.isInterested(CLIENT, (short) 1));
+        assertTrue(interest.isInterested(OTHER, (short) 1));
+        assertTrue(interest.isInterested(CLIENT, (short) 2));
+
+        // Inside leave radius
+        entity.x = -14.0;
+        interest.update();
+        assertTrue(interest.isInterested(CLIENT, (short) 1));
+
+        // Outside leave radius
+        entity.x = -16.0;
+        interest.update();
+        assertFalse(interest.isInterested(CLIENT, (short) 1));
+
+        // Not entering until under radius
+        entity.x = -12.0;
+        interest.update();
+        assertFalse(interest.isInterested(CLIENT, (short) 1));
+
+        entity.x = -10.0;
+        interest.update();
+        assertTrue(interest.isInterested(CLIENT, (short) 1));
+
+        interest.removeEntity((short) 1);
+        entity.x = 100.0;
+        interest.update();
+        assertTrue(interest.isInterested(CLIENT, (short) 1));
+
+        interest.addEntity((short) 1, entity);
+        interest.update();
+        assertFalse(interest.isInterested(CLIENT, (short) 1));
+
+        interest.removeArea(Integer.valueOf(CLIENT));
+        assertTrue(interest.isInterested(CLIENT, (short) 1));
+    }
+
+    /**
+     * Test visibility query and message filter.
+     */
+    @Test
+    public void testFilter()
+    {
+        final InterestManager interest = new InterestManager(8.0, 1.0);
+        interest.addEntity((short) -3, new Location(1.0, 1.0));
+        interest.addEntity((short) 4, new Location(-2.0, 1.0));
+        interest.setArea(Integer.valueOf(CLIENT), new Location(0.0, 0.0), 5.0);
+        interest.setVisibility((client, entity) -> entity.getX() > 0.0);
+        interest.update();
+
+        assertTrue(interest.accept(new Message((short) -3), CLIENT));
+        assertFalse(interest.accept(new Message((short) 4), CLIENT));
+        assertTrue(interest.accept(new Message((short) 4), OTHER));
+        assertTrue(interest.accept(new Message((short) -1), CLIENT));
+        assertTrue(interest.accept(new NetworkMessageChat((byte) 0, 0, "chat"), CLIENT));
+    }
+
+    /**
+     * Test interested entities depend on local density, not world size.
+     */
+    @Test
+    public void testDensity()
+    {
+        final InterestManager interest = new InterestManager(32.0, 1.2);
+        final int side = 100;
+        for (int i = 0; i < side * side; i++)
+        {
+            interest.addEntity((short) i, new Location(i % side * 16.0, i / side * 16.0));
+        }
+        interest.setArea(Integer.valueOf(CLIENT), new Location(800.0, 800.0), 40.0);
+        interest.update();
+
+        int interested = 0;
+        for (int i = 0; i < side * side; i++)
+        {
+            if (interest.isInterested(CLIENT, (short) i))
+            {
+                interested++;
+            }
+        }
+        assertEquals(21, interested);
+    }
+
+    /**
+     * Location mock.
+     */
+    private static final class Location implements Localizable
+    {
+        /** Horizontal location. */
+        private double x;
+        /** Vertical location. */
+        private final double y;
+
+        /**
+         * Create location.
+         * 
+         * @param x The horizontal location.
+         * @param y The vertical location.
+         */
+        Location(double x, double y)
+        {
+            super();
+
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public double getX()
+        {
+            return x;
+        }
+
+        @Override
+        public double getY()
+        {
+            return y;
+        }
+    }
+
+    /**
+     * Entity message mock.
+     */
+    private static final class Message extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message.
+         * 
+         * @param entityId The entity id.
+         */
+        Message(short entityId)
+        {
+            super((byte) 0, entityId);
+        }
+    }
+
+    /**
+     * Entity message action mock.
+     */
+    private enum Action
+    {
+        /** Move. */
+        MOVE;
+    }
+}
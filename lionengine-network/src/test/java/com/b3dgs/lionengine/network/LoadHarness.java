@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+
+/**
+ * Load harness, starting a {@link ServerImpl} on loopback and simulating bots with {@link ClientImpl}, each sending
+ * {@link NetworkMessageEntity} to all others at a fixed rate. Server and bots are updated by the calling thread at a
+ * fixed tick rate, as a game loop would do. Load runs either during a duration, or until a fixed number of
+ * messages is sent by each bot.
+ * <p>
+ * Run with <code>LoadHarness bots rate actions seconds [tcp|udp]</code>.
+ * </p>
+ */
+final class LoadHarness
+{
+    /** Server thread name. */
+    private static final String SERVER = "LoadServer";
+    /** Local host. */
+    private static final String HOST = "127.0.0.1";
+    /** Message type. */
+    private static final byte TYPE = 1;
+    /** Nano in one second. */
+    private static final long NANO = TimeUnit.SECONDS.toNanos(1L);
+    /** Connection timeout in milli. */
+    private static final long TIMEOUT = 30_000L;
+    /** Time origin, keeping send time exact when stored as double. */
+    private static final long ORIGIN = System.nanoTime();
+
+    /**
+     * Run harness from command line.
+     * 
+     * @param args The arguments: bots rate actions seconds [tcp|udp].
+     */
+    public static void main(String[] args)
+    {
+        final int argBots = 0;
+        final int argRate = 1;
+        final int argActions = 2;
+        final int argSeconds = 3;
+        final int argProtocol = 4;
+        final NetworkProtocol protocol = args.length > argProtocol
+                                         ? NetworkProtocol.valueOf(args[argProtocol].toUpperCase(Locale.ENGLISH))
+                                         : NetworkProtocol.TCP;
+        final LoadHarness harness = new LoadHarness(Integer.parseInt(args[argBots]), protocol);
+        harness.setRate(Integer.parseInt(args[argRate]));
+        harness.setActions(Integer.parseInt(args[argActions]));
+
+        final LoadReport report = harness.run(TimeUnit.SECONDS.toMillis(Integer.parseInt(args[argSeconds])));
+        Verbose.info(report.toString());
+    }
+
+    /**
+     * Get the heap memory used after a collection.
+     * 
+     * @param memory The memory bean.
+     * @return The used heap in bytes.
+     */
+    private static long getHeapUsed(MemoryMXBean memory)
+    {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Find the thread by its name.
+     * 
+     * @param name The thread name.
+     * @return The thread id, <code>-1</code> if not found.
+     */
+    private static long findThread(String name)
+    {
+        for (final Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (name.equals(thread.getName()))
+            {
+                return thread.getId();
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Update server and all bots.
+     * 
+     * @param server The server reference.
+     * @param bots The bots reference.
+     */
+    private static void update(ServerImpl server, Bot[] bots)
+    {
+        server.receiveMessages();
+        server.sendMessages();
+        for (final Bot bot : bots)
+        {
+            bot.client.receiveMessages();
+            bot.client.sendMessages();
+        }
+    }
+
+    /**
+     * Sleep until next tick.
+     * 
+     * @param nano The sleep time in nano.
+     */
+    private static void sleep(long nano)
+    {
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep(nano);
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new LionEngineException(exception);
+        }
+    }
+
+    /** Bots number. */
+    private final int botsNumber;
+    /** Transport protocol. */
+    private final NetworkProtocol protocol;
+    /** Messages per second sent by each bot. */
+    private int rate = 10;
+    /** Actions per message. */
+    private int actions = 4;
+    /** Ticks per second. */
+    private int tickRate = 60;
+
+    /**
+     * Create harness.
+     * 
+     * @param bots The bots number (strictly positive).
+     * @param protocol The transport protocol (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    LoadHarness(int bots, NetworkProtocol protocol)
+    {
+        super();
+
+        Check.superiorStrict(bots, 0);
+        Check.notNull(protocol);
+
+        botsNumber = bots;
+        this.protocol = protocol;
+    }
+
+    /**
+     * Set the messages sent per second by each bot.
+     * 
+     * @param rate The messages per second (strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    void setRate(int rate)
+    {
+        Check.superiorStrict(rate, 0);
+
+        this.rate = rate;
+    }
+
+    /**
+     * Set the actions per message, defining message size.
+     * 
+     * @param actions The actions number [1 - {@link Action#values()} length].
+     * @throws LionEngineException If invalid argument.
+     */
+    void setActions(int actions)
+    {
+        Check.superiorStrict(actions, 0);
+        Check.inferiorOrEqual(actions, Action.values().length);
+
+        this.actions = actions;
+    }
+
+    /**
+     * Set the server and bots update rate.
+     * 
+     * @param tickRate The ticks per second (strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    void setTickRate(int tickRate)
+    {
+        Check.superiorStrict(tickRate, 0);
+
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Run the load, then wait for all sent messages to be received.
+     * 
+     * @param duration The sending duration in milli (strictly positive).
+     * @return The load report.
+     * @throws LionEngineException If invalid argument or bots cannot connect.
+     */
+    LoadReport run(long duration)
+    {
+        Check.superiorStrict(duration, 0L);
+
+        return run(TimeUnit.MILLISECONDS.toNanos(duration), Long.MAX_VALUE);
+    }
+
+    /**
+     * Run the load until each bot sent the messages number, then wait for all sent messages to be received.
+     * 
+     * @param messages The messages number sent by each bot (strictly positive).
+     * @return The load report.
+     * @throws LionEngineException If invalid argument or bots cannot connect.
+     */
+    LoadReport send(int messages)
+    {
+        Check.superiorStrict(messages, 0);
+
+        return run((messages * NANO + rate - 1) / rate, messages);
+    }
+
+    /**
+     * Run the load, then wait for all sent messages to be received.
+     * 
+     * @param duration The sending duration in nano.
+     * @param messages The maximum messages number sent by each bot.
+     * @return The load report.
+     * @throws LionEngineException If bots cannot connect.
+     */
+    private LoadReport run(long duration, long messages)
+    {
+        final ServerImpl server = new ServerImpl(type -> new Message(), protocol);
+        server.start(SERVER, 0);
+        final Bot[] bots = new Bot[botsNumber];
+        try
+        {
+            connect(server, bots);
+            return load(server, bots, duration, messages);
+        }
+        finally
+        {
+            for (final Bot bot : bots)
+            {
+                if (bot != null)
+                {
+                    bot.client.disconnect();
+                }
+            }
+            server.disconnect();
+        }
+    }
+
+    /**
+     * Create and connect all bots.
+     * 
+     * @param server The server reference.
+     * @param bots The bots to create.
+     * @throws LionEngineException If bots cannot connect.
+     */
+    private void connect(ServerImpl server, Bot[] bots)
+    {
+        for (int i = 0; i < bots.length; i++)
+        {
+            bots[i] = new Bot(new ClientImpl(type -> new Message(), protocol));
+            bots[i].client.setName("bot" + i);
+            bots[i].client.addListener(bots[i]);
+            bots[i].client.connect(HOST, server.getPort());
+        }
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        int established = 0;
+        while (established < bots.length)
+        {
+            if (System.currentTimeMillis() > end)
+            {
+                throw new LionEngineException("Bots not connected: " + established + "/" + bots.length);
+            }
+            update(server, bots);
+            established = 0;
+            for (final Bot bot : bots)
+            {
+                established += bot.established ? 1 : 0;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Send messages at rate during duration, and update until all are received or timed out.
+     * 
+     * @param server The server reference.
+     * @param bots The connected bots.
+     * @param duration The sending duration in nano.
+     * @param messages The maximum messages number sent by each bot.
+     * @return The load report.
+     */
+    private LoadReport load(ServerImpl server, Bot[] bots, long duration, long messages)
+    {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final long transportThread = findThread(SERVER);
+        final long transportStart = threads.getThreadCpuTime(transportThread);
+        final long heapStart = getHeapUsed(memory);
+
+        final LoadReport report = new LoadReport(bots.length);
+        final long tick = NANO / tickRate;
+        final long start = System.nanoTime();
+        final long end = start + duration;
+        final long timeout = end + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        long sent = 0L;
+        long next = start;
+        boolean sending = true;
+        while (sending || report.getReceived() < sent * bots.length)
+        {
+            final long now = System.nanoTime();
+            if (now > timeout)
+            {
+                break;
+            }
+            if (sending)
+            {
+                final long expected = Math.min(messages, (Math.min(now, end) - start) * rate / NANO);
+                for (final Bot bot : bots)
+                {
+                    sent += bot.send(expected, actions);
+                }
+                sending = now < end;
+            }
+
+            final long cpu = threads.getCurrentThreadCpuTime();
+            server.receiveMessages();
+            server.sendMessages();
+            report.getTickTime().record(threads.getCurrentThreadCpuTime() - cpu);
+
+            for (final Bot bot : bots)
+            {
+                bot.client.receiveMessages();
+                bot.receive(report);
+                bot.client.sendMessages();
+            }
+            next += tick;
+            final long sleep = next - System.nanoTime();
+            if (sleep > 0L)
+            {
+                sleep(sleep);
+            }
+            else
+            {
+                next = System.nanoTime();
+            }
+        }
+        report.setSent(sent);
+        report.setElapsed(System.nanoTime() - start);
+        report.setTransportTime(threads.getThreadCpuTime(transportThread) - transportStart);
+        report.setMemoryGrowth(getHeapUsed(memory) - heapStart);
+        return report;
+    }
+
+    /**
+     * Simulated client.
+     */
+    private static final class Bot implements ConnectionListener
+    {
+        /** Client reference. */
+        private final ClientImpl client;
+        /** Sent messages. */
+        private long sent;
+        /** Established flag. */
+        private boolean established;
+
+        /**
+         * Create bot.
+         * 
+         * @param client The client reference.
+         */
+        Bot(ClientImpl client)
+        {
+            super();
+
+            this.client = client;
+        }
+
+        /**
+         * Send messages until expected count.
+         * 
+         * @param expected The expected sent count.
+         * @param actions The actions per message.
+         * @return The number of sent messages.
+         */
+        long send(long expected, int actions)
+        {
+            final long count = expected - sent;
+            for (long i = 0; i < count; i++)
+            {
+                final Message message = new Message((short) client.getId());
+                final Action[] values = Action.values();
+                message.addAction(values[0], (double) (System.nanoTime() - ORIGIN));
+                for (int action = 1; action < actions; action++)
+                {
+                    message.addAction(values[action], action);
+                }
+                client.addMessage(message);
+            }
+            sent = expected;
+            return count;
+        }
+
+        /**
+         * Record received messages latency.
+         * 
+         * @param report The report to fill.
+         */
+        void receive(LoadReport report)
+        {
+            final long now = System.nanoTime() - ORIGIN;
+            for (final NetworkMessage message : client.getMessages())
+            {
+                final double time = ((Message) message).getActionDouble(Action.TIME);
+                report.received(now - (long) time);
+            }
+        }
+
+        /*
+         * ConnectionListener
+         */
+
+        @Override
+        public void notifyClientConnected(Integer id, String name)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void notifyClientDisconnected(Integer id, String name)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void notifyClientNameChanged(Integer id, String name)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void notifyConnectionEstablished(Integer id, String name)
+        {
+            established = true;
+        }
+
+        @Override
+        public void notifyMessageOfTheDay(String messageOfTheDay)
+        {
+            // Nothing to do
+        }
+
+        @Override
+        public void notifyConnectionTerminated(Integer id)
+        {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * Bot entity message.
+     */
+    private static final class Message extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message for decoding.
+         */
+        Message()
+        {
+            super();
+        }
+
+        /**
+         * Create message.
+         * 
+         * @param entityId The entity id.
+         */
+        Message(short entityId)
+        {
+            super(TYPE, entityId);
+        }
+    }
+
+    /**
+     * Bot entity message actions, first one being the send time.
+     */
+    private enum Action
+    {
+        /** Send time in nano, since harness loading. */
+        TIME,
+        /** Horizontal location. */
+        X,
+        /** Vertical location. */
+        Y,
+        /** Horizontal speed. */
+        SPEED_X,
+        /** Vertical speed. */
+        SPEED_Y,
+        /** Orientation. */
+        ORIENTATION,
+        /** Animation. */
+        ANIMATION,
+        /** Health. */
+        HEALTH;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Test {@link LoadHarness} with a small fixed load, to run offline in continuous integration. Timed load is left to
+ * {@link LoadHarness#main(String[])}.
+ */
+public final class LoadHarnessTest
+{
+    /** Bots number. */
+    private static final int BOTS = 4;
+    /** Messages sent by each bot. */
+    private static final int MESSAGES = 10;
+
+    /**
+     * Check all messages are received by all bots.
+     * 
+     * @param protocol The transport protocol.
+     */
+    private static void checkLoad(NetworkProtocol protocol)
+    {
+        final LoadHarness harness = new LoadHarness(BOTS, protocol);
+        harness.setRate(100);
+        harness.setActions(8);
+        harness.setTickRate(100);
+
+        final LoadReport report = harness.send(MESSAGES);
+        Verbose.info(protocol.name(), " ", report.toString());
+
+        assertEquals(BOTS, report.getBots());
+        assertEquals(BOTS * (long) MESSAGES, report.getSent());
+        assertEquals(report.getSent() * BOTS, report.getReceived());
+        assertEquals(report.getReceived(), report.getLatency().getCount());
+        assertTrue(report.getThroughput() > 0.0);
+        assertTrue(report.getTickTime().getCount() > 0L);
+    }
+
+    /**
+     * Test stream load.
+     */
+    @Test
+    public void testLoadTcp()
+    {
+        checkLoad(NetworkProtocol.TCP);
+    }
+
+    /**
+     * Test datagram load.
+     */
+    @Test
+    public void testLoadUdp()
+    {
+        checkLoad(NetworkProtocol.UDP);
+    }
+
+    /**
+     * Test invalid configuration.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new LoadHarness(0, NetworkProtocol.TCP),
+                     "Invalid argument: 0 is not strictly superior to 0");
+
+        final LoadHarness harness = new LoadHarness(1, NetworkProtocol.TCP);
+
+        assertThrows(() -> harness.setActions(9), "Invalid argument: 9 is not inferior or equal to 8");
+        assertThrows(() -> harness.run(0L), "Invalid argument: 0.0 is not strictly superior to 0.0");
+        assertThrows(() -> harness.send(0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+}
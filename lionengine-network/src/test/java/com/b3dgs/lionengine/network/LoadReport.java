@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Locale;
+
+/**
+ * Result of a {@link LoadHarness} run.
+ */
+final class LoadReport
+{
+    /** Nano in one milli. */
+    private static final double NANO_MILLI = 1_000_000.0;
+    /** Nano in one second. */
+    private static final double NANO_SECOND = 1_000_000_000.0;
+    /** Median. */
+    private static final double P50 = 0.5;
+    /** 99th percentile. */
+    private static final double P99 = 0.99;
+
+    /** Fan out latency, from bot send to bot receive. */
+    private final TimeHistogram latency = new TimeHistogram();
+    /** Server update CPU time per tick. */
+    private final TimeHistogram tickTime = new TimeHistogram();
+    /** Bots number. */
+    private final int bots;
+    /** Sent messages. */
+    private long sent;
+    /** Received messages. */
+    private long received;
+    /** Elapsed time in nano. */
+    private long elapsed;
+    /** Server transport thread CPU time in nano. */
+    private long transportTime;
+    /** Heap growth in bytes. */
+    private long memoryGrowth;
+
+    /**
+     * Create report.
+     * 
+     * @param bots The bots number.
+     */
+    LoadReport(int bots)
+    {
+        super();
+
+        this.bots = bots;
+    }
+
+    /**
+     * Record a received message.
+     * 
+     * @param nano The message latency in nano.
+     */
+    void received(long nano)
+    {
+        received++;
+        latency.record(nano);
+    }
+
+    /**
+     * Set the number of sent messages.
+     * 
+     * @param sent The sent messages.
+     */
+    void setSent(long sent)
+    {
+        this.sent = sent;
+    }
+
+    /**
+     * Set the elapsed time.
+     * 
+     * @param elapsed The elapsed time in nano.
+     */
+    void setElapsed(long elapsed)
+    {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Set the server transport thread CPU time.
+     * 
+     * @param transportTime The CPU time in nano (negative if not supported).
+     */
+    void setTransportTime(long transportTime)
+    {
+        this.transportTime = transportTime;
+    }
+
+    /**
+     * Set the heap growth.
+     * 
+     * @param memoryGrowth The heap growth in bytes, after collection.
+     */
+    void setMemoryGrowth(long memoryGrowth)
+    {
+        this.memoryGrowth = memoryGrowth;
+    }
+
+    /**
+     * Get the bots number.
+     * 
+     * @return The bots number.
+     */
+    int getBots()
+    {
+        return bots;
+    }
+
+    /**
+     * Get the sent messages.
+     * 
+     * @return The sent messages.
+     */
+    long getSent()
+    {
+        return sent;
+    }
+
+    /**
+     * Get the received messages, a sent message being received by all bots.
+     * 
+     * @return The received messages.
+     */
+    long getReceived()
+    {
+        return received;
+    }
+
+    /**
+     * Get the received messages per second.
+     * 
+     * @return The throughput.
+     */
+    double getThroughput()
+    {
+        return received * NANO_SECOND / Math.max(1L, elapsed);
+    }
+
+    /**
+     * Get the fan out latency.
+     * 
+     * @return The latency histogram.
+     */
+    TimeHistogram getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * Get the server update CPU time per tick.
+     * 
+     * @return The tick time histogram.
+     */
+    TimeHistogram getTickTime()
+    {
+        return tickTime;
+    }
+
+    /**
+     * Get the server transport thread CPU time.
+     * 
+     * @return The CPU time in nano.
+     */
+    long getTransportTime()
+    {
+        return transportTime;
+    }
+
+    /**
+     * Get the heap growth.
+     * 
+     * @return The heap growth in bytes.
+     */
+    long getMemoryGrowth()
+    {
+        return memoryGrowth;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public String toString()
+    {
+        return String.format(Locale.ENGLISH,
+                             "Load: %d bots, %d sent, %d received, %.0f messages/s, "
+                                             + "latency p50: %.3f ms, p99: %.3f ms, "
+                                             + "tick p50: %.3f ms, p99: %.3f ms, transport: %.0f ms, memory: %d KB",
+                             Integer.valueOf(bots),
+                             Long.valueOf(sent),
+                             Long.valueOf(received),
+                             Double.valueOf(getThroughput()),
+                             Double.valueOf(latency.getPercentile(P50) / NANO_MILLI),
+                             Double.valueOf(latency.getPercentile(P99) / NANO_MILLI),
+                             Double.valueOf(tickTime.getPercentile(P50) / NANO_MILLI),
+                             Double.valueOf(tickTime.getPercentile(P99) / NANO_MILLI),
+                             Double.valueOf(transportTime / NANO_MILLI),
+                             Long.valueOf(memoryGrowth / 1024L));
+    }
+}
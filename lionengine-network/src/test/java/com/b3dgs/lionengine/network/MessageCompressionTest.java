@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessageChat;
+
+/**
+ * Test {@link MessageCompression} and {@link CompressionDictionary}.
+ */
+public final class MessageCompressionTest
+{
+    /**
+     * Create a sample chat message.
+     * 
+     * @param index The sample index.
+     * @return The sample message.
+     */
+    private static NetworkMessageChat sample(int index)
+    {
+        return new NetworkMessageChat((byte) 1, 0, "player" + index + " has joined the game, welcome to the arena");
+    }
+
+    /**
+     * Encode a message.
+     * 
+     * @param message The message to encode.
+     * @return The encoded data.
+     */
+    private static ByteBuffer encode(NetworkMessageChat message)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        message.encode(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Compress and decompress data.
+     * 
+     * @param compression The compression to use.
+     * @param data The data to compress.
+     * @return The compressed size.
+     */
+    private static int roundTrip(MessageCompression compression, ByteBuffer data)
+    {
+        final ByteBuffer compressed = compression.compress(data.duplicate());
+        final int size = compressed.remaining();
+        final ByteBuffer decompressed = compression.decompress(compressed);
+        assertEquals(data, decompressed);
+        return size;
+    }
+
+    /**
+     * Test data below threshold sent as is.
+     */
+    @Test
+    public void testThreshold()
+    {
+        final MessageCompression compression = new MessageCompression(100, null);
+        assertNull(compression.compress(ByteBuffer.wrap(new byte[99])));
+        assertEquals(1.0, compression.getRatio());
+
+        final int size = roundTrip(compression, ByteBuffer.wrap(new byte[1000]));
+        assertTrue(size < 100);
+        assertTrue(compression.getRatio() < 0.2);
+        assertTrue(compression.getTime() > 0L);
+    }
+
+    /**
+     * Test incompressible data sent as is.
+     */
+    @Test
+    public void testIncompressible()
+    {
+        final byte[] random = new byte[256];
+        new Random(1L).nextBytes(random);
+        final MessageCompression compression = new MessageCompression(0, null);
+
+        assertNull(compression.compress(ByteBuffer.wrap(random)));
+        assertNull(compression.compress(ByteBuffer.wrap(new byte[Integer.BYTES])));
+    }
+
+    /**
+     * Test invalid compressed data.
+     */
+    @Test
+    public void testInvalid()
+    {
+        final MessageCompression compression = new MessageCompression(0, null);
+        final ByteBuffer invalid = ByteBuffer.allocate(16);
+        invalid.putInt(0, 100);
+        invalid.put(Integer.BYTES, (byte) 0xFF);
+        invalid.put(Integer.BYTES + 1, (byte) 0xFF);
+
+        assertNull(compression.decompress(invalid));
+        assertNull(compression.decompress(ByteBuffer.allocate(8).putInt(0, -1)));
+    }
+
+    /**
+     * Test dictionary on small messages.
+     */
+    @Test
+    public void testDictionary()
+    {
+        final List<NetworkMessageChat> samples = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+        {
+            samples.add(sample(i));
+        }
+        final byte[] dictionary = CompressionDictionary.train(samples, 1024);
+        assertTrue(dictionary.length > 0);
+        assertTrue(dictionary.length <= 1024);
+
+        final ByteBuffer data = encode(sample(42));
+        assertNull(new MessageCompression(0, null).compress(data.duplicate()));
+        final int trained = roundTrip(new MessageCompression(0, dictionary), data);
+
+        Verbose.info("Chat: ",
+                     String.valueOf(data.remaining()),
+                     " bytes, with dictionary: ",
+                     String.valueOf(trained));
+        assertTrue(trained < data.remaining() / 2);
+
+        assertEquals(0, CompressionDictionary.train(new ArrayList<NetworkMessageChat>(), 1024).length);
+        assertThrows(() -> CompressionDictionary.train(samples, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertTrue(new String(dictionary, StandardCharsets.UTF_8).contains("welcome"));
+    }
+}
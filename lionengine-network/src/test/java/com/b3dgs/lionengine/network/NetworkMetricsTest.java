@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsPrefix;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link NetworkMetrics}, {@link TimeHistogram} and {@link NetworkMetricsExporter}.
+ */
+public final class NetworkMetricsTest
+{
+    /** Message type. */
+    private static final byte TYPE = -1;
+
+    /**
+     * Test histogram buckets and percentiles.
+     */
+    @Test
+    public void testHistogram()
+    {
+        final TimeHistogram histogram = new TimeHistogram();
+
+        assertEquals(0L, histogram.getPercentile(0.5));
+        assertEquals(0.0, histogram.getMean());
+
+        histogram.record(0L);
+        histogram.record(1L);
+        histogram.record(1000L);
+        histogram.record(3000L);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(5L, histogram.getCount());
+        assertEquals(1L, histogram.getBucket(0));
+        assertEquals(1L, histogram.getBucket(1));
+        assertEquals(1L, histogram.getBucket(10));
+        assertEquals(1L, histogram.getBucket(12));
+        assertEquals(1L, histogram.getBucket(TimeHistogram.BUCKETS - 1));
+        assertEquals(0L, histogram.getPercentile(0.2));
+        assertEquals(1023L, histogram.getPercentile(0.6));
+        assertEquals(4095L, histogram.getPercentile(0.8));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(1.0));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+
+        final TimeHistogram copy = new TimeHistogram(histogram);
+        histogram.record(1L);
+
+        assertEquals(5L, copy.getCount());
+        assertThrows(() -> histogram.getBucket(TimeHistogram.BUCKETS),
+                     "Invalid argument: 32 is not strictly inferior to 32");
+        assertThrows(() -> histogram.getPercentile(-1.0), "Invalid argument: -1.0 is not superior or equal to 0.0");
+    }
+
+    /**
+     * Test snapshot isolation from recorder.
+     */
+    @Test
+    public void testSnapshot()
+    {
+        final MetricsRecorder recorder = new MetricsRecorder();
+        recorder.sent(TYPE, 10, 100L);
+        recorder.received(TYPE, 20, 200L);
+        recorder.queueIn(3);
+        recorder.setRtt(1, 42);
+        recorder.disconnected(DisconnectReason.LOST);
+
+        final NetworkMetrics metrics = new NetworkMetrics(recorder, 100, 1, 5);
+        recorder.sent(TYPE, 10, 100L);
+        recorder.removeRtt(1);
+
+        assertEquals(1L, metrics.getMessagesOut(TYPE));
+        assertEquals(10L, metrics.getBytesOut());
+        assertEquals(1L, metrics.getMessagesIn());
+        assertEquals(20L, metrics.getBytesIn(TYPE));
+        assertEquals(0L, metrics.getMessagesIn((byte) 0));
+        assertEquals(3, metrics.getQueueInPeak());
+        assertEquals(5, metrics.getQueueOutPeak());
+        assertEquals(42, metrics.getRtt(1));
+        assertEquals(1L, metrics.getDisconnects(DisconnectReason.LOST));
+        assertEquals(200L, metrics.getDecodeTime().getTotal());
+        assertTrue(metrics.toString().contains("bandwidth=100"));
+        assertThrows(UnsupportedOperationException.class, () -> metrics.getRtts().clear(), null);
+    }
+
+    /**
+     * Test platform MBean export.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    public void testExporter() throws Exception
+    {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final MetricsRecorder recorder = new MetricsRecorder();
+        recorder.setRtt(2, 30);
+        recorder.disconnected(DisconnectReason.KICKED);
+
+        try (NetworkMetricsExporter exporter = new NetworkMetricsExporter("test"))
+        {
+            final ObjectName name = exporter.getName();
+            assertEquals(Integer.valueOf(0), server.getAttribute(name, "Bandwidth"));
+
+            exporter.update(new NetworkMetrics(recorder, 64, 0, 0));
+
+            assertEquals(Integer.valueOf(64), server.getAttribute(name, "Bandwidth"));
+            assertEquals(1, ((TabularData) server.getAttribute(name, "Rtts")).size());
+            final Map<String, Long> disconnects = exporter.getDisconnects();
+            assertEquals(Long.valueOf(1L), disconnects.get(DisconnectReason.KICKED.name()));
+            assertThrowsPrefix(() -> new NetworkMetricsExporter("test").close(),
+                               "Cannot register network metrics: test");
+        }
+        assertTrue(server.queryNames(new ObjectName("com.b3dgs.lionengine.network:*"), null).isEmpty());
+    }
+}
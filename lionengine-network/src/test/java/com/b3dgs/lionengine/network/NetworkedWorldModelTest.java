@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Localizable;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageChat;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Test {@link NetworkedWorldModel} message dispatch.
+ */
+public final class NetworkedWorldModelTest
+{
+    /** Local host. */
+    private static final String HOST = "127.0.0.1";
+    /** Entity message type. */
+    private static final byte TYPE_ENTITY = 1;
+    /** Chat message type. */
+    private static final byte TYPE_CHAT = 2;
+    /** Update timeout in milli. */
+    private static final long TIMEOUT = 5000L;
+    /** Message decoder. */
+    private static final NetworkMessageDecoder DECODER = type -> type == TYPE_ENTITY ? new Message()
+                                                                                     : new NetworkMessageChat();
+
+    /**
+     * Update world and client until condition is reached.
+     * 
+     * @param until The condition to reach.
+     * @param world The world reference.
+     * @param client The client reference.
+     */
+    private static void update(BooleanSupplier until, NetworkedWorldModelServer world, ClientImpl client)
+    {
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        boolean reached = until.getAsBoolean();
+        while (!reached && System.currentTimeMillis() < end)
+        {
+            world.receiveMessages();
+            world.sendMessages();
+            client.receiveMessages();
+            client.sendMessages();
+            Thread.yield();
+            reached = until.getAsBoolean();
+        }
+        assertTrue(reached);
+    }
+
+    /**
+     * Create a location.
+     * 
+     * @param x The horizontal location.
+     * @return The location.
+     */
+    private static Localizable location(double x)
+    {
+        return new Localizable()
+        {
+            @Override
+            public double getX()
+            {
+                return x;
+            }
+
+            @Override
+            public double getY()
+            {
+                return 0.0;
+            }
+        };
+    }
+
+    /**
+     * Test messages dispatch by subscription.
+     */
+    @Test
+    public void testDispatch()
+    {
+        final NetworkedWorldModelServer world = new NetworkedWorldModelServer(DECODER);
+        world.startServer("server", 0, null);
+
+        final Receiver all = new Receiver();
+        final Receiver entity5 = new Receiver();
+        final Receiver entity6 = new Receiver();
+        final Receiver chat = new Receiver();
+        world.addNetworkable(all);
+        world.addNetworkableEntity(entity5, (short) 5);
+        world.addNetworkableEntity(entity6, (short) 6);
+        world.addNetworkableType(chat, TYPE_CHAT);
+
+        final Receiver overlap = new Receiver();
+        world.addNetworkableEntity(overlap, (short) 5);
+        world.addNetworkableType(overlap, TYPE_ENTITY);
+        final Receiver full = new Receiver();
+        world.addNetworkable(full);
+        world.addNetworkableEntity(full, (short) 6);
+        world.addNetworkableType(full, TYPE_CHAT);
+
+        final ClientImpl client = new ClientImpl(DECODER);
+        client.setName("client");
+        client.connect(HOST, world.network.getPort());
+        update(() -> world.network.getNumberOfClients() == 1 && client.getId() > -1, world, client);
+
+        client.addMessage(new Message((short) 5));
+        client.addMessage(new Message((short) 6));
+        client.addMessage(new Message((short) 7));
+        client.addMessage(new NetworkMessageChat(TYPE_CHAT, client.getId(), "chat"));
+        update(() -> all.received.size() == 4, world, client);
+
+        assertEquals(1, entity5.received.size());
+        assertEquals(5, ((Message) entity5.received.get(0)).getEntityId());
+        assertEquals(1, entity6.received.size());
+        assertEquals(6, ((Message) entity6.received.get(0)).getEntityId());
+        assertEquals(1, chat.received.size());
+        assertEquals("chat", ((NetworkMessageChat) chat.received.get(0)).getMessage());
+        assertEquals(3, overlap.received.size());
+        assertEquals(4, full.received.size());
+
+        world.removeNetworkable(entity5);
+        client.addMessage(new Message((short) 5));
+        client.addMessage(new Message((short) 6));
+        update(() -> all.received.size() == 6, world, client);
+
+        assertEquals(1, entity5.received.size());
+        assertEquals(2, entity6.received.size());
+        assertEquals(5, overlap.received.size());
+        assertEquals(6, full.received.size());
+
+        client.disconnect();
+        world.disconnect();
+    }
+
+    /**
+     * Test relayed entity messages filtered by interest.
+     */
+    @Test
+    public void testInterest()
+    {
+        final NetworkedWorldModelServer world = new NetworkedWorldModelServer(DECODER);
+        final InterestManager interest = new InterestManager(16.0, 1.0);
+        interest.addEntity((short) 5, location(100.0));
+        world.setInterest(interest);
+        world.startServer("server", 0, null);
+
+        final ClientImpl client = new ClientImpl(DECODER);
+        client.setName("client");
+        client.connect(HOST, world.network.getPort());
+        update(() -> world.network.getNumberOfClients() == 1 && client.getId() > -1, world, client);
+        interest.setArea(Integer.valueOf(client.getId()), location(0.0), 10.0);
+
+        client.addMessage(new Message((short) 5));
+        client.addMessage(new Message((short) 6));
+        final List<NetworkMessage> received = new ArrayList<>();
+        update(() ->
+        {
+            received.addAll(client.getMessages());
+            return !received.isEmpty();
+        }, world, client);
+
+        assertEquals(1, received.size());
+        assertEquals(6, ((Message) received.get(0)).getEntityId());
+
+        client.disconnect();
+        world.disconnect();
+    }
+
+    /**
+     * Entity message mock.
+     */
+    private static final class Message extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message.
+         */
+        Message()
+        {
+            super();
+        }
+
+        /**
+         * Create message.
+         * 
+         * @param entityId The entity id.
+         */
+        Message(short entityId)
+        {
+            super(TYPE_ENTITY, entityId);
+            addAction(Action.MOVE, true);
+        }
+    }
+
+    /**
+     * Entity message action mock.
+     */
+    private enum Action
+    {
+        /** Move. */
+        MOVE;
+    }
+
+    /**
+     * Networkable mock.
+     */
+    private static final class Receiver extends NetworkableModel
+    {
+        /** Received messages. */
+        private final List<NetworkMessage> received = new ArrayList<>();
+
+        /**
+         * Create receiver.
+         */
+        Receiver()
+        {
+            super();
+        }
+
+        @Override
+        public void applyMessage(NetworkMessage message)
+        {
+            received.add(message);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkChannel;
+
+/**
+ * Test {@link ReliableEndpoint} over a simulated lossy and latent link.
+ */
+public final class ReliableEndpointTest
+{
+    /** Nano per milli. */
+    private static final long MILLI = 1_000_000L;
+    /** One way latency in milli. */
+    private static final int LATENCY = 20;
+    /** Latency jitter in milli. */
+    private static final int JITTER = 5;
+    /** Packet loss. */
+    private static final double LOSS = 0.05;
+    /** Frames number. */
+    private static final int FRAMES = 1000;
+    /** Simulation limit in milli. */
+    private static final long LIMIT = 20_000L;
+
+    /**
+     * Create a frame.
+     * 
+     * @param value The frame value.
+     * @param size The frame content size (at least an int).
+     * @return The frame with its length header.
+     */
+    private static ByteBuffer frame(int value, int size)
+    {
+        final ByteBuffer frame = ByteBuffer.allocate(ClientSocket.HEADER + size);
+        frame.putInt(size);
+        frame.putInt(value);
+        frame.position(frame.limit());
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Run simulation, with one milli step, until condition is reached.
+     * 
+     * @param sender The sender side.
+     * @param receiver The receiver side.
+     * @param tick The action performed each step, with current time in milli.
+     * @param until The condition to reach.
+     */
+    private static void run(Side sender, Side receiver, LongConsumer tick, BooleanSupplier until)
+    {
+        long time = 0L;
+        while (!until.getAsBoolean() && time < LIMIT)
+        {
+            sender.now = time * MILLI;
+            receiver.now = sender.now;
+            tick.accept(time);
+            sender.deliver(receiver);
+            receiver.deliver(sender);
+            sender.endpoint.update(sender.now);
+            receiver.endpoint.update(receiver.now);
+            time++;
+        }
+        assertTrue(until.getAsBoolean());
+    }
+
+    /**
+     * Send one frame per milli on channel and wait for all frames.
+     * 
+     * @param channel The delivery channel.
+     * @param sender The sender side.
+     * @param receiver The receiver side.
+     */
+    private static void send(NetworkChannel channel, Side sender, Side receiver)
+    {
+        run(sender, receiver, time ->
+        {
+            if (time < FRAMES)
+            {
+                sender.endpoint.send(channel, frame((int) time, Integer.BYTES));
+            }
+        }, () -> receiver.values.size() == FRAMES);
+    }
+
+    /**
+     * Get the latency percentile, and log it.
+     * 
+     * @param side The receiver side.
+     * @param name The test name.
+     * @return The 99th percentile in milli.
+     */
+    private static long latency(Side side, String name)
+    {
+        final List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < side.values.size(); i++)
+        {
+            latencies.add(Long.valueOf(side.times.get(i).longValue() / MILLI - side.values.get(i).intValue()));
+        }
+        Collections.sort(latencies);
+        final long p50 = latencies.get(latencies.size() / 2).longValue();
+        final long p99 = latencies.get(latencies.size() * 99 / 100).longValue();
+        Verbose.info(name, ": latency p50: ", String.valueOf(p50), " ms, p99: ", String.valueOf(p99), " ms");
+        return p99;
+    }
+
+    /**
+     * Test reliable ordered channel under loss.
+     */
+    @Test
+    public void testOrdered()
+    {
+        final Side sender = new Side(LOSS, 1L);
+        final Side receiver = new Side(LOSS, 2L);
+        send(NetworkChannel.RELIABLE_ORDERED, sender, receiver);
+
+        for (int i = 0; i < FRAMES; i++)
+        {
+            assertEquals(i, receiver.values.get(i).intValue());
+        }
+        assertTrue(sender.endpoint.getLost() > 0);
+        assertTrue(latency(receiver, "Ordered") < 10 * LATENCY);
+
+        run(sender, receiver, time ->
+        {
+            // Wait for last acknowledges
+        }, sender.endpoint::isIdle);
+    }
+
+    /**
+     * Test reliable unordered channel under loss.
+     */
+    @Test
+    public void testUnordered()
+    {
+        final Side sender = new Side(LOSS, 3L);
+        final Side receiver = new Side(LOSS, 4L);
+        send(NetworkChannel.RELIABLE_UNORDERED, sender, receiver);
+
+        final List<Integer> sorted = new ArrayList<>(receiver.values);
+        Collections.sort(sorted);
+        for (int i = 0; i < FRAMES; i++)
+        {
+            assertEquals(i, sorted.get(i).intValue());
+        }
+        assertTrue(latency(receiver, "Unordered") < 10 * LATENCY);
+    }
+
+    /**
+     * Test unreliable sequenced channel under loss, sent with an interval larger than jitter.
+     */
+    @Test
+    public void testSequenced()
+    {
+        final Side sender = new Side(LOSS, 5L);
+        final Side receiver = new Side(LOSS, 6L);
+        final int interval = JITTER + 1;
+        run(sender, receiver, time ->
+        {
+            if (time < FRAMES && time % interval == 0)
+            {
+                sender.endpoint.send(NetworkChannel.UNRELIABLE_SEQUENCED, frame((int) time, Integer.BYTES));
+            }
+        }, () -> sender.now > (FRAMES + 2 * LATENCY) * MILLI);
+
+        final int sent = (FRAMES + interval - 1) / interval;
+        assertTrue(receiver.values.size() > sent * 9 / 10);
+        assertTrue(receiver.values.size() < sent);
+        for (int i = 1; i < receiver.values.size(); i++)
+        {
+            assertTrue(receiver.values.get(i).intValue() > receiver.values.get(i - 1).intValue());
+        }
+        assertTrue(latency(receiver, "Sequenced") <= LATENCY + JITTER + 1);
+    }
+
+    /**
+     * Test frame larger than a packet, sent on the ordered stream.
+     */
+    @Test
+    public void testLarge()
+    {
+        final Side sender = new Side(LOSS, 7L);
+        final Side receiver = new Side(LOSS, 8L);
+        final int size = ReliableEndpoint.PACKET_SIZE * 4;
+        run(sender, receiver, time ->
+        {
+            if (time == 0L)
+            {
+                sender.endpoint.send(NetworkChannel.UNRELIABLE_SEQUENCED, frame(42, size));
+            }
+        }, () -> !receiver.values.isEmpty());
+
+        assertEquals(42, receiver.values.get(0).intValue());
+        assertEquals(size, receiver.sizes.get(0).intValue());
+    }
+
+    /**
+     * Test round trip time estimation.
+     */
+    @Test
+    public void testRtt()
+    {
+        final Side sender = new Side(0.0, 9L);
+        final Side receiver = new Side(0.0, 10L);
+        send(NetworkChannel.RELIABLE_ORDERED, sender, receiver);
+
+        final double rtt = sender.endpoint.getRtt();
+        assertTrue(rtt >= 2 * LATENCY, String.valueOf(rtt));
+        assertTrue(rtt <= 2 * (LATENCY + JITTER) + 2, String.valueOf(rtt));
+    }
+
+    /**
+     * Test frames queued while a chunk received but not acknowledged is waiting for retransmission, which must not be
+     * appended to the retransmitted chunk as remote would drop them with it.
+     */
+    @Test
+    public void testRetransmitQueued()
+    {
+        final Side sender = new Side(0.0, 11L);
+        final Side receiver = new Side(0.0, 12L);
+        final int chunks = 11;
+        final int late = 1000;
+        receiver.blocked = true;
+        run(sender, receiver, time ->
+        {
+            if (time < chunks)
+            {
+                sender.endpoint.send(NetworkChannel.RELIABLE_ORDERED, frame((int) time, Integer.BYTES));
+            }
+            else if (time == 202L)
+            {
+                sender.endpoint.send(NetworkChannel.RELIABLE_ORDERED, frame(late, Integer.BYTES));
+                receiver.blocked = false;
+            }
+        }, () -> receiver.values.size() == chunks + 1);
+
+        for (int i = 0; i < chunks; i++)
+        {
+            assertEquals(i, receiver.values.get(i).intValue());
+        }
+        assertEquals(late, receiver.values.get(chunks).intValue());
+        assertTrue(sender.endpoint.getLost() > 0);
+    }
+
+    /**
+     * Simulated endpoint side, with its link to remote.
+     */
+    private static final class Side implements EndpointListener
+    {
+        /** Endpoint tested. */
+        private final ReliableEndpoint endpoint = new ReliableEndpoint(this);
+        /** Packets to remote, with delivery time. */
+        private final List<Delayed> link = new ArrayList<>();
+        /** Received values. */
+        private final List<Integer> values = new ArrayList<>();
+        /** Received sizes. */
+        private final List<Integer> sizes = new ArrayList<>();
+        /** Received times. */
+        private final List<Long> times = new ArrayList<>();
+        /** Random generator. */
+        private final Random random;
+        /** Packet loss. */
+        private final double loss;
+        /** Current time in nano. */
+        private long now;
+        /** Blocked flag, dropping all sent packets. */
+        private boolean blocked;
+
+        /**
+         * Create side.
+         * 
+         * @param loss The packet loss.
+         * @param seed The random seed.
+         */
+        Side(double loss, long seed)
+        {
+            super();
+
+            this.loss = loss;
+            random = new Random(seed);
+        }
+
+        /**
+         * Deliver due packets to remote.
+         * 
+         * @param remote The remote side.
+         */
+        void deliver(Side remote)
+        {
+            final Iterator<Delayed> iterator = link.iterator();
+            while (iterator.hasNext())
+            {
+                final Delayed delayed = iterator.next();
+                if (delayed.time <= now)
+                {
+                    iterator.remove();
+                    remote.endpoint.receive(ByteBuffer.wrap(delayed.data), now);
+                }
+            }
+        }
+
+        @Override
+        public void notifyPacket(ByteBuffer packet)
+        {
+            final byte[] data = new byte[packet.remaining()];
+            packet.get(data);
+            if (!blocked && random.nextDouble() >= loss)
+            {
+                link.add(new Delayed(now + (LATENCY + random.nextInt(JITTER + 1)) * MILLI, data));
+            }
+        }
+
+        @Override
+        public void notifyFrame(ByteBuffer frame)
+        {
+            values.add(Integer.valueOf(frame.getInt(frame.position())));
+            sizes.add(Integer.valueOf(frame.remaining()));
+            times.add(Long.valueOf(now));
+        }
+    }
+
+    /**
+     * Packet in transit.
+     */
+    private static final class Delayed
+    {
+        /** Delivery time in nano. */
+        private final long time;
+        /** Packet data. */
+        private final byte[] data;
+
+        /**
+         * Create packet in transit.
+         * 
+         * @param time The delivery time in nano.
+         * @param data The packet data.
+         */
+        Delayed(long time, byte[] data)
+        {
+            super();
+
+            this.time = time;
+            this.data = data;
+        }
+    }
+}
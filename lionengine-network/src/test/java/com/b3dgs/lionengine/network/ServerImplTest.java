@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageChat;
+import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
+
+/**
+ * Test {@link ServerImpl} and {@link ClientImpl} over loopback.
+ */
+public final class ServerImplTest
+{
+    /** Local host. */
+    private static final String HOST = "127.0.0.1";
+    /** Chat message type. */
+    private static final byte TYPE = 1;
+    /** Update timeout in milli. */
+    private static final long TIMEOUT = 5000L;
+    /** Message decoder. */
+    private static final NetworkMessageDecoder DECODER = type -> new NetworkMessageChat();
+
+    /**
+     * Update server and clients until condition is reached.
+     * 
+     * @param until The condition to reach.
+     * @param server The server reference.
+     * @param clients The clients reference.
+     */
+    private static void update(BooleanSupplier until, ServerImpl server, ClientImpl... clients)
+    {
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        boolean reached = until.getAsBoolean();
+        while (!reached && System.currentTimeMillis() < end)
+        {
+            server.receiveMessages();
+            server.sendMessages();
+            for (final ClientImpl client : clients)
+            {
+                client.receiveMessages();
+                client.sendMessages();
+            }
+            Thread.yield();
+            reached = until.getAsBoolean();
+        }
+        assertTrue(reached);
+    }
+
+    /**
+     * Create a connected client.
+     * 
+     * @param server The server reference.
+     * @param name The client name.
+     * @param listener The client listener.
+     * @return The connected client.
+     */
+    private static ClientImpl connect(ServerImpl server, String name, ConnectionListener listener)
+    {
+        return connect(server, name, listener, NetworkProtocol.TCP);
+    }
+
+    /**
+     * Create a connected client.
+     * 
+     * @param server The server reference.
+     * @param name The client name.
+     * @param listener The client listener.
+     * @param protocol The transport protocol.
+     * @return The connected client.
+     */
+    private static ClientImpl connect(ServerImpl server,
+                                      String name,
+                                      ConnectionListener listener,
+                                      NetworkProtocol protocol)
+    {
+        final ClientImpl client = new ClientImpl(DECODER, protocol);
+        client.setName(name);
+        client.addListener(listener);
+        client.connect(HOST, server.getPort());
+        return client;
+    }
+
+    /**
+     * Check connection, messages, rename and disconnection.
+     * 
+     * @param protocol The transport protocol.
+     */
+    private static void checkConnection(NetworkProtocol protocol)
+    {
+        final Listener serverListener = new Listener();
+        final ServerImpl server = new ServerImpl(DECODER, protocol);
+        server.addListener(serverListener);
+        server.setMessageOfTheDay("motd");
+        server.start("server", 0);
+
+        final Listener listener1 = new Listener();
+        final ClientImpl client1 = connect(server, "client1", listener1, protocol);
+        update(() -> serverListener.clients.size() == 1, server, client1);
+
+        assertEquals("motd", listener1.motd);
+        assertEquals(1, server.getNumberOfClients());
+
+        final Listener listener2 = new Listener();
+        final ClientImpl client2 = connect(server, "client2", listener2, protocol);
+        update(() -> listener1.clients.size() == 1 && serverListener.clients.size() == 2, server, client1, client2);
+
+        assertEquals("client2", listener1.clients.get(Integer.valueOf(client2.getId())));
+        assertEquals("client1", listener2.clients.get(Integer.valueOf(client1.getId())));
+
+        client1.addMessage(new NetworkMessageChat(TYPE, client1.getId(), "hello"));
+        final List<NetworkMessage> received = new ArrayList<>();
+        update(() ->
+        {
+            received.addAll(client2.getMessages());
+            return !received.isEmpty();
+        }, server, client1, client2);
+
+        assertEquals(client1.getId(), received.get(0).getClientId());
+        assertEquals("hello", ((NetworkMessageChat) received.get(0)).getMessage());
+
+        client2.setName("renamed");
+        update(() -> "renamed".equals(listener1.clients.get(Integer.valueOf(client2.getId()))),
+               server,
+               client1,
+               client2);
+
+        assertEquals("renamed", serverListener.clients.get(Integer.valueOf(client2.getId())));
+
+        final Integer id1 = Integer.valueOf(client1.getId());
+        client1.disconnect();
+        update(() -> !listener2.clients.containsKey(id1) && server.getNumberOfClients() == 1, server, client2);
+
+        assertTrue(listener1.terminated);
+
+        server.disconnect();
+        update(() -> listener2.terminated, server, client2);
+    }
+
+    /**
+     * Test connection, messages, rename and disconnection.
+     */
+    @Test
+    public void testConnection()
+    {
+        checkConnection(NetworkProtocol.TCP);
+    }
+
+    /**
+     * Test long names are written with an unsigned length, and too long names rejected.
+     */
+    @Test
+    public void testLongName()
+    {
+        final char[] chars = new char[40000];
+        Arrays.fill(chars, 'a');
+        chars[chars.length - 1] = '\u00e9';
+        final String name = new String(chars);
+
+        final ByteBuffer frame = ByteBuffer.allocate(NetworkTransport.getSize(name) + Integer.BYTES);
+        NetworkTransport.putString(frame, name);
+        frame.putInt(1);
+        frame.flip();
+
+        assertEquals(name, NetworkTransport.getString(frame));
+        assertEquals(1, frame.getInt());
+
+        final char[] max = new char[NetworkTransport.STRING_MAX + 1];
+        Arrays.fill(max, 'a');
+        assertThrows(() -> NetworkTransport.putString(ByteBuffer.allocate(max.length * 2), new String(max)),
+                     "Invalid argument: 65536 is not inferior or equal to 65535");
+    }
+
+    /**
+     * Test connection, messages, rename and disconnection over datagrams.
+     */
+    @Test
+    public void testConnectionDatagram()
+    {
+        checkConnection(NetworkProtocol.UDP);
+    }
+
+    /**
+     * Test messages of a tick coalesced in batches smaller than the messages, with order kept.
+     */
+    @Test
+    public void testBatch()
+    {
+        final ServerImpl server = new ServerImpl(DECODER);
+        assertThrows(() -> server.setMaxBatchSize(0), "Invalid argument: 0 is not strictly superior to 0");
+
+        server.setMaxBatchSize(64);
+        server.start("server", 0);
+
+        final Listener listener1 = new Listener();
+        final Listener listener2 = new Listener();
+        final ClientImpl client1 = connect(server, "client1", listener1);
+        final ClientImpl client2 = connect(server, "client2", listener2);
+        update(() -> listener1.established && listener2.established, server, client1, client2);
+
+        final int count = 100;
+        for (int i = 0; i < count; i++)
+        {
+            final int dest = i % 2 == 0 ? -1 : client1.getId();
+            client1.addMessage(new NetworkMessageChat(TYPE, client1.getId(), dest, String.valueOf(i)));
+        }
+        final List<NetworkMessage> received1 = new ArrayList<>();
+        final List<NetworkMessage> received2 = new ArrayList<>();
+        update(() ->
+        {
+            received1.addAll(client1.getMessages());
+            received2.addAll(client2.getMessages());
+            return received1.size() == count && received2.size() == count / 2;
+        }, server, client1, client2);
+
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(String.valueOf(i), ((NetworkMessageChat) received1.get(i)).getMessage());
+        }
+        for (int i = 0; i < count / 2; i++)
+        {
+            assertEquals(String.valueOf(i * 2), ((NetworkMessageChat) received2.get(i)).getMessage());
+        }
+
+        client1.disconnect();
+        client2.disconnect();
+        server.disconnect();
+    }
+
+    /**
+     * Test compressed messages.
+     */
+    @Test
+    public void testCompression()
+    {
+        final ServerImpl server = new ServerImpl(DECODER);
+        server.setCompression(64, null);
+        server.start("server", 0);
+
+        final Listener listener1 = new Listener();
+        final ClientImpl client1 = connect(server, "client1", listener1);
+        client1.setCompression(64, null);
+        final Listener listener2 = new Listener();
+        final ClientImpl client2 = connect(server, "client2", listener2);
+        client2.setCompression(64, null);
+        update(() -> listener1.established && listener2.established, server, client1, client2);
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50; i++)
+        {
+            builder.append("compressed ");
+        }
+        final String text = builder.toString();
+        client1.addMessage(new NetworkMessageChat(TYPE, client1.getId(), "small"));
+        client1.addMessage(new NetworkMessageChat(TYPE, client1.getId(), text));
+        final List<NetworkMessage> received = new ArrayList<>();
+        update(() ->
+        {
+            received.addAll(client2.getMessages());
+            return received.size() == 2;
+        }, server, client1, client2);
+
+        assertEquals("small", ((NetworkMessageChat) received.get(0)).getMessage());
+        assertEquals(text, ((NetworkMessageChat) received.get(1)).getMessage());
+        assertTrue(client1.getCompressionRatio() < 0.5);
+        assertTrue(server.getCompressionRatio() < 0.5);
+        assertTrue(server.getCompressionTime() > 0L);
+        assertThrows(() -> server.setCompression(-1, null), "Invalid argument: -1 is not superior or equal to 0");
+
+        client1.disconnect();
+        client2.disconnect();
+        server.disconnect();
+    }
+
+    /**
+     * Test metrics of messages, round trip time and disconnections.
+     */
+    @Test
+    public void testMetrics()
+    {
+        final ServerImpl server = new ServerImpl(DECODER);
+        server.start("server", 0);
+
+        final Listener listener1 = new Listener();
+        final ClientImpl client1 = connect(server, "client1", listener1);
+        final Listener listener2 = new Listener();
+        final ClientImpl client2 = connect(server, "client2", listener2);
+        update(() -> listener1.established && listener2.established, server, client1, client2);
+
+        final int id1 = client1.getId();
+        final int id2 = client2.getId();
+        client1.addMessage(new NetworkMessageChat(TYPE, id1, "metrics"));
+        update(() -> client2.getMetrics().getMessagesIn(TYPE) == 1L
+                     && server.getMetrics().getRtt(id1) >= 0
+                     && server.getMetrics().getRtt(id2) >= 0
+                     && client1.getMetrics().getRtt(id1) >= 0,
+               server,
+               client1,
+               client2);
+
+        final NetworkMetrics metrics = server.getMetrics();
+        assertEquals(1L, client1.getMetrics().getMessagesOut(TYPE));
+        assertEquals(client1.getMetrics().getBytesOut(TYPE), metrics.getBytesIn(TYPE));
+        assertEquals(1L, metrics.getMessagesIn(TYPE));
+        assertEquals(1L, metrics.getMessagesOut(TYPE));
+        assertEquals(1L, metrics.getEncodeTime().getCount());
+        assertEquals(1L, metrics.getDecodeTime().getCount());
+        assertEquals(1, metrics.getQueueInPeak());
+        assertEquals(2, metrics.getRtts().size());
+        assertEquals(-1, client1.getMetrics().getRtt(id2));
+
+        server.removeClient(Integer.valueOf(id2));
+        client1.disconnect();
+        update(() -> !client2.isConnected() && server.getNumberOfClients() == 0, server, client2);
+
+        assertEquals(1L, server.getMetrics().getDisconnects(DisconnectReason.KICKED));
+        assertEquals(1L, server.getMetrics().getDisconnects(DisconnectReason.LEFT));
+        assertEquals(0L, server.getMetrics().getDisconnects(DisconnectReason.LOST));
+        assertTrue(server.getMetrics().getRtts().isEmpty());
+        assertEquals(1L, client1.getMetrics().getDisconnects(DisconnectReason.SHUTDOWN));
+        assertEquals(1L, client2.getMetrics().getDisconnects(DisconnectReason.LOST));
+
+        server.disconnect();
+    }
+
+    /**
+     * Check transport closed when listen failed, before its network thread started.
+     * 
+     * @param protocol The transport protocol.
+     * @param port The used port.
+     */
+    private static void checkCloseNotStarted(NetworkProtocol protocol, int port)
+    {
+        final Transport transport = Transport.create(protocol, "transport");
+
+        assertThrowsIo(() -> transport.listen(port), "");
+
+        transport.close();
+        transport.close();
+
+        assertThrows(ClosedSelectorException.class, () -> transport.listen(0), null);
+        assertThrows(() -> new ServerImpl(DECODER, protocol).start("server", port), "Cannot create the server !");
+    }
+
+    /**
+     * Test transports closed when listen failed, before their network thread started.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testCloseNotStarted() throws IOException
+    {
+        try (ServerSocket used = new ServerSocket(0))
+        {
+            checkCloseNotStarted(NetworkProtocol.TCP, used.getLocalPort());
+        }
+        try (DatagramSocket used = new DatagramSocket(0))
+        {
+            checkCloseNotStarted(NetworkProtocol.UDP, used.getLocalPort());
+        }
+    }
+
+    /**
+     * Connection listener mock.
+     */
+    private static final class Listener implements ConnectionListener
+    {
+        /** Connected clients. */
+        private final Map<Integer, String> clients = new ConcurrentHashMap<>();
+        /** Message of the day. */
+        private String motd;
+        /** Established flag. */
+        private boolean established;
+        /** Terminated flag. */
+        private boolean terminated;
+
+        /**
+         * Create listener.
+         */
+        Listener()
+        {
+            super();
+        }
+
+        @Override
+        public void notifyClientConnected(Integer id, String name)
+        {
+            clients.put(id, name);
+        }
+
+        @Override
+        public void notifyClientDisconnected(Integer id, String name)
+        {
+            clients.remove(id);
+        }
+
+        @Override
+        public void notifyClientNameChanged(Integer id, String name)
+        {
+            clients.put(id, name);
+        }
+
+        @Override
+        public void notifyConnectionEstablished(Integer id, String name)
+        {
+            established = true;
+        }
+
+        @Override
+        public void notifyMessageOfTheDay(String messageOfTheDay)
+        {
+            motd = messageOfTheDay;
+        }
+
+        @Override
+        public void notifyConnectionTerminated(Integer id)
+        {
+            terminated = true;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.lockstep;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageTurn;
+
+/**
+ * Test {@link Lockstep}.
+ */
+public final class LockstepTest
+{
+    /** Turn message type. */
+    private static final byte TYPE = 1;
+    /** Ticks per turn. */
+    private static final int TURN_LENGTH = 3;
+    /** Input delay in turns. */
+    private static final int INPUT_DELAY = 2;
+
+    /**
+     * Create a lockstep peer.
+     * 
+     * @param player The local player id.
+     * @param simulation The simulation reference.
+     * @return The lockstep peer.
+     */
+    private static Lockstep create(int player, Simulation simulation)
+    {
+        final Lockstep lockstep = new Lockstep(simulation, TYPE, TURN_LENGTH, INPUT_DELAY);
+        lockstep.setClientId(Integer.valueOf(player));
+        lockstep.addPlayer(0);
+        lockstep.addPlayer(1);
+        return lockstep;
+    }
+
+    /**
+     * Send messages to the other peer, through encoding.
+     * 
+     * @param from The source peer.
+     * @param to The destination peer.
+     */
+    private static void exchange(Lockstep from, Lockstep to)
+    {
+        for (final NetworkMessage message : from.getNetworkMessages())
+        {
+            final ByteBuffer buffer = ByteBuffer.allocate(1024);
+            message.encode(buffer);
+            buffer.flip();
+            final NetworkMessageTurn received = new NetworkMessageTurn();
+            received.decode(message.getType(), message.getClientId(), message.getClientDestId(), buffer);
+            to.applyMessage(received);
+        }
+        from.clearNetworkMessages();
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new Lockstep(new Counter(0), TYPE, 0, 1),
+                     "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new Lockstep(new Counter(0), TYPE, 1, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test peers simulation with commands, and replay.
+     */
+    @Test
+    public void testLockstep()
+    {
+        final Lockstep peer0 = create(0, new Counter(0));
+        final Lockstep peer1 = create(1, new Counter(0));
+        final List<Integer> desync = new ArrayList<>();
+        peer0.addListener((turn, player, local, remote) -> desync.add(Integer.valueOf(turn)));
+        peer1.addListener((turn, player, local, remote) -> desync.add(Integer.valueOf(turn)));
+
+        for (int frame = 0; frame < 100; frame++)
+        {
+            if (frame % 7 == 0)
+            {
+                peer0.addCommand(new byte[]
+                {
+                    (byte) (frame % 5)
+                });
+            }
+            if (frame % 11 == 0)
+            {
+                peer1.addCommand(new byte[]
+                {
+                    (byte) -(frame % 3)
+                });
+            }
+            peer0.update(1.0);
+            peer1.update(1.0);
+            exchange(peer0, peer1);
+            exchange(peer1, peer0);
+        }
+
+        assertEquals(peer0.getTick(), peer1.getTick());
+        assertTrue(peer0.getLog().getTurns() > 30);
+        assertEquals(peer0.getLog().getChecksums(), peer1.getLog().getChecksums());
+        assertTrue(desync.isEmpty());
+
+        final Counter counter = new Counter(0);
+        assertEquals(peer0.getLog().getChecksums(), peer0.getLog().replay(counter, TURN_LENGTH));
+        assertTrue(counter.positions[0] != 0L);
+        assertTrue(counter.positions[1] != 0L);
+    }
+
+    /**
+     * Test simulation waiting for missing commands.
+     */
+    @Test
+    public void testWait()
+    {
+        final Lockstep peer0 = create(0, new Counter(0));
+        for (int frame = 0; frame < 20; frame++)
+        {
+            peer0.update(1.0);
+        }
+        assertEquals(TURN_LENGTH * INPUT_DELAY, peer0.getTick());
+
+        final Lockstep peer1 = create(1, new Counter(0));
+        peer1.update(1.0);
+        exchange(peer1, peer0);
+        peer0.update(1.0);
+
+        assertTrue(peer0.getTick() > TURN_LENGTH * INPUT_DELAY);
+    }
+
+    /**
+     * Test desync detection.
+     */
+    @Test
+    public void testDesync()
+    {
+        final Lockstep peer0 = create(0, new Counter(0));
+        final Lockstep peer1 = create(1, new Counter(1));
+        final List<Integer> desync = new ArrayList<>();
+        peer0.addListener((turn, player, local, remote) ->
+        {
+            assertEquals(1, player);
+            assertFalse(local.equals(remote));
+            desync.add(Integer.valueOf(turn));
+        });
+
+        for (int frame = 0; frame < 30; frame++)
+        {
+            peer0.update(1.0);
+            peer1.update(1.0);
+            exchange(peer0, peer1);
+            exchange(peer1, peer0);
+        }
+        assertFalse(desync.isEmpty());
+        assertEquals(0, desync.get(0).intValue());
+    }
+
+    /**
+     * Deterministic simulation, moving players by their command speed.
+     */
+    private static final class Counter implements Simulation
+    {
+        /** Players position. */
+        private final long[] positions = new long[2];
+        /** Players speed. */
+        private final long[] speeds = new long[2];
+        /** Drift per tick, to simulate desync. */
+        private final long drift;
+
+        /**
+         * Create simulation.
+         * 
+         * @param drift The drift per tick.
+         */
+        Counter(long drift)
+        {
+            super();
+
+            this.drift = drift;
+        }
+
+        @Override
+        public void execute(int player, ByteBuffer command)
+        {
+            speeds[player] = command.get();
+        }
+
+        @Override
+        public void update(double extrp)
+        {
+            for (int i = 0; i < positions.length; i++)
+            {
+                positions[i] += speeds[i] + drift;
+            }
+        }
+
+        @Override
+        public void write(ByteBuffer state)
+        {
+            for (final long position : positions)
+            {
+                state.putLong(position);
+            }
+        }
+    }
+}
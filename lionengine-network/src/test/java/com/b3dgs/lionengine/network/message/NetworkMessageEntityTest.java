@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link NetworkMessageEntity}.
+ */
+public final class NetworkMessageEntityTest
+{
+    /**
+     * Message element mock.
+     */
+    private enum Element
+    {
+        /** Boolean. */
+        BOOLEAN,
+        /** Char. */
+        CHAR,
+        /** Byte. */
+        BYTE,
+        /** Short. */
+        SHORT,
+        /** Integer. */
+        INT,
+        /** Double. */
+        DOUBLE,
+        /** Not defined. */
+        NONE;
+    }
+
+    /**
+     * Message mock.
+     */
+    private static final class Message extends NetworkMessageEntity<Element>
+    {
+        /**
+         * Create message.
+         */
+        Message()
+        {
+            super();
+        }
+
+        /**
+         * Create message.
+         * 
+         * @param entityId The entity id.
+         */
+        Message(short entityId)
+        {
+            super((byte) 1, entityId, -1);
+        }
+    }
+
+    /**
+     * Test encode and decode.
+     */
+    @Test
+    void testCodec()
+    {
+        final Message message = new Message((short) 42);
+        message.addAction(Element.DOUBLE, -1.5);
+        message.addAction(Element.BOOLEAN, true);
+        message.addAction(Element.CHAR, 'c');
+        message.addAction(Element.BYTE, (byte) -3);
+        message.addAction(Element.SHORT, (short) 1000);
+        message.addAction(Element.INT, 123_456_789);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        message.encode(buffer);
+        buffer.flip();
+
+        final Message decoded = new Message();
+        decoded.decode((byte) 1, 2, 3, buffer);
+
+        assertEquals(0, buffer.remaining());
+        assertEquals(1, decoded.getType());
+        assertEquals(2, decoded.getClientId());
+        assertEquals(3, decoded.getClientDestId());
+        assertEquals(42, decoded.getEntityId());
+        assertTrue(decoded.getActionBoolean(Element.BOOLEAN));
+        assertEquals('c', decoded.getActionChar(Element.CHAR));
+        assertEquals(-3, decoded.getActionByte(Element.BYTE));
+        assertEquals(1000, decoded.getActionShort(Element.SHORT));
+        assertEquals(123_456_789, decoded.getActionInteger(Element.INT));
+        assertEquals(-1.5, decoded.getActionDouble(Element.DOUBLE));
+        assertFalse(decoded.hasAction(Element.NONE));
+    }
+
+    /**
+     * Test clear and reuse.
+     */
+    @Test
+    void testClear()
+    {
+        final Message message = new Message((short) 1);
+        message.addAction(Element.INT, 1);
+        message.addAction(Element.INT, 2);
+
+        assertEquals(2, message.getActionInteger(Element.INT));
+
+        message.clear();
+
+        assertFalse(message.hasAction(Element.INT));
+        assertThrows(() -> message.getActionInteger(Element.INT), "Action not found: " + Element.INT.name());
+
+        message.addAction(Element.SHORT, (short) 3);
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        message.encode(buffer);
+
+        final int header = Short.BYTES + Byte.BYTES;
+        final int action = Byte.BYTES + Byte.BYTES + Short.BYTES;
+        assertEquals(header + action, buffer.position());
+    }
+
+    /**
+     * Test encode and decode with all actions defined.
+     */
+    @Test
+    void testCodecFull()
+    {
+        final ByteBuffer source = ByteBuffer.allocate(Short.BYTES + Byte.BYTES + NetworkMessageEntity.MAX_ACTIONS * 3);
+        source.putShort((short) 7);
+        source.put((byte) NetworkMessageEntity.MAX_ACTIONS);
+        for (int ordinal = 0; ordinal < NetworkMessageEntity.MAX_ACTIONS; ordinal++)
+        {
+            source.put((byte) ordinal);
+            source.put((byte) 3);
+            source.put((byte) ordinal);
+        }
+        source.flip();
+
+        final Message decoded = new Message();
+        decoded.decode((byte) 1, 2, 3, source.duplicate());
+
+        assertEquals(7, decoded.getEntityId());
+        assertEquals(Element.NONE.ordinal(), decoded.getActionByte(Element.NONE));
+
+        final ByteBuffer encoded = ByteBuffer.allocate(source.capacity());
+        decoded.encode(encoded);
+        encoded.flip();
+
+        assertEquals(source, encoded);
+
+        source.put(2, (byte) 1);
+        source.put(3, (byte) NetworkMessageEntity.MAX_ACTIONS);
+        assertThrows(() -> new Message().decode((byte) 1, 2, 3, source),
+                     "Invalid argument: 255 is not strictly inferior to 255");
+    }
+
+    /**
+     * Test action with wrong kind.
+     */
+    @Test
+    void testWrongKind()
+    {
+        final Message message = new Message((short) 1);
+        message.addAction(Element.INT, 1);
+
+        assertThrows(() -> message.getActionShort(Element.INT), "Action not found: " + Element.INT.name());
+    }
+}
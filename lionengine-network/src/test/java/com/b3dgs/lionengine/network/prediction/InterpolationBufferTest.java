@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.prediction;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+
+/**
+ * Test {@link InterpolationBuffer}.
+ */
+public final class InterpolationBufferTest
+{
+    /**
+     * Test invalid capacity.
+     */
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(() -> new InterpolationBuffer(0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test interpolation and clamping.
+     */
+    @Test
+    public void testApply()
+    {
+        final InterpolationBuffer buffer = new InterpolationBuffer(4);
+        final Transformable transformable = new TransformableModel();
+        assertFalse(buffer.apply(0.0, transformable));
+
+        buffer.add(10, 0.0, 0.0);
+        buffer.add(20, 10.0, -20.0);
+        buffer.add(15, 99.0, 99.0);
+
+        assertEquals(2, buffer.size());
+        assertTrue(buffer.apply(15.0, transformable));
+        assertEquals(5.0, transformable.getX());
+        assertEquals(-10.0, transformable.getY());
+
+        buffer.apply(5.0, transformable);
+        assertEquals(0.0, transformable.getX());
+
+        buffer.apply(25.0, transformable);
+        assertEquals(10.0, transformable.getX());
+    }
+
+    /**
+     * Test oldest location dropped when full.
+     */
+    @Test
+    public void testOverflow()
+    {
+        final InterpolationBuffer buffer = new InterpolationBuffer(2);
+        final Transformable transformable = new TransformableModel();
+        buffer.add(0, 0.0, 0.0);
+        buffer.add(1, 1.0, 0.0);
+        buffer.add(2, 2.0, 0.0);
+
+        assertEquals(2, buffer.size());
+        buffer.apply(0.0, transformable);
+        assertEquals(1.0, transformable.getX());
+        buffer.apply(1.5, transformable);
+        assertEquals(1.5, transformable.getX());
+    }
+}
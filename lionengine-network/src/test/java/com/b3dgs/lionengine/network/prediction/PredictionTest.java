@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.prediction;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageInput;
+import com.b3dgs.lionengine.network.message.NetworkMessageState;
+import com.b3dgs.lionengine.network.purview.Networkable;
+
+/**
+ * Test {@link PredictionClient} with {@link PredictionServer}.
+ */
+public final class PredictionTest
+{
+    /** Input type. */
+    private static final byte TYPE_INPUT = 1;
+    /** State type. */
+    private static final byte TYPE_STATE = 2;
+    /** Client id. */
+    private static final int CLIENT = 3;
+    /** Predicted entity. */
+    private static final short PREDICTED = 1;
+    /** Remote entity. */
+    private static final short REMOTE = 2;
+    /** One way latency in ticks. */
+    private static final int LATENCY = 5;
+    /** Remote render delay in ticks. */
+    private static final int DELAY = 3;
+    /** Horizontal move input. */
+    private static final byte[] RIGHT = new byte[]
+    {
+        1, 0
+    };
+
+    /** Input model, moving by input value. */
+    private static final InputModel MODEL = (transformable, input) -> transformable.moveLocation(1.0,
+                                                                                                  input[0],
+                                                                                                  input[1]);
+
+    /**
+     * Get the sent messages through encoding, and clear them.
+     * 
+     * @param networkable The source.
+     * @param factory The message factory.
+     * @return The decoded messages.
+     */
+    private static List<NetworkMessage> poll(Networkable networkable, Supplier<NetworkMessage> factory)
+    {
+        final List<NetworkMessage> messages = new ArrayList<>();
+        for (final NetworkMessage message : networkable.getNetworkMessages())
+        {
+            final ByteBuffer buffer = ByteBuffer.allocate(1024);
+            message.encode(buffer);
+            buffer.flip();
+            final NetworkMessage decoded = factory.get();
+            decoded.decode(message.getType(), message.getClientId(), message.getClientDestId(), buffer);
+            messages.add(decoded);
+        }
+        networkable.clearNetworkMessages();
+        return messages;
+    }
+
+    /** Client prediction. */
+    private final PredictionClient client = new PredictionClient(MODEL, TYPE_INPUT, DELAY);
+    /** Server authority. */
+    private final PredictionServer server = new PredictionServer(MODEL, TYPE_STATE);
+    /** Client predicted mover. */
+    private final Transformable predicted = new TransformableModel();
+    /** Client remote mover. */
+    private final Transformable remote = new TransformableModel();
+    /** Server owned mover. */
+    private final Transformable owned = new TransformableModel();
+    /** Server other mover. */
+    private final Transformable other = new TransformableModel();
+    /** Messages to server. */
+    private final Deque<Collection<NetworkMessage>> toServer = new ArrayDeque<>();
+    /** Messages to client. */
+    private final Deque<Collection<NetworkMessage>> toClient = new ArrayDeque<>();
+
+    /**
+     * Create test.
+     */
+    public PredictionTest()
+    {
+        super();
+
+        client.setClientId(Integer.valueOf(CLIENT));
+        client.setPredicted(PREDICTED, predicted);
+        client.addRemote(REMOTE, remote);
+        server.addMover(CLIENT, PREDICTED, owned);
+        server.addMover(-1, REMOTE, other);
+        for (int i = 0; i < LATENCY; i++)
+        {
+            toServer.add(new ArrayList<>());
+            toClient.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Run one tick, with latency.
+     * 
+     * @param input The client input.
+     * @param lost <code>true</code> to lose the client input message.
+     */
+    private void tick(byte[] input, boolean lost)
+    {
+        client.update(input);
+        final List<NetworkMessage> inputs = poll(client, NetworkMessageInput::new);
+        toServer.add(lost ? new ArrayList<>() : inputs);
+        for (final NetworkMessage message : toServer.poll())
+        {
+            server.applyMessage(message);
+        }
+        other.moveLocation(1.0, 1.0, 0.0);
+        server.update();
+        toClient.add(poll(server, NetworkMessageState::new));
+        for (final NetworkMessage message : toClient.poll())
+        {
+            client.applyMessage(message);
+        }
+    }
+
+    /**
+     * Test prediction without misprediction, with lost input messages covered by redundancy.
+     */
+    @Test
+    public void testPrediction()
+    {
+        tick(RIGHT, false);
+        assertEquals(1.0, predicted.getX());
+        assertEquals(0.0, owned.getX());
+
+        for (int i = 1; i < 100; i++)
+        {
+            tick(RIGHT, i % 5 == 0);
+            assertEquals(i + 1.0, predicted.getX());
+            assertEquals(0.0, client.getCorrection());
+        }
+        assertTrue(client.getPending() >= 2 * LATENCY - 1);
+        assertTrue(client.getPending() <= 2 * LATENCY + 1);
+
+        for (int i = 0; i < 3 * LATENCY; i++)
+        {
+            tick(new byte[2], false);
+        }
+        assertEquals(owned.getX(), predicted.getX());
+        assertEquals(100.0, predicted.getX());
+    }
+
+    /**
+     * Test reconciliation when server state differs from prediction.
+     */
+    @Test
+    public void testReconciliation()
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            tick(RIGHT, false);
+        }
+        owned.teleport(owned.getX(), 50.0);
+        tick(RIGHT, false);
+        double correction = 0.0;
+        for (int i = 1; i < 3 * LATENCY; i++)
+        {
+            tick(RIGHT, false);
+            correction = Math.max(correction, client.getCorrection());
+        }
+        assertEquals(50.0, correction);
+        assertEquals(50.0, predicted.getY());
+        assertEquals(10.0 + 3 * LATENCY, predicted.getX());
+        assertEquals(0.0, client.getCorrection());
+    }
+
+    /**
+     * Test remote mover interpolation, in the past of server.
+     */
+    @Test
+    public void testRemote()
+    {
+        for (int i = 0; i < 50; i++)
+        {
+            tick(RIGHT, false);
+        }
+        final double last = remote.getX();
+        tick(RIGHT, false);
+
+        assertEquals(1.0, remote.getX() - last);
+        assertEquals(other.getX() - LATENCY - DELAY - 1.0, remote.getX());
+    }
+}
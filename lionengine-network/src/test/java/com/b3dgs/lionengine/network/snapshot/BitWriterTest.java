@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link BitWriter} and {@link BitReader}.
+ */
+public final class BitWriterTest
+{
+    /**
+     * Test write and read values.
+     */
+    @Test
+    public void testReadWrite()
+    {
+        final Random random = new Random(0L);
+        final int[] values = new int[1000];
+        final int[] bits = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            bits[i] = random.nextInt(Integer.SIZE + 1);
+            values[i] = bits[i] == 0 ? 0 : random.nextInt() >>> Integer.SIZE - bits[i];
+        }
+        final int[] signed = new int[]
+        {
+            0, 1, -1, 63, -64, Integer.MAX_VALUE, Integer.MIN_VALUE
+        };
+
+        final BitWriter writer = new BitWriter();
+        for (int i = 0; i < values.length; i++)
+        {
+            writer.write(values[i], bits[i]);
+            writer.writeUnsigned(values[i]);
+        }
+        for (final int value : signed)
+        {
+            writer.writeSigned(value);
+        }
+        final BitReader reader = new BitReader(writer.toByteArray());
+
+        for (int i = 0; i < values.length; i++)
+        {
+            assertEquals(values[i], reader.read(bits[i]));
+            assertEquals(values[i], reader.readUnsigned());
+        }
+        for (final int value : signed)
+        {
+            assertEquals(value, reader.readSigned());
+        }
+    }
+}
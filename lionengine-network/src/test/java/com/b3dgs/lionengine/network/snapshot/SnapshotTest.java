@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2013-2017 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package com.b3dgs.lionengine.network.snapshot;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+
+/**
+ * Test {@link SnapshotServer} and {@link SnapshotClient}.
+ */
+public final class SnapshotTest
+{
+    /** Snapshot type. */
+    private static final byte TYPE_SNAPSHOT = 1;
+    /** Acknowledge type. */
+    private static final byte TYPE_ACK = 2;
+    /** Client id. */
+    private static final Integer CLIENT = Integer.valueOf(3);
+    /** Entities number. */
+    private static final int ENTITIES = 200;
+
+    /**
+     * Get the sent messages, and clear them.
+     * 
+     * @param networkable The networkable reference.
+     * @return The sent messages.
+     */
+    private static List<NetworkMessageSnapshot> poll(SnapshotServer networkable)
+    {
+        final List<NetworkMessageSnapshot> messages = new ArrayList<>();
+        for (final NetworkMessage message : networkable.getNetworkMessages())
+        {
+            messages.add((NetworkMessageSnapshot) message);
+        }
+        networkable.clearNetworkMessages();
+        return messages;
+    }
+
+    /**
+     * Transmit snapshot to client, and its acknowledge to server.
+     * 
+     * @param server The server reference.
+     * @param client The client reference.
+     * @return The transmitted snapshot.
+     */
+    private static NetworkMessageSnapshot transmit(SnapshotServer server, SnapshotClient client)
+    {
+        server.update();
+        final List<NetworkMessageSnapshot> messages = poll(server);
+        assertEquals(1, messages.size());
+        final NetworkMessageSnapshot snapshot = messages.get(0);
+        assertEquals(CLIENT.intValue(), snapshot.getClientDestId());
+
+        client.applyMessage(snapshot);
+        for (final NetworkMessage ack : client.getNetworkMessages())
+        {
+            assertEquals(NetworkMessage.DEST_SERVER, ack.getClientDestId());
+            server.applyMessage(ack);
+        }
+        client.clearNetworkMessages();
+        return snapshot;
+    }
+
+    /**
+     * Check client replicas are equal to server entities.
+     * 
+     * @param server The server entities.
+     * @param client The client replicas.
+     */
+    private static void assertReplicated(Entity[] server, Entity[] client)
+    {
+        for (int i = 0; i < server.length; i++)
+        {
+            assertEquals(server[i].fields[0], client[i].fields[0]);
+            assertEquals(server[i].fields[1], client[i].fields[1]);
+        }
+    }
+
+    /**
+     * Test full then delta snapshots, with bandwidth reduction.
+     */
+    @Test
+    public void testDelta()
+    {
+        final SnapshotServer server = new SnapshotServer(TYPE_SNAPSHOT, TYPE_ACK);
+        final SnapshotClient client = new SnapshotClient(TYPE_SNAPSHOT, TYPE_ACK);
+        client.setClientId(CLIENT);
+        server.notifyClientConnected(CLIENT, "client");
+
+        final Entity[] entities = new Entity[ENTITIES];
+        final Entity[] replicas = new Entity[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            entities[i] = new Entity(i * 160, i * 320);
+            replicas[i] = new Entity(0, 0);
+            server.addReplicable((short) i, entities[i]);
+            client.addReplicable((short) i, replicas[i]);
+        }
+
+        final NetworkMessageSnapshot full = transmit(server, client);
+        assertEquals(-1, full.getBaseline());
+        client.apply(1.0);
+        assertReplicated(entities, replicas);
+
+        for (int i = 0; i < ENTITIES; i += 10)
+        {
+            entities[i].fields[0] += 16;
+            entities[i].fields[1] -= 8;
+        }
+        final NetworkMessageSnapshot delta = transmit(server, client);
+        assertEquals(full.getTick(), delta.getBaseline());
+        client.apply(1.0);
+        assertReplicated(entities, replicas);
+
+        // Message based replication: two integer actions per entity
+        final int messages = ENTITIES * (Short.BYTES + Byte.BYTES + 2 * (Byte.BYTES + Byte.BYTES + Integer.BYTES));
+        Verbose.info("Snapshot bytes: full ",
+                     String.valueOf(full.getData().length),
+                     ", delta ",
+                     String.valueOf(delta.getData().length),
+                     ", messages ",
+                     String.valueOf(messages));
+
+        assertTrue(full.getData().length * 2 < messages);
+        assertTrue(delta.getData().length * 10 < full.getData().length);
+    }
+
+    /**
+     * Test entities creation, removal and unacknowledged baseline.
+     */
+    @Test
+    public void testCreateRemove()
+    {
+        final SnapshotServer server = new SnapshotServer(TYPE_SNAPSHOT, TYPE_ACK);
+        final SnapshotClient client = new SnapshotClient(TYPE_SNAPSHOT, TYPE_ACK);
+        client.setClientId(CLIENT);
+        server.notifyClientConnected(CLIENT, "client");
+
+        final Entity a = new Entity(1, 2);
+        final Entity b = new Entity(3, 4);
+        final Entity replicaA = new Entity(0, 0);
+        final Entity replicaB = new Entity(0, 0);
+        server.addReplicable((short) -5, a);
+        client.addReplicable((short) -5, replicaA);
+        client.addReplicable((short) 7, replicaB);
+
+        transmit(server, client);
+        server.addReplicable((short) 7, b);
+        a.fields[0] = 10;
+
+        // Lost snapshot, next one still based on the acknowledged one
+        final int acked = server.getTick();
+        server.update();
+        server.clearNetworkMessages();
+
+        final NetworkMessageSnapshot created = transmit(server, client);
+        assertEquals(acked, created.getBaseline());
+        client.apply(1.0);
+        assertReplicated(new Entity[]
+        {
+            a, b
+        }, new Entity[]
+        {
+            replicaA, replicaB
+        });
+
+        server.removeReplicable((short) -5);
+        a.fields[0] = 20;
+        transmit(server, client);
+        client.apply(1.0);
+
+        assertEquals(10, replicaA.fields[0]);
+        assertEquals(server.getTick(), client.getTick());
+    }
+
+    /**
+     * Test interpolation between snapshots.
+     */
+    @Test
+    public void testInterpolation()
+    {
+        final SnapshotServer server = new SnapshotServer(TYPE_SNAPSHOT, TYPE_ACK);
+        final SnapshotClient client = new SnapshotClient(TYPE_SNAPSHOT, TYPE_ACK);
+        server.notifyClientConnected(CLIENT, "client");
+        client.setClientId(CLIENT);
+
+        final Entity entity = new Entity(0, 100);
+        final Entity replica = new Entity(0, 0);
+        server.addReplicable((short) 0, entity);
+        client.addReplicable((short) 0, replica);
+
+        transmit(server, client);
+        entity.fields[0] = 100;
+        entity.fields[1] = 0;
+        transmit(server, client);
+
+        client.apply(0.25);
+        assertEquals(25, replica.fields[0]);
+        assertEquals(75, replica.fields[1]);
+
+        client.apply(1.0);
+        assertEquals(100, replica.fields[0]);
+        assertEquals(0, replica.fields[1]);
+
+        server.notifyClientDisconnected(CLIENT, "client");
+        server.update();
+        final Collection<NetworkMessage> messages = server.getNetworkMessages();
+        assertTrue(messages.isEmpty());
+    }
+
+    /**
+     * Replicable mock with two interpolated fields.
+     */
+    private static final class Entity implements Replicable
+    {
+        /** Fields. */
+        private final int[] fields;
+
+        /**
+         * Create entity.
+         * 
+         * @param x The first field.
+         * @param y The second field.
+         */
+        Entity(int x, int y)
+        {
+            super();
+
+            fields = new int[]
+            {
+                x, y
+            };
+        }
+
+        @Override
+        public int getReplicatedFields()
+        {
+            return fields.length;
+        }
+
+        @Override
+        public int getReplicatedField(int index)
+        {
+            return fields[index];
+        }
+
+        @Override
+        public void setReplicatedField(int index, int value)
+        {
+            fields[index] = value;
+        }
+
+        @Override
+        public boolean isInterpolated(int index)
+        {
+            return true;
+        }
+    }
+}